@@ -41,7 +41,12 @@ enum DecryptionState {
      * The trustees have to partial- partial-decrypt the result and spoiled ballots for each missing trustee
      * with their backup they received for this trustee.
      */
-  PP_DECRYPTION = 'PP_DECRYPTION'
+  PP_DECRYPTION = 'PP_DECRYPTION',
+
+  /**
+     * All decryptions have been uploaded and the result of the election is being evaluated.
+     */
+  EVALUATING = 'EVALUATING'
 
 }
 
@@ -90,7 +95,8 @@ class ElectionState {
     name: 'DECRYPTION',
     subStates: [
       DecryptionState.P_DECRYPTION as string,
-      DecryptionState.PP_DECRYPTION as string
+      DecryptionState.PP_DECRYPTION as string,
+      DecryptionState.EVALUATING as string
     ]
   }
 
@@ -4,6 +4,7 @@ plugins {
     checkstyle
     id("org.springframework.boot") version "3.0.2"
     id("io.spring.dependency-management") version "1.1.0"
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = "pse.e-lection"
@@ -57,6 +58,12 @@ tasks.jacocoTestReport {
     dependsOn(tasks.test)
 }
 
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
+
 checkstyle {
     toolVersion = "10.8.0"
     maxWarnings = 0
@@ -0,0 +1,65 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElGamal;
+import com.sunya.electionguard.Group;
+import com.sunya.electionguard.SchnorrProof;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the verification of the Schnorr proofs of a key upload one by one with the
+ * electionGuard checks and with {@link BatchSchnorrVerification}, for typical trustee counts and
+ * for batches large enough for the multi-exponentiation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchSchnorrVerificationBenchmark {
+
+  @Param({"3", "8", "16", "64"})
+  private int proofCount;
+
+  private List<SchnorrProof> proofs;
+
+  /**
+   * Creates valid proofs for random keys.
+   */
+  @Setup
+  public void setUp() {
+    proofs = new ArrayList<>();
+    for (int i = 0; i < proofCount; i++) {
+      ElGamal.KeyPair pair = ElGamal.elgamal_keypair_from_secret(
+          Group.rand_range_q(Group.TWO_MOD_Q)).orElseThrow();
+      proofs.add(SchnorrProof.make_schnorr_proof(pair, Group.rand_range_q(Group.TWO_MOD_Q)));
+    }
+  }
+
+  /**
+   * Verifies every proof with the checks of electionGuard.
+   */
+  @Benchmark
+  public boolean perProof() {
+    boolean valid = true;
+    for (SchnorrProof proof : proofs) {
+      valid &= proof.isValidVer1() && proof.isValidVer2(proof.publicKey);
+    }
+    return valid;
+  }
+
+  /**
+   * Verifies the proofs with {@link BatchSchnorrVerification}.
+   */
+  @Benchmark
+  public boolean batch() {
+    return BatchSchnorrVerification.verify(proofs);
+  }
+}
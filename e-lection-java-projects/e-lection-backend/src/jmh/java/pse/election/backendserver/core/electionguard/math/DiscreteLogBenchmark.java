@@ -0,0 +1,52 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the decryption of a single option with the worst case result, i.e. every voter selected
+ * it, per magnitude of votes and for two table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiscreteLogBenchmark {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+  private static final BigInteger G = ElectionConstants.STANDARD_CONSTANTS.generator;
+
+  @Param({"1000", "10000", "100000", "1000000", "10000000"})
+  private long votes;
+
+  @Param({"4096", "65536"})
+  private int babySteps;
+
+  private DiscreteLogTable table;
+  private BigInteger value;
+
+  /**
+   * Builds the table and the encoded number of votes.
+   */
+  @Setup
+  public void setUp() {
+    table = DiscreteLogTable.build(ProductAccumulator.modPEngine(), G, babySteps);
+    value = G.modPow(BigInteger.valueOf(votes), P);
+  }
+
+  /**
+   * Solves the discrete logarithm of the encoded number of votes.
+   */
+  @Benchmark
+  public long solve() {
+    return table.solve(value, votes);
+  }
+}
@@ -0,0 +1,81 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the accumulation of a product chain mod p with the current BigInteger based path and
+ * the Montgomery based {@link ProductAccumulator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProductAccumulatorBenchmark {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+
+  @Param({"100", "1000", "10000"})
+  private int chainLength;
+
+  private BigInteger[] factors;
+  private List<Group.ElementModP> elements;
+
+  /**
+   * Creates random factors below p.
+   */
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    factors = new BigInteger[chainLength];
+    elements = new ArrayList<>();
+    for (int i = 0; i < chainLength; i++) {
+      factors[i] = new BigInteger(P.bitLength() - 1, random);
+      elements.add(Group.int_to_p_unchecked(factors[i]));
+    }
+  }
+
+  /**
+   * Multiplies the chain with BigInteger.multiply().mod().
+   */
+  @Benchmark
+  public BigInteger bigIntegerMultiplyMod() {
+    BigInteger product = BigInteger.ONE;
+    for (BigInteger factor : factors) {
+      product = product.multiply(factor).mod(P);
+    }
+    return product;
+  }
+
+  /**
+   * Multiplies the chain with the electionGuard group operation.
+   */
+  @Benchmark
+  public Group.ElementModP groupMultP() {
+    return Group.mult_p(elements);
+  }
+
+  /**
+   * Multiplies the chain with the Montgomery based accumulator.
+   */
+  @Benchmark
+  public BigInteger productAccumulator() {
+    ProductAccumulator accumulator = ProductAccumulator.modP();
+    for (BigInteger factor : factors) {
+      accumulator.multiply(factor);
+    }
+    return accumulator.get();
+  }
+}
@@ -1,9 +1,11 @@
 package pse.election.backendserver.controller;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pse.election.backendserver.payload.error.exception.UnauthorizedAccessException;
 import pse.election.backendserver.payload.request.AuxiliaryKeyRequest;
 import pse.election.backendserver.payload.request.DecryptionRequest;
 import pse.election.backendserver.payload.request.ElgamalKeysAndBackupsRequest;
+import pse.election.backendserver.payload.response.DecryptionUploadResponse;
 import pse.election.backendserver.payload.response.ElectionAuxiliaryKeysResponse;
 import pse.election.backendserver.payload.response.ElectionEncryptedResultResponse;
 import pse.election.backendserver.payload.response.ElgamalKeysAndBackupsResponse;
@@ -93,6 +95,20 @@ public interface ElectionTrusteeAPI {
   ElectionEncryptedResultResponse getEncryptedResult(Long electionId, String email)
       throws UnauthorizedAccessException;
 
+  /**
+   * Getter for a page of the encryption result of an election referenced by an electionId, which
+   * is streamed as newline delimited JSON.
+   *
+   * @param electionId    the id of the election
+   * @param afterBallotId the id of the spoiled ballot the page starts after, null for the first
+   *                      page
+   * @param limit         the maximum number of spoiled ballots of the page, null for all
+   * @param email         is the email of the trustee
+   * @return body writing the page to the response
+   */
+  StreamingResponseBody streamEncryptedResult(Long electionId, Long afterBallotId, Integer limit,
+      String email) throws UnauthorizedAccessException;
+
   /**
    * Setter for the partial decryption results of a trustee for an election referenced by an
    * electionId.
@@ -105,4 +121,50 @@ public interface ElectionTrusteeAPI {
   EmptyResponse setPartialDecryptionResult(Long electionId, DecryptionRequest decryptionRequest,
       String email) throws UnauthorizedAccessException;
 
+  /**
+   * Opens a chunked upload of the partial decryption results of a trustee or returns the upload
+   * the trustee has already opened in the current decryption phase.
+   *
+   * @param electionId the id of the election
+   * @param email      is the email of the trustee
+   * @return api response with the open upload and its staged ballots
+   */
+  DecryptionUploadResponse openDecryptionUpload(Long electionId, String email)
+      throws UnauthorizedAccessException;
+
+  /**
+   * Getter for an open chunked upload of a trustee, used to resume an interrupted upload.
+   *
+   * @param electionId the id of the election
+   * @param uploadId   the id of the upload
+   * @param email      is the email of the trustee
+   * @return api response with the open upload and its staged ballots
+   */
+  DecryptionUploadResponse getDecryptionUpload(Long electionId, Long uploadId, String email)
+      throws UnauthorizedAccessException;
+
+  /**
+   * Adds a chunk of partial decryption results to an open upload of a trustee.
+   *
+   * @param electionId        the id of the election
+   * @param uploadId          the id of the upload
+   * @param decryptionRequest containing the partial decryptions of some spoiled ballots and
+   *                          optionally of the tally
+   * @param email             is the email of the trustee
+   * @return api response with the open upload and its staged ballots
+   */
+  DecryptionUploadResponse addDecryptionChunk(Long electionId, Long uploadId,
+      DecryptionRequest decryptionRequest, String email) throws UnauthorizedAccessException;
+
+  /**
+   * Commits a complete chunked upload of the partial decryption results of a trustee.
+   *
+   * @param electionId the id of the election
+   * @param uploadId   the id of the upload
+   * @param email      is the email of the trustee
+   * @return empty api response in case of success
+   */
+  EmptyResponse commitDecryptionUpload(Long electionId, Long uploadId, String email)
+      throws UnauthorizedAccessException;
+
 }
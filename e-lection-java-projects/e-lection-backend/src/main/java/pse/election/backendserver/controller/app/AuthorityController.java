@@ -11,7 +11,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import pse.election.backendserver.controller.ElectionAuthorityAPI;
 import pse.election.backendserver.core.bot.BotFacade;
-import pse.election.backendserver.core.electionguard.DecryptionFacade;
+import pse.election.backendserver.core.electionguard.DiscreteLogService;
 import pse.election.backendserver.core.service.ElectionService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.service.VoterService;
@@ -50,8 +50,7 @@ public class AuthorityController implements ElectionAuthorityAPI {
   private static final String INVALID_MAX
       = "Maximum number of selections must be at least 1 and must not exceed the total"
       + " number of selections for each contest";
-  private static final String VOTER_LIMIT
-      = "Number of voters must not exceed " + DecryptionFacade.MAX_ACCUMULATION;
+  private static final String VOTER_LIMIT = "Number of voters must not exceed ";
   private static final String INVALID_END_DATE
       = "End date of election must be after election creation";
   private static final String INVALID_EMAIL
@@ -74,6 +73,8 @@ public class AuthorityController implements ElectionAuthorityAPI {
 
   private final BotFacade botFacade;
 
+  private final DiscreteLogService discreteLogService;
+
   /**
    * Constructor of new AuthorityController.
    *
@@ -82,14 +83,17 @@ public class AuthorityController implements ElectionAuthorityAPI {
    * @param responseBuilder is the response builder
    * @param trusteeService is the trustee service
    * @param voterService is the voter service
+   * @param discreteLogService is the discrete log service defining the decryption capacity
    * */
   public AuthorityController(ElectionService electionService, TrusteeService trusteeService,
-      VoterService voterService, ResponseBuilder responseBuilder, BotFacade botFacade) {
+      VoterService voterService, ResponseBuilder responseBuilder, BotFacade botFacade,
+      DiscreteLogService discreteLogService) {
     this.electionService = electionService;
     this.trusteeService = trusteeService;
     this.voterService = voterService;
     this.responseBuilder = responseBuilder;
     this.botFacade = botFacade;
+    this.discreteLogService = discreteLogService;
   }
 
 
@@ -135,8 +139,8 @@ public class AuthorityController implements ElectionAuthorityAPI {
       throw new InvalidConfigurationException(NO_TRUSTEES);
     } else if (electionCreationRequest.getVoters().isEmpty()) {
       throw new InvalidConfigurationException(NO_VOTERS);
-    } else if (electionCreationRequest.getVoters().size() > DecryptionFacade.MAX_ACCUMULATION) {
-      throw new InvalidConfigurationException(VOTER_LIMIT);
+    } else if (electionCreationRequest.getVoters().size() > discreteLogService.getMaxVotes()) {
+      throw new InvalidConfigurationException(VOTER_LIMIT + discreteLogService.getMaxVotes());
     } else if (electionCreationRequest.getElectionMeta().getThreshold() < 1) {
       throw new InvalidConfigurationException(INVALID_THRESHOLD);
     } else if (electionCreationRequest.getElectionMeta().getThreshold()
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pse.election.backendserver.controller.ElectionAPI;
 import pse.election.backendserver.controller.ElectionAuthorityAPI;
 import pse.election.backendserver.controller.ElectionDataAPI;
@@ -21,6 +22,7 @@ import pse.election.backendserver.payload.response.AuthorityDecryptionStateRespo
 import pse.election.backendserver.payload.response.AuthorityKeyCeremonyStateResponse;
 import pse.election.backendserver.payload.response.BallotResponse;
 import pse.election.backendserver.payload.response.BallotSentResponse;
+import pse.election.backendserver.payload.response.DecryptionUploadResponse;
 import pse.election.backendserver.payload.response.ElectionAuxiliaryKeysResponse;
 import pse.election.backendserver.payload.response.ElectionBallotBoardResponse;
 import pse.election.backendserver.payload.response.ElectionCreationResponse;
@@ -295,6 +297,16 @@ public class FrontController implements ElectionAPI {
     return electionTrusteeAPI.getEncryptedResult(electionId, email);
   }
 
+  @Override
+  public StreamingResponseBody streamEncryptedResult(Long electionId, Long afterBallotId,
+      Integer limit, String email) throws UnauthorizedAccessException {
+    if (!electionAuthorizationEvaluator.hasRoleInElection(UserRole.TRUSTEE, electionId)) {
+      throw new UnauthorizedAccessException(
+          String.format(UNAUTHORIZED_PERMISSION_ELECTION_MSG, UserRole.TRUSTEE));
+    }
+    return electionTrusteeAPI.streamEncryptedResult(electionId, afterBallotId, limit, email);
+  }
+
   @Override
   public EmptyResponse setPartialDecryptionResult(Long electionId,
       DecryptionRequest decryptionRequest, String email) throws UnauthorizedAccessException {
@@ -305,6 +317,46 @@ public class FrontController implements ElectionAPI {
     return electionTrusteeAPI.setPartialDecryptionResult(electionId, decryptionRequest, email);
   }
 
+  @Override
+  public DecryptionUploadResponse openDecryptionUpload(Long electionId, String email)
+      throws UnauthorizedAccessException {
+    if (!electionAuthorizationEvaluator.hasRoleInElection(UserRole.TRUSTEE, electionId)) {
+      throw new UnauthorizedAccessException(
+          String.format(UNAUTHORIZED_PERMISSION_ELECTION_MSG, UserRole.TRUSTEE));
+    }
+    return electionTrusteeAPI.openDecryptionUpload(electionId, email);
+  }
+
+  @Override
+  public DecryptionUploadResponse getDecryptionUpload(Long electionId, Long uploadId,
+      String email) throws UnauthorizedAccessException {
+    if (!electionAuthorizationEvaluator.hasRoleInElection(UserRole.TRUSTEE, electionId)) {
+      throw new UnauthorizedAccessException(
+          String.format(UNAUTHORIZED_PERMISSION_ELECTION_MSG, UserRole.TRUSTEE));
+    }
+    return electionTrusteeAPI.getDecryptionUpload(electionId, uploadId, email);
+  }
+
+  @Override
+  public DecryptionUploadResponse addDecryptionChunk(Long electionId, Long uploadId,
+      DecryptionRequest decryptionRequest, String email) throws UnauthorizedAccessException {
+    if (!electionAuthorizationEvaluator.hasRoleInElection(UserRole.TRUSTEE, electionId)) {
+      throw new UnauthorizedAccessException(
+          String.format(UNAUTHORIZED_PERMISSION_ELECTION_MSG, UserRole.TRUSTEE));
+    }
+    return electionTrusteeAPI.addDecryptionChunk(electionId, uploadId, decryptionRequest, email);
+  }
+
+  @Override
+  public EmptyResponse commitDecryptionUpload(Long electionId, Long uploadId, String email)
+      throws UnauthorizedAccessException {
+    if (!electionAuthorizationEvaluator.hasRoleInElection(UserRole.TRUSTEE, electionId)) {
+      throw new UnauthorizedAccessException(
+          String.format(UNAUTHORIZED_PERMISSION_ELECTION_MSG, UserRole.TRUSTEE));
+    }
+    return electionTrusteeAPI.commitDecryptionUpload(electionId, uploadId, email);
+  }
+
   @Override
   public UserInformationResponse getUserRoles(String email) {
     return electionUserAPI.getUserRoles(email);
@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pse.election.backendserver.controller.ElectionTrusteeAPI;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.TrusteeService;
@@ -22,6 +23,7 @@ import pse.election.backendserver.payload.request.ChaumPedersenProofRequest;
 import pse.election.backendserver.payload.request.DecryptionRequest;
 import pse.election.backendserver.payload.request.ElgamalKeysAndBackupsRequest;
 import pse.election.backendserver.payload.request.SchnorrProofRequest;
+import pse.election.backendserver.payload.response.DecryptionUploadResponse;
 import pse.election.backendserver.payload.response.ElectionAuxiliaryKeysResponse;
 import pse.election.backendserver.payload.response.ElectionEncryptedResultResponse;
 import pse.election.backendserver.payload.response.ElgamalKeysAndBackupsResponse;
@@ -104,22 +106,66 @@ public class TrusteeController implements ElectionTrusteeAPI {
   }
 
 
+  @Override
+  public StreamingResponseBody streamEncryptedResult(Long electionId, Long afterBallotId,
+      Integer limit, String email) {
+    return this.responseBuilder.buildElectionEncryptedResultStream(electionId, email,
+        afterBallotId, limit);
+  }
+
   @Override
   public EmptyResponse setPartialDecryptionResult(Long electionId,
       DecryptionRequest decryptionRequest, String email) throws UnauthorizedAccessException {
+    decryptionService.addDecryption(parseDecryptionFromRequest(decryptionRequest), electionId,
+        email);
+    return this.responseBuilder.buildEmptyResponse();
+  }
 
-    Map<Integer, DecryptionDTO.PartialDecryptionDTO[]> partialDecryptionSpoiledBallots =
-            parseSpoiledBallotDecryptionFromRequest(decryptionRequest.getPartialDecryptedSpoiledBallots());
-    Map<Integer, DecryptionDTO.PartialDecryptionDTO> partialDecryptionTalliedBallots = parseTallyDecryptionFromRequest(
-        decryptionRequest.getPartialDecryptedTalliedBallots());
+  @Override
+  public DecryptionUploadResponse openDecryptionUpload(Long electionId, String email)
+      throws UnauthorizedAccessException {
+    return this.responseBuilder.buildDecryptionUploadResponse(
+        decryptionService.openDecryptionUpload(electionId, email));
+  }
+
+  @Override
+  public DecryptionUploadResponse getDecryptionUpload(Long electionId, Long uploadId,
+      String email) {
+    return this.responseBuilder.buildDecryptionUploadResponse(
+        decryptionService.getDecryptionUpload(electionId, uploadId, email));
+  }
 
-    DecryptionDTO decryptionDTO = new DecryptionDTO(partialDecryptionSpoiledBallots,
-        partialDecryptionTalliedBallots);
+  @Override
+  public DecryptionUploadResponse addDecryptionChunk(Long electionId, Long uploadId,
+      DecryptionRequest decryptionRequest, String email) {
+    return this.responseBuilder.buildDecryptionUploadResponse(decryptionService.addDecryptionChunk(
+        parseDecryptionFromRequest(decryptionRequest), electionId, uploadId, email));
+  }
 
-    decryptionService.addDecryption(decryptionDTO, electionId, email);
+  @Override
+  public EmptyResponse commitDecryptionUpload(Long electionId, Long uploadId, String email)
+      throws UnauthorizedAccessException {
+    decryptionService.commitDecryptionUpload(electionId, uploadId, email);
     return this.responseBuilder.buildEmptyResponse();
   }
 
+  /**
+   * Parses a complete upload or a chunk of partial decryptions, where a chunk may leave out the
+   * spoiled ballots or the tally.
+   */
+  private DecryptionDTO parseDecryptionFromRequest(DecryptionRequest decryptionRequest) {
+    Map<Integer, DecryptionDTO.PartialDecryptionDTO[]> partialDecryptionSpoiledBallots =
+        decryptionRequest.getPartialDecryptedSpoiledBallots() == null ? Map.of()
+            : parseSpoiledBallotDecryptionFromRequest(
+                decryptionRequest.getPartialDecryptedSpoiledBallots());
+    Map<Integer, DecryptionDTO.PartialDecryptionDTO> partialDecryptionTalliedBallots =
+        decryptionRequest.getPartialDecryptedTalliedBallots() == null ? Map.of()
+            : parseTallyDecryptionFromRequest(
+                decryptionRequest.getPartialDecryptedTalliedBallots());
+
+    return new DecryptionDTO(partialDecryptionSpoiledBallots, partialDecryptionTalliedBallots);
+  }
+
   private Map<Integer, DecryptionDTO.PartialDecryptionDTO[]> parseSpoiledBallotDecryptionFromRequest(
       Map<Integer,
           DecryptionRequest.PartialSpoiledBallotDecryptionRequest[]> partialDecryptedSpoiledBallots) {
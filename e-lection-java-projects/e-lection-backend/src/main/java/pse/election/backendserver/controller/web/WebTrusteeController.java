@@ -1,6 +1,7 @@
 package pse.election.backendserver.controller.web;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,12 +9,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pse.election.backendserver.controller.ElectionAPI;
 import pse.election.backendserver.payload.error.exception.UnauthorizedAccessException;
 import pse.election.backendserver.payload.request.AuxiliaryKeyRequest;
 import pse.election.backendserver.payload.request.DecryptionRequest;
 import pse.election.backendserver.payload.request.ElgamalKeysAndBackupsRequest;
+import pse.election.backendserver.payload.response.DecryptionUploadResponse;
 import pse.election.backendserver.payload.response.ElectionAuxiliaryKeysResponse;
 import pse.election.backendserver.payload.response.ElectionEncryptedResultResponse;
 import pse.election.backendserver.payload.response.ElgamalKeysAndBackupsResponse;
@@ -33,6 +37,8 @@ import pse.election.backendserver.security.user.UserPrincipal;
 @RequestMapping("api/trustee/elections/{electionId}")
 public class WebTrusteeController {
 
+  private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
   private final ElectionAPI electionAPI;
 
   public WebTrusteeController(ElectionAPI electionAPI) {
@@ -159,6 +165,31 @@ public class WebTrusteeController {
         electionAPI.getEncryptedResult(electionId, userPrincipal.getEmail()), HttpStatus.OK);
   }
 
+  /**
+   * This method is called by a GET-Request on /api/trustee/elections/{electionsId}/result/stream
+   * and streams the encrypted result as newline delimited JSON, paged by the ids of the spoiled
+   * ballots. The first page starts with the tally, every further line holds a spoiled ballot and
+   * the last line holds the cursor of the next page.
+   *
+   * @param electionId    is the id of the election to be decrypted
+   * @param afterBallotId is the cursor of the page, omitted for the first page
+   * @param limit         is the maximum number of spoiled ballots of the page, omitted for all
+   * @param userPrincipal is the currently logged in user
+   * @return body streaming the page of the encrypted result
+   */
+  @GetMapping(value = "/result/stream", produces = NDJSON_MEDIA_TYPE)
+  public ResponseEntity<StreamingResponseBody> streamEncryptedResult(
+      @PathVariable("electionId") Long electionId,
+      @RequestParam(value = "after", required = false) Long afterBallotId,
+      @RequestParam(value = "limit", required = false) Integer limit,
+      @AuthenticationPrincipal UserPrincipal userPrincipal)
+      throws UnauthorizedAccessException {
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+        .body(electionAPI.streamEncryptedResult(electionId, afterBallotId, limit,
+            userPrincipal.getEmail()));
+  }
+
   /**
    * This method is called by a POST-Request on /api/trustee/elections/{electionsId}/result and
    * handles partial decryption submission requests in the decryption state.
@@ -176,4 +207,81 @@ public class WebTrusteeController {
     electionAPI.setPartialDecryptionResult(electionId, decryptionRequest, user.getEmail());
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
+
+  /**
+   * This method is called by a POST-Request on /api/trustee/elections/{electionsId}/result/uploads
+   * and opens a chunked upload of the partial decryptions. An upload the trustee has already
+   * opened in the current decryption phase is resumed instead.
+   *
+   * @param electionId is the id of the election to be decrypted
+   * @param user       is the trustee submitting the partial decryption
+   * @return the open upload with the ballots it has staged so far
+   */
+  @PostMapping("/result/uploads")
+  public ResponseEntity<DecryptionUploadResponse> openDecryptionUpload(
+      @PathVariable("electionId") Long electionId,
+      @AuthenticationPrincipal UserPrincipal user) throws UnauthorizedAccessException {
+    return new ResponseEntity<>(electionAPI.openDecryptionUpload(electionId, user.getEmail()),
+        HttpStatus.OK);
+  }
+
+  /**
+   * This method is called by a GET-Request on
+   * /api/trustee/elections/{electionsId}/result/uploads/{uploadId} and returns the ballots an open
+   * upload has staged, so that an interrupted upload only sends the missing chunks.
+   *
+   * @param electionId is the id of the election to be decrypted
+   * @param uploadId   is the id of the upload
+   * @param user       is the trustee submitting the partial decryption
+   * @return the open upload with the ballots it has staged so far
+   */
+  @GetMapping("/result/uploads/{uploadId}")
+  public ResponseEntity<DecryptionUploadResponse> getDecryptionUpload(
+      @PathVariable("electionId") Long electionId,
+      @PathVariable("uploadId") Long uploadId,
+      @AuthenticationPrincipal UserPrincipal user) throws UnauthorizedAccessException {
+    return new ResponseEntity<>(
+        electionAPI.getDecryptionUpload(electionId, uploadId, user.getEmail()), HttpStatus.OK);
+  }
+
+  /**
+   * This method is called by a POST-Request on
+   * /api/trustee/elections/{electionsId}/result/uploads/{uploadId}/chunks and verifies and stages a
+   * chunk of partial decryptions. The chunk has the format of a complete upload, but only holds
+   * some spoiled ballots and optionally the tally.
+   *
+   * @param electionId        is the id of the election to be decrypted
+   * @param uploadId          is the id of the upload
+   * @param decryptionRequest is the chunk of partial decryptions translated from the request
+   * @param user              is the trustee submitting the partial decryption
+   * @return the open upload with the ballots it has staged so far
+   */
+  @PostMapping("/result/uploads/{uploadId}/chunks")
+  public ResponseEntity<DecryptionUploadResponse> addDecryptionChunk(
+      @PathVariable("electionId") Long electionId,
+      @PathVariable("uploadId") Long uploadId,
+      @RequestBody DecryptionRequest decryptionRequest,
+      @AuthenticationPrincipal UserPrincipal user) throws UnauthorizedAccessException {
+    return new ResponseEntity<>(electionAPI.addDecryptionChunk(electionId, uploadId,
+        decryptionRequest, user.getEmail()), HttpStatus.OK);
+  }
+
+  /**
+   * This method is called by a POST-Request on
+   * /api/trustee/elections/{electionsId}/result/uploads/{uploadId}/commit and commits a complete
+   * chunked upload of partial decryptions.
+   *
+   * @param electionId is the id of the election to be decrypted
+   * @param uploadId   is the id of the upload
+   * @param user       is the trustee submitting the partial decryption
+   * @return empty response in case of success
+   */
+  @PostMapping("/result/uploads/{uploadId}/commit")
+  public ResponseEntity<EmptyResponse> commitDecryptionUpload(
+      @PathVariable("electionId") Long electionId,
+      @PathVariable("uploadId") Long uploadId,
+      @AuthenticationPrincipal UserPrincipal user) throws UnauthorizedAccessException {
+    electionAPI.commitDecryptionUpload(electionId, uploadId, user.getEmail());
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
 }
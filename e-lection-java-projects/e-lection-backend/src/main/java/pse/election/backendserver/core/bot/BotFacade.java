@@ -6,6 +6,7 @@ import com.sunya.electionguard.ChaumPedersen;
 import com.sunya.electionguard.ElGamal;
 import com.sunya.electionguard.ElectionPolynomial;
 import com.sunya.electionguard.Group;
+import com.sunya.electionguard.Hash;
 import com.sunya.electionguard.SchnorrProof;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
@@ -24,14 +25,28 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pse.election.backendserver.core.electionguard.CryptoPool;
 import pse.election.backendserver.core.electionguard.DecryptionFacade;
 import pse.election.backendserver.core.electionguard.KeyCeremonyFacade;
+import pse.election.backendserver.core.electionguard.math.BackupVerification;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.ElectionService;
@@ -56,12 +71,14 @@ import pse.election.backendserver.payload.response.record.ElectionGuardInitializ
  * @version 1.0
  * */
 @Service
-public class BotFacade {
+public class BotFacade implements DisposableBean {
 
   private static final String INVALID_BACKUP = "Trustees delivered invalid backup for bot";
   private static final String BOT_EMAIL = "bot@bot.de";
   private static final String BOT_KEY_TYPE = "RSA";
   private static final int BASE_OF_HEX = 16;
+  private static final int SPOILED_BALLOT_BATCH_SIZE = 100;
+  private static final Logger logger = LogManager.getLogger(BotFacade.class);
 
   @Lazy
   private final TrusteeService trusteeService;
@@ -83,13 +100,27 @@ public class BotFacade {
   @Lazy
   private final ElectionService electionService;
 
+  private final CryptoPool cryptoPool;
+
+  private final NonceCommitmentPool nonceCommitmentPool;
+
+  private final Set<Long> runningCompensations = ConcurrentHashMap.newKeySet();
+
+  private final ExecutorService compensationExecutor = Executors.newSingleThreadExecutor(
+      runnable -> {
+        Thread thread = new Thread(runnable, "bot-compensation");
+        thread.setDaemon(true);
+        return thread;
+      });
+
   /**
    * Constructor of new BotFacade.
    * */
   public BotFacade(TrusteeService trusteeService, KeyCeremonyFacade keyCeremonyFacade,
       TallyService tallyService, BallotService ballotService, DecryptionService decryptionService,
       ElectionGuardInitializedWrapper electionGuardInitializedWrapper,
-      ElectionService electionService) {
+      ElectionService electionService, CryptoPool cryptoPool,
+      NonceCommitmentPool nonceCommitmentPool) {
     this.trusteeService = trusteeService;
     this.keyCeremonyFacade = keyCeremonyFacade;
     this.tallyService = tallyService;
@@ -97,6 +128,8 @@ public class BotFacade {
     this.decryptionService = decryptionService;
     this.electionGuardInitializedWrapper = electionGuardInitializedWrapper;
     this.electionService = electionService;
+    this.cryptoPool = cryptoPool;
+    this.nonceCommitmentPool = nonceCommitmentPool;
   }
 
   /**
@@ -104,17 +137,7 @@ public class BotFacade {
    * */
   public static boolean verifyEPKB(List<Group.ElementModP> publicKeys, Group.ElementModQ backup,
       int id) {
-    List<Group.ElementModP> mults = new ArrayList<>();
-    Group.ElementModP idMod = Group.int_to_p_unchecked(BigInteger.valueOf(id));
-    for (int j = 0; j < publicKeys.size(); j++) {
-      Group.ElementModP jmod = Group.int_to_p_unchecked(BigInteger.valueOf(j));
-      Group.ElementModP exponent = Group.pow_p(idMod, jmod);
-      Group.ElementModP publicKey = publicKeys.get(j);
-      mults.add(Group.pow_p(publicKey, exponent));
-    }
-    Group.ElementModP rightPart = Group.mult_p(mults);
-    Group.ElementModP leftPart = Group.g_pow_p(backup);
-    return rightPart.equals(leftPart);
+    return BackupVerification.verify(publicKeys, backup, id);
   }
 
   /**
@@ -276,102 +299,287 @@ public class BotFacade {
    */
   public Map<Long, DecryptionFacade.Decryption> decryptTalliesOfElection(Election election,
       Group.ElementModQ key) {
+    return decryptTalliesOfElection(election, List.of(key), getExtendedBaseHash(election)).get(0);
+  }
 
+  /**
+   * Decrypts all tallies of an election under several keys. Each tally is loaded once and
+   * decrypted under all keys by the same task of the crypto pool.
+   *
+   * @return the decrypted values mapped to the tallies, one map per key in the order of the keys
+   */
+  private List<Map<Long, DecryptionFacade.Decryption>> decryptTalliesOfElection(
+      Election election, List<Group.ElementModQ> keys, Group.ElementModQ extendedBaseHash) {
     List<Tally> tallyList = tallyService.getAllTalliesOfElection(election.getElectionId());
-    Map<Long, DecryptionFacade.Decryption> tallyDecryption = new HashMap<>();
-    for (Tally tally : tallyList) {
-      tallyDecryption.put(
-          tally.getTallyId(),
-          decrypt(election, key,
-              new ElGamal.Ciphertext(
-                  Group.int_to_p_unchecked(tally.getCiphertextPAD()),
-                  Group.int_to_p_unchecked(tally.getCiphertextDATA())
-              )
-          )
-      );
+    List<List<DecryptionFacade.Decryption>> decryptions = cryptoPool.map(tallyList, tally ->
+        decrypt(keys, new ElGamal.Ciphertext(
+            Group.int_to_p_unchecked(tally.getCiphertextPAD()),
+            Group.int_to_p_unchecked(tally.getCiphertextDATA())
+        ), extendedBaseHash));
+
+    List<Map<Long, DecryptionFacade.Decryption>> tallyDecryption = createEmptyMaps(keys.size());
+    for (int i = 0; i < tallyList.size(); i++) {
+      for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+        tallyDecryption.get(keyIndex)
+            .put(tallyList.get(i).getTallyId(), decryptions.get(i).get(keyIndex));
+      }
     }
-
     return tallyDecryption;
-
   }
 
   /**
-   * Method which decrypts all SpoiledBallots of an Election for a corresponding key.
+   * Method which decrypts all SpoiledBallots of an Election under several keys. The ballots are
+   * decrypted in batches, the options of a batch in parallel and each of them under all keys at
+   * once. Every batch but the last one is handed to the consumer as soon as it is decrypted, the
+   * last one is returned, so that the caller can store it together with the tallies. Ballots with
+   * an option in the decrypted options are skipped.
    *
-   * @param election election for which the spoiled Ballots get decrypted
-   * @param key      the corresponding key for the decryption
-   * @return the Decryption of all ballots
+   * @param election           election for which the spoiled Ballots get decrypted
+   * @param keys               the keys for the decryption
+   * @param extendedBaseHash   the extended base hash of the election
+   * @param decryptedOptionIds ids of the options that have already been decrypted
+   * @param batchConsumer      stores a decrypted batch
+   * @return the Decryption of the last batch of ballots, one map per key in the order of the keys
    */
-  private Map<Long, Map<Long, DecryptionFacade.Decryption>> decryptSpoiledBallotsOfElection(
-      Election election, Group.ElementModQ key) {
-    Map<Long, Map<Long, DecryptionFacade.Decryption>> spoiledBallotDecryption = new HashMap<>();
+  private List<Map<Long, Map<Long, DecryptionFacade.Decryption>>> decryptSpoiledBallotsOfElection(
+      Election election, List<Group.ElementModQ> keys, Group.ElementModQ extendedBaseHash,
+      Set<Long> decryptedOptionIds,
+      Consumer<List<Map<Long, Map<Long, DecryptionFacade.Decryption>>>> batchConsumer) {
     List<Ballot> spoiledBallotOfElection = ballotService.getAllSpoiledBallotsOfElection(
         election.getElectionId());
+    List<Map<Long, Map<Long, DecryptionFacade.Decryption>>> spoiledBallotDecryption =
+        createEmptyMaps(keys.size());
 
-    for (Ballot spoiledBallot : spoiledBallotOfElection) {
-      List<OptionEncrypted> optionEncryptedList = ballotService.getAllOptionsEncryptedOfBallot(
-          spoiledBallot.getBallotId());
-      Collections.sort(optionEncryptedList);
-      Map<Long, DecryptionFacade.Decryption> decryptionOfSpoiledBallotList = new HashMap<>();
+    for (int from = 0; from < spoiledBallotOfElection.size(); from += SPOILED_BALLOT_BATCH_SIZE) {
+      if (from > 0) {
+        batchConsumer.accept(spoiledBallotDecryption);
+      }
+      List<Ballot> batch = spoiledBallotOfElection.subList(from,
+          Math.min(from + SPOILED_BALLOT_BATCH_SIZE, spoiledBallotOfElection.size()));
+      spoiledBallotDecryption = decryptSpoiledBallots(batch, keys, extendedBaseHash,
+          decryptedOptionIds);
+    }
+    return spoiledBallotDecryption;
+  }
 
+  private List<Map<Long, Map<Long, DecryptionFacade.Decryption>>> decryptSpoiledBallots(
+      List<Ballot> spoiledBallots, List<Group.ElementModQ> keys,
+      Group.ElementModQ extendedBaseHash, Set<Long> decryptedOptionIds) {
+    List<Long> ballotIds = new ArrayList<>();
+    List<OptionEncrypted> options = new ArrayList<>();
+    List<Map<Long, Map<Long, DecryptionFacade.Decryption>>> spoiledBallotDecryption =
+        createEmptyMaps(keys.size());
+    Map<Long, List<OptionEncrypted>> optionsOfBallots = new HashMap<>();
+    for (OptionEncrypted optionEncrypted : ballotService.getAllOptionsEncryptedOfBallots(
+        spoiledBallots.stream().map(Ballot::getBallotId).toList())) {
+      optionsOfBallots.computeIfAbsent(optionEncrypted.getBallotId(), id -> new ArrayList<>())
+          .add(optionEncrypted);
+    }
+    optionsOfBallots.values().forEach(Collections::sort);
+    for (Ballot spoiledBallot : spoiledBallots) {
+      List<OptionEncrypted> optionEncryptedList = optionsOfBallots.getOrDefault(
+          spoiledBallot.getBallotId(), List.of());
+      if (optionEncryptedList.stream().anyMatch(
+          optionEncrypted -> decryptedOptionIds.contains(optionEncrypted.getOptionEncryptedId()))) {
+        continue;
+      }
+      for (Map<Long, Map<Long, DecryptionFacade.Decryption>> keyDecryption
+          : spoiledBallotDecryption) {
+        keyDecryption.put(spoiledBallot.getBallotId(), new HashMap<>());
+      }
       for (OptionEncrypted optionEncrypted : optionEncryptedList) {
-
-        decryptionOfSpoiledBallotList.put(
-            optionEncrypted.getOptionEncryptedId(),
-            decrypt(election, key,
-                new ElGamal.Ciphertext(
-                    Group.int_to_p_unchecked(optionEncrypted.getCiphertextPAD()),
-                    Group.int_to_p_unchecked(optionEncrypted.getCiphertextDATA())
-                )
-            )
-        );
+        ballotIds.add(spoiledBallot.getBallotId());
+        options.add(optionEncrypted);
+      }
+    }
+    List<List<DecryptionFacade.Decryption>> decryptions = cryptoPool.map(options,
+        optionEncrypted -> decrypt(keys, new ElGamal.Ciphertext(
+            Group.int_to_p_unchecked(optionEncrypted.getCiphertextPAD()),
+            Group.int_to_p_unchecked(optionEncrypted.getCiphertextDATA())
+        ), extendedBaseHash));
+
+    for (int i = 0; i < options.size(); i++) {
+      for (int keyIndex = 0; keyIndex < keys.size(); keyIndex++) {
+        spoiledBallotDecryption.get(keyIndex).get(ballotIds.get(i))
+            .put(options.get(i).getOptionEncryptedId(), decryptions.get(i).get(keyIndex));
       }
-      spoiledBallotDecryption.put(spoiledBallot.getBallotId(), decryptionOfSpoiledBallotList);
     }
     return spoiledBallotDecryption;
   }
 
+  private static <T> List<Map<Long, T>> createEmptyMaps(int count) {
+    List<Map<Long, T>> maps = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      maps.add(new HashMap<>());
+    }
+    return maps;
+  }
+
   /**
    * This is the functionality to partial decrypt on behalf of the bot trustee.
    *
    * @param election is the election to partial decrypt for
    */
   public void partialDecryption(Election election) {
+    partialDecryption(election, tallyConsumer ->
+        tallyService.getAllTalliesOfElection(election.getElectionId()).forEach(tallyConsumer));
+  }
+
+  /**
+   * This is the functionality to partial decrypt on behalf of the bot trustee while the tallies of
+   * the election are being created. Every tally is decrypted as soon as the tallying passes it on
+   * and the spoiled ballots are decrypted at the same time, see
+   * {@link PartialDecryptionPipeline}.
+   *
+   * @param election is the election to partial decrypt for
+   * @param tallying creates the tallies of the election and passes each saved tally on
+   */
+  public void partialDecryption(Election election, Consumer<Consumer<Tally>> tallying) {
     BotTrustee botTrustee = trusteeService.getBotTrustee(election.getElectionId());
-    Map<Long, DecryptionFacade.Decryption> electionDecryption =
-        decryptTalliesOfElection(election,
-            Group.int_to_q_unchecked(botTrustee.getPrivateElgamalKey()));
-    Map<Long, Map<Long, DecryptionFacade.Decryption>> spoiledBallotDecryption =
-        decryptSpoiledBallotsOfElection(election,
-            Group.int_to_q_unchecked(botTrustee.getPrivateElgamalKey()));
-    decryptionService.addPartialDecryptionBotTrustee(electionDecryption, spoiledBallotDecryption,
-        election);
+    List<Group.ElementModQ> keys =
+        List.of(Group.int_to_q_unchecked(botTrustee.getPrivateElgamalKey()));
+    Group.ElementModQ extendedBaseHash = getExtendedBaseHash(election);
+    List<Ballot> spoiledBallotOfElection = ballotService.getAllSpoiledBallotsOfElection(
+        election.getElectionId());
+    List<List<Ballot>> spoiledBallotBatches = new ArrayList<>();
+    for (int from = 0; from < spoiledBallotOfElection.size(); from += SPOILED_BALLOT_BATCH_SIZE) {
+      spoiledBallotBatches.add(spoiledBallotOfElection.subList(from,
+          Math.min(from + SPOILED_BALLOT_BATCH_SIZE, spoiledBallotOfElection.size())));
+    }
+
+    PartialDecryptionPipeline pipeline = new PartialDecryptionPipeline(cryptoPool,
+        tally -> decrypt(keys, new ElGamal.Ciphertext(
+            Group.int_to_p_unchecked(tally.getCiphertextPAD()),
+            Group.int_to_p_unchecked(tally.getCiphertextDATA())
+        ), extendedBaseHash).get(0),
+        spoiledBallotBatches,
+        batch -> decryptSpoiledBallots(batch, keys, extendedBaseHash, Set.of()).get(0),
+        batch -> decryptionService.addSpoiledBallotDecryptionsBotTrustee(batch, election));
+    PartialDecryptionPipeline.Result decryptions;
+    try {
+      tallying.accept(pipeline);
+      decryptions = pipeline.finish();
+    } finally {
+      pipeline.cancel();
+    }
+    decryptionService.addPartialDecryptionBotTrustee(decryptions.tallies(),
+        decryptions.lastBatch(), election);
   }
 
   /**
    * This is the functionality to partial-partial decrypt on behalf of the bot trustee. By doing so,
-   * each backup gets decrypted and used for the decryption.
+   * each backup gets decrypted and used for the decryption. Every ciphertext is decrypted under all
+   * backups in one pass. The decrypted batches of spoiled ballots are stored one after another, so
+   * that a partial-partial decryption that has been interrupted continues with the ballots that
+   * have not been stored yet. Once the tallies are stored, the bot trustee is done.
    *
    * @param election is the election to partial-partial decrypt for
    */
   public void partialPartialDecryption(Election election) {
-    List<Trustee> trusteeList = trusteeService.getAllTrustees(election.getElectionId());
-    Collections.sort(trusteeList);
     BotTrustee botTrustee = trusteeService.getBotTrustee(election.getElectionId());
-    Map<Integer, String> backups = trusteeService.getBackups(BOT_EMAIL, election.getElectionId(), true);
-    for (Integer trusteeIndex : backups.keySet()) {
-      String decryptedBackup = decryptBackup(botTrustee, backups.get(trusteeIndex));
-      Map<Long, DecryptionFacade.Decryption> electionDecryption = decryptTalliesOfElection(election,
-              Group.int_to_q_unchecked(new BigInteger(decryptedBackup, BASE_OF_HEX)));
-      Map<Long, Map<Long, DecryptionFacade.Decryption>> spoiledBallotDecryption =
-              decryptSpoiledBallotsOfElection(election,
-                      Group.int_to_q_unchecked(new BigInteger(decryptedBackup, BASE_OF_HEX)));
-      decryptionService.addPartialPartialDecryptionBotTrustee(electionDecryption,
-              spoiledBallotDecryption, trusteeIndex, election);
+    if (!decryptionService.hasPartialPartialDecryptionOfTallies(botTrustee.getTrusteeId())) {
+      Map<Integer, String> backups = new TreeMap<>(
+          trusteeService.getBackups(BOT_EMAIL, election.getElectionId(), true));
+      List<Integer> trusteeIndices = new ArrayList<>(backups.keySet());
+      List<Group.ElementModQ> keys = new ArrayList<>();
+      for (String backup : backups.values()) {
+        keys.add(Group.int_to_q_unchecked(
+            new BigInteger(decryptBackup(botTrustee, backup), BASE_OF_HEX)));
+      }
+      Group.ElementModQ extendedBaseHash = getExtendedBaseHash(election);
+      Set<Long> decryptedOptionIds =
+          decryptionService.getOptionIdsWithPartialPartialDecryption(botTrustee.getTrusteeId());
+
+      List<Map<Long, Map<Long, DecryptionFacade.Decryption>>> spoiledBallotDecryption =
+          decryptSpoiledBallotsOfElection(election, keys, extendedBaseHash, decryptedOptionIds,
+              batch -> decryptionService.addSpoiledBallotPartialPartialDecryptionsBotTrustee(
+                  mapByTrusteeIndex(trusteeIndices, batch), election));
+      List<Map<Long, DecryptionFacade.Decryption>> electionDecryption =
+          decryptTalliesOfElection(election, keys, extendedBaseHash);
+      decryptionService.addPartialPartialDecryptionBotTrustee(
+          mapByTrusteeIndex(trusteeIndices, electionDecryption),
+          mapByTrusteeIndex(trusteeIndices, spoiledBallotDecryption), election);
     }
     electionService.tryUpdateState(election.getElectionId(), ElectionState.DONE);
   }
 
+  private static <T> Map<Integer, T> mapByTrusteeIndex(List<Integer> trusteeIndices,
+      List<T> values) {
+    Map<Integer, T> valuesByIndex = new HashMap<>();
+    for (int i = 0; i < trusteeIndices.size(); i++) {
+      valuesByIndex.put(trusteeIndices.get(i), values.get(i));
+    }
+    return valuesByIndex;
+  }
+
+  /**
+   * Starts the partial-partial decryption of the bot trustee in the background. If the caller runs
+   * inside a transaction, the decryption starts after the transaction has been committed, so that
+   * it sees the election in the second decryption phase and its stored batches do not depend on
+   * the outcome of the caller.
+   *
+   * @param election is the election to partial-partial decrypt for
+   */
+  public void partialPartialDecryptionInBackground(Election election) {
+    long electionId = election.getElectionId();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          resumePartialPartialDecryption(electionId);
+        }
+      });
+    } else {
+      resumePartialPartialDecryption(electionId);
+    }
+  }
+
+  /**
+   * Periodically resumes the partial-partial decryptions of the bot trustees of all elections in
+   * the second decryption phase, e.g. after a restart interrupted them. Decryptions that failed
+   * for good, e.g. because of a backup the bot cannot decrypt, are not resumed.
+   */
+  @Scheduled(fixedDelayString = "${bot.compensationPollInterval:60000}")
+  public void resumePartialPartialDecryptions() {
+    for (long electionId
+        : electionService.getElectionIdsWithCompensatingBot(ElectionState.PP_DECRYPTION)) {
+      resumePartialPartialDecryption(electionId);
+    }
+  }
+
+  private void resumePartialPartialDecryption(long electionId) {
+    if (!runningCompensations.add(electionId)) {
+      return;
+    }
+    compensationExecutor.execute(() -> {
+      try {
+        Election election = electionService.getElection(electionId);
+        if (election.getState() == ElectionState.PP_DECRYPTION) {
+          partialPartialDecryption(election);
+        }
+      } catch (IllegalArgumentException e) {
+        logger.error("Partial-partial decryption of the bot of election " + electionId
+            + " cannot succeed and is not resumed.", e);
+        trusteeService.markBotCompensationFailed(electionId, String.valueOf(e.getMessage()));
+      } catch (RuntimeException e) {
+        logger.error("Partial-partial decryption of the bot of election " + electionId
+            + " failed.", e);
+      } finally {
+        runningCompensations.remove(electionId);
+      }
+    });
+  }
+
+  @Override
+  public void destroy() {
+    compensationExecutor.shutdownNow();
+  }
+
+  private Group.ElementModQ getExtendedBaseHash(Election election) {
+    return electionGuardInitializedWrapper.generateCryptoContext(election.getElectionId())
+        .cryptoExtendedBaseHash;
+  }
+
   private String decryptBackup(BotTrustee bot, String backup) {
     try {
       PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(
@@ -393,20 +601,30 @@ public class BotFacade {
   }
 
   /**
-   * Decrypted a single ElGamal ciphertext for a specific key.
+   * Decrypted a single ElGamal ciphertext for several keys. The proofs are built like
+   * {@link ChaumPedersen#make_chaum_pedersen}, but take their nonces and commitments to the
+   * generator from the {@link NonceCommitmentPool}.
    *
-   * @param key        key
-   * @param ciphertext ciphertext that gets decrypted
-   * @return the decryption
+   * @param keys             keys
+   * @param ciphertext       ciphertext that gets decrypted
+   * @param extendedBaseHash the extended base hash the proofs are bound to
+   * @return the decryptions in the order of the keys
    */
-  private DecryptionFacade.Decryption decrypt(Election election, Group.ElementModQ key,
-      ElGamal.Ciphertext ciphertext) {
-    Group.ElementModP decryption = ciphertext.partial_decrypt(key);
-    ChaumPedersen.ChaumPedersenProof correspondingDecryptionProof =
-        ChaumPedersen.make_chaum_pedersen(ciphertext, key, decryption, Group.rand_q(),
-            electionGuardInitializedWrapper.generateCryptoContext(
-                election.getElectionId()).cryptoExtendedBaseHash);
-    return new DecryptionFacade.Decryption(decryption, correspondingDecryptionProof);
+  private List<DecryptionFacade.Decryption> decrypt(List<Group.ElementModQ> keys,
+      ElGamal.Ciphertext ciphertext, Group.ElementModQ extendedBaseHash) {
+    List<DecryptionFacade.Decryption> decryptions = new ArrayList<>(keys.size());
+    for (Group.ElementModQ key : keys) {
+      Group.ElementModP decryption = ciphertext.partial_decrypt(key);
+      NonceCommitmentPool.NonceCommitment nonce = nonceCommitmentPool.take();
+      Group.ElementModP padCommitment = Group.pow_p(ciphertext.pad(), nonce.nonce());
+      Group.ElementModQ challenge = Hash.hash_elems(extendedBaseHash, ciphertext.pad(),
+          ciphertext.data(), nonce.commitment(), padCommitment, decryption);
+      ChaumPedersen.ChaumPedersenProof correspondingDecryptionProof =
+          new ChaumPedersen.ChaumPedersenProof(nonce.commitment(), padCommitment, challenge,
+              Group.a_plus_bc_q(nonce.nonce(), challenge, key));
+      decryptions.add(new DecryptionFacade.Decryption(decryption, correspondingDecryptionProof));
+    }
+    return decryptions;
   }
 
 }
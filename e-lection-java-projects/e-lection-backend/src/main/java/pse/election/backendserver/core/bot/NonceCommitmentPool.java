@@ -0,0 +1,110 @@
+package pse.election.backendserver.core.bot;
+
+import com.sunya.electionguard.Group;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.state.ElectionState;
+
+/**
+ * Pool of precomputed nonces and their commitments g^r for the decryption proofs of the bot
+ * trustees. The commitment does not depend on the decrypted ciphertext, so it is computed while
+ * elections with a bot are open and the decryption phase only computes the commitment to the pad.
+ * The pool is filled on a low priority thread up to bot.nonceCommitmentPoolSize entries. Every
+ * nonce is handed out once, an empty pool computes nonces on demand.
+ */
+@Component
+public class NonceCommitmentPool implements DisposableBean {
+
+  @Value("${bot.nonceCommitmentPoolSize:10000}")
+  private int poolSize;
+
+  @Lazy
+  private final ElectionService electionService;
+
+  private final AtomicBoolean refilling = new AtomicBoolean();
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "nonce-commitments");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
+  });
+
+  private BlockingQueue<NonceCommitment> commitments;
+
+  /**
+   * Constructor of new NonceCommitmentPool.
+   * */
+  public NonceCommitmentPool(ElectionService electionService) {
+    this.electionService = electionService;
+  }
+
+  /**
+   * Takes a nonce and its commitment from the pool. If the pool is empty, a new one is computed.
+   *
+   * @return a nonce that has not been handed out before
+   */
+  public NonceCommitment take() {
+    BlockingQueue<NonceCommitment> queue = getCommitments();
+    NonceCommitment commitment = queue == null ? null : queue.poll();
+    return commitment != null ? commitment : NonceCommitment.random();
+  }
+
+  /**
+   * Periodically fills the pool in the background while an election with a bot is open.
+   */
+  @Scheduled(fixedDelayString = "${bot.nonceCommitmentRefillInterval:60000}")
+  public void refill() {
+    BlockingQueue<NonceCommitment> queue = getCommitments();
+    if (queue == null || queue.remainingCapacity() == 0
+        || electionService.getElectionIdsWithBot(ElectionState.OPEN).isEmpty()
+        || !refilling.compareAndSet(false, true)) {
+      return;
+    }
+    executor.execute(() -> {
+      try {
+        while (!Thread.currentThread().isInterrupted()
+            && queue.offer(NonceCommitment.random())) {
+          // fills the pool until it is full
+        }
+      } finally {
+        refilling.set(false);
+      }
+    });
+  }
+
+  private synchronized BlockingQueue<NonceCommitment> getCommitments() {
+    if (commitments == null && poolSize > 0) {
+      commitments = new ArrayBlockingQueue<>(poolSize);
+    }
+    return commitments;
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A random nonce r of a proof and its commitment g^r.
+   *
+   * @param nonce      the nonce
+   * @param commitment the commitment to the nonce
+   */
+  public record NonceCommitment(Group.ElementModQ nonce, Group.ElementModP commitment) {
+
+    private static NonceCommitment random() {
+      Group.ElementModQ nonce = Group.rand_q();
+      return new NonceCommitment(nonce, Group.g_pow_p(nonce));
+    }
+  }
+}
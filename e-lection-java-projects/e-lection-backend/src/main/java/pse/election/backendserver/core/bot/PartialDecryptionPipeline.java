@@ -0,0 +1,187 @@
+package pse.election.backendserver.core.bot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import pse.election.backendserver.core.electionguard.CryptoPool;
+import pse.election.backendserver.core.electionguard.DecryptionFacade.Decryption;
+import pse.election.backendserver.entity.Ballot;
+import pse.election.backendserver.entity.Tally;
+
+/**
+ * Pipeline decrypting the tallies and the spoiled ballots of an election on behalf of the bot
+ * trustee while the tallies are still being created. Every tally handed to this pipeline is
+ * decrypted by a task of its own on the crypto pool, so the tallies are decrypted in parallel. The
+ * spoiled ballots are decrypted in batches at the same time, a few batches ahead of the thread
+ * feeding the tallies. Tallies and batches share a window of at most as many pending tasks as the
+ * pool has threads plus the batches, so that a large election does not flood the pool shared with
+ * other work. The feeding thread waits for the oldest task once the window is full. It stores the
+ * decrypted batches, as it owns the transaction, and starts the next ones, so no task of the pool
+ * blocks waiting for the thread. The last batch is held back, so that it can be stored together
+ * with the tallies.
+ */
+class PartialDecryptionPipeline implements Consumer<Tally> {
+
+  private static final String PIPELINE_INTERRUPTED_ERROR_MSG
+      = "The partial decryption of the bot has been interrupted.";
+  private static final String PIPELINE_FAILED_ERROR_MSG
+      = "The partial decryption of the bot failed.";
+  private static final int BATCH_CAPACITY = 2;
+
+  private final CryptoPool cryptoPool;
+
+  private final Function<Tally, Decryption> tallyDecryption;
+
+  private final Iterator<List<Ballot>> spoiledBallots;
+
+  private final Function<List<Ballot>, Map<Long, Map<Long, Decryption>>> batchDecryption;
+
+  private final Consumer<Map<Long, Map<Long, Decryption>>> batchStore;
+
+  private final int capacity;
+
+  private final Deque<Map.Entry<Long, Future<Decryption>>> decryptingTallies = new ArrayDeque<>();
+
+  private final Map<Long, Decryption> decryptedTallies = new HashMap<>();
+
+  private final Deque<Future<Map<Long, Map<Long, Decryption>>>> decryptingBatches =
+      new ArrayDeque<>();
+
+  private Map<Long, Map<Long, Decryption>> pendingBatch = new HashMap<>();
+
+  /**
+   * Constructor of new PartialDecryptionPipeline. The decryption of the spoiled ballots is started
+   * right away.
+   *
+   * @param cryptoPool       runs the decryptions
+   * @param tallyDecryption  decrypts a tally
+   * @param spoiledBallots   the batches of spoiled ballots
+   * @param batchDecryption  decrypts a batch of spoiled ballots
+   * @param batchStore       stores a decrypted batch of spoiled ballots
+   */
+  PartialDecryptionPipeline(CryptoPool cryptoPool, Function<Tally, Decryption> tallyDecryption,
+      List<List<Ballot>> spoiledBallots,
+      Function<List<Ballot>, Map<Long, Map<Long, Decryption>>> batchDecryption,
+      Consumer<Map<Long, Map<Long, Decryption>>> batchStore) {
+    this.cryptoPool = cryptoPool;
+    this.tallyDecryption = tallyDecryption;
+    this.spoiledBallots = spoiledBallots.iterator();
+    this.batchDecryption = batchDecryption;
+    this.batchStore = batchStore;
+    this.capacity = cryptoPool.getParallelism() + BATCH_CAPACITY;
+    startBatches();
+  }
+
+  /**
+   * Starts the decryption of a saved tally, after waiting for the oldest pending decryption if the
+   * window is full. Decrypted batches of spoiled ballots are stored meanwhile.
+   *
+   * @param tally the tally
+   */
+  @Override
+  public void accept(Tally tally) {
+    while (decryptingTallies.size() + decryptingBatches.size() >= capacity) {
+      awaitOldest();
+    }
+    decryptingTallies.add(Map.entry(tally.getTallyId(),
+        cryptoPool.submit(() -> tallyDecryption.apply(tally))));
+    storeDecryptedBatches();
+  }
+
+  /**
+   * Waits for all decryptions after the last tally has been handed over.
+   *
+   * @return the decryptions of the tallies and of the last batch of spoiled ballots
+   */
+  Result finish() {
+    while (!decryptingBatches.isEmpty()) {
+      store(await(decryptingBatches.poll()));
+      startBatches();
+    }
+    while (!decryptingTallies.isEmpty()) {
+      collect(decryptingTallies.poll());
+    }
+    return new Result(decryptedTallies, pendingBatch);
+  }
+
+  /**
+   * Stops all decryptions that have not been finished yet, e.g. because creating the tallies
+   * failed.
+   */
+  void cancel() {
+    decryptingTallies.forEach(tally -> tally.getValue().cancel(true));
+    decryptingBatches.forEach(batch -> batch.cancel(true));
+  }
+
+  private void startBatches() {
+    while (decryptingBatches.size() < BATCH_CAPACITY && spoiledBallots.hasNext()) {
+      List<Ballot> batch = spoiledBallots.next();
+      decryptingBatches.add(cryptoPool.submit(() -> batchDecryption.apply(batch)));
+    }
+  }
+
+  private void storeDecryptedBatches() {
+    while (!decryptingTallies.isEmpty() && decryptingTallies.peek().getValue().isDone()) {
+      collect(decryptingTallies.poll());
+    }
+    while (!decryptingBatches.isEmpty() && decryptingBatches.peek().isDone()) {
+      store(await(decryptingBatches.poll()));
+    }
+    startBatches();
+  }
+
+  private void awaitOldest() {
+    if (!decryptingTallies.isEmpty()) {
+      collect(decryptingTallies.poll());
+    } else {
+      store(await(decryptingBatches.poll()));
+      startBatches();
+    }
+  }
+
+  private void collect(Map.Entry<Long, Future<Decryption>> tally) {
+    decryptedTallies.put(tally.getKey(), await(tally.getValue()));
+  }
+
+  private void store(Map<Long, Map<Long, Decryption>> batch) {
+    if (!pendingBatch.isEmpty()) {
+      batchStore.accept(pendingBatch);
+    }
+    pendingBatch = batch;
+  }
+
+  private static <T> T await(Future<T> stage) {
+    try {
+      return stage.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(PIPELINE_INTERRUPTED_ERROR_MSG, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(PIPELINE_FAILED_ERROR_MSG, e.getCause());
+    }
+  }
+
+  /**
+   * Decryptions produced by the pipeline.
+   *
+   * @param tallies   the decryptions of the tallies
+   * @param lastBatch the decryptions of the last batch of spoiled ballots, which have not been
+   *                  stored yet
+   */
+  record Result(Map<Long, Decryption> tallies, Map<Long, Map<Long, Decryption>> lastBatch) {
+
+  }
+}
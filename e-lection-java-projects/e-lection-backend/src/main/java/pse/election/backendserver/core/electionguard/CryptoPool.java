@@ -0,0 +1,125 @@
+package pse.election.backendserver.core.electionguard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thread pool for independent cryptographic computations, e.g. the decryption of many selections.
+ * The pool is separate from the common pool, so that long running evaluations neither starve nor
+ * get starved by other parallel work of the application. Its size is configured by crypto.poolSize
+ * and defaults to the number of available processors.
+ */
+@Component
+public class CryptoPool implements DisposableBean {
+
+  @Value("${crypto.poolSize:0}")
+  private int poolSize;
+
+  private ForkJoinPool pool;
+
+  /**
+   * Applies a computation to every input in parallel. The results are returned in the order of the
+   * inputs, so that callers can assemble them deterministically. As soon as a computation fails,
+   * the computations that have not started yet are skipped, the remaining tasks are cancelled and
+   * the exception is rethrown.
+   *
+   * @param inputs      the independent inputs
+   * @param computation the computation to apply to each input
+   * @param <T>         type of the inputs
+   * @param <R>         type of the results
+   * @return the results in the order of the inputs
+   */
+  public <T, R> List<R> map(List<T> inputs, Function<T, R> computation) {
+    List<R> results = new ArrayList<>(inputs.size());
+    if (inputs.size() <= 1 || getParallelism() == 1) {
+      for (T input : inputs) {
+        results.add(computation.apply(input));
+      }
+      return results;
+    }
+
+    ForkJoinPool executor = getPool();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<ForkJoinTask<R>> tasks = new ArrayList<>(inputs.size());
+    for (T input : inputs) {
+      tasks.add(executor.submit(() -> {
+        if (failure.get() != null) {
+          return null;
+        }
+        try {
+          return computation.apply(input);
+        } catch (RuntimeException | Error e) {
+          failure.compareAndSet(null, e);
+          throw e;
+        }
+      }));
+    }
+    try {
+      for (ForkJoinTask<R> task : tasks) {
+        R result = task.join();
+        if (failure.get() != null) {
+          break;
+        }
+        results.add(result);
+      }
+    } catch (RuntimeException | Error e) {
+      failure.compareAndSet(null, e);
+    }
+    if (failure.get() != null) {
+      tasks.forEach(task -> task.cancel(true));
+      rethrow(failure.get());
+    }
+    return results;
+  }
+
+  private static void rethrow(Throwable failure) {
+    if (failure instanceof Error error) {
+      throw error;
+    }
+    throw (RuntimeException) failure;
+  }
+
+  /**
+   * Starts a computation on the pool without waiting for it, e.g. a stage of a pipeline that runs
+   * next to the calling thread.
+   *
+   * @param computation the computation
+   * @param <R>         type of the result
+   * @return the pending result of the computation
+   */
+  public <R> Future<R> submit(Callable<R> computation) {
+    return getPool().submit(computation);
+  }
+
+  /**
+   * Getter for the number of threads of the pool.
+   *
+   * @return configured size or the number of available processors
+   */
+  public int getParallelism() {
+    return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+  }
+
+  private synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      pool = new ForkJoinPool(getParallelism());
+    }
+    return pool;
+  }
+
+  @Override
+  public synchronized void destroy() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+  }
+}
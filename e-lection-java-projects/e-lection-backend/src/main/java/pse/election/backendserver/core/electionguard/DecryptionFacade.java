@@ -1,25 +1,35 @@
 package pse.election.backendserver.core.electionguard;
 
 import com.sunya.electionguard.ChaumPedersen;
-import com.sunya.electionguard.Dlog;
 import com.sunya.electionguard.ElGamal;
 import com.sunya.electionguard.ElectionPolynomial;
 import com.sunya.electionguard.Group;
-import com.sunya.electionguard.Group.ElementModP;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import pse.election.backendserver.core.electionguard.math.BatchDivision;
+import pse.election.backendserver.core.electionguard.math.MultiExponentiation;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.service.ResultEvaluationService;
 import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.core.service.TallyShardService;
 import pse.election.backendserver.core.service.TrusteeService;
+import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Ballot;
 import pse.election.backendserver.entity.Contest;
 import pse.election.backendserver.entity.Election;
@@ -27,6 +37,7 @@ import pse.election.backendserver.entity.OptionEncrypted;
 import pse.election.backendserver.entity.PartialDecryption;
 import pse.election.backendserver.entity.PartialPartialDecryption;
 import pse.election.backendserver.entity.Tally;
+import pse.election.backendserver.entity.TallyShard;
 import pse.election.backendserver.entity.Trustee;
 import pse.election.backendserver.payload.error.exception.EntityNotFoundException;
 
@@ -34,18 +45,18 @@ import pse.election.backendserver.payload.error.exception.EntityNotFoundExceptio
 /**
  * Facade for the electionGuard java implementation. Implements the interface IDecryption. Uses the
  * decryption tools of the electionGuard java implementation to combine encryption's and to decrypt
- * them.
+ * them. If decryption.lazySpoiledBallots is set, spoiled ballots are not decrypted together with
+ * the tally, but on the first request of the election record or by a background sweep.
  */
 @Component
 public class DecryptionFacade {
 
-  public static final int MAX_ACCUMULATION = 200000;
+  private static final Logger logger = LogManager.getLogger(DecryptionFacade.class);
   private static final int BIG_INTEGER_RADIX = 16;
   private static final String TRUSTEE_NOT_FOUND_ERROR_MSG = "Trustee could not be found.";
-  // Default Ciphertext in case no ballots have been cast.
-  // It is equal to the value 0 decrypted with nonce 0
-  private static final ElGamal.Ciphertext DEFAULT_ZERO = new ElGamal.Ciphertext(Group.ONE_MOD_P,
-      Group.ONE_MOD_P);
+  private static final String TALLY_NOT_FOUND_ERROR_MSG = "Tally could not be found.";
+  private static final String OPTION_NOT_FOUND_ERROR_MSG = "Encrypted option could not be found.";
+  private static final String EMPTY_SHARE_PRODUCT = "1";
 
   private final BallotService ballotService;
 
@@ -57,44 +68,97 @@ public class DecryptionFacade {
 
   private final TrusteeService trusteeService;
 
+  private final TallyShardService tallyShardService;
+
+  private final DiscreteLogService discreteLogService;
+
+  private final CryptoPool cryptoPool;
+
+  private final ResultEvaluationService resultEvaluationService;
+
+  @Value("${decryption.lazySpoiledBallots:false}")
+  private boolean lazySpoiledBallots;
+
   /**
    * Constructor of new DecryptionFacade.
    * */
   @Lazy
   public DecryptionFacade(BallotService ballotService, ElectionService electionService,
       TallyService tallyService, DecryptionService decryptionService,
-      TrusteeService trusteeService) {
+      TrusteeService trusteeService, TallyShardService tallyShardService,
+      DiscreteLogService discreteLogService, CryptoPool cryptoPool,
+      ResultEvaluationService resultEvaluationService) {
     this.ballotService = ballotService;
     this.electionService = electionService;
     this.tallyService = tallyService;
     this.decryptionService = decryptionService;
     this.trusteeService = trusteeService;
+    this.tallyShardService = tallyShardService;
+    this.discreteLogService = discreteLogService;
+    this.cryptoPool = cryptoPool;
+    this.resultEvaluationService = resultEvaluationService;
   }
 
   /**
    * Combines the corresponding OptionEncrypted to generate a Tally for an Option. By doing so, all
-   * Pads and Data's of an Option get Homomorphic combined.
+   * Pads and Data's of an Option get Homomorphic combined. Elections with more submitted ballots
+   * than fit into a single shard are split into ballot ranges, which can be accumulated by every
+   * backend instance sharing the database, before the partial products get combined here. The
+   * share products of the tallies and of the spoiled ballots start at one, so that the partial
+   * decryptions can be multiplied into them as they get uploaded.
    *
    * @param election is the election to combine the encrypted options for
    */
   public void combineOptionsEncryptedToTallies(Election election) {
+    combineOptionsEncryptedToTallies(election, tally -> { });
+  }
+
+  /**
+   * Combines the encrypted options to tallies like {@link #combineOptionsEncryptedToTallies(
+   * Election)} and hands every tally to a consumer as soon as it has been saved.
+   *
+   * @param election      is the election to combine the encrypted options for
+   * @param tallyConsumer receives every saved tally
+   */
+  public void combineOptionsEncryptedToTallies(Election election, Consumer<Tally> tallyConsumer) {
     List<Contest> sortedListOfContest = electionService.getAllContestsOfElection(
         election.getElectionId());
     Collections.sort(sortedListOfContest);
+    ballotService.initialiseShareProductsOfSpoiledBallots(election.getElectionId());
 
+    List<TallyShard> shards = tallyShardService.planShards(election.getElectionId());
+    if (shards.isEmpty()) {
+      for (Contest contest : sortedListOfContest) {
+        convertOptionEncryptedToTally(contest, election, tallyConsumer);
+      }
+      return;
+    }
+
+    tallyShardService.awaitShards(election.getElectionId());
+    Map<Integer, ElGamal.Ciphertext[]> combinedShards = tallyShardService.combineShards(
+        election.getElectionId(), sortedListOfContest);
     for (Contest contest : sortedListOfContest) {
-      convertOptionEncryptedToTally(contest, election);
+      ElGamal.Ciphertext[] ciphertexts = combinedShards.get(contest.getIndex());
+      for (int optionIndex = 0; optionIndex < ciphertexts.length; optionIndex++) {
+        Tally tally = new Tally(election.getElectionId(), contest.getIndex(), optionIndex,
+            ciphertexts[optionIndex].pad().base16(), ciphertexts[optionIndex].data().base16());
+        tally.setShareProduct(EMPTY_SHARE_PRODUCT);
+        tallyConsumer.accept(tallyService.addTally(tally));
+      }
     }
+    tallyShardService.deleteShards(election.getElectionId());
   }
 
   /**
    * Creates the Tallies for all Options of a specific Contest. By doing so it combines the
    * OptionEncrypted for each method.
    *
-   * @param contest  the contest for which the tallies get created
-   * @param election the election for which the tallies get created
+   * @param contest       the contest for which the tallies get created
+   * @param election      the election for which the tallies get created
+   * @param tallyConsumer receives every saved tally
    */
-  private void convertOptionEncryptedToTally(Contest contest, Election election) {
+  private void convertOptionEncryptedToTally(Contest contest, Election election,
+      Consumer<Tally> tallyConsumer) {
     for (int optionIndex = 0; optionIndex < contest.getOptions().size() + contest.getMax();
         optionIndex++) {
       List<OptionEncrypted> optionEncryptedList = ballotService
@@ -104,70 +168,183 @@ public class DecryptionFacade {
               optionIndex
           );
 
-      ElGamal.Ciphertext[] ciphertextsForOptionI
-          = new ElGamal.Ciphertext[optionEncryptedList.size()];
-
-      for (int optionEncryptedIndex = 0; optionEncryptedIndex < optionEncryptedList.size();
-          optionEncryptedIndex++) {
-        ciphertextsForOptionI[optionEncryptedIndex] = new ElGamal.Ciphertext(
-            Group.int_to_p_unchecked(
-                optionEncryptedList.get(optionEncryptedIndex).getCiphertextPAD()),
-            Group.int_to_p_unchecked(
-                optionEncryptedList.get(optionEncryptedIndex).getCiphertextDATA()));
-      }
-
-      if (ciphertextsForOptionI.length == 0) {
-        ciphertextsForOptionI = new ElGamal.Ciphertext[]{DEFAULT_ZERO};
+      ProductAccumulator padProduct = ProductAccumulator.modP();
+      ProductAccumulator dataProduct = ProductAccumulator.modP();
+      for (OptionEncrypted optionEncrypted : optionEncryptedList) {
+        padProduct.multiply(optionEncrypted.getCiphertextPAD());
+        dataProduct.multiply(optionEncrypted.getCiphertextDATA());
       }
 
+      // Without any cast ballot both products stay one, which equals the default ciphertext
       Tally tally = new Tally(election.getElectionId(), contest.getIndex(), optionIndex);
-      ElGamal.Ciphertext combinedElGamalCiphertext = ElGamal.elgamal_add(ciphertextsForOptionI);
-
-      tally.setCiphertextPAD(combinedElGamalCiphertext.pad().base16());
-      tally.setCiphertextDATA(combinedElGamalCiphertext.data().base16());
-      tallyService.addTally(tally);
+      tally.setCiphertextPAD(padProduct.getElementModP().base16());
+      tally.setCiphertextDATA(dataProduct.getElementModP().base16());
+      tally.setShareProduct(EMPTY_SHARE_PRODUCT);
+      tallyConsumer.accept(tallyService.addTally(tally));
     }
   }
 
   /**
    * Evaluated the Result of an Election. First, if PartialPartial Descriptions are available, it
    * combines them and then generates the Result for each value. Does this for the Election and for
-   * all SpoiledBallots
+   * all SpoiledBallots. All decryptions, tallies and trustees of the election are loaded once up
+   * front instead of once per option. The selections of the tally and the spoiled ballots are
+   * decrypted in parallel on the crypto pool, the results are assembled in their original order.
+   * Every decrypted selection is reported as progress of the result evaluation. Spoiled ballots
+   * are skipped if they are decrypted lazily. Selections whose shares have been multiplied as the
+   * decryptions were uploaded are only divided by their share product.
    *
    * @param election the election for which the results gets evaluated
    */
   public void evaluateResult(Election election) {
-    Map<Integer, Integer[]> results = reconstructElectionShares(election);
-    electionService.setResult(election.getElectionId(), results);
+    long electionId = election.getElectionId();
+    List<Trustee> trusteeList = trusteeService.getAllTrustees(electionId);
+    List<Contest> contestList = electionService.getAllContestsOfElection(electionId);
+    List<Ballot> spoiledBallots = lazySpoiledBallots ? Collections.emptyList()
+        : ballotService.getAllSpoiledBallotsOfElection(electionId);
+    resultEvaluationService.addTotalSelections(electionId,
+        countSelections(contestList) * (1L + spoiledBallots.size()));
+
+    Map<Integer, Integer[]> results = reconstructElectionShares(election, contestList,
+        trusteeList);
+    electionService.setResult(electionId, results);
     Map<Long, Map<Integer, Integer[]>> resultsSpoiledBallots = reconstructedSpoiledBallotShares(
-        election);
+        electionId, contestList, spoiledBallots, trusteeList, true);
     ballotService.saveDecryptedSpoiledBallot(resultsSpoiledBallots);
   }
 
+  /**
+   * Decrypts the spoiled ballots of an election that have not been decrypted yet. Nothing is done
+   * before the tally of the election has been evaluated.
+   *
+   * @param electionId the election whose spoiled ballots get decrypted
+   */
+  public void decryptPendingSpoiledBallots(long electionId) {
+    decryptPendingSpoiledBallots(electionId, true);
+  }
+
+  /**
+   * Decrypts the pending spoiled ballots of all evaluated elections one after another, if spoiled
+   * ballots are decrypted lazily. The ballots are decrypted on the scheduling thread instead of
+   * the crypto pool, so that the sweep does not compete with evaluations and requests.
+   */
+  @Scheduled(fixedDelayString = "${decryption.spoiledBallotSweepInterval:60000}")
+  public void sweepSpoiledBallots() {
+    if (!lazySpoiledBallots) {
+      return;
+    }
+    for (long electionId : ballotService.getElectionIdsWithUndecryptedSpoiledBallots()) {
+      try {
+        decryptPendingSpoiledBallots(electionId, false);
+      } catch (RuntimeException e) {
+        logger.error("Decrypting the spoiled ballots of election " + electionId + " failed.", e);
+      }
+    }
+  }
+
+  /**
+   * Resumes the result evaluations that have been interrupted by a stopped instance or that have
+   * failed, so that the results of those elections are still published.
+   */
+  @Scheduled(fixedDelayString = "${evaluation.resumeInterval:60000}")
+  public void resumeResultEvaluations() {
+    for (long electionId : resultEvaluationService.getResumableElectionIds()) {
+      Election election = electionService.getElection(electionId);
+      resultEvaluationService.resume(electionId, () -> evaluateResult(election));
+    }
+  }
+
+  private void decryptPendingSpoiledBallots(long electionId, boolean parallel) {
+    if (electionService.getState(electionId) != ElectionState.DONE
+        || !resultEvaluationService.isResultAvailable(electionId)) {
+      return;
+    }
+    ballotService.decryptPendingSpoiledBallots(electionId, pendingBallots -> {
+      List<Trustee> trusteeList = trusteeService.getAllTrustees(electionId);
+      List<Contest> contestList = electionService.getAllContestsOfElection(electionId);
+      return reconstructedSpoiledBallotShares(electionId, contestList, pendingBallots,
+          trusteeList, parallel);
+    });
+  }
+
+  /**
+   * Evaluates the result of an election like {@link #evaluateResult(Election)} on a background
+   * thread. The progress of the evaluation is reported to the {@link ResultEvaluationService}.
+   *
+   * @param election the election for which the results gets evaluated
+   */
+  public void evaluateResultInBackground(Election election) {
+    resultEvaluationService.submit(election.getElectionId(), () -> evaluateResult(election));
+  }
+
+  private static long countSelections(List<Contest> contestList) {
+    long selections = 0;
+    for (Contest contest : contestList) {
+      selections += contest.getOptions().size() + contest.getMax();
+    }
+    return selections;
+  }
+
   /**
    * Gets all Partial and PartialPartial Decryptions of an Election by Option, generates the
-   * PartialDecryption out of all corresponding PartialPartial Decryptions and combines them.
+   * PartialDecryption out of all corresponding PartialPartial Decryptions and combines them. The
+   * decryptions are not loaded at all if the shares of every tally have been accumulated. The data
+   * of all tallies is divided by the products of their shares in one batch.
    *
-   * @param election is the election to reconstruct the election shares
+   * @param election    is the election to reconstruct the election shares
+   * @param contestList all contests of the election
+   * @param trusteeList all trustees of the election
    * @return map containing the decrypted result to each option of each contest
    */
-  private Map<Integer, Integer[]> reconstructElectionShares(Election election) {
-    List<Contest> contestList = electionService.getAllContestsOfElection(election.getElectionId());
+  private Map<Integer, Integer[]> reconstructElectionShares(Election election,
+      List<Contest> contestList, List<Trustee> trusteeList) {
+    long electionId = election.getElectionId();
+    Map<Long, Tally> tallies = new HashMap<>();
+    for (Tally tally : tallyService.getAllTalliesOfElection(electionId)) {
+      tallies.put(Tally.selectionKey(tally.getContestIndex(), tally.getOptionIndex()), tally);
+    }
+    boolean sharesAccumulated = tallies.values().stream()
+        .allMatch(tally -> tally.getShareProduct() != null);
+    Map<Long, List<PartialDecryption>> partialDecryptions = sharesAccumulated ? Map.of()
+        : decryptionService.getAllPartialDecryptionOfTalliesByTally(electionId);
+    Map<Long, List<PartialPartialDecryption>> partialPartialDecryptions = sharesAccumulated
+        ? Map.of() : decryptionService.getAllPartialPartialDecryptionOfTalliesByTally(electionId);
+    long maxVotes = ballotService.getSubmittedBallotCount(electionId);
+
+    List<Tally> selections = new ArrayList<>();
+    for (Contest contest : contestList) {
+      for (int i = 0; i < contest.getOptions().size() + contest.getMax(); i++) {
+        Tally tally = tallies.get(Tally.selectionKey(contest.getIndex(), i));
+        if (tally == null) {
+          throw new EntityNotFoundException(TALLY_NOT_FOUND_ERROR_MSG);
+        }
+        selections.add(tally);
+      }
+    }
+    List<Group.ElementModP> sharesProducts = cryptoPool.map(selections, tally ->
+        sharesAccumulated ? parseShareProduct(tally.getShareProduct())
+            : combineShares(reconstructPartialDecryption(
+                partialDecryptions.getOrDefault(tally.getTallyId(), Collections.emptyList()),
+                partialPartialDecryptions.getOrDefault(tally.getTallyId(),
+                    Collections.emptyList()),
+                trusteeList)));
+    List<Group.ElementModP> data = new ArrayList<>();
+    for (Tally tally : selections) {
+      data.add(Group.int_to_p_unchecked(tally.getCiphertextDATA()));
+    }
+    // All selections are divided by their share products with a single inversion
+    List<Group.ElementModP> decryptedValues = BatchDivision.divideModP(data, sharesProducts);
+    Iterator<Integer> decryptedSelections = cryptoPool.map(decryptedValues, value -> {
+      Integer decryptedSelection = discreteLogService.discreteLog(value, maxVotes);
+      resultEvaluationService.addProcessedSelections(electionId, 1);
+      return decryptedSelection;
+    }).iterator();
+
     Map<Integer, Integer[]> combinedResultForContests = new HashMap<>();
     for (Contest contest : contestList) {
       Integer[] combinedResultOption = new Integer[contest.getOptions().size() + contest.getMax()];
-      for (int i = 0; i < contest.getOptions().size() + contest.getMax(); i++) {
-        List<PartialDecryption> shares =
-            reconstructPartialDecryption(
-                decryptionService.getAllPartialDecryptionOfTally(election.getElectionId(),
-                    contest.getIndex(), i),
-                decryptionService.getAllPartialPartialDecryptionOfTally(election.getElectionId(),
-                    contest.getIndex(), i),
-                election);
-        Group.ElementModP data = Group.int_to_p_unchecked(
-            tallyService.getSpecificTally(election.getElectionId(), contest.getIndex(), i)
-                .getCiphertextDATA());
-        combinedResultOption[i] = combineShares(shares, data);
+      for (int i = 0; i < combinedResultOption.length; i++) {
+        combinedResultOption[i] = decryptedSelections.next();
       }
       combinedResultForContests.put(contest.getIndex(), combinedResultOption);
     }
@@ -180,14 +357,13 @@ public class DecryptionFacade {
    *
    * @param partialDecryptions                         PartialDecryption for an Option
    * @param partialPartialDecryptionOfOptionForTrustee PartialPartial Decryption for the Option
-   * @param election                                   Election of which the Option is
+   * @param trusteeList                                all trustees of the election
    * @return all the initiale Partial Decryption plus the newly created PartialDecryptions
    */
   private List<PartialDecryption> reconstructPartialDecryption(
       List<PartialDecryption> partialDecryptions,
       List<PartialPartialDecryption> partialPartialDecryptionOfOptionForTrustee,
-      Election election) {
-    List<Trustee> trusteeList = trusteeService.getAllTrustees(election.getElectionId());
+      List<Trustee> trusteeList) {
     List<Trustee> missingTrusteeList = new ArrayList<>();
     List<Trustee> availableTrusteeList = new ArrayList<>();
     List<PartialDecryption> shares = new ArrayList<>(partialDecryptions);
@@ -224,17 +400,18 @@ public class DecryptionFacade {
       List<Trustee> missingTrusteeList, List<Trustee> availableTrusteeList,
       List<PartialPartialDecryption> ppDecryptionOfOption) {
     List<PartialDecryption> shares = new ArrayList<>();
+    Map<Long, Trustee> availableTrusteesById = new HashMap<>();
+    for (Trustee trustee : availableTrusteeList) {
+      availableTrusteesById.put(trustee.getTrusteeId(), trustee);
+    }
 
     for (Trustee missingTrustee : missingTrusteeList) {
       List<PartialPartialDecryption> ppDecryptionForTrustee
           = collectPartialPartialDecryptionOfOptionForTrustee(
               ppDecryptionOfOption, missingTrustee.getTrusteeId());
 
-      List<Group.ElementModP> sharePowP = collectShareOfPowP(ppDecryptionForTrustee,
-          availableTrusteeList);
-      Group.ElementModP reconstructedShare = Group.mult_p(sharePowP);
-
-      PartialDecryption partialDecryption = new PartialDecryption(reconstructedShare.toString(),
+      PartialDecryption partialDecryption = new PartialDecryption(
+          combineShareOfPowP(ppDecryptionForTrustee, availableTrusteesById).toString(),
           missingTrustee.getTrusteeId());
       shares.add(partialDecryption);
     }
@@ -243,29 +420,26 @@ public class DecryptionFacade {
   }
 
   /**
-   * Reconstructs the shares with the specific LagrangeCoefficient.
+   * Reconstructs the share of a missing trustee by raising each partial partial decryption to the
+   * LagrangeCoefficient of its trustee and multiplying the results in one multi-exponentiation.
    *
    * @param ppDecryptionForTrustee partialDecryption for an Option
-   * @param availableTrusteeList   trustees which attend the reconstruction
-   * @return the list with the generated shares
+   * @param availableTrustees      trustees which attend the reconstruction, mapped by their id
+   * @return the reconstructed share
    */
-  private List<Group.ElementModP> collectShareOfPowP(
-      List<PartialPartialDecryption> ppDecryptionForTrustee, List<Trustee> availableTrusteeList) {
-    List<Group.ElementModP> sharePowP = new ArrayList<>();
+  private Group.ElementModP combineShareOfPowP(
+      List<PartialPartialDecryption> ppDecryptionForTrustee, Map<Long, Trustee> availableTrustees) {
+    List<BigInteger> bases = new ArrayList<>();
+    List<BigInteger> exponents = new ArrayList<>();
     for (PartialPartialDecryption partialPartialDecryption : ppDecryptionForTrustee) {
-      Trustee correspondingTrustee = availableTrusteeList
-          .stream()
-          .filter(trustee -> trustee.getTrusteeId() == partialPartialDecryption.getTrusteeId())
-          .findAny()
-          .orElseThrow(() -> new EntityNotFoundException(TRUSTEE_NOT_FOUND_ERROR_MSG));
-
-      sharePowP.add(Group.pow_p(
-          Group.int_to_p_unchecked(
-              new BigInteger(partialPartialDecryption.getDecryption(), BIG_INTEGER_RADIX)),
-          Group.int_to_p_unchecked(correspondingTrustee.getLagrangeCoefficient()))
-      );
+      Trustee correspondingTrustee = availableTrustees.get(partialPartialDecryption.getTrusteeId());
+      if (correspondingTrustee == null) {
+        throw new EntityNotFoundException(TRUSTEE_NOT_FOUND_ERROR_MSG);
+      }
+      bases.add(new BigInteger(partialPartialDecryption.getDecryption(), BIG_INTEGER_RADIX));
+      exponents.add(correspondingTrustee.getLagrangeCoefficient());
     }
-    return sharePowP;
+    return MultiExponentiation.modP(bases, exponents);
   }
 
   /**
@@ -315,76 +489,111 @@ public class DecryptionFacade {
    * Generates the combination of all PartialDecryption of an Option.
    *
    * @param partialDecryptions the PartialDecryptions
-   * @param data               the corresponding encrypted data
-   * @return the decrypted value, so the total votes for this Option
+   * @return the product of all PartialDecryptions
    */
-  private Integer combineShares(List<PartialDecryption> partialDecryptions,
-      Group.ElementModP data) {
-    Collection<ElementModP> shares = new ArrayList<>();
+  private Group.ElementModP combineShares(List<PartialDecryption> partialDecryptions) {
+    ProductAccumulator allSharesProduct = ProductAccumulator.modP();
     for (PartialDecryption partialDecryption : partialDecryptions) {
-      shares.add(Group.int_to_p_unchecked(partialDecryption.getDecryption()));
+      allSharesProduct.multiply(partialDecryption.getDecryption());
     }
-    Group.ElementModP allSharesProduct = Group.mult_p(shares);
-    Group.ElementModP decryptedValue = Group.div_p(data, allSharesProduct);
-    Dlog.setMax(MAX_ACCUMULATION);
-    return Dlog.discrete_log(decryptedValue);
+    return allSharesProduct.getElementModP();
   }
 
+  private static Group.ElementModP parseShareProduct(String shareProduct) {
+    return Group.int_to_p_unchecked(new BigInteger(shareProduct, BIG_INTEGER_RADIX));
+  }
+
+
   /**
    * Collects all PartialDecryption for all Spoiled Ballot and if necessary combines the
    * PartialPartial to ParitalDecrypitons.
    *
-   * @param election the election which gets decrypted
+   * @param electionId    the election which gets decrypted
+   * @param contestList   all contests of the election
+   * @param spoiledBallot the spoiled ballots to be decrypted
+   * @param trusteeList   all trustees of the election
+   * @param parallel      whether the ballots are decrypted on the crypto pool
    * @return Map with all results of each spoiled Ballot
    */
-  private Map<Long, Map<Integer, Integer[]>> reconstructedSpoiledBallotShares(Election election) {
-    List<Contest> contestList = electionService.getAllContestsOfElection(election.getElectionId());
-    List<Ballot> spoiledBallot = ballotService.getAllSpoiledBallotsOfElection(
-        election.getElectionId());
+  private Map<Long, Map<Integer, Integer[]>> reconstructedSpoiledBallotShares(long electionId,
+      List<Contest> contestList, List<Ballot> spoiledBallot, List<Trustee> trusteeList,
+      boolean parallel) {
     Map<Long, Map<Integer, Integer[]>> output = new HashMap<>();
+    if (spoiledBallot.isEmpty()) {
+      return output;
+    }
 
-    for (Ballot ballot : spoiledBallot) {
+    long selectionsPerBallot = countSelections(contestList);
+    Map<Long, Map<Long, OptionEncrypted>> optionsOfBallots = new HashMap<>();
+    for (OptionEncrypted option : ballotService.getAllOptionsEncryptedOfSpoiledBallots(
+        electionId)) {
+      optionsOfBallots.computeIfAbsent(option.getBallotId(), id -> new HashMap<>())
+          .put(Tally.selectionKey(option.getContestIndex(), option.getOptionIndex()), option);
+    }
+    boolean sharesAccumulated = optionsOfBallots.values().stream()
+        .flatMap(options -> options.values().stream())
+        .allMatch(option -> option.getShareProduct() != null);
+    Map<Long, List<PartialDecryption>> partialDecryptions = sharesAccumulated ? Map.of()
+        : decryptionService.getAllPartialDecryptionOfSpoiledBallotsByOption(electionId);
+    Map<Long, List<PartialPartialDecryption>> partialPartialDecryptions = sharesAccumulated
+        ? Map.of()
+        : decryptionService.getAllPartialPartialDecryptionOfSpoiledBallotsByOption(electionId);
+
+    Function<Ballot, Map<Integer, Integer[]>> decryptBallot = ballot -> {
+      Map<Long, OptionEncrypted> options = optionsOfBallots.getOrDefault(ballot.getBallotId(),
+          Collections.emptyMap());
       Map<Integer, Integer[]> combinedResultForContests = new HashMap<>();
       for (Contest contest : contestList) {
-        Integer[] combinedResultOption = collectCombinedResultOption(contest, ballot, election);
+        Integer[] combinedResultOption = collectCombinedResultOption(contest, options,
+            sharesAccumulated, partialDecryptions, partialPartialDecryptions, trusteeList);
         combinedResultForContests.put(contest.getIndex(), combinedResultOption);
       }
-      output.put(ballot.getBallotId(), combinedResultForContests);
+      resultEvaluationService.addProcessedSelections(electionId, selectionsPerBallot);
+      return combinedResultForContests;
+    };
+    List<Map<Integer, Integer[]>> results = parallel ? cryptoPool.map(spoiledBallot, decryptBallot)
+        : spoiledBallot.stream().map(decryptBallot).toList();
+    for (int i = 0; i < spoiledBallot.size(); i++) {
+      output.put(spoiledBallot.get(i).getBallotId(), results.get(i));
     }
     return output;
   }
 
   /**
-   * Collects all Partial and PartialPartial Decryption for a Ballot and a specific Contest.
+   * Collects all Partial and PartialPartial Decryption for a Ballot and a specific Contest. Every
+   * selection of a spoiled ballot is zero or one and decoded without a discrete logarithm.
    *
-   * @param contest  the contest
-   * @param ballot   the ballot
-   * @param election the election for which the results gets evaluated
+   * @param contest                   the contest
+   * @param options                   the encrypted options of the ballot, mapped by selection
+   * @param sharesAccumulated         whether the share products of the options are used
+   * @param partialDecryptions        partial decryptions of the election, mapped by option
+   * @param partialPartialDecryptions partial partial decryptions of the election, mapped by option
+   * @param trusteeList               all trustees of the election
    * @return the results mapped to their optionIndex
    */
-  private Integer[] collectCombinedResultOption(Contest contest, Ballot ballot, Election election) {
+  private Integer[] collectCombinedResultOption(Contest contest, Map<Long, OptionEncrypted> options,
+      boolean sharesAccumulated, Map<Long, List<PartialDecryption>> partialDecryptions,
+      Map<Long, List<PartialPartialDecryption>> partialPartialDecryptions,
+      List<Trustee> trusteeList) {
     Integer[] combinedResultOption = new Integer[contest.getOptions().size()];
     for (int optionIndex = 0; optionIndex < contest.getOptions().size(); optionIndex++) {
-      List<PartialDecryption> shares = reconstructPartialDecryption(
-          decryptionService.getAllPartialDecryptionOfSpoiledBallotOption(
-              ballot.getBallotId(),
-              contest.getIndex(),
-              optionIndex
-          ),
-          decryptionService.getAllPartialPartialDecryptionOfSpoiledBallotOption(
-              ballot.getBallotId(),
-              contest.getIndex(),
-              optionIndex
-          ),
-          election
-      );
-      Group.ElementModP data = Group.int_to_p_unchecked(ballotService.getSpecificOptionOfBallot(
-          ballot.getBallotId(),
-          contest.getIndex(),
-          optionIndex
-      ).getCiphertextDATA());
-
-      combinedResultOption[optionIndex] = combineShares(shares, data);
+      OptionEncrypted option = options.get(Tally.selectionKey(contest.getIndex(), optionIndex));
+      if (option == null) {
+        throw new EntityNotFoundException(OPTION_NOT_FOUND_ERROR_MSG);
+      }
+      Group.ElementModP sharesProduct = sharesAccumulated
+          ? parseShareProduct(option.getShareProduct())
+          : combineShares(reconstructPartialDecryption(
+              partialDecryptions.getOrDefault(option.getOptionEncryptedId(),
+                  Collections.emptyList()),
+              partialPartialDecryptions.getOrDefault(option.getOptionEncryptedId(),
+                  Collections.emptyList()),
+              trusteeList
+          ));
+      Group.ElementModP data = Group.int_to_p_unchecked(option.getCiphertextDATA());
+
+      combinedResultOption[optionIndex] = discreteLogService.decryptBinarySelection(data,
+          sharesProduct);
     }
     return combinedResultOption;
   }
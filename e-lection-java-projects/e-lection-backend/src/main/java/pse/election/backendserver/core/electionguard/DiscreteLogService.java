@@ -0,0 +1,144 @@
+package pse.election.backendserver.core.electionguard;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pse.election.backendserver.core.electionguard.math.DiscreteLogTable;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
+
+/**
+ * Computes discrete logarithms to the generator of the electionGuard group. A single baby-step
+ * giant-step table is shared by all decryptions and only replaced by a larger one if a bound exceeds
+ * what the current table covers with few giant steps. If a table directory is configured, the table
+ * is written there once and memory mapped by every later start of the backend.
+ * The number of baby steps is kept between a configured minimum and maximum. Raising the minimum
+ * spends memory on fewer giant steps per decryption, the maximum bounds the off heap memory of the
+ * table at 12 bytes per step. The largest supported number of votes is configured separately and
+ * limits the number of voters of an election. Selections of spoiled ballots can only decrypt to
+ * zero or one and are decoded without a table.
+ */
+@Component
+public class DiscreteLogService {
+
+  private static final Logger logger = LogManager.getLogger(DiscreteLogService.class);
+  private static final String TABLE_FILE_FORMAT = "dlog-%d.table";
+  private static final String NO_LOGARITHM_ERROR_MSG
+      = "The decrypted value is no power of the generator up to ";
+  private static final Group.ElementModP GENERATOR = Group.int_to_p_unchecked(
+      ElectionConstants.STANDARD_CONSTANTS.generator);
+
+  @Value("${decryption.dlogTableDirectory:#{null}}")
+  private String tableDirectory;
+
+  @Value("${decryption.minBabySteps:4096}")
+  private int minBabySteps = 1 << 12;
+
+  @Value("${decryption.maxBabySteps:4194304}")
+  private int maxBabySteps = 1 << 22;
+
+  @Value("${decryption.maxVotes:10000000}")
+  private long maxVotes = 10_000_000L;
+
+  private volatile DiscreteLogTable table;
+
+  /**
+   * Solves g^x = value for x in [0, bound], where g is the generator of the electionGuard group.
+   *
+   * @param value the decrypted value
+   * @param bound the largest expected result, e.g. the number of cast ballots
+   * @return the discrete logarithm of the value
+   * @throws IllegalArgumentException in case there is no logarithm up to the bound
+   */
+  public int discreteLog(Group.ElementModP value, long bound) {
+    long result = getTable(bound).solve(value.getBigInt(), bound);
+    if (result < 0) {
+      throw new IllegalArgumentException(NO_LOGARITHM_ERROR_MSG + bound);
+    }
+    return (int) result;
+  }
+
+  /**
+   * Decrypts a selection that is either g^0 or g^1 without dividing by the product of the shares.
+   * The data equals the product of the shares for a zero and the product times g for a one, so a
+   * single multiplication replaces the inversion and the table lookup.
+   *
+   * @param data          the encrypted data of the selection
+   * @param sharesProduct the product of the partial decryptions of all trustees
+   * @return zero or one
+   * @throws IllegalArgumentException in case the selection decrypts to neither
+   */
+  public int decryptBinarySelection(Group.ElementModP data, Group.ElementModP sharesProduct) {
+    if (data.getBigInt().equals(sharesProduct.getBigInt())) {
+      return 0;
+    }
+    if (data.getBigInt().equals(Group.mult_p(sharesProduct, GENERATOR).getBigInt())) {
+      return 1;
+    }
+    throw new IllegalArgumentException(NO_LOGARITHM_ERROR_MSG + 1);
+  }
+
+  /**
+   * Getter for the largest number of votes a single option can be decrypted to. Elections must not
+   * have more voters than this.
+   *
+   * @return the configured capacity
+   */
+  public long getMaxVotes() {
+    return maxVotes;
+  }
+
+  /**
+   * Getter for a table suitable for the given bound. The table is computed on first use.
+   *
+   * @param bound the largest expected result
+   * @return table with the square root of the bound as baby steps, within the configured limits
+   */
+  public DiscreteLogTable getTable(long bound) {
+    int babySteps = babyStepsFor(bound);
+    DiscreteLogTable current = table;
+    if (current != null && current.getBabySteps() >= babySteps) {
+      return current;
+    }
+    synchronized (this) {
+      if (table == null || table.getBabySteps() < babySteps) {
+        table = createTable(babySteps);
+      }
+      return table;
+    }
+  }
+
+  /**
+   * Rounds the square root of the bound up to a power of two, so that growing elections reuse the
+   * same few table sizes, and clamps it to the configured limits.
+   */
+  private int babyStepsFor(long bound) {
+    long root = (long) Math.ceil(Math.sqrt(bound + 1.0));
+    long babySteps = Long.highestOneBit(Math.max(root, 1L));
+    if (babySteps < root) {
+      babySteps <<= 1;
+    }
+    return (int) Math.min(Math.max(babySteps, minBabySteps), maxBabySteps);
+  }
+
+  private DiscreteLogTable createTable(int babySteps) {
+    if (tableDirectory != null) {
+      Path file = Paths.get(tableDirectory, String.format(TABLE_FILE_FORMAT, babySteps));
+      try {
+        Files.createDirectories(file.getParent());
+        return DiscreteLogTable.loadOrBuild(file, ProductAccumulator.modPEngine(),
+            ElectionConstants.STANDARD_CONSTANTS.generator, babySteps);
+      } catch (IOException e) {
+        logger.warn("Discrete log table " + file + " is not available, computing it in memory.", e);
+      }
+    }
+    return DiscreteLogTable.build(ProductAccumulator.modPEngine(),
+        ElectionConstants.STANDARD_CONSTANTS.generator, babySteps);
+  }
+}
@@ -0,0 +1,132 @@
+package pse.election.backendserver.core.electionguard;
+
+import com.sunya.electionguard.ElGamal;
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import pse.election.backendserver.entity.Contest;
+import pse.election.backendserver.entity.OptionEncrypted;
+import pse.election.backendserver.entity.Tally;
+
+/**
+ * Immutable view of the ciphertexts a trustee decrypts, i.e. the tally and the encrypted options of
+ * every spoiled ballot, together with the extended base hash of the election. It is loaded once per
+ * decryption upload, so that all partial decryptions of the upload are verified against the same
+ * ciphertexts without further queries and without parsing them again.
+ *
+ * @version 1.0
+ */
+public final class ElectionCiphertextSnapshot {
+
+  /**
+   * Ballot id the tally is referenced by in a partial decryption.
+   */
+  public static final long TALLY_ID = -1;
+
+  private final Map<Integer, Integer> optionCountOfContests;
+  private final Map<Long, Map<Integer, ElGamal.Ciphertext[]>> ciphertexts;
+  private final Set<Long> spoiledBallotIds;
+  private final Group.ElementModQ extendedBaseHash;
+
+  /**
+   * Constructor of new ElectionCiphertextSnapshot.
+   *
+   * @param contests         contests of the election
+   * @param tallies          tallied options of the election, empty if only ballots are verified
+   * @param spoiledBallotIds identifiers of the spoiled ballots of the election
+   * @param spoiledOptions   encrypted options of the spoiled ballots
+   * @param extendedBaseHash extended base hash of the election
+   */
+  public ElectionCiphertextSnapshot(List<Contest> contests, List<Tally> tallies,
+      List<Long> spoiledBallotIds, List<OptionEncrypted> spoiledOptions,
+      Group.ElementModQ extendedBaseHash) {
+    Map<Integer, Integer> optionCounts = new LinkedHashMap<>();
+    for (Contest contest : contests) {
+      optionCounts.put(contest.getIndex(), contest.getOptions().size() + contest.getMax());
+    }
+    this.optionCountOfContests = Collections.unmodifiableMap(optionCounts);
+    this.spoiledBallotIds = Collections.unmodifiableSet(new LinkedHashSet<>(spoiledBallotIds));
+    this.extendedBaseHash = extendedBaseHash;
+
+    this.ciphertexts = new HashMap<>();
+    for (Tally tally : tallies) {
+      put(TALLY_ID, tally.getContestIndex(), tally.getOptionIndex(), tally.getCiphertextPAD(),
+          tally.getCiphertextDATA());
+    }
+    for (OptionEncrypted option : spoiledOptions) {
+      put(option.getBallotId(), option.getContestIndex(), option.getOptionIndex(),
+          option.getCiphertextPAD(), option.getCiphertextDATA());
+    }
+  }
+
+  private void put(long ballotId, int contestIndex, int optionIndex, BigInteger pad,
+      BigInteger data) {
+    Integer optionCount = optionCountOfContests.get(contestIndex);
+    if (optionCount == null || optionIndex < 0 || optionIndex >= optionCount) {
+      return;
+    }
+    ciphertexts.computeIfAbsent(ballotId, id -> new HashMap<>())
+        .computeIfAbsent(contestIndex, index -> new ElGamal.Ciphertext[optionCount])[optionIndex]
+        = new ElGamal.Ciphertext(Group.int_to_p_unchecked(pad), Group.int_to_p_unchecked(data));
+  }
+
+  /**
+   * Getter for the ciphertext of an option of the tally or of a spoiled ballot.
+   *
+   * @param ballotId     identifier of the spoiled ballot or {@link #TALLY_ID} for the tally
+   * @param contestIndex index of the contest
+   * @param optionIndex  index of the option
+   * @return the ciphertext or null if it is not part of the snapshot
+   */
+  public ElGamal.Ciphertext getCiphertext(long ballotId, int contestIndex, int optionIndex) {
+    Map<Integer, ElGamal.Ciphertext[]> contests = ciphertexts.get(ballotId);
+    if (contests == null || !contests.containsKey(contestIndex)) {
+      return null;
+    }
+    ElGamal.Ciphertext[] options = contests.get(contestIndex);
+    return optionIndex >= 0 && optionIndex < options.length ? options[optionIndex] : null;
+  }
+
+  /**
+   * Getter for the indices of all contests of the election.
+   *
+   * @return contest indices in the order of the contests
+   */
+  public Set<Integer> getContestIndices() {
+    return optionCountOfContests.keySet();
+  }
+
+  /**
+   * Getter for the number of options of a contest including its placeholder options.
+   *
+   * @param contestIndex index of the contest
+   * @return number of options to be decrypted for the contest
+   */
+  public int getOptionCount(int contestIndex) {
+    return optionCountOfContests.get(contestIndex);
+  }
+
+  /**
+   * Getter for the identifiers of all spoiled ballots of the election.
+   *
+   * @return spoiled ballot identifiers
+   */
+  public Set<Long> getSpoiledBallotIds() {
+    return spoiledBallotIds;
+  }
+
+  /**
+   * Getter for the extended base hash of the election.
+   *
+   * @return extended base hash
+   */
+  public Group.ElementModQ getExtendedBaseHash() {
+    return extendedBaseHash;
+  }
+}
@@ -7,15 +7,17 @@ import com.sunya.electionguard.ElectionCryptoContext;
 import com.sunya.electionguard.Group;
 import com.sunya.electionguard.SchnorrProof;
 import java.math.BigInteger;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
+import pse.election.backendserver.core.electionguard.math.BatchSchnorrVerification;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.ElectionService;
 import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.entity.Ballot;
 import pse.election.backendserver.entity.Contest;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.OptionEncrypted;
@@ -39,6 +41,9 @@ import pse.election.backendserver.payload.response.record.ElectionGuardInitializ
 @Component
 public class VerificationFacade {
 
+  private static final String INVALID_DECRYPTION_PROOF_ERROR_MSG
+      = "A partial decryption has an invalid proof.";
+
   @Autowired
   @Lazy
   private ElectionService electionService;
@@ -55,6 +60,10 @@ public class VerificationFacade {
   @Lazy
   private ElectionGuardInitializedWrapper electionGuardInitializedWrapper;
 
+  @Autowired
+  @Lazy
+  private CryptoPool cryptoPool;
+
   /**
    * Verifies the decryption send by a trustee by verifying the associated ChaumPedersen proofs.
    *
@@ -62,47 +71,146 @@ public class VerificationFacade {
    */
   public boolean verifyDecryption(DecryptionDTO.PartialDecryptionDTO decryptionProofDTO,
       long electionId, BigInteger key) {
+    List<Tally> tallies = new ArrayList<>();
+    List<OptionEncrypted> options = new ArrayList<>();
+    if (decryptionProofDTO.ballotId() == ElectionCiphertextSnapshot.TALLY_ID) {
+      tallies = tallyService.getAllTalliesOfElection(electionId);
+    } else {
+      options = ballotService.getAllOptionsEncryptedOfBallot(decryptionProofDTO.ballotId());
+    }
+    ElectionCiphertextSnapshot snapshot = new ElectionCiphertextSnapshot(
+        electionService.getAllContestsOfElection(electionId), tallies,
+        List.of(decryptionProofDTO.ballotId()), options,
+        electionGuardInitializedWrapper.generateCryptoContext(electionId).cryptoExtendedBaseHash);
+    return verifyDecryption(decryptionProofDTO, snapshot, key);
+  }
 
-    List<Contest> contestList = electionService.getAllContestsOfElection(electionId);
+  /**
+   * Verifies the decryption send by a trustee against previously loaded ciphertexts.
+   *
+   * @param decryptionProofDTO partial decryption of the tally or of a spoiled ballot
+   * @param snapshot           ciphertexts of the election
+   * @param key                public key share the decryption was computed with
+   * @return true if it's a correct Decryption, else false.
+   */
+  public boolean verifyDecryption(DecryptionDTO.PartialDecryptionDTO decryptionProofDTO,
+      ElectionCiphertextSnapshot snapshot, BigInteger key) {
+    List<DecryptionProof> proofs = collectDecryptionProofs(List.of(decryptionProofDTO), snapshot);
+    if (proofs == null) {
+      return false;
+    }
+    Group.ElementModP publicKey = Group.int_to_p_unchecked(key);
+    for (DecryptionProof proof : proofs) {
+      if (!validateDecryptionProof(proof, publicKey, snapshot)) {
+        return false;
+      }
+    }
+    return true;
+  }
 
-    Map<Integer, EncryptedOptionDTO[]> tally = new HashMap<>();
-    for (Contest contest : contestList) {
-      tally.put(contest.getIndex(),
-          new EncryptedOptionDTO[contest.getOptions().size() + contest.getMax()]);
+  /**
+   * Verifies all decryptions a trustee computed with one key share, e.g. the tally and all spoiled
+   * ballots of an upload. The proofs are verified in parallel on the crypto pool and the
+   * verification stops at the first invalid proof.
+   *
+   * @param decryptionProofDTOs partial decryptions of the tally and of spoiled ballots
+   * @param snapshot            ciphertexts of the election
+   * @param key                 public key share the decryptions were computed with
+   * @return true if all decryptions are correct, else false.
+   */
+  public boolean verifyDecryptions(List<DecryptionDTO.PartialDecryptionDTO> decryptionProofDTOs,
+      ElectionCiphertextSnapshot snapshot, BigInteger key) {
+    List<DecryptionProof> proofs = collectDecryptionProofs(decryptionProofDTOs, snapshot);
+    if (proofs == null) {
+      return false;
     }
-    if (decryptionProofDTO.ballotId() == -1) {
-      List<Tally> tallies = tallyService.getAllTalliesOfElection(electionId);
-      tallies
-          .forEach(t -> tally.get(t.getContestIndex())[t.getOptionIndex()] = new EncryptedOptionDTO(
-              t.getCiphertextPAD(), t.getCiphertextDATA()));
-    } else {
-      List<OptionEncrypted> tallies = ballotService.getAllOptionsEncryptedOfBallot(
-          decryptionProofDTO.ballotId());
-      tallies
-          .forEach(t -> tally.get(t.getContestIndex())[t.getOptionIndex()] = new EncryptedOptionDTO(
-              t.getCiphertextPAD(), t.getCiphertextDATA()));
+    Group.ElementModP publicKey = Group.int_to_p_unchecked(key);
+    try {
+      cryptoPool.map(proofs, proof -> {
+        if (!validateDecryptionProof(proof, publicKey, snapshot)) {
+          throw new IllegalProofException(INVALID_DECRYPTION_PROOF_ERROR_MSG);
+        }
+        return proof;
+      });
+    } catch (IllegalProofException e) {
+      return false;
     }
-    for (Contest contest : contestList) {
-      ChaumPedersenProofDTO[] chaumPedersenProofDTOList =
-          decryptionProofDTO.chaumPedersonProofs().get(contest.getIndex());
-      BigInteger[] decryption = decryptionProofDTO.partialDecryptedOptions()
-          .get(contest.getIndex());
-      EncryptedOptionDTO[] ciphertext = tally.get(contest.getIndex());
-      for (int i = 0; i < decryption.length; i++) {
-        if (!validateGenericChaumPedersenProof(
-            chaumPedersenProofDTOList[i],
-            ciphertext[i].pad(),
-            ciphertext[i].data(),
-            key,
-            electionId,
-            decryption[i])) {
-          return false;
+    return true;
+  }
+
+  /**
+   * Pairs every decrypted option with its proof and ciphertext.
+   *
+   * @return the proofs to verify or null if a decryption has no ciphertext in the snapshot
+   */
+  private List<DecryptionProof> collectDecryptionProofs(
+      List<DecryptionDTO.PartialDecryptionDTO> decryptionProofDTOs,
+      ElectionCiphertextSnapshot snapshot) {
+    List<DecryptionProof> proofs = new ArrayList<>();
+    for (DecryptionDTO.PartialDecryptionDTO decryptionProofDTO : decryptionProofDTOs) {
+      for (int contestIndex : snapshot.getContestIndices()) {
+        ChaumPedersenProofDTO[] chaumPedersenProofDTOList =
+            decryptionProofDTO.chaumPedersonProofs().get(contestIndex);
+        BigInteger[] decryption = decryptionProofDTO.partialDecryptedOptions().get(contestIndex);
+        for (int i = 0; i < decryption.length; i++) {
+          ElGamal.Ciphertext ciphertext = snapshot.getCiphertext(decryptionProofDTO.ballotId(),
+              contestIndex, i);
+          if (ciphertext == null) {
+            return null;
+          }
+          proofs.add(new DecryptionProof(chaumPedersenProofDTOList[i], ciphertext, decryption[i]));
         }
       }
     }
-    return true;
+    return proofs;
+  }
+
+  private boolean validateDecryptionProof(DecryptionProof proof, Group.ElementModP publicKey,
+      ElectionCiphertextSnapshot snapshot) {
+    return validateGenericChaumPedersenProof(proof.proof(), proof.ciphertext(), publicKey,
+        proof.decryption(), snapshot.getExtendedBaseHash());
   }
 
+  /**
+   * Loads the tally and all spoiled ballots of an election at once for the verification of
+   * decryptions.
+   *
+   * @param electionId identifier of the election
+   * @return snapshot of the ciphertexts of the election
+   */
+  public ElectionCiphertextSnapshot createCiphertextSnapshot(long electionId) {
+    List<Long> spoiledBallotIds = new ArrayList<>();
+    for (Ballot ballot : ballotService.getAllSpoiledBallotsOfElection(electionId)) {
+      spoiledBallotIds.add(ballot.getBallotId());
+    }
+    return new ElectionCiphertextSnapshot(electionService.getAllContestsOfElection(electionId),
+        tallyService.getAllTalliesOfElection(electionId), spoiledBallotIds,
+        ballotService.getAllOptionsEncryptedOfSpoiledBallots(electionId),
+        electionGuardInitializedWrapper.generateCryptoContext(electionId).cryptoExtendedBaseHash);
+  }
+
+  /**
+   * Loads the tally and the given spoiled ballots of an election for the verification of a chunk
+   * of decryptions. Ballots that are not spoiled ballots of the election are left out.
+   *
+   * @param electionId identifier of the election
+   * @param ballotIds  identifiers of the spoiled ballots to be loaded
+   * @return snapshot of the ciphertexts of the tally and the given spoiled ballots
+   */
+  public ElectionCiphertextSnapshot createCiphertextSnapshot(long electionId,
+      Collection<Long> ballotIds) {
+    List<Long> spoiledBallotIds = new ArrayList<>();
+    if (!ballotIds.isEmpty()) {
+      for (Ballot ballot : ballotService.getSpoiledBallotsOfElection(electionId, ballotIds)) {
+        spoiledBallotIds.add(ballot.getBallotId());
+      }
+    }
+    List<OptionEncrypted> spoiledOptions = spoiledBallotIds.isEmpty() ? List.of()
+        : ballotService.getAllOptionsEncryptedOfBallots(spoiledBallotIds);
+    return new ElectionCiphertextSnapshot(electionService.getAllContestsOfElection(electionId),
+        tallyService.getAllTalliesOfElection(electionId), spoiledBallotIds, spoiledOptions,
+        electionGuardInitializedWrapper.generateCryptoContext(electionId).cryptoExtendedBaseHash);
+  }
 
   /**
    * Verifies an encrypted ballot by verifying the associated ChaumPedersen proofs.
@@ -150,34 +258,43 @@ public class VerificationFacade {
   }
 
   /**
-   * Verifies an ElGamalKey by verifying the associated SchnorrProof.
+   * Verifies an ElGamalKey by verifying the associated SchnorrProof. All proofs are verified in
+   * one batch first, only if the batch fails they are verified one by one.
    *
    * @return true if the trustee data and keys are correct, else false.
    */
   public boolean verifyKeyCeremony(ElgamalProofDTO elgamalProofDTO) {
+    List<SchnorrProof> schnorrProofs = new ArrayList<>();
     for (SchnorrProofDTO elem : elgamalProofDTO.proofs()) {
-      if (!validateSchnorrProof(elem)) {
+      schnorrProofs.add(toSchnorrProof(elem));
+    }
+    if (BatchSchnorrVerification.verify(schnorrProofs)) {
+      return true;
+    }
+    for (SchnorrProof schnorrProof : schnorrProofs) {
+      if (!validateSchnorrProof(schnorrProof)) {
         return false;
       }
     }
     return true;
   }
 
-  /**
-   * Verifies a given SchnorrProof.
-   *
-   * @param schnorrProofDTO the proof to be verified
-   */
-  private boolean validateSchnorrProof(SchnorrProofDTO schnorrProofDTO)
-      throws IllegalProofException {
-    SchnorrProof schnorrProof = new SchnorrProof(
+  private static SchnorrProof toSchnorrProof(SchnorrProofDTO schnorrProofDTO) {
+    return new SchnorrProof(
         Group.int_to_p_unchecked(schnorrProofDTO.publicKey()),
         Group.int_to_p_unchecked(schnorrProofDTO.commitment()),
         Group.int_to_q_unchecked(schnorrProofDTO.challenge()),
         Group.int_to_q_unchecked(schnorrProofDTO.response()));
-    return schnorrProof.isValidVer1()
-        && schnorrProof.isValidVer2(Group.int_to_p_unchecked(schnorrProofDTO.publicKey()));
+  }
 
+  /**
+   * Verifies a given SchnorrProof.
+   *
+   * @param schnorrProof the proof to be verified
+   */
+  private boolean validateSchnorrProof(SchnorrProof schnorrProof)
+      throws IllegalProofException {
+    return schnorrProof.isValidVer1() && schnorrProof.isValidVer2(schnorrProof.publicKey);
   }
 
   /**
@@ -234,25 +351,31 @@ public class VerificationFacade {
       BigInteger message) {
     ElectionCryptoContext electionCryptoContext = electionGuardInitializedWrapper.generateCryptoContext(
         electionId);
-    ChaumPedersen.ChaumPedersenProof chaumPedersenProof =
-        new ChaumPedersen.ChaumPedersenProof(
-            Group.int_to_p_unchecked(chaumPedersenProofDTO.pad()),
-            Group.int_to_p_unchecked(chaumPedersenProofDTO.data()),
-            Group.int_to_q_unchecked(chaumPedersenProofDTO.challenge()),
-            Group.int_to_q_unchecked(chaumPedersenProofDTO.response()));
-    return chaumPedersenProof.is_valid(
+    return validateGenericChaumPedersenProof(chaumPedersenProofDTO,
         // Ciphertext
         new ElGamal.Ciphertext(
             Group.int_to_p_unchecked(ciphertextPAD),
             Group.int_to_p_unchecked(ciphertextDATA)),
         // Public key corresponding to the private key used for the decryption
         Group.int_to_p_unchecked(key),
-        // Share
-        Group.int_to_p_unchecked(message),
+        message,
         // Election base Hash
         electionCryptoContext.cryptoExtendedBaseHash);
   }
 
+  private boolean validateGenericChaumPedersenProof(ChaumPedersenProofDTO chaumPedersenProofDTO,
+      ElGamal.Ciphertext ciphertext, Group.ElementModP key, BigInteger message,
+      Group.ElementModQ extendedBaseHash) {
+    ChaumPedersen.ChaumPedersenProof chaumPedersenProof =
+        new ChaumPedersen.ChaumPedersenProof(
+            Group.int_to_p_unchecked(chaumPedersenProofDTO.pad()),
+            Group.int_to_p_unchecked(chaumPedersenProofDTO.data()),
+            Group.int_to_q_unchecked(chaumPedersenProofDTO.challenge()),
+            Group.int_to_q_unchecked(chaumPedersenProofDTO.response()));
+    return chaumPedersenProof.is_valid(ciphertext, key, Group.int_to_p_unchecked(message),
+        extendedBaseHash);
+  }
+
   /**
    * Verifies that a DisjunctiveChaumPedersen Proof is valid.
    *
@@ -286,4 +409,16 @@ public class VerificationFacade {
         Group.int_to_q_unchecked(baseHash));
   }
 
+  /**
+   * A single decrypted option together with its proof and the ciphertext it decrypts.
+   *
+   * @param proof      proof of the decryption
+   * @param ciphertext the decrypted ciphertext
+   * @param decryption the partial decryption
+   */
+  private record DecryptionProof(ChaumPedersenProofDTO proof, ElGamal.Ciphertext ciphertext,
+                                 BigInteger decryption) {
+
+  }
+
 }
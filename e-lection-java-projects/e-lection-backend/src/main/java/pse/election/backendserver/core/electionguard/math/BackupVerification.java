@@ -0,0 +1,46 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Verifies election partial key backups. A backup P(i) sent to the trustee with index i is valid if
+ * g^P(i) = prod K_j^(i^j), where K_j are the commitments to the coefficients of the polynomial of
+ * the sender. The right side is evaluated after Horner as (...(K_(k-1)^i * K_(k-2))^i ...)^i * K_0,
+ * so only k - 1 exponentiations with the small exponent i are needed instead of k exponentiations
+ * with exponents i^j. The index is reduced mod q, as the commitments are in the subgroup of order q.
+ *
+ * @version 1.0
+ */
+public final class BackupVerification {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+  private static final BigInteger Q = ElectionConstants.STANDARD_CONSTANTS.small_prime;
+
+  private BackupVerification() {
+  }
+
+  /**
+   * Verifies a single backup.
+   *
+   * @param commitments the commitments to the coefficients of the sender's polynomial
+   * @param backup      the backup
+   * @param index       the index of the trustee the backup is addressed to
+   * @return true if the backup is valid
+   */
+  public static boolean verify(List<Group.ElementModP> commitments, Group.ElementModQ backup,
+      int index) {
+    BigInteger right = evaluate(commitments, BigInteger.valueOf(index).mod(Q));
+    return Group.g_pow_p(backup).getBigInt().equals(right);
+  }
+
+  private static BigInteger evaluate(List<Group.ElementModP> commitments, BigInteger index) {
+    BigInteger result = BigInteger.ONE;
+    for (int j = commitments.size() - 1; j >= 0; j--) {
+      result = result.modPow(index, P).multiply(commitments.get(j).getBigInt()).mod(P);
+    }
+    return result;
+  }
+}
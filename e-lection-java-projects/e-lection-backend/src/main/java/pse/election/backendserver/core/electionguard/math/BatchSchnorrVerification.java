@@ -0,0 +1,93 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import com.sunya.electionguard.Hash;
+import com.sunya.electionguard.SchnorrProof;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies many Schnorr proofs of the form g^u = h * K^c with c = H(K, h) at once. Instead of
+ * checking every equation on its own, each one is raised to a random 128 bit exponent r_i and all
+ * of them are multiplied, so only g^(sum r_i * u_i) = prod h_i^r_i * K_i^(r_i * c_i) has to hold.
+ * The left side is a single exponentiation of the generator, the right side one
+ * multi-exponentiation. An invalid proof passes with probability of at most 2^-128.
+ * The random exponents only cover the subgroup of order q. Elements with a component of small order
+ * could cancel out with a probability of up to 1/2, so public keys and commitments are checked to
+ * be in the subgroup one by one. The challenges are recomputed for every proof.
+ * A failed batch does not tell which proof is invalid, callers verify the proofs separately then.
+ * The batch only pays off once the multi-exponentiation shares its squarings, i.e. from 16 proofs
+ * on. Fewer proofs are checked one by one as g^u = h * K^c. That equation can only hold for a
+ * commitment in the subgroup, so the commitments of these proofs are not checked on their own.
+ *
+ * @version 1.0
+ */
+public final class BatchSchnorrVerification {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+  private static final BigInteger Q = ElectionConstants.STANDARD_CONSTANTS.small_prime;
+  private static final int MIN_BATCH_PROOFS = MultiExponentiation.MIN_SIMULTANEOUS_BASES / 2;
+
+  private BatchSchnorrVerification() {
+  }
+
+  /**
+   * Verifies all proofs, in one batch if there are enough of them.
+   *
+   * @param proofs the proofs
+   * @return true if every proof is valid, false if at least one of them might be invalid
+   */
+  public static boolean verify(List<SchnorrProof> proofs) {
+    if (proofs.size() < MIN_BATCH_PROOFS) {
+      for (SchnorrProof proof : proofs) {
+        if (!isWellFormed(proof, false) || !holds(proof)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    List<BigInteger> bases = new ArrayList<>();
+    List<BigInteger> exponents = new ArrayList<>();
+    BigInteger responseSum = BigInteger.ZERO;
+    for (SchnorrProof proof : proofs) {
+      if (!isWellFormed(proof, true)) {
+        return false;
+      }
+      BigInteger random = RandomExponent.next();
+      bases.add(proof.commitment.getBigInt());
+      exponents.add(random);
+      bases.add(proof.publicKey.getBigInt());
+      exponents.add(random.multiply(proof.challenge.getBigInt()).mod(Q));
+      responseSum = responseSum.add(random.multiply(proof.response.getBigInt()));
+    }
+    Group.ElementModP left = Group.g_pow_p(Group.int_to_q_unchecked(responseSum.mod(Q)));
+    return left.getBigInt().equals(MultiExponentiation.modP(bases, exponents).getBigInt());
+  }
+
+  private static boolean holds(SchnorrProof proof) {
+    BigInteger left = Group.g_pow_p(proof.response).getBigInt();
+    BigInteger right = proof.publicKey.getBigInt().modPow(proof.challenge.getBigInt(), P)
+        .multiply(proof.commitment.getBigInt()).mod(P);
+    return left.equals(right);
+  }
+
+  private static boolean isWellFormed(SchnorrProof proof, boolean checkCommitment) {
+    BigInteger commitment = proof.commitment.getBigInt();
+    return isInRange(proof.challenge.getBigInt(), Q) && isInRange(proof.response.getBigInt(), Q)
+        && isInSubgroup(proof.publicKey.getBigInt())
+        && (checkCommitment ? isInSubgroup(commitment) : isInRange(commitment, P))
+        && Hash.hash_elems(proof.publicKey, proof.commitment).equals(proof.challenge);
+  }
+
+  private static boolean isInSubgroup(BigInteger element) {
+    return element.signum() > 0 && element.compareTo(P) < 0
+        && element.modPow(Q, P).equals(BigInteger.ONE);
+  }
+
+  private static boolean isInRange(BigInteger value, BigInteger bound) {
+    return value.signum() >= 0 && value.compareTo(bound) < 0;
+  }
+}
@@ -0,0 +1,261 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Baby-step giant-step table for discrete logarithms to a fixed generator. The table stores a 64
+ * bit fingerprint of g^j for every baby step j, sorted by fingerprint, so that a giant step needs a
+ * single binary search. Solving x for g^x = y with x up to a bound takes bound / babySteps giant
+ * steps, each being one Montgomery multiplication.
+ * The fingerprints are taken from the Montgomery representation, which lets the giant steps stay
+ * in Montgomery form without converting back. Each hit is verified with a full exponentiation, so
+ * fingerprint collisions cannot produce a wrong result.
+ * A table is read only after creation and can be shared between threads. Its entries live outside
+ * of the Java heap, either in a direct buffer or in a memory mapped file, so that large tables
+ * neither count against the heap nor slow down garbage collection. The number of baby steps is the
+ * time/memory trade-off: a table of b steps needs 12 * b bytes and solves bounds up to n with n / b
+ * giant steps.
+ *
+ * @version 1.0
+ */
+public final class DiscreteLogTable {
+
+  private static final long MAGIC = 0x444c4f47_42534753L;
+  private static final int HEADER_BYTES = 3 * Long.BYTES + Integer.BYTES;
+  private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES;
+  private static final int MAX_BABY_STEPS = (Integer.MAX_VALUE - HEADER_BYTES) / ENTRY_BYTES;
+  private static final String INVALID_SIZE_ERROR_MSG
+      = "The number of baby steps has to be between 1 and " + MAX_BABY_STEPS;
+
+  private final MontgomeryEngine engine;
+  private final BigInteger generator;
+  private final int babySteps;
+  private final long[] giantStepFactor;
+  private final ByteBuffer entries;
+
+  private DiscreteLogTable(MontgomeryEngine engine, BigInteger generator, int babySteps,
+      ByteBuffer entries) {
+    this.engine = engine;
+    this.generator = generator;
+    this.babySteps = babySteps;
+    this.entries = entries;
+    BigInteger modulus = engine.getModulus();
+    this.giantStepFactor = engine.toMontgomery(
+        generator.modPow(BigInteger.valueOf(babySteps), modulus).modInverse(modulus));
+  }
+
+  /**
+   * Computes a table in off heap memory.
+   *
+   * @param engine    engine for the modulus of the group
+   * @param generator the base of the logarithm
+   * @param babySteps number of baby steps stored in the table
+   * @return the new table
+   */
+  public static DiscreteLogTable build(MontgomeryEngine engine, BigInteger generator,
+      int babySteps) {
+    checkSize(babySteps);
+    ByteBuffer entries = ByteBuffer.allocateDirect(babySteps * ENTRY_BYTES);
+    writeEntries(engine, generator, babySteps, entries);
+    return new DiscreteLogTable(engine, generator, babySteps, entries.asReadOnlyBuffer());
+  }
+
+  /**
+   * Loads a table from a file by memory mapping it. If the file does not exist or belongs to a
+   * different group or size, the table is computed and written to the file first.
+   *
+   * @param file      the file of the table
+   * @param engine    engine for the modulus of the group
+   * @param generator the base of the logarithm
+   * @param babySteps number of baby steps stored in the table
+   * @return the mapped table
+   * @throws IOException in case the file cannot be read or written
+   */
+  public static DiscreteLogTable loadOrBuild(Path file, MontgomeryEngine engine,
+      BigInteger generator, int babySteps) throws IOException {
+    checkSize(babySteps);
+    if (!hasMatchingHeader(file, engine, generator, babySteps)) {
+      persist(file, engine, generator, babySteps);
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+          (long) babySteps * ENTRY_BYTES);
+      return new DiscreteLogTable(engine, generator, babySteps, entries);
+    }
+  }
+
+  public int getBabySteps() {
+    return babySteps;
+  }
+
+  /**
+   * Solves g^x = value for x in [0, bound].
+   *
+   * @param value the power of the generator
+   * @param bound the largest exponent to consider
+   * @return x or -1 if there is no such exponent up to the bound
+   */
+  public long solve(BigInteger value, long bound) {
+    BigInteger modulus = engine.getModulus();
+    BigInteger target = value.mod(modulus);
+    long[] gamma = engine.toMontgomery(target);
+    long[] scratch = engine.newScratch();
+    long giantSteps = bound / babySteps + 1;
+
+    for (long giantStep = 0; giantStep < giantSteps; giantStep++) {
+      for (int index = firstIndexOf(gamma[0]); index < babySteps && keyAt(index) == gamma[0];
+          index++) {
+        long candidate = giantStep * babySteps + stepAt(index);
+        if (candidate <= bound
+            && generator.modPow(BigInteger.valueOf(candidate), modulus).equals(target)) {
+          return candidate;
+        }
+      }
+      engine.multiply(gamma, giantStepFactor, gamma, scratch);
+    }
+    return -1;
+  }
+
+  private int firstIndexOf(long key) {
+    int low = 0;
+    int high = babySteps;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (keyAt(middle) < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private long keyAt(int index) {
+    return entries.getLong(index * ENTRY_BYTES);
+  }
+
+  private int stepAt(int index) {
+    return entries.getInt(index * ENTRY_BYTES + Long.BYTES);
+  }
+
+  /**
+   * Computes the fingerprints of g^0 to g^(babySteps - 1) and writes them sorted into the buffer.
+   * The entries are sorted in place, so no copy of the table is needed on the heap.
+   */
+  private static void writeEntries(MontgomeryEngine engine, BigInteger generator, int babySteps,
+      ByteBuffer target) {
+    long[] power = engine.one();
+    long[] generatorMontgomery = engine.toMontgomery(generator);
+    long[] scratch = engine.newScratch();
+    for (int step = 0; step < babySteps; step++) {
+      target.putLong(power[0]);
+      target.putInt(step);
+      engine.multiply(power, generatorMontgomery, power, scratch);
+    }
+    target.flip();
+    sortByKey(target, 0, babySteps - 1);
+  }
+
+  /**
+   * Sorts the entries by key. The fingerprints are uniformly distributed, so a plain quicksort with
+   * middle pivot is sufficient.
+   */
+  private static void sortByKey(ByteBuffer entries, int low, int high) {
+    while (low < high) {
+      long pivot = entries.getLong(((low + high) >>> 1) * ENTRY_BYTES);
+      int left = low;
+      int right = high;
+      while (left <= right) {
+        while (entries.getLong(left * ENTRY_BYTES) < pivot) {
+          left++;
+        }
+        while (entries.getLong(right * ENTRY_BYTES) > pivot) {
+          right--;
+        }
+        if (left <= right) {
+          swap(entries, left, right);
+          left++;
+          right--;
+        }
+      }
+      if (right - low < high - left) {
+        sortByKey(entries, low, right);
+        low = left;
+      } else {
+        sortByKey(entries, left, high);
+        high = right;
+      }
+    }
+  }
+
+  private static void swap(ByteBuffer entries, int first, int second) {
+    int firstOffset = first * ENTRY_BYTES;
+    int secondOffset = second * ENTRY_BYTES;
+    long key = entries.getLong(firstOffset);
+    int step = entries.getInt(firstOffset + Long.BYTES);
+    entries.putLong(firstOffset, entries.getLong(secondOffset));
+    entries.putInt(firstOffset + Long.BYTES, entries.getInt(secondOffset + Long.BYTES));
+    entries.putLong(secondOffset, key);
+    entries.putInt(secondOffset + Long.BYTES, step);
+  }
+
+  private static void checkSize(int babySteps) {
+    if (babySteps < 1 || babySteps > MAX_BABY_STEPS) {
+      throw new IllegalArgumentException(INVALID_SIZE_ERROR_MSG);
+    }
+  }
+
+  private static void persist(Path file, MontgomeryEngine engine, BigInteger generator,
+      int babySteps) throws IOException {
+    ByteBuffer content = ByteBuffer.allocateDirect(HEADER_BYTES + babySteps * ENTRY_BYTES);
+    content.putLong(MAGIC);
+    content.putLong(fingerprint(engine.getModulus()));
+    content.putLong(fingerprint(generator));
+    content.putInt(babySteps);
+    writeEntries(engine, generator, babySteps, content.slice());
+    content.position(0);
+
+    Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(),
+        file.getFileName().toString(), ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+      while (content.hasRemaining()) {
+        channel.write(content);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static boolean hasMatchingHeader(Path file, MontgomeryEngine engine,
+      BigInteger generator, int babySteps) throws IOException {
+    if (!Files.isRegularFile(file)
+        || Files.size(file) != HEADER_BYTES + (long) babySteps * ENTRY_BYTES) {
+      return false;
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      int read = 0;
+      while (header.hasRemaining() && read >= 0) {
+        read = channel.read(header);
+      }
+      header.flip();
+      return header.remaining() == HEADER_BYTES
+          && header.getLong() == MAGIC
+          && header.getLong() == fingerprint(engine.getModulus())
+          && header.getLong() == fingerprint(generator)
+          && header.getInt() == babySteps;
+    }
+  }
+
+  private static long fingerprint(BigInteger value) {
+    return value.longValue() ^ ((long) value.bitLength() << 48) ^ value.hashCode();
+  }
+}
@@ -0,0 +1,246 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Modular multiplication in Montgomery representation on little endian 64 bit limbs. Values are
+ * converted into Montgomery form once, after which every multiplication is a single coarsely
+ * integrated operand scanning (CIOS) pass without any division. This pays off for long chains of
+ * multiplications under the same modulus, e.g. the accumulation of ciphertexts.
+ * Instances are immutable and can be shared between threads, the limb arrays passed to the
+ * methods belong to the caller.
+ *
+ * @version 1.0
+ */
+public final class MontgomeryEngine {
+
+  private static final String EVEN_MODULUS_ERROR_MSG = "The modulus has to be odd and greater one.";
+
+  private final BigInteger modulus;
+  private final int limbCount;
+  private final long[] modulusLimbs;
+  private final long modulusInverse;
+  private final long[] rSquared;
+  private final long[] one;
+
+  /**
+   * Constructor of new MontgomeryEngine.
+   *
+   * @param modulus odd modulus greater one
+   */
+  public MontgomeryEngine(BigInteger modulus) {
+    if (modulus.signum() <= 0 || !modulus.testBit(0) || modulus.equals(BigInteger.ONE)) {
+      throw new IllegalArgumentException(EVEN_MODULUS_ERROR_MSG);
+    }
+    this.modulus = modulus;
+    this.limbCount = (modulus.bitLength() + Long.SIZE - 1) / Long.SIZE;
+    this.modulusLimbs = toLimbs(modulus, limbCount);
+    this.modulusInverse = negativeInverse(modulusLimbs[0]);
+    BigInteger r = BigInteger.ONE.shiftLeft(limbCount * Long.SIZE);
+    this.rSquared = toLimbs(r.multiply(r).mod(modulus), limbCount);
+    this.one = toLimbs(r.mod(modulus), limbCount);
+  }
+
+  public BigInteger getModulus() {
+    return modulus;
+  }
+
+  public int getLimbCount() {
+    return limbCount;
+  }
+
+  /**
+   * Returns the Montgomery form of one, which is the neutral element of the multiplication.
+   *
+   * @return new limb array containing R mod m
+   */
+  public long[] one() {
+    return one.clone();
+  }
+
+  /**
+   * Converts a value into Montgomery form. Values outside of [0, m) are reduced first.
+   *
+   * @param value the value to convert
+   * @return new limb array containing value * R mod m
+   */
+  public long[] toMontgomery(BigInteger value) {
+    BigInteger reduced = value.signum() < 0 || value.compareTo(modulus) >= 0
+        ? value.mod(modulus) : value;
+    long[] result = new long[limbCount];
+    multiply(toLimbs(reduced, limbCount), rSquared, result);
+    return result;
+  }
+
+  /**
+   * Converts a value back from Montgomery form.
+   *
+   * @param montgomery limbs in Montgomery form
+   * @return the represented value in [0, m)
+   */
+  public BigInteger fromMontgomery(long[] montgomery) {
+    long[] unit = new long[limbCount];
+    unit[0] = 1L;
+    long[] result = new long[limbCount];
+    multiply(montgomery, unit, result);
+    return toBigInteger(result);
+  }
+
+  /**
+   * Converts a value into limbs without changing its representation. Values outside of [0, m) are
+   * reduced first.
+   *
+   * @param value the value to convert
+   * @return new limb array containing value mod m
+   */
+  public long[] toLimbs(BigInteger value) {
+    BigInteger reduced = value.signum() < 0 || value.compareTo(modulus) >= 0
+        ? value.mod(modulus) : value;
+    return toLimbs(reduced, limbCount);
+  }
+
+  /**
+   * Computes R^exponent mod m, which corrects a value that went through the given number of
+   * Montgomery reductions without being converted into Montgomery form.
+   *
+   * @param exponent number of reductions to correct
+   * @return R^exponent mod m
+   */
+  public BigInteger radixPower(long exponent) {
+    return BigInteger.ONE.shiftLeft(limbCount * Long.SIZE)
+        .modPow(BigInteger.valueOf(exponent), modulus);
+  }
+
+  /**
+   * Allocates a scratch array suitable for {@link #multiply(long[], long[], long[], long[])}.
+   *
+   * @return new scratch array
+   */
+  public long[] newScratch() {
+    return new long[limbCount + 2];
+  }
+
+  /**
+   * Computes a * b * R^-1 mod m. The output array may be identical to one of the inputs.
+   *
+   * @param a      first factor in Montgomery form
+   * @param b      second factor in Montgomery form
+   * @param result array receiving the product in Montgomery form
+   */
+  public void multiply(long[] a, long[] b, long[] result) {
+    multiply(a, b, result, newScratch());
+  }
+
+  /**
+   * Computes a * b * R^-1 mod m using a caller owned scratch array, so that no memory is allocated.
+   * The output array may be identical to one of the inputs.
+   *
+   * @param a       first factor in Montgomery form
+   * @param b       second factor in Montgomery form
+   * @param result  array receiving the product in Montgomery form
+   * @param scratch array of at least limb count + 2 entries, see {@link #newScratch()}
+   */
+  public void multiply(long[] a, long[] b, long[] result, long[] scratch) {
+    final int n = limbCount;
+    long[] t = scratch;
+    Arrays.fill(t, 0, n + 2, 0L);
+
+    for (int i = 0; i < n; i++) {
+      long bi = b[i];
+      long carry = 0L;
+      for (int j = 0; j < n; j++) {
+        long aj = a[j];
+        long lo = aj * bi;
+        long hi = unsignedMultiplyHigh(aj, bi);
+        lo += t[j];
+        hi += Long.compareUnsigned(lo, t[j]) < 0 ? 1L : 0L;
+        lo += carry;
+        hi += Long.compareUnsigned(lo, carry) < 0 ? 1L : 0L;
+        t[j] = lo;
+        carry = hi;
+      }
+      long sum = t[n] + carry;
+      t[n + 1] = Long.compareUnsigned(sum, carry) < 0 ? 1L : 0L;
+      t[n] = sum;
+
+      long m = t[0] * modulusInverse;
+      long lo = m * modulusLimbs[0];
+      long hi = unsignedMultiplyHigh(m, modulusLimbs[0]);
+      lo += t[0];
+      carry = hi + (Long.compareUnsigned(lo, t[0]) < 0 ? 1L : 0L);
+      for (int j = 1; j < n; j++) {
+        lo = m * modulusLimbs[j];
+        hi = unsignedMultiplyHigh(m, modulusLimbs[j]);
+        lo += t[j];
+        hi += Long.compareUnsigned(lo, t[j]) < 0 ? 1L : 0L;
+        lo += carry;
+        hi += Long.compareUnsigned(lo, carry) < 0 ? 1L : 0L;
+        t[j - 1] = lo;
+        carry = hi;
+      }
+      sum = t[n] + carry;
+      t[n - 1] = sum;
+      t[n] = t[n + 1] + (Long.compareUnsigned(sum, carry) < 0 ? 1L : 0L);
+    }
+
+    if (t[n] != 0L || !lessThanModulus(t)) {
+      long borrow = 0L;
+      for (int j = 0; j < n; j++) {
+        long difference = t[j] - modulusLimbs[j] - borrow;
+        borrow = (Long.compareUnsigned(t[j], modulusLimbs[j]) < 0
+            || (borrow == 1L && t[j] == modulusLimbs[j])) ? 1L : 0L;
+        t[j] = difference;
+      }
+    }
+    System.arraycopy(t, 0, result, 0, n);
+  }
+
+  private boolean lessThanModulus(long[] t) {
+    for (int j = limbCount - 1; j >= 0; j--) {
+      int comparison = Long.compareUnsigned(t[j], modulusLimbs[j]);
+      if (comparison != 0) {
+        return comparison < 0;
+      }
+    }
+    return false;
+  }
+
+  private static long unsignedMultiplyHigh(long x, long y) {
+    return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+
+  /**
+   * Computes -m^-1 mod 2^64 by Newton iteration, each step doubling the number of correct bits.
+   */
+  private static long negativeInverse(long m0) {
+    long inverse = m0;
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2L - m0 * inverse;
+    }
+    return -inverse;
+  }
+
+  static long[] toLimbs(BigInteger value, int limbCount) {
+    long[] limbs = new long[limbCount];
+    byte[] bytes = value.toByteArray();
+    for (int index = 0; index < bytes.length; index++) {
+      int bytePosition = bytes.length - 1 - index;
+      int limb = index / Long.BYTES;
+      if (limb < limbCount) {
+        limbs[limb] |= (bytes[bytePosition] & 0xFFL) << ((index % Long.BYTES) * Byte.SIZE);
+      }
+    }
+    return limbs;
+  }
+
+  static BigInteger toBigInteger(long[] limbs) {
+    byte[] bytes = new byte[limbs.length * Long.BYTES + 1];
+    for (int limb = 0; limb < limbs.length; limb++) {
+      for (int b = 0; b < Long.BYTES; b++) {
+        bytes[bytes.length - 1 - (limb * Long.BYTES + b)] = (byte) (limbs[limb] >>> (b * Byte.SIZE));
+      }
+    }
+    return new BigInteger(bytes);
+  }
+}
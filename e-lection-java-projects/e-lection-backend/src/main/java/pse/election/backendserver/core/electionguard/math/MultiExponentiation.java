@@ -0,0 +1,129 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Simultaneous multi-exponentiation after Straus. The product of b_i^e_i is computed with a single
+ * chain of squarings shared by all bases, interleaved with one multiplication per base and window
+ * of the exponents. For k exponents of n bits this takes n squarings and about k * n / 4
+ * multiplications, instead of k * n squarings for separate exponentiations.
+ * All arithmetic is done in Montgomery form. The exponentiation of BigInteger is backed by an
+ * intrinsic Montgomery multiplication, which is several times faster than the one in Java. For a
+ * 4096 bit modulus and 256 bit exponents, the shared squarings only make up for that from a few
+ * dozen bases on, so {@link #modP(List, List)} falls back to separate exponentiations below.
+ *
+ * @version 1.0
+ */
+public final class MultiExponentiation {
+
+  private static final int WINDOW_BITS = 4;
+  private static final int WINDOW_SIZE = 1 << WINDOW_BITS;
+  static final int MIN_SIMULTANEOUS_BASES = 32;
+  private static final String SIZE_MISMATCH_ERROR_MSG
+      = "Every base needs exactly one exponent.";
+  private static final String NEGATIVE_EXPONENT_ERROR_MSG = "Exponents must not be negative.";
+
+  private MultiExponentiation() {
+  }
+
+  /**
+   * Computes the product of all bases raised to their exponents.
+   *
+   * @param engine    engine defining the modulus
+   * @param bases     the bases
+   * @param exponents the non negative exponents, one per base
+   * @return product of b_i^e_i mod m
+   */
+  public static BigInteger compute(MontgomeryEngine engine, List<BigInteger> bases,
+      List<BigInteger> exponents) {
+    if (bases.size() != exponents.size()) {
+      throw new IllegalArgumentException(SIZE_MISMATCH_ERROR_MSG);
+    }
+    int maxBits = 0;
+    for (BigInteger exponent : exponents) {
+      if (exponent.signum() < 0) {
+        throw new IllegalArgumentException(NEGATIVE_EXPONENT_ERROR_MSG);
+      }
+      maxBits = Math.max(maxBits, exponent.bitLength());
+    }
+    int windows = (maxBits + WINDOW_BITS - 1) / WINDOW_BITS;
+
+    long[][][] tables = new long[bases.size()][][];
+    int[][] digits = new int[bases.size()][];
+    for (int i = 0; i < bases.size(); i++) {
+      tables[i] = powerTable(engine, bases.get(i));
+      digits[i] = windowDigits(exponents.get(i), windows);
+    }
+
+    long[] result = engine.one();
+    long[] scratch = engine.newScratch();
+    for (int window = windows - 1; window >= 0; window--) {
+      if (window != windows - 1) {
+        for (int square = 0; square < WINDOW_BITS; square++) {
+          engine.multiply(result, result, result, scratch);
+        }
+      }
+      for (int i = 0; i < tables.length; i++) {
+        int digit = digits[i][window];
+        if (digit != 0) {
+          engine.multiply(result, tables[i][digit], result, scratch);
+        }
+      }
+    }
+    return engine.fromMontgomery(result);
+  }
+
+  /**
+   * Computes the product of all bases raised to their exponents in the electionGuard group. Uses
+   * the simultaneous exponentiation for many bases and separate exponentiations otherwise.
+   *
+   * @param bases     the elements mod p
+   * @param exponents the non negative exponents, one per base
+   * @return product of b_i^e_i mod p
+   */
+  public static Group.ElementModP modP(List<BigInteger> bases, List<BigInteger> exponents) {
+    MontgomeryEngine engine = ProductAccumulator.modPEngine();
+    if (bases.size() >= MIN_SIMULTANEOUS_BASES) {
+      return Group.int_to_p_unchecked(compute(engine, bases, exponents));
+    }
+    if (bases.size() != exponents.size()) {
+      throw new IllegalArgumentException(SIZE_MISMATCH_ERROR_MSG);
+    }
+    ProductAccumulator product = new ProductAccumulator(engine);
+    for (int i = 0; i < bases.size(); i++) {
+      product.multiply(bases.get(i).modPow(exponents.get(i), engine.getModulus()));
+    }
+    return product.getElementModP();
+  }
+
+  /**
+   * Computes b^0 to b^15 in Montgomery form.
+   */
+  private static long[][] powerTable(MontgomeryEngine engine, BigInteger base) {
+    long[][] table = new long[WINDOW_SIZE][];
+    table[0] = engine.one();
+    table[1] = engine.toMontgomery(base);
+    for (int power = 2; power < WINDOW_SIZE; power++) {
+      table[power] = new long[engine.getLimbCount()];
+      engine.multiply(table[power - 1], table[1], table[power]);
+    }
+    return table;
+  }
+
+  /**
+   * Splits an exponent into windows of four bits, least significant window first.
+   */
+  private static int[] windowDigits(BigInteger exponent, int windows) {
+    int[] digits = new int[windows];
+    for (int window = 0; window < windows; window++) {
+      int digit = 0;
+      for (int bit = WINDOW_BITS - 1; bit >= 0; bit--) {
+        digit = (digit << 1) | (exponent.testBit(window * WINDOW_BITS + bit) ? 1 : 0);
+      }
+      digits[window] = digit;
+    }
+    return digits;
+  }
+}
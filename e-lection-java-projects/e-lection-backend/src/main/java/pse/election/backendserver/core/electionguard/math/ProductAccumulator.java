@@ -0,0 +1,128 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+
+/**
+ * Accumulates the product of many values under a common modulus. Factors are multiplied onto the
+ * running product with a single Montgomery multiplication each, without converting them into
+ * Montgomery form first. Every multiplication therefore introduces a factor of R^-1, which is
+ * counted and corrected with one multiplication by a power of R when the result is read.
+ * An accumulator is not thread safe, but the underlying engine can be shared by any number of
+ * accumulators.
+ *
+ * @version 1.0
+ */
+public final class ProductAccumulator {
+
+  private static final MontgomeryEngine MOD_P_ENGINE = new MontgomeryEngine(
+      ElectionConstants.STANDARD_CONSTANTS.large_prime);
+  private static final String MODULUS_MISMATCH_ERROR_MSG = "Accumulators use different moduli.";
+
+  private final MontgomeryEngine engine;
+  private final long[] product;
+  private final long[] scratch;
+  private long reductions;
+  private int factorCount;
+
+  /**
+   * Constructor of new ProductAccumulator starting with the neutral element.
+   *
+   * @param engine the engine defining the modulus
+   */
+  public ProductAccumulator(MontgomeryEngine engine) {
+    this.engine = engine;
+    this.product = engine.toLimbs(BigInteger.ONE);
+    this.scratch = engine.newScratch();
+  }
+
+  /**
+   * Creates an accumulator for the large prime p of the electionGuard group.
+   *
+   * @return new accumulator starting at one
+   */
+  public static ProductAccumulator modP() {
+    return new ProductAccumulator(MOD_P_ENGINE);
+  }
+
+  /**
+   * Getter for the shared engine working modulo the large prime p of the electionGuard group.
+   *
+   * @return engine for p
+   */
+  public static MontgomeryEngine modPEngine() {
+    return MOD_P_ENGINE;
+  }
+
+  /**
+   * Multiplies a value onto the running product.
+   *
+   * @param factor the value to multiply
+   * @return this accumulator
+   */
+  public ProductAccumulator multiply(BigInteger factor) {
+    engine.multiply(product, engine.toLimbs(factor), product, scratch);
+    reductions++;
+    factorCount++;
+    return this;
+  }
+
+  /**
+   * Multiplies an element of the electionGuard group onto the running product.
+   *
+   * @param factor the element to multiply
+   * @return this accumulator
+   */
+  public ProductAccumulator multiply(Group.ElementModP factor) {
+    return multiply(factor.getBigInt());
+  }
+
+  /**
+   * Multiplies the product of another accumulator with the same modulus onto this one.
+   *
+   * @param other accumulator to merge
+   * @return this accumulator
+   */
+  public ProductAccumulator merge(ProductAccumulator other) {
+    if (!engine.getModulus().equals(other.engine.getModulus())) {
+      throw new IllegalArgumentException(MODULUS_MISMATCH_ERROR_MSG);
+    }
+    engine.multiply(product, other.product, product, scratch);
+    reductions += other.reductions + 1;
+    factorCount += other.factorCount;
+    return this;
+  }
+
+  /**
+   * Getter for the number of factors that have been multiplied.
+   *
+   * @return number of factors
+   */
+  public int getFactorCount() {
+    return factorCount;
+  }
+
+  /**
+   * Getter for the current product.
+   *
+   * @return the product in [0, m)
+   */
+  public BigInteger get() {
+    BigInteger uncorrected = MontgomeryEngine.toBigInteger(product);
+    if (reductions == 0) {
+      return uncorrected;
+    }
+    return uncorrected.multiply(engine.radixPower(reductions)).mod(engine.getModulus());
+  }
+
+  /**
+   * Getter for the current product as element of the electionGuard group. Only valid for
+   * accumulators working modulo p.
+   *
+   * @return the product as element mod p
+   */
+  public Group.ElementModP getElementModP() {
+    return Group.int_to_p_unchecked(get());
+  }
+}
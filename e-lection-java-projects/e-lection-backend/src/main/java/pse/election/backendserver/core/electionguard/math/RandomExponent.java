@@ -0,0 +1,33 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * Draws the random exponents batch verifications raise their equations to before multiplying
+ * them. The exponents are nonzero and have 128 bits, so an invalid equation passes a batch with
+ * probability of at most 2^-128.
+ *
+ * @version 1.0
+ */
+final class RandomExponent {
+
+  private static final int BITS = 128;
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private RandomExponent() {
+  }
+
+  /**
+   * Draws a new random exponent.
+   *
+   * @return nonzero exponent of at most 128 bits
+   */
+  static BigInteger next() {
+    BigInteger random;
+    do {
+      random = new BigInteger(BITS, RANDOM);
+    } while (random.signum() == 0);
+    return random;
+  }
+}
@@ -1,19 +1,30 @@
 package pse.election.backendserver.core.service;
 
+import java.math.BigInteger;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.ArrayList;
+import java.util.SortedMap;
+import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import pse.election.backendserver.core.electionguard.HashFacade;
 import pse.election.backendserver.core.electionguard.VerificationFacade;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.core.state.handler.ElectionStateHandler;
 import pse.election.backendserver.entity.Ballot;
@@ -56,6 +67,7 @@ public class BallotService {
       = "The voter has already submitted a ballot.";
   private static final String INVALID_DATE = "Encryption date must be after election start must not be in the future";
   private static final int HEXA_RADIX = 16;
+  private static final int LOCK_BATCH_SIZE = 500;
 
   private final ElectionService electionService;
 
@@ -151,23 +163,74 @@ public class BallotService {
   }
 
   /**
-   * Saves the decrypted spoiled ballots results.
+   * Saves the decrypted spoiled ballots results. The encrypted options of all ballots are loaded
+   * in a single query and updated with one statement per selection state, afterwards the ballots
+   * are marked as decrypted.
    *
    * @param resultSpoiledBallot decrypted spoiled ballots
    */
+  @Transactional
   public void saveDecryptedSpoiledBallot(Map<Long, Map<Integer, Integer[]>> resultSpoiledBallot) {
-    for (Map.Entry<Long, Map<Integer, Integer[]>> ballot : resultSpoiledBallot.entrySet()) {
-      long ballotId = ballot.getKey();
-      for (Map.Entry<Integer, Integer[]> contest : ballot.getValue().entrySet()) {
-        int contestIndex = contest.getKey();
-        for (int optionIndex = 0; optionIndex < contest.getValue().length; optionIndex++) {
-          int resultInt = contest.getValue()[optionIndex];
-          OptionEncrypted option = optionEncryptedRepository
-              .findByBallotIdAndContestIndexAndOptionIndex(ballotId, contestIndex, optionIndex);
-          option.setSelectionMade(resultInt != 0);
-          optionEncryptedRepository.save(option);
+    if (resultSpoiledBallot.isEmpty()) {
+      return;
+    }
+    List<Long> selectedOptions = new ArrayList<>();
+    List<Long> unselectedOptions = new ArrayList<>();
+    for (OptionEncrypted option
+        : optionEncryptedRepository.findByBallotIdIn(resultSpoiledBallot.keySet())) {
+      Integer[] results = resultSpoiledBallot.get(option.getBallotId())
+          .get(option.getContestIndex());
+      if (results == null || option.getOptionIndex() >= results.length) {
+        continue;
+      }
+      if (results[option.getOptionIndex()] != 0) {
+        selectedOptions.add(option.getOptionEncryptedId());
+      } else {
+        unselectedOptions.add(option.getOptionEncryptedId());
+      }
+    }
+    if (!selectedOptions.isEmpty()) {
+      optionEncryptedRepository.updateSelectionMade(selectedOptions, true);
+    }
+    if (!unselectedOptions.isEmpty()) {
+      optionEncryptedRepository.updateSelectionMade(unselectedOptions, false);
+    }
+    ballotRepository.markDecrypted(resultSpoiledBallot.keySet());
+  }
+
+  /**
+   * Starts accumulating the partial decryptions of the spoiled ballots of an election by setting
+   * the share products of their encrypted options to one.
+   *
+   * @param electionId is the id referencing an election
+   */
+  @Transactional
+  public void initialiseShareProductsOfSpoiledBallots(long electionId) {
+    optionEncryptedRepository.initialiseShareProductsOfSpoiledBallots(electionId);
+  }
+
+  /**
+   * Multiplies the share products of encrypted options by the given factors. The options are
+   * locked in the order of their identifiers until the surrounding transaction ends. Options
+   * without a share product are left untouched.
+   *
+   * @param factors factors mapped by the identifier of their encrypted option
+   */
+  @Transactional
+  public void multiplyShareProducts(SortedMap<Long, BigInteger> factors) {
+    List<Long> optionIds = new ArrayList<>(factors.keySet());
+    for (int from = 0; from < optionIds.size(); from += LOCK_BATCH_SIZE) {
+      List<OptionEncrypted> options = optionEncryptedRepository.findAllForUpdate(
+          optionIds.subList(from, Math.min(from + LOCK_BATCH_SIZE, optionIds.size())));
+      for (OptionEncrypted option : options) {
+        if (option.getShareProduct() != null) {
+          option.setShareProduct(ProductAccumulator.modP()
+              .multiply(new BigInteger(option.getShareProduct(), HEXA_RADIX))
+              .multiply(factors.get(option.getOptionEncryptedId()))
+              .get().toString(HEXA_RADIX));
         }
       }
+      optionEncryptedRepository.saveAll(options);
     }
   }
 
@@ -198,6 +261,17 @@ public class BallotService {
     return (List<Ballot>) ballotRepository.findByElectionIdAndIsSubmitted(electionId, true);
   }
 
+  /**
+   * Getter for the number of submitted ballots of an election. This is an upper bound for the
+   * number of votes any option of the election can receive.
+   *
+   * @param electionId is the id referencing an election
+   * @return number of submitted ballots
+   */
+  public long getSubmittedBallotCount(long electionId) {
+    return ballotRepository.countByElectionIdAndIsSubmitted(electionId, true);
+  }
+
   /**
    * Getter for all the spoiled ballots of an election referenced by an identifier.
    *
@@ -211,6 +285,119 @@ public class BallotService {
     return (List<Ballot>) ballotRepository.findByElectionIdAndIsSubmitted(electionId, false);
   }
 
+  /**
+   * Getter for the spoiled ballots of an election out of the given ballots. Ballots of other
+   * elections and submitted ballots are left out.
+   *
+   * @param electionId is the id referencing an election
+   * @param ballotIds  are the ids of the requested ballots
+   * @return collection of spoiled ballots
+   */
+  public List<Ballot> getSpoiledBallotsOfElection(long electionId, Collection<Long> ballotIds) {
+    return (List<Ballot>) ballotRepository.findByElectionIdAndIsSubmittedAndBallotIdIn(electionId,
+        false, ballotIds);
+  }
+
+  /**
+   * Getter for a page of the spoiled ballots of an election ordered by their identifier. The
+   * identifier of the last ballot of a page is the cursor of the next page.
+   *
+   * @param electionId    is the id referencing an election
+   * @param afterBallotId is the id of the ballot the page starts after
+   * @param limit         is the maximum number of ballots
+   * @return collection of spoiled ballots
+   */
+  public List<Ballot> getSpoiledBallotsOfElectionAfter(long electionId, long afterBallotId,
+      int limit) {
+    return ballotRepository.findByElectionIdAndIsSubmittedAndBallotIdGreaterThanOrderByBallotIdAsc(
+        electionId, false, afterBallotId, PageRequest.of(0, limit));
+  }
+
+  /**
+   * Checks whether an election has spoiled ballots following a ballot.
+   *
+   * @param electionId    is the id referencing an election
+   * @param afterBallotId is the id of the ballot
+   * @return true if there are spoiled ballots with a greater id
+   */
+  public boolean hasSpoiledBallotsOfElectionAfter(long electionId, long afterBallotId) {
+    return ballotRepository.existsByElectionIdAndIsSubmittedAndBallotIdGreaterThan(electionId,
+        false, afterBallotId);
+  }
+
+  /**
+   * Getter for the number of spoiled ballots of an election.
+   *
+   * @param electionId is the id referencing an election
+   * @return number of spoiled ballots
+   */
+  public long getSpoiledBallotCount(long electionId) {
+    return ballotRepository.countByElectionIdAndIsSubmitted(electionId, false);
+  }
+
+  /**
+   * Decrypts the spoiled ballots of an election whose selections have not been decrypted yet and
+   * saves their results. The ballots stay locked until the results have been saved, so that other
+   * instances wait instead of decrypting them again.
+   *
+   * @param electionId is the id referencing an election
+   * @param decryption decrypts the given spoiled ballots
+   */
+  @Transactional
+  public void decryptPendingSpoiledBallots(long electionId,
+      Function<List<Ballot>, Map<Long, Map<Integer, Integer[]>>> decryption) {
+    List<Ballot> pendingBallots = ballotRepository.findUndecryptedSpoiledBallotsForUpdate(
+        electionId);
+    if (!pendingBallots.isEmpty()) {
+      saveDecryptedSpoiledBallot(decryption.apply(pendingBallots));
+    }
+  }
+
+  /**
+   * Marks the ballots stored before the decryption of spoiled ballots was tracked. This runs
+   * before the scheduled tasks start, so that spoiled ballots decrypted with the result back then
+   * are not decrypted again.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @Transactional
+  public void markUntrackedBallots() {
+    int decrypted = ballotRepository.markUntrackedDecryptedBallots();
+    ballotRepository.markUntrackedUndecryptedBallots();
+    if (decrypted > 0) {
+      logger.info("Marked " + decrypted + " spoiled ballots of done elections as decrypted.");
+    }
+  }
+
+  /**
+   * Getter for the identifiers of all elections with spoiled ballots that have not been decrypted.
+   *
+   * @return collection of election identifiers
+   */
+  public List<Long> getElectionIdsWithUndecryptedSpoiledBallots() {
+    return ballotRepository.findElectionIdsWithUndecryptedSpoiledBallots();
+  }
+
+  /**
+   * Getter for the encrypted options of all spoiled ballots of an election, loaded at once.
+   *
+   * @param electionId is the id referencing an election
+   * @return collection of encrypted options of spoiled ballots
+   */
+  public List<OptionEncrypted> getAllOptionsEncryptedOfSpoiledBallots(long electionId) {
+    return (List<OptionEncrypted>) optionEncryptedRepository
+        .findAllOfSpoiledBallotsByElectionId(electionId);
+  }
+
+  /**
+   * Getter for the encrypted options of several ballots, loaded at once.
+   *
+   * @param ballotIds are the ids referencing the ballots
+   * @return collection of encrypted options of the ballots
+   */
+  public List<OptionEncrypted> getAllOptionsEncryptedOfBallots(Collection<Long> ballotIds) {
+    return (List<OptionEncrypted>) optionEncryptedRepository.findByBallotIdIn(ballotIds);
+  }
 
   /**
    * Getter for all encrypted options of a ballot referenced by an identifier.
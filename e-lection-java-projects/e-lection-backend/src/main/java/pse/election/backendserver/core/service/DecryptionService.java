@@ -1,35 +1,51 @@
 package pse.election.backendserver.core.service;
 
 import com.sunya.electionguard.ChaumPedersen;
+import com.sunya.electionguard.Group;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import pse.election.backendserver.core.electionguard.DecryptionFacade.Decryption;
+import pse.election.backendserver.core.electionguard.ElectionCiphertextSnapshot;
 import pse.election.backendserver.core.electionguard.KeyCeremonyFacade;
 import pse.election.backendserver.core.electionguard.VerificationFacade;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
 import pse.election.backendserver.core.state.ElectionState;
-import pse.election.backendserver.entity.Ballot;
-import pse.election.backendserver.entity.Contest;
+import pse.election.backendserver.entity.DecryptionUpload;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.OptionEncrypted;
 import pse.election.backendserver.entity.PartialDecryption;
 import pse.election.backendserver.entity.PartialPartialDecryption;
+import pse.election.backendserver.entity.StagedDecryption;
 import pse.election.backendserver.entity.Tally;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.dto.ChaumPedersenProofDTO;
 import pse.election.backendserver.payload.dto.DecryptionDTO;
 import pse.election.backendserver.payload.dto.DecryptionDTO.PartialDecryptionDTO;
+import pse.election.backendserver.payload.error.exception.EntityNotFoundException;
+import pse.election.backendserver.payload.error.exception.IllegalProofException;
 import pse.election.backendserver.payload.error.exception.IllegalStateOperationException;
 import pse.election.backendserver.payload.error.exception.UnauthorizedAccessException;
+import pse.election.backendserver.repository.DecryptionUploadRepository;
 import pse.election.backendserver.repository.OptionEncryptedRepository;
 import pse.election.backendserver.repository.PartialDecryptionRepository;
 import pse.election.backendserver.repository.PartialPartialDecryptionRepository;
+import pse.election.backendserver.repository.StagedDecryptionRepository;
 import pse.election.backendserver.repository.TrusteeRepository;
 
 /**
@@ -42,7 +58,23 @@ import pse.election.backendserver.repository.TrusteeRepository;
 public class DecryptionService {
 
   private static final String MISSING_DECRYPTION = "Error, a required decryption was missing";
+  private static final String INVALID_DECRYPTION = "Error, a decryption has an invalid proof";
+  private static final String UNKNOWN_OPTION = "Error, provided decryption for an unknown option";
   private static final String UNNECCESSARY_DECRYPTION = "Error, provided decryption for a trustee who is not missing";
+  private static final String UNKNOWN_BALLOT =
+      "Error, provided decryption for an unknown spoiled ballot";
+  private static final String UNKNOWN_UPLOAD = "Error, the decryption upload does not exist";
+  private static final String CHUNK_TOO_LARGE =
+      "Error, a decryption chunk holds more than %d ballots";
+  private static final String UPLOAD_PHASE_OVER =
+      "Error, the decryption phase of the upload is over";
+  private static final String ALREADY_DECRYPTED = "Trustee has already sent partial decryptions.";
+  private static final int BASE_OF_HEX = 16;
+  private static final int SHARE_PAGE_SIZE = 500;
+
+  @Value("${decryption.maxChunkBallots:500}")
+  private int maxChunkBallots;
+
   private final PartialDecryptionRepository partialDecryptionRepository;
   private final PartialPartialDecryptionRepository partialPartialDecryptionRepository;
   private final OptionEncryptedRepository optionEncryptedRepository;
@@ -61,6 +93,10 @@ public class DecryptionService {
 
   private final TrusteeRepository trusteeRepo;
 
+  private final DecryptionUploadRepository decryptionUploadRepository;
+
+  private final StagedDecryptionRepository stagedDecryptionRepository;
+
   /**
    * Constructor of new DecryptionService.
    * */
@@ -70,7 +106,8 @@ public class DecryptionService {
       OptionEncryptedRepository optionEncryptedRepository, BallotService ballotService,
       ElectionService electionService, TrusteeService trusteeService, TallyService tallyService,
       VerificationFacade verificationFacade, KeyCeremonyFacade keyCeremonyFacade,
-      TrusteeRepository trusteeRepo) {
+      TrusteeRepository trusteeRepo, DecryptionUploadRepository decryptionUploadRepository,
+      StagedDecryptionRepository stagedDecryptionRepository) {
     this.partialDecryptionRepository = partialDecryptionRepository;
     this.partialPartialDecryptionRepository = partialPartialDecryptionRepository;
     this.optionEncryptedRepository = optionEncryptedRepository;
@@ -81,6 +118,8 @@ public class DecryptionService {
     this.verificationFacade = verificationFacade;
     this.keyCeremonyFacade = keyCeremonyFacade;
     this.trusteeRepo = trusteeRepo;
+    this.decryptionUploadRepository = decryptionUploadRepository;
+    this.stagedDecryptionRepository = stagedDecryptionRepository;
   }
 
   /**
@@ -89,6 +128,7 @@ public class DecryptionService {
    *
    * @param decryptionDTO is the new partial decryption to be stored
    */
+  @Transactional
   public void addDecryption(DecryptionDTO decryptionDTO, long electionId, String email)
       throws UnauthorizedAccessException {
     trusteeService.checkExistingEmail(email);
@@ -105,6 +145,201 @@ public class DecryptionService {
     }
   }
 
+  /**
+   * Opens a chunked upload of the decryptions of a trustee for the current decryption phase. An
+   * upload the trustee has already opened in this phase is returned instead, so that an
+   * interrupted upload can be resumed. Uploads of an earlier phase are discarded.
+   *
+   * @param electionId is the id of the election
+   * @param email      is the email of the trustee
+   * @return the open upload
+   */
+  @Transactional
+  public DecryptionUpload openDecryptionUpload(long electionId, String email)
+      throws UnauthorizedAccessException {
+    trusteeService.checkExistingEmail(email);
+    electionService.checkExistsElection(electionId);
+    Trustee trustee = trusteeService.getTrustee(email, electionId);
+    ElectionState state = electionService.getState(electionId);
+    if (state != ElectionState.P_DECRYPTION && state != ElectionState.PP_DECRYPTION) {
+      throw new IllegalStateOperationException(
+          "Invalid election state for adding decryptions." + state);
+    }
+    if (trustee.isWaiting()) {
+      throw new UnauthorizedAccessException(ALREADY_DECRYPTED);
+    }
+
+    DecryptionUpload upload = decryptionUploadRepository.findByTrusteeId(trustee.getTrusteeId());
+    if (upload != null && upload.getState() == state) {
+      return upload;
+    }
+    if (upload != null) {
+      discardDecryptionUpload(upload);
+    }
+    return decryptionUploadRepository.save(
+        new DecryptionUpload(electionId, trustee.getTrusteeId(), state, new Date()));
+  }
+
+  /**
+   * Getter for an open upload of a trustee.
+   *
+   * @param electionId is the id of the election
+   * @param uploadId   is the id of the upload
+   * @param email      is the email of the trustee
+   * @return the open upload
+   * @throws EntityNotFoundException in case the trustee has no such upload
+   */
+  public DecryptionUpload getDecryptionUpload(long electionId, long uploadId, String email) {
+    return findDecryptionUpload(electionId, uploadId,
+        trusteeService.getTrustee(email, electionId));
+  }
+
+  /**
+   * Getter for the ballots an upload has staged decryptions of. Every trustee the uploading
+   * trustee has to decrypt for is mapped to the identifiers of the staged spoiled ballots, where
+   * -1 identifies the tally. A chunk of every ballot that is not listed has yet to be uploaded.
+   *
+   * @param upload is the open upload
+   * @return staged ballot identifiers by the index of the trustee they are decrypted for
+   */
+  public Map<Integer, List<Long>> getStagedBallotIds(DecryptionUpload upload) {
+    Map<Integer, List<Long>> stagedBallotIds = new TreeMap<>();
+    for (int trusteeIndex : getRequiredTrusteeIndices(upload)) {
+      stagedBallotIds.put(trusteeIndex, stagedDecryptionRepository.findStagedBallotIds(
+          upload.getDecryptionUploadId(), trusteeIndex));
+    }
+    return stagedBallotIds;
+  }
+
+  /**
+   * Verifies a chunk of the decryptions of a trustee and stages it for its upload. A chunk has the
+   * form of a complete upload, but only holds the decryptions of some spoiled ballots and
+   * optionally the tally. Decryptions of ballots that have already been staged are skipped, so
+   * that chunks can be sent again after a dropped connection.
+   *
+   * @param chunk      is the chunk of decryptions
+   * @param electionId is the id of the election
+   * @param uploadId   is the id of the open upload
+   * @param email      is the email of the trustee
+   * @return the upload the chunk was staged for
+   */
+  @Transactional
+  public DecryptionUpload addDecryptionChunk(DecryptionDTO chunk, long electionId, long uploadId,
+      String email) {
+    Trustee trustee = trusteeService.getTrustee(email, electionId);
+    DecryptionUpload upload = lockDecryptionUpload(electionId, uploadId, trustee);
+    checkUploadPhase(upload);
+
+    int ballotCount = 0;
+    Set<Long> ballotIds = new HashSet<>();
+    for (PartialDecryptionDTO[] spoiledBallots : chunk.partialDecryptedSpoiledBallots().values()) {
+      ballotCount += spoiledBallots.length;
+      for (PartialDecryptionDTO spoiledBallot : spoiledBallots) {
+        ballotIds.add(spoiledBallot.ballotId());
+      }
+    }
+    if (ballotCount > maxChunkBallots) {
+      throw new IllegalArgumentException(String.format(CHUNK_TOO_LARGE, maxChunkBallots));
+    }
+
+    List<Integer> requiredTrusteeIndices = getRequiredTrusteeIndices(upload);
+    Set<Integer> chunkTrusteeIndices = new HashSet<>(chunk.partialDecryptedSpoiledBallots()
+        .keySet());
+    chunkTrusteeIndices.addAll(chunk.partialDecryptedTalliedBallots().keySet());
+    if (!requiredTrusteeIndices.containsAll(chunkTrusteeIndices)) {
+      throw new IllegalStateOperationException(UNNECCESSARY_DECRYPTION);
+    }
+
+    ElectionCiphertextSnapshot snapshot = verificationFacade.createCiphertextSnapshot(electionId,
+        ballotIds);
+    Map<Long, Long> tallyIds = chunk.partialDecryptedTalliedBallots().isEmpty() ? Map.of()
+        : indexTallies(electionId);
+    Map<Long, Map<Long, Long>> spoiledOptionIds = snapshot.getSpoiledBallotIds().isEmpty()
+        ? Map.of() : indexOptions(ballotService.getAllOptionsEncryptedOfBallots(
+            snapshot.getSpoiledBallotIds()));
+
+    List<StagedDecryption> stagedDecryptions = new ArrayList<>();
+    for (int trusteeIndex : chunkTrusteeIndices) {
+      Set<Long> stagedBallotIds = new HashSet<>(stagedDecryptionRepository.findStagedBallotIds(
+          uploadId, trusteeIndex));
+      List<PartialDecryptionDTO> decryptions = new ArrayList<>();
+      PartialDecryptionDTO tally = chunk.partialDecryptedTalliedBallots().get(trusteeIndex);
+      if (tally != null && stagedBallotIds.add(ElectionCiphertextSnapshot.TALLY_ID)) {
+        checkCompleteTallyDecryption(tally, snapshot);
+        decryptions.add(tally);
+      }
+      for (PartialDecryptionDTO spoiledBallot : chunk.partialDecryptedSpoiledBallots()
+          .getOrDefault(trusteeIndex, new PartialDecryptionDTO[0])) {
+        if (!snapshot.getSpoiledBallotIds().contains(spoiledBallot.ballotId())) {
+          throw new IllegalArgumentException(UNKNOWN_BALLOT);
+        }
+        if (stagedBallotIds.add(spoiledBallot.ballotId())) {
+          checkCompleteTallyDecryption(spoiledBallot, snapshot);
+          decryptions.add(spoiledBallot);
+        }
+      }
+
+      // Decryptions are only verified in the first decryption phase, like complete uploads.
+      if (upload.getState() == ElectionState.P_DECRYPTION && !decryptions.isEmpty()
+          && !verificationFacade.verifyDecryptions(decryptions, snapshot,
+          trustee.getPrimaryKey())) {
+        throw new IllegalProofException(INVALID_DECRYPTION);
+      }
+      for (PartialDecryptionDTO decryption : decryptions) {
+        stageDecryption(upload, trustee, trusteeIndex, decryption, tallyIds, spoiledOptionIds,
+            stagedDecryptions);
+      }
+    }
+    stagedDecryptionRepository.insertAll(stagedDecryptions);
+    return upload;
+  }
+
+  /**
+   * Commits an upload once it has staged the decryptions of the tally and of every spoiled ballot
+   * for every trustee the uploading trustee has to decrypt for. The staged decryptions become the
+   * decryptions of the trustee, exactly as if they had been sent in a single upload.
+   *
+   * @param electionId is the id of the election
+   * @param uploadId   is the id of the open upload
+   * @param email      is the email of the trustee
+   */
+  @Transactional
+  public void commitDecryptionUpload(long electionId, long uploadId, String email)
+      throws UnauthorizedAccessException {
+    Trustee trustee = trusteeService.getTrustee(email, electionId);
+    DecryptionUpload upload = lockDecryptionUpload(electionId, uploadId, trustee);
+    checkUploadPhase(upload);
+    if (trustee.isWaiting()) {
+      throw new UnauthorizedAccessException(ALREADY_DECRYPTED);
+    }
+
+    long spoiledBallotCount = ballotService.getSpoiledBallotCount(electionId);
+    for (List<Long> stagedBallotIds : getStagedBallotIds(upload).values()) {
+      // The staged ballots are distinct spoiled ballots of the election and the tally.
+      if (!stagedBallotIds.contains(ElectionCiphertextSnapshot.TALLY_ID)
+          || stagedBallotIds.size() != spoiledBallotCount + 1) {
+        throw new IllegalArgumentException(MISSING_DECRYPTION);
+      }
+    }
+
+    if (upload.getState() == ElectionState.P_DECRYPTION) {
+      stagedDecryptionRepository.commitPartialDecryptions(uploadId, trustee.getTrusteeId());
+      accumulateStagedDecryptions(uploadId, null);
+      trustee.setAvailable();
+    } else {
+      stagedDecryptionRepository.commitPartialPartialDecryptions(uploadId,
+          trustee.getTrusteeId());
+      if (trustee.hasLagrangeCoefficient()) {
+        accumulateStagedDecryptions(uploadId, trustee.getLagrangeCoefficient());
+      }
+    }
+    discardDecryptionUpload(upload);
+
+    trustee.setWaiting(true);
+    trusteeService.addTrustee(trustee);
+    electionService.tryUpdateState(electionId, ElectionState.DONE);
+  }
+
   /**
    * Saves the partial decryptions for each tallied option and also saves the partial decryptions of
    * the spoiled ballots.
@@ -112,6 +347,7 @@ public class DecryptionService {
    * @param tallies        collection of partial decryptions of tallies
    * @param spoiledBallots collection of partial decryptions of spoiled Ballots
    */
+  @Transactional
   public void addPartialDecryptionBotTrustee(Map<Long, Decryption> tallies,
       Map<Long, Map<Long, Decryption>> spoiledBallots,
       Election election) {
@@ -133,32 +369,104 @@ public class DecryptionService {
   }
 
   /**
-   * Saves the partial partial decryptions for each tallied option and also saves the partial
-   * partial decryptions of the spoiled ballots.
+   * Saves the partial partial decryptions of the bot trustee for each tallied option and also
+   * saves the last batch of partial partial decryptions of the spoiled ballots. The decryptions are
+   * mapped by the index of the missing trustee they were generated for. If the bot trustee has
+   * already decrypted the tallies, nothing is saved, so that a repeated compensation does not
+   * store its decryptions twice.
    *
-   * @param tallies           partial partial decryptions of tallies
-   * @param spoiledBallots    partial partial decryptions of spoiled ballots
-   * @param forWhichIndex     for whom the decryption was generated
+   * @param tallies        partial partial decryptions of tallies
+   * @param spoiledBallots partial partial decryptions of spoiled ballots
+   * @param election       the election the decryptions belong to
    */
-  public void addPartialPartialDecryptionBotTrustee(Map<Long, Decryption> tallies,
-      Map<Long, Map<Long, Decryption>> spoiledBallots, int forWhichIndex, Election election) {
-    long electionId = election.getElectionId(); // Guaranteed same electionId for every tally
-    long botTrusteeId = trusteeService.getBotTrustee(electionId).getTrusteeId();
-    long forWhichTrusteeId = trusteeRepo.findByTrusteeIndexAndElectionId(forWhichIndex, electionId).getTrusteeId();
-    if (election.getState() == ElectionState.PP_DECRYPTION) {
-      savePartialPartialDecryptionTallyBot(tallies, botTrusteeId, forWhichTrusteeId);
-      savePartialPartialDecryptionSpoiledBallotBot(spoiledBallots, botTrusteeId,
-          forWhichTrusteeId);
-
-    } else {
+  @Transactional
+  public void addPartialPartialDecryptionBotTrustee(Map<Integer, Map<Long, Decryption>> tallies,
+      Map<Integer, Map<Long, Map<Long, Decryption>>> spoiledBallots, Election election) {
+    if (election.getState() != ElectionState.PP_DECRYPTION) {
       throw new IllegalStateOperationException(
           "Election is in an invalid state to add decryptions.");
     }
+    long electionId = election.getElectionId(); // Guaranteed same electionId for every tally
+    long botTrusteeId = trusteeService.getBotTrusteeForUpdate(electionId).getTrusteeId();
+    if (hasPartialPartialDecryptionOfTallies(botTrusteeId)) {
+      return;
+    }
     Trustee botTrustee = trusteeService.getTrustee(botTrusteeId);
+    saveSpoiledBallotPartialPartialDecryptionsBot(spoiledBallots, botTrustee, electionId);
+    for (Map.Entry<Integer, Map<Long, Decryption>> forWhichTrustee : tallies.entrySet()) {
+      long forWhichTrusteeId = trusteeRepo.findByTrusteeIndexAndElectionId(
+          forWhichTrustee.getKey(), electionId).getTrusteeId();
+      savePartialPartialDecryptionTallyBot(forWhichTrustee.getValue(), botTrustee,
+          forWhichTrusteeId);
+    }
     botTrustee.setWaiting(true);
     trusteeService.addTrustee(botTrustee);
   }
 
+  /**
+   * Saves a batch of partial decryptions of spoiled ballots of the bot trustee. The state of the
+   * bot trustee is left untouched, it is updated by
+   * {@link #addPartialDecryptionBotTrustee(Map, Map, Election)} with the last batch.
+   *
+   * @param spoiledBallots partial decryptions of spoiled ballots
+   * @param election       the election the ballots belong to
+   */
+  @Transactional
+  public void addSpoiledBallotDecryptionsBotTrustee(
+      Map<Long, Map<Long, Decryption>> spoiledBallots, Election election) {
+    if (election.getState() != ElectionState.P_DECRYPTION) {
+      throw new IllegalStateOperationException(
+          "Election is in an invalid state to add decryptions.");
+    }
+    long botTrusteeId = trusteeService.getBotTrustee(election.getElectionId()).getTrusteeId();
+    savePartialDecryptionSpoiledBallotBot(spoiledBallots, botTrusteeId);
+  }
+
+  /**
+   * Saves a batch of partial partial decryptions of spoiled ballots of the bot trustee, mapped by
+   * the index of the missing trustee they were generated for. The state of the bot trustee is left
+   * untouched, it is updated by {@link #addPartialPartialDecryptionBotTrustee(Map, Map, Election)}
+   * with the last batch. Ballots the bot trustee has already decrypted are skipped.
+   *
+   * @param spoiledBallots partial partial decryptions of spoiled ballots
+   * @param election       the election the ballots belong to
+   */
+  @Transactional
+  public void addSpoiledBallotPartialPartialDecryptionsBotTrustee(
+      Map<Integer, Map<Long, Map<Long, Decryption>>> spoiledBallots, Election election) {
+    if (election.getState() != ElectionState.PP_DECRYPTION) {
+      throw new IllegalStateOperationException(
+          "Election is in an invalid state to add decryptions.");
+    }
+    long electionId = election.getElectionId();
+    Trustee botTrustee = trusteeService.getTrustee(
+        trusteeService.getBotTrusteeForUpdate(electionId).getTrusteeId());
+    saveSpoiledBallotPartialPartialDecryptionsBot(spoiledBallots, botTrustee, electionId);
+  }
+
+  /**
+   * Checks whether a trustee has sent partial partial decryptions of the tallies. The bot trustee
+   * saves these last, so they mark its compensation as complete.
+   *
+   * @param trusteeId is the id of the trustee
+   * @return true if the trustee has partial partial decryptions of tallied options
+   */
+  public boolean hasPartialPartialDecryptionOfTallies(long trusteeId) {
+    return partialPartialDecryptionRepository.existsByTrusteeIdAndOptionEncryptedId(trusteeId, -1);
+  }
+
+  /**
+   * Getter for the ids of all encrypted options a trustee has sent partial partial decryptions
+   * for.
+   *
+   * @param trusteeId is the id of the trustee
+   * @return ids of the decrypted options
+   */
+  public Set<Long> getOptionIdsWithPartialPartialDecryption(long trusteeId) {
+    return new HashSet<>(
+        partialPartialDecryptionRepository.findOptionEncryptedIdsByTrusteeId(trusteeId));
+  }
+
   /**
    * Getter for all partial decryption uploaded by a trustee referenced by an id for a tally
    * referenced by an id.
@@ -253,6 +561,72 @@ public class DecryptionService {
         desiredTally.getTallyId());
   }
 
+  /**
+   * Retrieves all partial decryptions of the tallied options of an election at once.
+   *
+   * @param electionId election identifier
+   * @return partial decryptions grouped by their tally identifier
+   */
+  public Map<Long, List<PartialDecryption>> getAllPartialDecryptionOfTalliesByTally(
+      long electionId) {
+    Map<Long, List<PartialDecryption>> decryptions = new HashMap<>();
+    for (PartialDecryption decryption
+        : partialDecryptionRepository.findAllOfTalliesByElectionId(electionId)) {
+      decryptions.computeIfAbsent(decryption.getTallyId(), id -> new ArrayList<>()).add(decryption);
+    }
+    return decryptions;
+  }
+
+  /**
+   * Retrieves all partial partial decryptions of the tallied options of an election at once.
+   *
+   * @param electionId election identifier
+   * @return partial partial decryptions grouped by their tally identifier
+   */
+  public Map<Long, List<PartialPartialDecryption>> getAllPartialPartialDecryptionOfTalliesByTally(
+      long electionId) {
+    Map<Long, List<PartialPartialDecryption>> decryptions = new HashMap<>();
+    for (PartialPartialDecryption decryption
+        : partialPartialDecryptionRepository.findAllOfTalliesByElectionId(electionId)) {
+      decryptions.computeIfAbsent(decryption.getTallyId(), id -> new ArrayList<>()).add(decryption);
+    }
+    return decryptions;
+  }
+
+  /**
+   * Retrieves all partial decryptions of the spoiled ballots of an election at once.
+   *
+   * @param electionId election identifier
+   * @return partial decryptions grouped by their encrypted option identifier
+   */
+  public Map<Long, List<PartialDecryption>> getAllPartialDecryptionOfSpoiledBallotsByOption(
+      long electionId) {
+    Map<Long, List<PartialDecryption>> decryptions = new HashMap<>();
+    for (PartialDecryption decryption
+        : partialDecryptionRepository.findAllOfOptionsByElectionId(electionId)) {
+      decryptions.computeIfAbsent(decryption.getOptionEncryptedId(), id -> new ArrayList<>())
+          .add(decryption);
+    }
+    return decryptions;
+  }
+
+  /**
+   * Retrieves all partial partial decryptions of the spoiled ballots of an election at once.
+   *
+   * @param electionId election identifier
+   * @return partial partial decryptions grouped by their encrypted option identifier
+   */
+  public Map<Long, List<PartialPartialDecryption>>
+      getAllPartialPartialDecryptionOfSpoiledBallotsByOption(long electionId) {
+    Map<Long, List<PartialPartialDecryption>> decryptions = new HashMap<>();
+    for (PartialPartialDecryption decryption
+        : partialPartialDecryptionRepository.findAllOfOptionsByElectionId(electionId)) {
+      decryptions.computeIfAbsent(decryption.getOptionEncryptedId(), id -> new ArrayList<>())
+          .add(decryption);
+    }
+    return decryptions;
+  }
+
   /**
    * Retrieves all partial decryptions of an encrypted option of a spoiled ballot.
    *
@@ -308,160 +682,429 @@ public class DecryptionService {
   }
 
   /**
-   * Saves all the partial decryptions as well as the partial partial decryptions to all spoiled
-   * ballots of an election.
+   * Creates the partial decryptions or, if another trustee is given, the partial partial
+   * decryptions of a spoiled ballot.
    */
-  private void saveDecryptionOfSpoiledBallot(PartialDecryptionDTO currentSpoiledBallot,
-      Trustee trustee, long otherTrusteeId) {
-    Election election = electionService.getElection(trustee.getElectionId());
+  private void collectDecryptionOfSpoiledBallot(PartialDecryptionDTO currentSpoiledBallot,
+      Trustee trustee, long otherTrusteeId, Map<Long, Map<Long, Long>> spoiledOptionIds,
+      List<PartialDecryption> partialDecryptions,
+      List<PartialPartialDecryption> partialPartialDecryptions) {
+    Map<Long, Long> optionIds = spoiledOptionIds.getOrDefault(currentSpoiledBallot.ballotId(),
+        Map.of());
     for (Map.Entry<Integer, BigInteger[]> partialDecryptedOption
         : currentSpoiledBallot.partialDecryptedOptions().entrySet()) {
 
       for (int optionIndex = 0; optionIndex < partialDecryptedOption.getValue().length;
           optionIndex++) {
-        OptionEncrypted option = optionEncryptedRepository.findByBallotIdAndContestIndexAndOptionIndex(
-            currentSpoiledBallot.ballotId(),
-                partialDecryptedOption.getKey(),
-            optionIndex);
+        long optionId = lookupId(optionIds, partialDecryptedOption.getKey(), optionIndex);
 
         ChaumPedersenProofDTO proof = currentSpoiledBallot.chaumPedersonProofs()
             .get(partialDecryptedOption.getKey())[optionIndex];
         String parsedProof = parseProofToString(proof);
 
         if (otherTrusteeId != 0) {
-          PartialPartialDecryption decryption = new PartialPartialDecryption(
+          partialPartialDecryptions.add(new PartialPartialDecryption(
               trustee.getTrusteeId(),
               otherTrusteeId,
               -1, // To mark that the partial decryption is not for a tallied option.
-              option.getOptionEncryptedId(),
+              optionId,
               partialDecryptedOption.getValue()[optionIndex].toString(16),
-              parsedProof);
-          partialPartialDecryptionRepository.save(decryption);
+              parsedProof));
         } else {
-          PartialDecryption decryption = new PartialDecryption(
+          partialDecryptions.add(new PartialDecryption(
               -1, // To mark that the partial decryption is not for a tallied option.
               trustee.getTrusteeId(),
-              option.getOptionEncryptedId(),
+              optionId,
               partialDecryptedOption.getValue()[optionIndex].toString(16),
-              parsedProof);
-          partialDecryptionRepository.save(decryption);
+              parsedProof));
         }
       }
     }
   }
 
   /**
-   * Saves all the partial decryptions of the tallies of an election.
+   * Creates the partial decryptions of the tallies of an election.
    */
-  private void savePartialDecryptionOfTally(long electionId, Trustee trustee,
-      PartialDecryptionDTO partialTally) {
-    //trusteeService.
+  private List<PartialDecryption> collectPartialDecryptionOfTally(Map<Long, Long> tallyIds,
+      Trustee trustee, PartialDecryptionDTO partialTally) {
+    List<PartialDecryption> decryptions = new ArrayList<>();
     for (Map.Entry<Integer, BigInteger[]> partialDecryptedOption : partialTally.partialDecryptedOptions()
         .entrySet()) {
       for (int optionIndex = 0; optionIndex < partialDecryptedOption.getValue().length;
           optionIndex++) {
-        Tally currentTally = tallyService.getSpecificTally(electionId,
-            partialDecryptedOption.getKey(), optionIndex);
-
         ChaumPedersenProofDTO proof = partialTally.chaumPedersonProofs()
             .get(partialDecryptedOption.getKey())[optionIndex];
 
         String parsedProof = parseProofToString(proof);
 
-        PartialDecryption decryption = new PartialDecryption(
-            currentTally.getTallyId(),
+        decryptions.add(new PartialDecryption(
+            lookupId(tallyIds, partialDecryptedOption.getKey(), optionIndex),
             trustee.getTrusteeId(),
             -1, // To mark that the partial decryption is not for an encrypted option.
             partialDecryptedOption.getValue()[optionIndex].toString(16),
-            parsedProof);
-        partialDecryptionRepository.save(decryption);
+            parsedProof));
       }
     }
+    return decryptions;
   }
 
   /**
-   * Saves all the partial partial decryptions of the tallies of an election.
+   * Creates the partial partial decryptions of the tallies of an election.
    */
-  private void savePartialPartialDecryptionOfTally(long electionId, Trustee trustee,
-      Map.Entry<Integer, PartialDecryptionDTO> partialPartialTally) {
+  private void collectPartialPartialDecryptionOfTally(Map<Long, Long> tallyIds, Trustee trustee,
+      Map.Entry<Integer, PartialDecryptionDTO> partialPartialTally,
+      List<PartialPartialDecryption> decryptions) {
     for (Map.Entry<Integer, BigInteger[]> partialDecryptedOption : partialPartialTally.getValue()
         .partialDecryptedOptions().entrySet()) {
       for (int optionIndex = 0; optionIndex < partialDecryptedOption.getValue().length;
           optionIndex++) {
-        Tally currentTally = tallyService.getSpecificTally(electionId,
-            partialDecryptedOption.getKey(), optionIndex);
-
         ChaumPedersenProofDTO proof = partialPartialTally.getValue().chaumPedersonProofs()
             .get(partialDecryptedOption.getKey())[optionIndex];
         String parsedProof = parseProofToString(proof);
-        PartialPartialDecryption decryption = new PartialPartialDecryption(
+        decryptions.add(new PartialPartialDecryption(
             trustee.getTrusteeId(),
             partialPartialTally.getKey(),
-            currentTally.getTallyId(),
+            lookupId(tallyIds, partialDecryptedOption.getKey(), optionIndex),
             -1, // To mark that the partial decryption is not for an encrypted option.
             partialDecryptedOption.getValue()[optionIndex].toString(16),
-            parsedProof);
-        partialPartialDecryptionRepository.save(decryption);
+            parsedProof));
       }
     }
   }
 
+  /**
+   * Maps the contest and option index of every tally of an election to the tally identifier.
+   */
+  private Map<Long, Long> indexTallies(long electionId) {
+    Map<Long, Long> tallyIds = new HashMap<>();
+    for (Tally tally : tallyService.getAllTalliesOfElection(electionId)) {
+      tallyIds.put(Tally.selectionKey(tally.getContestIndex(), tally.getOptionIndex()),
+          tally.getTallyId());
+    }
+    return tallyIds;
+  }
+
+  /**
+   * Maps the contest and option index of every encrypted option of the spoiled ballots of an
+   * election to the option identifier, grouped by ballot.
+   */
+  private Map<Long, Map<Long, Long>> indexSpoiledOptions(long electionId) {
+    return indexOptions(ballotService.getAllOptionsEncryptedOfSpoiledBallots(electionId));
+  }
+
+  /**
+   * Maps the contest and option index of encrypted options to the option identifier, grouped by
+   * ballot.
+   */
+  private Map<Long, Map<Long, Long>> indexOptions(List<OptionEncrypted> options) {
+    Map<Long, Map<Long, Long>> optionIds = new HashMap<>();
+    for (OptionEncrypted option : options) {
+      optionIds.computeIfAbsent(option.getBallotId(), id -> new HashMap<>())
+          .put(Tally.selectionKey(option.getContestIndex(), option.getOptionIndex()),
+              option.getOptionEncryptedId());
+    }
+    return optionIds;
+  }
+
+  private static long lookupId(Map<Long, Long> ids, int contestIndex, int optionIndex) {
+    Long id = ids.get(Tally.selectionKey(contestIndex, optionIndex));
+    if (id == null) {
+      throw new IllegalArgumentException(UNKNOWN_OPTION);
+    }
+    return id;
+  }
 
   private void savePartialDecryptionTallyBot(Map<Long, Decryption> tallies, long botTrusteeId) {
+    List<PartialDecryption> decryptions = new ArrayList<>();
     for (Map.Entry<Long, Decryption> tally : tallies.entrySet()) {
-      PartialDecryption partialDecryption = new PartialDecryption(
+      decryptions.add(new PartialDecryption(
           tally.getKey(),
           botTrusteeId,
           -1, // To mark that the partial decryption is not for an encrypted option.
           tally.getValue().decryption().getBigInt().toString(16),
-          parseProofToString(tally.getValue().chaumPedersenProof()));
-      partialDecryptionRepository.save(partialDecryption);
+          parseProofToString(tally.getValue().chaumPedersenProof())));
     }
+    partialDecryptionRepository.insertAll(decryptions);
+    accumulatePartialDecryptions(decryptions);
   }
 
   private void savePartialDecryptionSpoiledBallotBot(
       Map<Long, Map<Long, Decryption>> spoiledBallots, long botTrusteeId) {
+    List<PartialDecryption> decryptions = new ArrayList<>();
     for (Map.Entry<Long, Map<Long, Decryption>> spoiledBallot : spoiledBallots.entrySet()) {
       for (Long decryptionId : spoiledBallot.getValue().keySet()) {
-        PartialDecryption partialDecryption = new PartialDecryption(
+        decryptions.add(new PartialDecryption(
             -1L,
             botTrusteeId,
             decryptionId,
             spoiledBallot.getValue().get(decryptionId).decryption().base16(),
             parseProofToString(spoiledBallot.getValue().get(decryptionId).chaumPedersenProof())
-        );
-        partialDecryptionRepository.save(partialDecryption);
+        ));
       }
     }
+    partialDecryptionRepository.insertAll(decryptions);
+    accumulatePartialDecryptions(decryptions);
   }
 
   private void savePartialPartialDecryptionTallyBot(Map<Long, Decryption> tallies,
-      long botTrusteeId, long forWhichTrusteeId) {
+      Trustee botTrustee, long forWhichTrusteeId) {
+    List<PartialPartialDecryption> decryptions = new ArrayList<>();
     for (Map.Entry<Long, Decryption> tally : tallies.entrySet()) {
-      PartialPartialDecryption decryption = new PartialPartialDecryption(
-          botTrusteeId,
+      decryptions.add(new PartialPartialDecryption(
+          botTrustee.getTrusteeId(),
           forWhichTrusteeId,
           tally.getKey(),
           -1, // To mark that the partial decryption is not for a tally.
           tally.getValue().decryption().getBigInt().toString(16),
-          parseProofToString(tally.getValue().chaumPedersenProof()));
-      partialPartialDecryptionRepository.save(decryption);
+          parseProofToString(tally.getValue().chaumPedersenProof())));
+    }
+    partialPartialDecryptionRepository.insertAll(decryptions);
+    accumulatePartialPartialDecryptions(decryptions, botTrustee);
+  }
+
+  private void saveSpoiledBallotPartialPartialDecryptionsBot(
+      Map<Integer, Map<Long, Map<Long, Decryption>>> spoiledBallots, Trustee botTrustee,
+      long electionId) {
+    Set<Long> batchOptionIds = new HashSet<>();
+    for (Map<Long, Map<Long, Decryption>> ballots : spoiledBallots.values()) {
+      for (Map<Long, Decryption> ballot : ballots.values()) {
+        batchOptionIds.addAll(ballot.keySet());
+      }
+    }
+    if (batchOptionIds.isEmpty()) {
+      return;
+    }
+    Set<Long> decryptedOptionIds = new HashSet<>(partialPartialDecryptionRepository
+        .findOptionEncryptedIdsByTrusteeIdAndOptionEncryptedIdIn(botTrustee.getTrusteeId(),
+            batchOptionIds));
+    for (Map.Entry<Integer, Map<Long, Map<Long, Decryption>>> forWhichTrustee
+        : spoiledBallots.entrySet()) {
+      Map<Long, Map<Long, Decryption>> pendingBallots = new HashMap<>();
+      for (Map.Entry<Long, Map<Long, Decryption>> ballot : forWhichTrustee.getValue().entrySet()) {
+        if (Collections.disjoint(decryptedOptionIds, ballot.getValue().keySet())) {
+          pendingBallots.put(ballot.getKey(), ballot.getValue());
+        }
+      }
+      long forWhichTrusteeId = trusteeRepo.findByTrusteeIndexAndElectionId(
+          forWhichTrustee.getKey(), electionId).getTrusteeId();
+      savePartialPartialDecryptionSpoiledBallotBot(pendingBallots, botTrustee, forWhichTrusteeId);
     }
   }
 
   private void savePartialPartialDecryptionSpoiledBallotBot(
-      Map<Long, Map<Long, Decryption>> spoiledBallots, long botTrusteeId,
+      Map<Long, Map<Long, Decryption>> spoiledBallots, Trustee botTrustee,
       long forWhichTrusteeId) {
+    List<PartialPartialDecryption> decryptions = new ArrayList<>();
     for (Map.Entry<Long, Map<Long, Decryption>> spoiledBallot : spoiledBallots.entrySet()) {
       for (Map.Entry<Long, Decryption> decryption : spoiledBallot.getValue().entrySet()) {
-        PartialPartialDecryption ppDecryption = new PartialPartialDecryption(
-            botTrusteeId,
+        decryptions.add(new PartialPartialDecryption(
+            botTrustee.getTrusteeId(),
             forWhichTrusteeId,
             -1, // To mark that the partial decryption is not for a tally.
             decryption.getKey(),
             decryption.getValue().decryption().base16(),
-            parseProofToString(decryption.getValue().chaumPedersenProof()));
-        partialPartialDecryptionRepository.save(ppDecryption);
+            parseProofToString(decryption.getValue().chaumPedersenProof())));
+      }
+    }
+    partialPartialDecryptionRepository.insertAll(decryptions);
+    accumulatePartialPartialDecryptions(decryptions, botTrustee);
+  }
+
+  private void accumulatePartialDecryptions(List<PartialDecryption> partialDecryptions) {
+    SortedMap<Long, ProductAccumulator> tallyShares = new TreeMap<>();
+    SortedMap<Long, ProductAccumulator> optionShares = new TreeMap<>();
+    for (PartialDecryption partialDecryption : partialDecryptions) {
+      addShare(partialDecryption.getTallyId(), partialDecryption.getOptionEncryptedId(),
+          partialDecryption.getDecryption(), tallyShares, optionShares);
+    }
+    storeShares(tallyShares, optionShares, null);
+  }
+
+  /**
+   * Accumulates the partial partial decryptions of a trustee. Elections whose second decryption
+   * phase started before the shares were accumulated have no lagrange coefficients yet and hold
+   * no share products either.
+   */
+  private void accumulatePartialPartialDecryptions(
+      List<PartialPartialDecryption> partialPartialDecryptions, Trustee trustee) {
+    if (!trustee.hasLagrangeCoefficient()) {
+      return;
+    }
+    SortedMap<Long, ProductAccumulator> tallyShares = new TreeMap<>();
+    SortedMap<Long, ProductAccumulator> optionShares = new TreeMap<>();
+    for (PartialPartialDecryption partialPartialDecryption : partialPartialDecryptions) {
+      addShare(partialPartialDecryption.getTallyId(),
+          partialPartialDecryption.getOptionEncryptedId(),
+          new BigInteger(partialPartialDecryption.getDecryption(), BASE_OF_HEX),
+          tallyShares, optionShares);
+    }
+    storeShares(tallyShares, optionShares, trustee.getLagrangeCoefficient());
+  }
+
+  /**
+   * Accumulates the committed decryptions of an upload page by page. The pages are sorted like
+   * the shares of every other upload, so that concurrent uploads lock the products in the same
+   * order.
+   */
+  private void accumulateStagedDecryptions(long decryptionUploadId,
+      BigInteger lagrangeCoefficient) {
+    List<StagedDecryption> page;
+    int pageNumber = 0;
+    do {
+      page = stagedDecryptionRepository
+          .findByDecryptionUploadIdOrderByTallyIdAscOptionEncryptedIdAsc(decryptionUploadId,
+              PageRequest.of(pageNumber++, SHARE_PAGE_SIZE));
+      SortedMap<Long, ProductAccumulator> tallyShares = new TreeMap<>();
+      SortedMap<Long, ProductAccumulator> optionShares = new TreeMap<>();
+      for (StagedDecryption stagedDecryption : page) {
+        addShare(stagedDecryption.getTallyId(), stagedDecryption.getOptionEncryptedId(),
+            new BigInteger(stagedDecryption.getDecryption(), BASE_OF_HEX),
+            tallyShares, optionShares);
+      }
+      storeShares(tallyShares, optionShares, lagrangeCoefficient);
+    } while (page.size() == SHARE_PAGE_SIZE);
+  }
+
+  private static void addShare(long tallyId, long optionEncryptedId, BigInteger share,
+      Map<Long, ProductAccumulator> tallyShares, Map<Long, ProductAccumulator> optionShares) {
+    if (tallyId != -1) {
+      tallyShares.computeIfAbsent(tallyId, id -> ProductAccumulator.modP()).multiply(share);
+    } else {
+      optionShares.computeIfAbsent(optionEncryptedId, id -> ProductAccumulator.modP())
+          .multiply(share);
+    }
+  }
+
+  /**
+   * Multiplies the shares of an upload into the share products of their tallies and spoiled
+   * options, so that the result only has to divide by one product per selection. Partial partial
+   * decryptions are raised to the lagrange coefficient of their trustee first, which turns them
+   * into the part of the trustee in the shares of the missing trustees. The options are always
+   * locked before the tallies.
+   */
+  private void storeShares(SortedMap<Long, ProductAccumulator> tallyShares,
+      SortedMap<Long, ProductAccumulator> optionShares, BigInteger lagrangeCoefficient) {
+    Group.ElementModQ exponent = lagrangeCoefficient == null ? null
+        : Group.int_to_q_unchecked(lagrangeCoefficient);
+    if (!optionShares.isEmpty()) {
+      ballotService.multiplyShareProducts(toShareFactors(optionShares, exponent));
+    }
+    if (!tallyShares.isEmpty()) {
+      tallyService.multiplyShareProducts(toShareFactors(tallyShares, exponent));
+    }
+  }
+
+  private static SortedMap<Long, BigInteger> toShareFactors(
+      SortedMap<Long, ProductAccumulator> shares, Group.ElementModQ exponent) {
+    SortedMap<Long, BigInteger> factors = new TreeMap<>();
+    for (Map.Entry<Long, ProductAccumulator> share : shares.entrySet()) {
+      Group.ElementModP product = share.getValue().getElementModP();
+      factors.put(share.getKey(),
+          (exponent == null ? product : Group.pow_p(product, exponent)).getBigInt());
+    }
+    return factors;
+  }
+
+  private DecryptionUpload findDecryptionUpload(long electionId, long uploadId,
+      Trustee trustee) {
+    return checkDecryptionUpload(decryptionUploadRepository.findById(uploadId).orElse(null),
+        electionId, trustee);
+  }
+
+  /**
+   * Locks an upload until the end of the transaction. A chunk sent again while the first one is
+   * still being staged waits for it and is then skipped, and a second commit of the upload finds
+   * it discarded.
+   */
+  private DecryptionUpload lockDecryptionUpload(long electionId, long uploadId,
+      Trustee trustee) {
+    return checkDecryptionUpload(decryptionUploadRepository.findForUpdate(uploadId), electionId,
+        trustee);
+  }
+
+  private DecryptionUpload checkDecryptionUpload(DecryptionUpload upload, long electionId,
+      Trustee trustee) {
+    if (upload == null || upload.getElectionId() != electionId
+        || upload.getTrusteeId() != trustee.getTrusteeId()) {
+      throw new EntityNotFoundException(UNKNOWN_UPLOAD);
+    }
+    return upload;
+  }
+
+  /**
+   * Discards an upload whose decryption phase is over, since its decryptions are not needed or
+   * were computed for the wrong trustees.
+   */
+  private void checkUploadPhase(DecryptionUpload upload) {
+    if (electionService.getState(upload.getElectionId()) != upload.getState()) {
+      discardDecryptionUpload(upload);
+      throw new IllegalStateOperationException(UPLOAD_PHASE_OVER);
+    }
+  }
+
+  private void discardDecryptionUpload(DecryptionUpload upload) {
+    stagedDecryptionRepository.deleteByDecryptionUploadId(upload.getDecryptionUploadId());
+    decryptionUploadRepository.delete(upload);
+  }
+
+  /**
+   * Returns the indices of the trustees an upload has to decrypt for, which is only 0 in the first
+   * decryption phase and the trustees without partial decryptions in the second.
+   */
+  private List<Integer> getRequiredTrusteeIndices(DecryptionUpload upload) {
+    if (upload.getState() == ElectionState.P_DECRYPTION) {
+      return List.of(0);
+    }
+    List<Integer> trusteeIndices = new ArrayList<>();
+    for (TrusteeSummary missingTrustee : trusteeService.getTrusteeSummaries(
+        upload.getElectionId())) {
+      if (!partialDecryptionRepository.existsByTrusteeId(missingTrustee.trusteeId())) {
+        trusteeIndices.add(missingTrustee.index());
+      }
+    }
+    return trusteeIndices;
+  }
+
+  /**
+   * Creates the staged decryptions of the tally or of a spoiled ballot the same way the
+   * decryptions of a complete upload are created.
+   */
+  private void stageDecryption(DecryptionUpload upload, Trustee trustee, int trusteeIndex,
+      PartialDecryptionDTO decryption, Map<Long, Long> tallyIds,
+      Map<Long, Map<Long, Long>> spoiledOptionIds, List<StagedDecryption> stagedDecryptions) {
+    long uploadId = upload.getDecryptionUploadId();
+    long ballotId = decryption.ballotId();
+    boolean isTally = ballotId == ElectionCiphertextSnapshot.TALLY_ID;
+    if (upload.getState() == ElectionState.P_DECRYPTION) {
+      List<PartialDecryption> partialDecryptions = new ArrayList<>();
+      if (isTally) {
+        partialDecryptions.addAll(collectPartialDecryptionOfTally(tallyIds, trustee, decryption));
+      } else {
+        collectDecryptionOfSpoiledBallot(decryption, trustee, 0, spoiledOptionIds,
+            partialDecryptions, List.of());
+      }
+      for (PartialDecryption partialDecryption : partialDecryptions) {
+        stagedDecryptions.add(new StagedDecryption(uploadId, trusteeIndex, ballotId, 0,
+            partialDecryption.getTallyId(), partialDecryption.getOptionEncryptedId(),
+            partialDecryption.getDecryption().toString(16), partialDecryption.getProof()));
+      }
+    } else {
+      List<PartialPartialDecryption> partialPartialDecryptions = new ArrayList<>();
+      if (isTally) {
+        collectPartialPartialDecryptionOfTally(tallyIds, trustee,
+            Map.entry(trusteeIndex, decryption), partialPartialDecryptions);
+      } else {
+        long missingTrusteeId = trusteeRepo.findByTrusteeIndexAndElectionId(trusteeIndex,
+            upload.getElectionId()).getTrusteeId();
+        collectDecryptionOfSpoiledBallot(decryption, trustee, missingTrusteeId, spoiledOptionIds,
+            List.of(), partialPartialDecryptions);
+      }
+      for (PartialPartialDecryption partialPartialDecryption : partialPartialDecryptions) {
+        stagedDecryptions.add(new StagedDecryption(uploadId, trusteeIndex, ballotId,
+            partialPartialDecryption.getForWhichTrusteeId(),
+            partialPartialDecryption.getTallyId(),
+            partialPartialDecryption.getOptionEncryptedId(),
+            partialPartialDecryption.getDecryption(), partialPartialDecryption.getProof()));
       }
     }
   }
@@ -471,16 +1114,21 @@ public class DecryptionService {
     long electionId = trustee.getElectionId();
 
     if (trustee.isWaiting()) {
-      throw new UnauthorizedAccessException("Trustee has already sent partial decryptions.");
+      throw new UnauthorizedAccessException(ALREADY_DECRYPTED);
     }
 
-    checkCompleteDecryptionForTrustee(decryptionDTO.partialDecryptedSpoiledBallots().get(0),
-        decryptionDTO.partialDecryptedTalliedBallots().get(0), trustee.getPrimaryKey(), electionId);
+    ElectionCiphertextSnapshot snapshot = loadCiphertextSnapshot(electionId);
+    if (snapshot != null) {
+      checkCompleteDecryptionForTrustee(decryptionDTO.partialDecryptedSpoiledBallots().get(0),
+          decryptionDTO.partialDecryptedTalliedBallots().get(0), trustee.getPrimaryKey(), snapshot);
+    }
 
     // Partial decryption of tallied options
+    List<PartialDecryption> partialDecryptions = new ArrayList<>();
     if (decryptionDTO.partialDecryptedTalliedBallots().containsKey(0)) {
       PartialDecryptionDTO partialTally = decryptionDTO.partialDecryptedTalliedBallots().get(0);
-      savePartialDecryptionOfTally(electionId, trustee, partialTally);
+      partialDecryptions.addAll(
+          collectPartialDecryptionOfTally(indexTallies(electionId), trustee, partialTally));
     } else {
       throw new IllegalStateOperationException(
           "Election is in wrong state to receive partial decryptions.");
@@ -491,14 +1139,18 @@ public class DecryptionService {
       if (decryptionDTO.partialDecryptedSpoiledBallots().containsKey(0)) {
         PartialDecryptionDTO[] spoiledBallots = decryptionDTO.partialDecryptedSpoiledBallots()
                 .get(0);
+        Map<Long, Map<Long, Long>> spoiledOptionIds = indexSpoiledOptions(electionId);
         for (PartialDecryptionDTO spoiledBallot : spoiledBallots) {
-          saveDecryptionOfSpoiledBallot(spoiledBallot, trustee, 0);
+          collectDecryptionOfSpoiledBallot(spoiledBallot, trustee, 0, spoiledOptionIds,
+              partialDecryptions, List.of());
         }
       } else {
         throw new IllegalStateOperationException(
                 "Election is in wrong state to receive partial decryptions.");
       }
     }
+    partialDecryptionRepository.insertAll(partialDecryptions);
+    accumulatePartialDecryptions(partialDecryptions);
 
     trustee.setWaiting(true);
     trustee.setAvailable();
@@ -524,9 +1176,12 @@ public class DecryptionService {
           "Election is in wrong state to receive partial decryption.");
     }
 
+    List<PartialPartialDecryption> partialPartialDecryptions = new ArrayList<>();
+    Map<Long, Long> tallyIds = indexTallies(electionId);
     for (Map.Entry<Integer, PartialDecryptionDTO> partialPartialTally : decryptionDTO.partialDecryptedTalliedBallots()
         .entrySet()) {
-      savePartialPartialDecryptionOfTally(electionId, trustee, partialPartialTally);
+      collectPartialPartialDecryptionOfTally(tallyIds, trustee, partialPartialTally,
+          partialPartialDecryptions);
     }
 
     // Partial partial decryption of spoiled ballots
@@ -535,28 +1190,32 @@ public class DecryptionService {
           "Election is in wrong state to receive partial decryption.");
     }
 
+    Map<Long, Map<Long, Long>> spoiledOptionIds = decryptionDTO.partialDecryptedSpoiledBallots()
+        .isEmpty() ? Map.of() : indexSpoiledOptions(electionId);
     for (Map.Entry<Integer, PartialDecryptionDTO[]> allSpoiledBallots : decryptionDTO.partialDecryptedSpoiledBallots()
         .entrySet()) {
       Trustee missingTrustee = trusteeRepo.findByTrusteeIndexAndElectionId(allSpoiledBallots.getKey(), electionId);
       for (int i = 0; i < allSpoiledBallots.getValue().length; i++) {
-        saveDecryptionOfSpoiledBallot(allSpoiledBallots.getValue()[i], trustee, missingTrustee.getTrusteeId());
+        collectDecryptionOfSpoiledBallot(allSpoiledBallots.getValue()[i], trustee,
+            missingTrustee.getTrusteeId(), spoiledOptionIds, List.of(), partialPartialDecryptions);
       }
     }
+    partialPartialDecryptionRepository.insertAll(partialPartialDecryptions);
+    accumulatePartialPartialDecryptions(partialPartialDecryptions, trustee);
 
     trustee.setWaiting(true);
     trusteeService.addTrustee(trustee);
     electionService.tryUpdateState(electionId, ElectionState.DONE);
   }
 
-  private void checkTallyDecryption(PartialDecryptionDTO decryptionDTO, BigInteger key,
-      long electionId) {
-    List<Contest> contestsOfElection = electionService.getAllContestsOfElection(electionId);
+  private void checkCompleteTallyDecryption(PartialDecryptionDTO decryptionDTO,
+      ElectionCiphertextSnapshot snapshot) {
     Map<Integer, BigInteger[]> partialDecryptions = decryptionDTO.partialDecryptedOptions();
     Map<Integer, ChaumPedersenProofDTO[]> proofs = decryptionDTO.chaumPedersonProofs();
-    for (Contest contest : contestsOfElection) {
-      int expectedOptions = contest.getOptions().size() + contest.getMax();
-      BigInteger[] contestDecryptions = partialDecryptions.get(contest.getIndex());
-      ChaumPedersenProofDTO[] contestProofs = proofs.get(contest.getIndex());
+    for (int contestIndex : snapshot.getContestIndices()) {
+      int expectedOptions = snapshot.getOptionCount(contestIndex);
+      BigInteger[] contestDecryptions = partialDecryptions.get(contestIndex);
+      ChaumPedersenProofDTO[] contestProofs = proofs.get(contestIndex);
       //This makes sure that the decryptions for every contest exist and have exactly the right number of entries
       if (contestDecryptions == null || contestProofs == null
           || contestDecryptions.length != expectedOptions || contestProofs.length != expectedOptions
@@ -565,55 +1224,70 @@ public class DecryptionService {
         throw new IllegalArgumentException(MISSING_DECRYPTION);
       }
     }
-    verificationFacade.verifyDecryption(decryptionDTO, electionId, key);
   }
 
   private void checkCompleteDecryptionForTrustee(PartialDecryptionDTO[] spoiledBallotsDecryption,
       PartialDecryptionDTO tallyDecryption,
-      BigInteger key, long electionId) {
-    if (electionService.getState(electionId) == ElectionState.P_DECRYPTION) {
-      if (spoiledBallotsDecryption == null || tallyDecryption == null) {
-        throw new IllegalArgumentException(MISSING_DECRYPTION);
-      }
-      Set<Long> foundBallotIds = new HashSet<>();
-      Set<Long> expectedBallotIds = new HashSet<>();
-      for (PartialDecryptionDTO spoiledBallotDecryption : spoiledBallotsDecryption) {
-        foundBallotIds.add(spoiledBallotDecryption.ballotId());
-        checkTallyDecryption(spoiledBallotDecryption, key, electionId);
-      }
-      for (Ballot spoiledBallot : ballotService.getAllSpoiledBallotsOfElection(electionId)) {
-        expectedBallotIds.add(spoiledBallot.getBallotId());
-      }
-      checkTallyDecryption(tallyDecryption, key, electionId);
-      if (!foundBallotIds.equals(expectedBallotIds)) {
-        throw new IllegalArgumentException(MISSING_DECRYPTION);
-      }
+      BigInteger key, ElectionCiphertextSnapshot snapshot) {
+    if (spoiledBallotsDecryption == null || tallyDecryption == null) {
+      throw new IllegalArgumentException(MISSING_DECRYPTION);
+    }
+    Set<Long> foundBallotIds = new HashSet<>();
+    List<PartialDecryptionDTO> decryptions = new ArrayList<>();
+    for (PartialDecryptionDTO spoiledBallotDecryption : spoiledBallotsDecryption) {
+      foundBallotIds.add(spoiledBallotDecryption.ballotId());
+      checkCompleteTallyDecryption(spoiledBallotDecryption, snapshot);
+      decryptions.add(spoiledBallotDecryption);
+    }
+    checkCompleteTallyDecryption(tallyDecryption, snapshot);
+    decryptions.add(tallyDecryption);
+    if (!foundBallotIds.equals(snapshot.getSpoiledBallotIds())) {
+      throw new IllegalArgumentException(MISSING_DECRYPTION);
+    }
+    if (!verificationFacade.verifyDecryptions(decryptions, snapshot, key)) {
+      throw new IllegalProofException(INVALID_DECRYPTION);
     }
   }
 
   private void checkCompleteDecryptionPhaseTwo(long electionId, DecryptionDTO decryption,
       int trusteeIndex,
       Map<Integer, String[]> allCoefficients) {
-    List<Trustee> allTrustees = trusteeService.getAllTrustees(electionId);
-    for (Trustee missingTrustee : allTrustees) {
-      if (getAllPartialDecryptionByTrustee(missingTrustee.getTrusteeId()).isEmpty()) {
-        List<BigInteger> coefficients = new ArrayList<>();
-        Arrays.stream(allCoefficients.get(missingTrustee.getIndex()))
-                .forEach(t -> coefficients.add(new BigInteger(t, 16)));
-        BigInteger keyShare = keyCeremonyFacade.generateKeyShare(coefficients, trusteeIndex);
-        checkCompleteDecryptionForTrustee(
-            decryption.partialDecryptedSpoiledBallots().get(missingTrustee.getIndex()),
-            decryption.partialDecryptedTalliedBallots().get(missingTrustee.getIndex()),
-            keyShare, electionId);
+    ElectionCiphertextSnapshot snapshot = loadCiphertextSnapshot(electionId);
+    List<TrusteeSummary> allTrustees = trusteeService.getTrusteeSummaries(electionId);
+    for (TrusteeSummary missingTrustee : allTrustees) {
+      if (!partialDecryptionRepository.existsByTrusteeId(missingTrustee.trusteeId())) {
+        if (snapshot != null) {
+          List<BigInteger> coefficients = new ArrayList<>();
+          Arrays.stream(allCoefficients.get(missingTrustee.index()))
+                  .forEach(t -> coefficients.add(new BigInteger(t, 16)));
+          BigInteger keyShare = keyCeremonyFacade.generateKeyShare(coefficients, trusteeIndex);
+          checkCompleteDecryptionForTrustee(
+              decryption.partialDecryptedSpoiledBallots().get(missingTrustee.index()),
+              decryption.partialDecryptedTalliedBallots().get(missingTrustee.index()),
+              keyShare, snapshot);
+        }
       } else {
-        if (decryption.partialDecryptedSpoiledBallots().containsKey(missingTrustee.getIndex())
-            || decryption.partialDecryptedTalliedBallots().containsKey(missingTrustee.getIndex())) {
+        if (decryption.partialDecryptedSpoiledBallots().containsKey(missingTrustee.index())
+            || decryption.partialDecryptedTalliedBallots().containsKey(missingTrustee.index())) {
           throw new IllegalStateOperationException(UNNECCESSARY_DECRYPTION);
         }
       }
     }
   }
 
+  /**
+   * Loads the ciphertexts all decryptions of an upload are verified against. Decryptions are only
+   * verified while the election is in the first decryption phase.
+   *
+   * @return snapshot of the ciphertexts or null if the decryptions are not verified
+   */
+  private ElectionCiphertextSnapshot loadCiphertextSnapshot(long electionId) {
+    if (electionService.getState(electionId) != ElectionState.P_DECRYPTION) {
+      return null;
+    }
+    return verificationFacade.createCiphertextSnapshot(electionId);
+  }
+
   private String parseProofToString(ChaumPedersenProofDTO proof) {
     String pad = proof.pad().toString(16);
     String data = proof.data().toString(16);
@@ -10,6 +10,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.core.state.handler.ElectionStateHandler;
 import pse.election.backendserver.entity.Contest;
@@ -51,15 +52,19 @@ public class ElectionService {
 
   private final ContestRepository contestRepository;
 
+  private final TransactionTemplate transactionTemplate;
+
   /**
    * Constructor of new ElectionService.
    * */
   @Lazy
   public ElectionService(ElectionRepository electionRepository,
-      ElectionStateHandler electionStateHandler, ContestRepository contestRepository) {
+      ElectionStateHandler electionStateHandler, ContestRepository contestRepository,
+      TransactionTemplate transactionTemplate) {
     this.electionRepository = electionRepository;
     this.electionStateHandler = electionStateHandler;
     this.contestRepository = contestRepository;
+    this.transactionTemplate = transactionTemplate;
   }
 
   /**
@@ -117,7 +122,10 @@ public class ElectionService {
   }
 
   /**
-   * Changing the state of an election referenced by an id.
+   * Changing the state of an election referenced by an id. Switches to the second decryption phase
+   * and to done start background work once the new state has been committed, so they run in a
+   * transaction of their own. Other switches do not, as the switch to the first decryption phase
+   * creates the tallies and has to commit its tally shards for other instances to pick them up.
    *
    * @param electionId    is the id of an election
    * @param electionState is the state the election should be set to
@@ -127,6 +135,13 @@ public class ElectionService {
   public Election tryUpdateState(long electionId, ElectionState electionState) {
     checkExistsElection(electionId);
 
+    if (electionState == ElectionState.PP_DECRYPTION || electionState == ElectionState.DONE) {
+      return transactionTemplate.execute(status -> updateState(electionId, electionState));
+    }
+    return updateState(electionId, electionState);
+  }
+
+  private Election updateState(long electionId, ElectionState electionState) {
     Election desiredElection = electionRepository.findByElectionId(electionId);
     electionStateHandler.testAndSet(desiredElection, electionState);
 
@@ -208,8 +223,8 @@ public class ElectionService {
     if (election.getState() == ElectionState.OPEN && Instant.now()
         .isAfter(election.getEndTime().toInstant())) {
       electionStateHandler.testAndSet(election, ElectionState.P_DECRYPTION);
-      electionStateHandler.testAndSet(election, ElectionState.DONE);
       electionRepository.save(election);
+      tryUpdateState(electionId, ElectionState.DONE);
     }
     return electionRepository.findByElectionId(electionId);
   }
@@ -256,6 +271,27 @@ public class ElectionService {
     return electionRepository.findByElectionId(electionId).getTrackingCodeLatest();
   }
 
+  /**
+   * Getter for the identifiers of all elections with a bot trustee in a state.
+   *
+   * @param electionState the state of the elections
+   * @return identifiers of the elections
+   */
+  public List<Long> getElectionIdsWithBot(ElectionState electionState) {
+    return electionRepository.findElectionIdsWithBotByState(electionState);
+  }
+
+  /**
+   * Getter for the identifiers of all elections in a state with a bot trustee whose partial
+   * partial decryption has not failed for good.
+   *
+   * @param electionState the state of the elections
+   * @return identifiers of the elections
+   */
+  public List<Long> getElectionIdsWithCompensatingBot(ElectionState electionState) {
+    return electionRepository.findElectionIdsWithCompensatingBotByState(electionState);
+  }
+
   /**
    * Getter for all contests of an election.
    *
@@ -0,0 +1,283 @@
+package pse.election.backendserver.core.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pse.election.backendserver.entity.ResultEvaluation;
+import pse.election.backendserver.repository.ResultEvaluationRepository;
+
+/**
+ * This class processes the result evaluations of elections. An evaluation is started as soon as an
+ * election is done and runs on a background thread, so that the request uploading the last
+ * decryption does not wait for all selections to be decrypted. The status of an evaluation is
+ * persisted, its progress is counted in memory while it is running. The instance running an
+ * evaluation renews its claim on it periodically and stores the progress along, so that every
+ * instance can report it and evaluations of stopped instances and failed evaluations can be
+ * resumed by any instance.
+ *
+ * @version 1.0
+ */
+@Service
+public class ResultEvaluationService implements DisposableBean {
+
+  private static final Logger logger = LogManager.getLogger(ResultEvaluationService.class);
+  private static final int PERCENT = 100;
+  private static final int MILLIS_PER_SECOND = 1000;
+
+  private final ResultEvaluationRepository resultEvaluationRepository;
+
+  private final Map<Long, RunningEvaluation> runningEvaluations = new ConcurrentHashMap<>();
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  @Value("${evaluation.claimLease:300000}")
+  private long claimLease;
+
+  @Value("${evaluation.maxAttempts:3}")
+  private int maxAttempts;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "result-evaluation");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Constructor of new ResultEvaluationService.
+   * */
+  @Lazy
+  public ResultEvaluationService(ResultEvaluationRepository resultEvaluationRepository) {
+    this.resultEvaluationRepository = resultEvaluationRepository;
+  }
+
+  /**
+   * Starts the result evaluation of an election in the background. The evaluation is persisted as
+   * running right away. If the caller runs inside a transaction, the evaluation itself only starts
+   * after the transaction has been committed, so that it reads the last decryptions and the done
+   * state of the election and the caller cannot overwrite the result afterwards.
+   *
+   * @param electionId is the id of the election
+   * @param evaluation decrypts and stores the result of the election
+   */
+  public void submit(long electionId, Runnable evaluation) {
+    ResultEvaluation resultEvaluation = resultEvaluationRepository.findByElectionId(electionId);
+    if (resultEvaluation == null) {
+      resultEvaluation = new ResultEvaluation(electionId, new Date());
+    }
+    resultEvaluation.setStatus(ResultEvaluation.Status.RUNNING);
+    resultEvaluation.setEndTime(null);
+    resultEvaluation.claim(nodeId, new Date());
+    resultEvaluationRepository.save(resultEvaluation);
+    runningEvaluations.put(electionId, new RunningEvaluation());
+
+    Runnable task = () -> run(electionId, evaluation);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status == STATUS_COMMITTED) {
+            executor.execute(task);
+          } else {
+            runningEvaluations.remove(electionId);
+          }
+        }
+      });
+    } else {
+      executor.execute(task);
+    }
+  }
+
+  /**
+   * Getter for the elections whose evaluation has to be resumed, because the instance running it
+   * has stopped renewing its claim or because it has failed fewer than the configured number of
+   * times.
+   *
+   * @return the election identifiers
+   */
+  public List<Long> getResumableElectionIds() {
+    return resultEvaluationRepository.findResumableElectionIds(maxAttempts, getExpiredClaims());
+  }
+
+  /**
+   * Claims the evaluation of an election and resumes it in the background, unless another
+   * instance has claimed it meanwhile. The evaluation starts over.
+   *
+   * @param electionId is the id of the election
+   * @param evaluation decrypts and stores the result of the election
+   * @return true if the evaluation has been resumed by this instance
+   */
+  public boolean resume(long electionId, Runnable evaluation) {
+    if (runningEvaluations.containsKey(electionId)
+        || resultEvaluationRepository.claim(electionId, nodeId, new Date(), maxAttempts,
+        getExpiredClaims()) == 0) {
+      return false;
+    }
+    logger.info("Resuming the result evaluation of election " + electionId + ".");
+    runningEvaluations.put(electionId, new RunningEvaluation());
+    executor.execute(() -> run(electionId, evaluation));
+    return true;
+  }
+
+  /**
+   * Renews the claims on the evaluations of this instance, so that they are not resumed by other
+   * instances, and stores their progress.
+   */
+  @Scheduled(fixedDelayString = "${evaluation.claimRenewInterval:60000}")
+  public void renewClaims() {
+    Date now = new Date();
+    runningEvaluations.forEach((electionId, runningEvaluation) ->
+        resultEvaluationRepository.renewClaim(electionId, nodeId, now,
+            runningEvaluation.processed.get(), runningEvaluation.total.get()));
+  }
+
+  private Date getExpiredClaims() {
+    return new Date(System.currentTimeMillis() - claimLease);
+  }
+
+  private void run(long electionId, Runnable evaluation) {
+    ResultEvaluation.Status status = ResultEvaluation.Status.FINISHED;
+    try {
+      evaluation.run();
+    } catch (RuntimeException e) {
+      logger.error("Evaluating the result of election " + electionId + " failed.", e);
+      status = ResultEvaluation.Status.FAILED;
+    }
+
+    RunningEvaluation runningEvaluation = runningEvaluations.get(electionId);
+    ResultEvaluation resultEvaluation = resultEvaluationRepository.findByElectionId(electionId);
+    if (!nodeId.equals(resultEvaluation.getOwner())) {
+      logger.info("The result evaluation of election " + electionId
+          + " has been resumed by another instance.");
+      runningEvaluations.remove(electionId);
+      return;
+    }
+    resultEvaluation.setStatus(status);
+    resultEvaluation.setEndTime(new Date());
+    if (runningEvaluation != null) {
+      resultEvaluation.setTotalSelections(runningEvaluation.total.get());
+      resultEvaluation.setProcessedSelections(runningEvaluation.processed.get());
+    }
+    resultEvaluationRepository.save(resultEvaluation);
+    runningEvaluations.remove(electionId);
+  }
+
+  /**
+   * Adds selections to be decrypted by the running evaluation of an election.
+   *
+   * @param electionId is the id of the election
+   * @param count      number of selections
+   */
+  public void addTotalSelections(long electionId, long count) {
+    RunningEvaluation runningEvaluation = runningEvaluations.get(electionId);
+    if (runningEvaluation != null) {
+      runningEvaluation.total.addAndGet(count);
+    }
+  }
+
+  /**
+   * Marks selections of the running evaluation of an election as decrypted.
+   *
+   * @param electionId is the id of the election
+   * @param count      number of selections
+   */
+  public void addProcessedSelections(long electionId, long count) {
+    RunningEvaluation runningEvaluation = runningEvaluations.get(electionId);
+    if (runningEvaluation != null) {
+      runningEvaluation.processed.addAndGet(count);
+    }
+  }
+
+  /**
+   * Checks whether the result of an election has been committed. Elections that have been
+   * evaluated before results were evaluated in the background have no evaluation and count as
+   * evaluated.
+   *
+   * @param electionId is the id of the election
+   * @return true if no evaluation of the election is running or has failed
+   */
+  public boolean isResultAvailable(long electionId) {
+    ResultEvaluation resultEvaluation = resultEvaluationRepository.findByElectionId(electionId);
+    return resultEvaluation == null
+        || resultEvaluation.getStatus() == ResultEvaluation.Status.FINISHED;
+  }
+
+  /**
+   * Getter for the progress of the result evaluation of an election. Evaluations running on this
+   * instance report the progress counted in memory, evaluations running on other instances the
+   * progress stored with their last claim renewal. The ETA extrapolates the time taken per
+   * selection so far.
+   *
+   * @param electionId is the id of the election
+   * @return the progress or null if the result of the election is not evaluated in the background
+   */
+  public Progress getProgress(long electionId) {
+    ResultEvaluation resultEvaluation = resultEvaluationRepository.findByElectionId(electionId);
+    if (resultEvaluation == null) {
+      return null;
+    }
+
+    RunningEvaluation runningEvaluation = runningEvaluations.get(electionId);
+    long total = resultEvaluation.getTotalSelections();
+    long processed = resultEvaluation.getProcessedSelections();
+    Long etaSeconds = null;
+    if (resultEvaluation.getStatus() == ResultEvaluation.Status.RUNNING) {
+      Long elapsed = null;
+      if (runningEvaluation != null) {
+        total = runningEvaluation.total.get();
+        processed = runningEvaluation.processed.get();
+        elapsed = System.currentTimeMillis() - runningEvaluation.startTime;
+      } else if (resultEvaluation.getClaimedAt() != null
+          && resultEvaluation.getStartTime() != null) {
+        elapsed = resultEvaluation.getClaimedAt().getTime()
+            - resultEvaluation.getStartTime().getTime();
+      }
+      if (elapsed != null && processed > 0) {
+        etaSeconds = elapsed * (total - processed) / processed / MILLIS_PER_SECOND;
+      }
+    } else if (resultEvaluation.getStatus() == ResultEvaluation.Status.FINISHED) {
+      etaSeconds = 0L;
+    }
+    int percentDone = total == 0 ? 0 : (int) (processed * PERCENT / total);
+    return new Progress(resultEvaluation.getStatus(), percentDone, processed, total, etaSeconds);
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Progress of a result evaluation.
+   *
+   * @param status              status of the evaluation
+   * @param percentDone         percentage of decrypted selections
+   * @param selectionsProcessed number of decrypted selections
+   * @param selectionsTotal     number of selections to be decrypted
+   * @param etaSeconds          estimated seconds until the evaluation is done, null if unknown
+   */
+  public record Progress(ResultEvaluation.Status status, int percentDone,
+                         long selectionsProcessed, long selectionsTotal, Long etaSeconds) {
+
+  }
+
+  private static final class RunningEvaluation {
+
+    private final long startTime = System.currentTimeMillis();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+  }
+}
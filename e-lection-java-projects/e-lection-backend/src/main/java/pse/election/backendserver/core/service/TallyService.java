@@ -2,10 +2,15 @@ package pse.election.backendserver.core.service;
 
 import jakarta.persistence.EntityNotFoundException;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SortedMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
 import pse.election.backendserver.entity.Tally;
 import pse.election.backendserver.payload.error.exception.IllegalStateOperationException;
 import pse.election.backendserver.repository.TallyRepository;
@@ -19,6 +24,8 @@ import pse.election.backendserver.repository.TallyRepository;
 public class TallyService {
 
   private static final String TALLY_NOT_FOUND_ERROR_MSG = "Tally entity cannot be null.";
+  private static final int LOCK_BATCH_SIZE = 500;
+  private static final int BASE_OF_HEX = 16;
 
   @Autowired
   private TallyRepository tallyRepository;
@@ -69,4 +76,29 @@ public class TallyService {
         optionIndex);
   }
 
+  /**
+   * Multiplies the share products of tallies by the given factors. The tallies are locked in the
+   * order of their identifiers until the surrounding transaction ends. Tallies that were created
+   * before shares were accumulated hold no product and are left untouched.
+   *
+   * @param factors factors mapped by the identifier of their tally
+   */
+  @Transactional
+  public void multiplyShareProducts(SortedMap<Long, BigInteger> factors) {
+    List<Long> tallyIds = new ArrayList<>(factors.keySet());
+    for (int from = 0; from < tallyIds.size(); from += LOCK_BATCH_SIZE) {
+      List<Tally> tallies = tallyRepository.findAllForUpdate(
+          tallyIds.subList(from, Math.min(from + LOCK_BATCH_SIZE, tallyIds.size())));
+      for (Tally tally : tallies) {
+        if (tally.getShareProduct() != null) {
+          tally.setShareProduct(ProductAccumulator.modP()
+              .multiply(new BigInteger(tally.getShareProduct(), BASE_OF_HEX))
+              .multiply(factors.get(tally.getTallyId()))
+              .get().toString(BASE_OF_HEX));
+        }
+      }
+      tallyRepository.saveAll(tallies);
+    }
+  }
+
 }
@@ -0,0 +1,339 @@
+package pse.election.backendserver.core.service;
+
+import com.sunya.electionguard.ElGamal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import pse.election.backendserver.core.electionguard.CryptoPool;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
+import pse.election.backendserver.entity.Ballot;
+import pse.election.backendserver.entity.Contest;
+import pse.election.backendserver.entity.OptionEncrypted;
+import pse.election.backendserver.entity.TallyShard;
+import pse.election.backendserver.entity.TallyShardProduct;
+import pse.election.backendserver.repository.BallotRepository;
+import pse.election.backendserver.repository.OptionEncryptedRepository;
+import pse.election.backendserver.repository.TallyShardRepository;
+
+/**
+ * This class processes all the tally shard service functionalities. It splits the submitted
+ * ballots of an election into ballot identifier ranges, lets any backend instance claim and
+ * accumulate these ranges and combines the partial products of all shards afterwards. The database
+ * is the only coordination point between the instances, so the plan, every claim and every finished
+ * shard are committed in a transaction of their own, independent of the caller. Each instance
+ * processes as many shards at once as its crypto pool has threads.
+ *
+ * @version 1.0
+ */
+@Service
+public class TallyShardService {
+
+  private static final Logger logger = LogManager.getLogger(TallyShardService.class);
+  private static final String SHARD_INTERRUPTED_ERROR_MSG
+      = "Waiting for the tally shards has been interrupted.";
+  private static final String SHARD_MISSING_ERROR_MSG
+      = "Not all tally shards of the election are finished.";
+  private static final String SHARD_TIMEOUT_ERROR_MSG
+      = "The tally shards of the election have not been finished in time.";
+
+  private final TallyShardRepository tallyShardRepository;
+
+  private final BallotRepository ballotRepository;
+
+  private final OptionEncryptedRepository optionEncryptedRepository;
+
+  private final ElectionService electionService;
+
+  private final CryptoPool cryptoPool;
+
+  private final TransactionTemplate newTransaction;
+
+  private final String generatedNodeId = UUID.randomUUID().toString();
+
+  @Value("${tally.shardSize:5000}")
+  private int shardSize;
+
+  @Value("${tally.shardLease:300000}")
+  private long shardLease;
+
+  @Value("${tally.shardPollInterval:2000}")
+  private long shardPollInterval;
+
+  @Value("${tally.shardWaitTimeout:1800000}")
+  private long shardWaitTimeout;
+
+  @Value("${tally.nodeId:#{null}}")
+  private String nodeId;
+
+  /**
+   * Constructor of new TallyShardService.
+   * */
+  @Lazy
+  public TallyShardService(TallyShardRepository tallyShardRepository,
+      BallotRepository ballotRepository, OptionEncryptedRepository optionEncryptedRepository,
+      ElectionService electionService, CryptoPool cryptoPool,
+      PlatformTransactionManager transactionManager) {
+    this.tallyShardRepository = tallyShardRepository;
+    this.ballotRepository = ballotRepository;
+    this.optionEncryptedRepository = optionEncryptedRepository;
+    this.electionService = electionService;
+    this.cryptoPool = cryptoPool;
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Splits the submitted ballots of an election into shards of at most the configured shard size.
+   * If the election has already been split, the existing shards are returned. Elections fitting
+   * into a single shard are not split at all, as their tally is computed locally. Their ballots
+   * are only counted, the identifiers are only loaded for elections that are split.
+   *
+   * @param electionId election identifier
+   * @return the shards of the election or an empty list if no sharding is required
+   */
+  public List<TallyShard> planShards(long electionId) {
+    return newTransaction.execute(status -> createShards(electionId));
+  }
+
+  private List<TallyShard> createShards(long electionId) {
+    List<TallyShard> existingShards = (List<TallyShard>) tallyShardRepository
+        .findByElectionId(electionId);
+    if (!existingShards.isEmpty()) {
+      return existingShards;
+    }
+
+    if (ballotRepository.countByElectionIdAndIsSubmitted(electionId, true) <= shardSize) {
+      return Collections.emptyList();
+    }
+    List<Long> ballotIds = ballotRepository.findSubmittedBallotIds(electionId);
+
+    List<TallyShard> shards = new ArrayList<>();
+    for (int start = 0; start < ballotIds.size(); start += shardSize) {
+      int end = Math.min(start + shardSize, ballotIds.size()) - 1;
+      shards.add(new TallyShard(electionId, ballotIds.get(start), ballotIds.get(end)));
+    }
+    logger.info("Split tally of election " + electionId + " into " + shards.size() + " shards.");
+    return tallyShardRepository.saveAll(shards);
+  }
+
+  /**
+   * Processes the open shards of an election until all of them are done. Shards claimed by other
+   * instances are waited for and taken over as soon as their claim expires. As this runs during the
+   * state transition, the wait is bounded and the transition fails once the timeout has passed.
+   *
+   * @param electionId election identifier
+   * @throws IllegalStateException if the shards are not done in time
+   */
+  public void awaitShards(long electionId) {
+    long deadline = System.currentTimeMillis() + shardWaitTimeout;
+    while (tallyShardRepository.countByElectionIdAndIsDone(electionId, false) > 0) {
+      if (!processNextShards(electionId)) {
+        if (System.currentTimeMillis() >= deadline) {
+          throw new IllegalStateException(SHARD_TIMEOUT_ERROR_MSG);
+        }
+        try {
+          Thread.sleep(shardPollInterval);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(SHARD_INTERRUPTED_ERROR_MSG, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Claims open shards of an election, one for every thread of the crypto pool, and processes them
+   * in parallel.
+   *
+   * @param electionId election identifier
+   * @return true if at least one shard has been processed
+   */
+  public boolean processNextShards(long electionId) {
+    Date expiredClaims = new Date(System.currentTimeMillis() - shardLease);
+    List<TallyShard> candidates = new ArrayList<>();
+    tallyShardRepository.findByElectionIdAndIsDoneAndOwnerIsNull(electionId, false)
+        .forEach(candidates::add);
+    tallyShardRepository.findByElectionIdAndIsDoneAndClaimedAtBefore(electionId, false,
+        expiredClaims).forEach(candidates::add);
+
+    List<TallyShard> shards = claimAll(candidates);
+    processAll(shards);
+    return !shards.isEmpty();
+  }
+
+  /**
+   * Periodically claims open shards of any election, so that every backend instance sharing the
+   * database contributes to the tally.
+   */
+  @Scheduled(fixedDelayString = "${tally.shardPollInterval:2000}")
+  public void processPendingShards() {
+    Date expiredClaims = new Date(System.currentTimeMillis() - shardLease);
+    List<TallyShard> candidates = new ArrayList<>();
+    tallyShardRepository.findByIsDoneAndOwnerIsNull(false).forEach(candidates::add);
+    tallyShardRepository.findByIsDoneAndClaimedAtBefore(false, expiredClaims)
+        .forEach(candidates::add);
+
+    List<TallyShard> shards = claimAll(candidates);
+    while (!shards.isEmpty()) {
+      processAll(shards);
+      shards = claimAll(candidates);
+    }
+  }
+
+  /**
+   * Multiplies the partial products of all shards of an election. The shards have to be done.
+   *
+   * @param electionId election identifier
+   * @param contests   the contests of the election
+   * @return the combined ciphertext of each selection, mapped by contest index
+   */
+  public Map<Integer, ElGamal.Ciphertext[]> combineShards(long electionId,
+      List<Contest> contests) {
+    Map<Integer, ProductAccumulator[]> pads = createEmptyProducts(contests);
+    Map<Integer, ProductAccumulator[]> datas = createEmptyProducts(contests);
+
+    for (TallyShard shard : tallyShardRepository.findByElectionId(electionId)) {
+      if (!shard.isDone()) {
+        throw new IllegalStateException(SHARD_MISSING_ERROR_MSG);
+      }
+      for (TallyShardProduct product : shard.getPartialProducts()) {
+        pads.get(product.getContestIndex())[product.getOptionIndex()]
+            .multiply(product.getCiphertextPAD());
+        datas.get(product.getContestIndex())[product.getOptionIndex()]
+            .multiply(product.getCiphertextDATA());
+      }
+    }
+
+    Map<Integer, ElGamal.Ciphertext[]> combined = new HashMap<>();
+    for (Contest contest : contests) {
+      ProductAccumulator[] contestPads = pads.get(contest.getIndex());
+      ElGamal.Ciphertext[] ciphertexts = new ElGamal.Ciphertext[contestPads.length];
+      for (int optionIndex = 0; optionIndex < contestPads.length; optionIndex++) {
+        ciphertexts[optionIndex] = new ElGamal.Ciphertext(contestPads[optionIndex].getElementModP(),
+            datas.get(contest.getIndex())[optionIndex].getElementModP());
+      }
+      combined.put(contest.getIndex(), ciphertexts);
+    }
+    return combined;
+  }
+
+  /**
+   * Removes all shards of an election once their products have been combined.
+   *
+   * @param electionId election identifier
+   */
+  public void deleteShards(long electionId) {
+    tallyShardRepository.deleteAll(tallyShardRepository.findByElectionId(electionId));
+  }
+
+  /**
+   * Claims as many of the given candidates as the crypto pool has threads.
+   */
+  private List<TallyShard> claimAll(List<TallyShard> candidates) {
+    List<TallyShard> claimed = new ArrayList<>();
+    while (claimed.size() < cryptoPool.getParallelism()) {
+      TallyShard shard = claim(candidates);
+      if (shard == null) {
+        break;
+      }
+      claimed.add(shard);
+    }
+    return claimed;
+  }
+
+  private void processAll(List<TallyShard> shards) {
+    cryptoPool.map(shards, shard -> {
+      processShard(shard);
+      return shard;
+    });
+  }
+
+  /**
+   * Tries to claim the given candidates one after another. Every tried candidate is removed from the
+   * list, so that repeated calls continue with the next one. Each claim is committed on its own.
+   */
+  private TallyShard claim(List<TallyShard> candidates) {
+    while (!candidates.isEmpty()) {
+      TallyShard candidate = candidates.remove(0);
+      candidate.claim(getNodeId(), new Date());
+      try {
+        return newTransaction.execute(status -> tallyShardRepository.saveAndFlush(candidate));
+      } catch (OptimisticLockingFailureException e) {
+        logger.debug("Tally shard " + candidate.getTallyShardId() + " was claimed concurrently.");
+      }
+    }
+    return null;
+  }
+
+  private void processShard(TallyShard shard) {
+    long electionId = shard.getElectionId();
+    List<Contest> contests = electionService.getAllContestsOfElection(electionId);
+    Map<Integer, ProductAccumulator[]> pads = createEmptyProducts(contests);
+    Map<Integer, ProductAccumulator[]> datas = createEmptyProducts(contests);
+
+    Set<Long> submittedBallotIds = new HashSet<>();
+    for (Ballot ballot : ballotRepository.findByElectionIdAndIsSubmittedAndBallotIdBetween(
+        electionId, true, shard.getFirstBallotId(), shard.getLastBallotId())) {
+      submittedBallotIds.add(ballot.getBallotId());
+    }
+
+    for (OptionEncrypted option : optionEncryptedRepository.findByElectionIdAndBallotIdBetween(
+        electionId, shard.getFirstBallotId(), shard.getLastBallotId())) {
+      if (!submittedBallotIds.contains(option.getBallotId())) {
+        continue;
+      }
+      pads.get(option.getContestIndex())[option.getOptionIndex()]
+          .multiply(option.getCiphertextPAD());
+      datas.get(option.getContestIndex())[option.getOptionIndex()]
+          .multiply(option.getCiphertextDATA());
+    }
+
+    List<TallyShardProduct> products = new ArrayList<>();
+    for (Map.Entry<Integer, ProductAccumulator[]> contest : pads.entrySet()) {
+      for (int optionIndex = 0; optionIndex < contest.getValue().length; optionIndex++) {
+        products.add(new TallyShardProduct(contest.getKey(), optionIndex,
+            contest.getValue()[optionIndex].get(), datas.get(contest.getKey())[optionIndex].get()));
+      }
+    }
+    shard.finish(products);
+
+    try {
+      newTransaction.execute(status -> tallyShardRepository.saveAndFlush(shard));
+    } catch (OptimisticLockingFailureException e) {
+      logger.info("Tally shard " + shard.getTallyShardId() + " was taken over by another instance.");
+    }
+  }
+
+  private Map<Integer, ProductAccumulator[]> createEmptyProducts(List<Contest> contests) {
+    Map<Integer, ProductAccumulator[]> products = new HashMap<>();
+    for (Contest contest : contests) {
+      ProductAccumulator[] options = new ProductAccumulator[contest.getOptions().size()
+          + contest.getMax()];
+      for (int optionIndex = 0; optionIndex < options.length; optionIndex++) {
+        options[optionIndex] = ProductAccumulator.modP();
+      }
+      products.put(contest.getIndex(), options);
+    }
+    return products;
+  }
+
+  private String getNodeId() {
+    return nodeId != null ? nodeId : generatedNodeId;
+  }
+}
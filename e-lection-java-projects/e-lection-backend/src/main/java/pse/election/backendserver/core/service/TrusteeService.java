@@ -8,20 +8,30 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Arrays;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import pse.election.backendserver.core.bot.BotFacade;
 import pse.election.backendserver.core.electionguard.VerificationFacade;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.BotTrustee;
 import pse.election.backendserver.entity.Election;
+import pse.election.backendserver.entity.KeyBackup;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.dto.ElgamalProofDTO;
 import pse.election.backendserver.payload.dto.SchnorrProofDTO;
 import pse.election.backendserver.payload.error.exception.EntityNotFoundException;
 import pse.election.backendserver.payload.error.exception.IllegalStateOperationException;
 import pse.election.backendserver.payload.error.exception.InvalidConfigurationException;
 import pse.election.backendserver.repository.BotTrusteeRepository;
+import pse.election.backendserver.repository.KeyBackupRepository;
 import pse.election.backendserver.repository.TrusteeRepository;
 
 /**
@@ -32,9 +42,12 @@ import pse.election.backendserver.repository.TrusteeRepository;
 @Service
 public class TrusteeService {
 
+  private static final Logger logger = LogManager.getLogger(TrusteeService.class);
   private static final String EMAIL_REGEX = "^[a-zA-Z0-9]+(?:\\.[a-zA-Z0-9]+)*@[a-zA-Z0-9]+(?:\\.[a-zA-Z0-9]+)*$";
   private static final String invalidConfigErrorMessage = "Inval id trustee information provided";
   private static final String INVALID_KEY_FORMAT = "Invalid number of ElGamal keys or backups provided";
+  private static final String NO_TRUSTEES_ERROR_MESSAGE
+      = "There are no trustees to this election.";
   private static final int HEXA_RADIX = 16;
 
   private final TrusteeRepository trusteeRepository;
@@ -47,20 +60,38 @@ public class TrusteeService {
 
   private final BotFacade botFacade;
 
+  private final KeyBackupRepository keyBackupRepository;
+
   /**
    * Constructor of new Trustee Service.
    * */
   @Lazy
   public TrusteeService(TrusteeRepository trusteeRepository, VerificationFacade verificationFacade,
       BotTrusteeRepository botTrusteeRepository, ElectionService electionService,
-      BotFacade botFacade) {
+      BotFacade botFacade, KeyBackupRepository keyBackupRepository) {
     this.botFacade = botFacade;
+    this.keyBackupRepository = keyBackupRepository;
     this.trusteeRepository = trusteeRepository;
     this.verificationFacade = verificationFacade;
     this.botTrusteeRepository = botTrusteeRepository;
     this.electionService = electionService;
   }
 
+  /**
+   * Moves the backups of elections whose key ceremony took place before backups had their own
+   * table, so that those elections can still be decrypted if a trustee is missing. This runs
+   * before the scheduled tasks start, as the bot compensates with the backups.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @Transactional
+  public void migrateLegacyBackups() {
+    int migrated = keyBackupRepository.migrateLegacyBackups();
+    if (migrated > 0) {
+      logger.info("Moved " + migrated + " legacy key backups to their own table.");
+    }
+  }
+
   /**
    * Adding a new trustee to the trustee repository.
    *
@@ -118,6 +149,28 @@ public class TrusteeService {
     return botTrusteeRepository.findById(electionId).get();
   }
 
+  /**
+   * Retrieves the bot trustee of an election and locks it until the end of the current
+   * transaction.
+   *
+   * @param electionId election identifier
+   * @return desired bot trustee entity
+   */
+  public BotTrustee getBotTrusteeForUpdate(long electionId) {
+    return botTrusteeRepository.findForUpdate(electionId);
+  }
+
+  /**
+   * Records that the partial partial decryption of the bot trustee of an election failed for good,
+   * so that it is not resumed anymore.
+   *
+   * @param electionId election identifier
+   * @param error      reason of the failure
+   */
+  public void markBotCompensationFailed(long electionId, String error) {
+    botTrusteeRepository.markCompensationFailed(electionId, error);
+  }
+
   /**
    * Adding an auxiliary key to a trustee referenced by his email address.
    *
@@ -202,13 +255,12 @@ public class TrusteeService {
     }
 
     // Scatter the backups to each corresponding trustee
+    List<KeyBackup> keyBackups = new ArrayList<>();
     for (Map.Entry<Integer, String> entry : proofDTO.backups().entrySet()) {
-      Trustee tempTrustee = trusteeRepository.findByTrusteeIndexAndElectionId(entry.getKey(),
-          electionId);
-      String backup = desiredTrustee.getIndex() + ";" + entry.getValue();
-      tempTrustee.addBackup(backup);
-      trusteeRepository.save(tempTrustee);
+      keyBackups.add(new KeyBackup(electionId, desiredTrustee.getIndex(), entry.getKey(),
+          entry.getValue()));
     }
+    keyBackupRepository.insertAll(keyBackups);
 
     desiredTrustee.addPublicElgamalKeyAndProof(publicElgamalKeyAndProof);
     desiredTrustee.setWaiting(true);
@@ -226,8 +278,8 @@ public class TrusteeService {
         Arrays.asList(proofs.proofs()).contains(null)) {
       return false;
     }
-    for (Trustee t : trusteeRepository.findByElectionId(electionId)) {
-      if (proofs.backups().get(t.getIndex()) == null && t.getIndex() != trusteeIndex) {
+    for (TrusteeSummary t : trusteeRepository.findSummariesByElectionId(electionId)) {
+      if (proofs.backups().get(t.index()) == null && t.index() != trusteeIndex) {
         return false;
       }
     }
@@ -291,7 +343,23 @@ public class TrusteeService {
   public List<Trustee> getAllTrustees(long electionId) {
     List<Trustee> trustees = (List<Trustee>) trusteeRepository.findByElectionId(electionId);
     if (trustees.isEmpty()) {
-      throw new EntityNotFoundException("There are no trustees to this election.");
+      throw new EntityNotFoundException(NO_TRUSTEES_ERROR_MESSAGE);
+    }
+    return trustees;
+  }
+
+  /**
+   * Getter for the summaries of all trustees assigned to an election referenced by an id. Unlike
+   * {@link #getAllTrustees(long)} the keys of the trustees are not loaded.
+   *
+   * @param electionId is the id referencing the election
+   * @return list containing the summaries of all trustees of an election ordered by their index
+   * @throws EntityNotFoundException in case the election could not be found
+   */
+  public List<TrusteeSummary> getTrusteeSummaries(long electionId) {
+    List<TrusteeSummary> trustees = trusteeRepository.findSummariesByElectionId(electionId);
+    if (trustees.isEmpty()) {
+      throw new EntityNotFoundException(NO_TRUSTEES_ERROR_MESSAGE);
     }
     return trustees;
   }
@@ -359,14 +427,18 @@ public class TrusteeService {
     }
 
     Trustee desiredTrustee = trusteeRepository.findByEmailAndElectionId(email, electionId);
-    Map<Integer, String> backupMap = new HashMap<>();
+    Map<Integer, Boolean> isAvailable = new HashMap<>();
+    if (missingOnly) {
+      for (TrusteeSummary trustee : trusteeRepository.findSummariesByElectionId(electionId)) {
+        isAvailable.put(trustee.index(), trustee.isAvailable());
+      }
+    }
 
-    for (String backupString : desiredTrustee.getBackups()) {
-      String[] tempBackup = backupString.split(";");
-      Integer trusteeIndex = Integer.valueOf(tempBackup[0]);
-      Trustee other = trusteeRepository.findByTrusteeIndexAndElectionId(trusteeIndex, electionId);
-      if (!other.isAvailable() || !missingOnly) {
-        backupMap.put(trusteeIndex, tempBackup[1]);
+    Map<Integer, String> backupMap = new HashMap<>();
+    for (KeyBackup keyBackup : keyBackupRepository.findByElectionIdAndToIndex(electionId,
+        desiredTrustee.getIndex())) {
+      if (!missingOnly || !isAvailable.getOrDefault(keyBackup.getFromIndex(), false)) {
+        backupMap.put(keyBackup.getFromIndex(), keyBackup.getPayload());
       }
     }
     return backupMap;
@@ -418,9 +490,7 @@ public class TrusteeService {
   public int getTrusteesWaitingCount(long electionId) {
     electionService.checkExistsElection(electionId);
 
-    List<Trustee> trustees = (List<Trustee>) trusteeRepository.findByElectionIdAndIsWaiting(
-        electionId, true);
-    return trustees.size();
+    return (int) trusteeRepository.countByElectionIdAndIsWaiting(electionId, true);
   }
 
   /**
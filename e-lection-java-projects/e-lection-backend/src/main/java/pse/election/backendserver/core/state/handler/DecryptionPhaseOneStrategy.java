@@ -11,7 +11,7 @@ import pse.election.backendserver.core.service.ElectionService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
-import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.error.exception.IllegalStateSwitchOperation;
 import pse.election.backendserver.repository.PartialDecryptionRepository;
 
@@ -64,7 +64,8 @@ public class DecryptionPhaseOneStrategy implements StateStrategy {
 
   private ElectionState switchToPhaseTwo(Election election) {
 
-    List<Trustee> allTrusteesOfElection = trusteeService.getAllTrustees(election.getElectionId());
+    List<TrusteeSummary> allTrusteesOfElection = trusteeService.getTrusteeSummaries(
+        election.getElectionId());
 
     if (allTrusteesOfElection.isEmpty()) {
       throw new IllegalStateSwitchOperation(TRUSTEES_MISSING_ERROR_MSG);
@@ -80,7 +81,8 @@ public class DecryptionPhaseOneStrategy implements StateStrategy {
   }
 
   private ElectionState switchToDone(Election election) {
-    List<Trustee> allTrusteesOfElection = trusteeService.getAllTrustees(election.getElectionId());
+    List<TrusteeSummary> allTrusteesOfElection = trusteeService.getTrusteeSummaries(
+        election.getElectionId());
 
     if (allTrusteesOfElection.isEmpty()) {
       throw new IllegalStateSwitchOperation(TRUSTEES_MISSING_ERROR_MSG);
@@ -95,10 +97,10 @@ public class DecryptionPhaseOneStrategy implements StateStrategy {
     return ElectionState.P_DECRYPTION;
   }
 
-  private int getUploadedPartialDecryptionCount(List<Trustee> trusteeList) {
+  private int getUploadedPartialDecryptionCount(List<TrusteeSummary> trusteeList) {
 
     int uploadedPartialDecryptionCount = 0;
-    for (Trustee trustee : trusteeList) {
+    for (TrusteeSummary trustee : trusteeList) {
       if (trustee.isAvailable()) {
         uploadedPartialDecryptionCount++;
       }
@@ -110,17 +112,20 @@ public class DecryptionPhaseOneStrategy implements StateStrategy {
   /**
    * Initialises the state of the decryption when it enters the decryption phase one. This method
    * calls IDecryption for the homomorph addition of the encryption, and if a bot trustee exists, It
-   * also decrypts his part of the election.
+   * also decrypts his part of the election. The bot decrypts every tally as soon as it has been
+   * created and its spoiled ballots while the tallies are created.
    *
    * @param election The Election that gets initialised.
    */
   @Override
   public void initialiseState(Election election) {
     decryptionFacade.computeLagrangeCoefficients(election);
-    decryptionFacade.combineOptionsEncryptedToTallies(election);
 
     if (election.hasBot()) {
-      botFacade.partialDecryption(election);
+      botFacade.partialDecryption(election, tallyConsumer ->
+          decryptionFacade.combineOptionsEncryptedToTallies(election, tallyConsumer));
+    } else {
+      decryptionFacade.combineOptionsEncryptedToTallies(election);
     }
   }
 }
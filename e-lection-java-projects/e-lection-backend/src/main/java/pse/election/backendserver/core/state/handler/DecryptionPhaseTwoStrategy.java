@@ -3,11 +3,13 @@ package pse.election.backendserver.core.state.handler;
 import java.util.List;
 import org.springframework.stereotype.Component;
 import pse.election.backendserver.core.bot.BotFacade;
+import pse.election.backendserver.core.electionguard.DecryptionFacade;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.error.exception.IllegalStateSwitchOperation;
 
 
@@ -22,15 +24,19 @@ public class DecryptionPhaseTwoStrategy implements StateStrategy {
 
   private final DecryptionService decryptionService;
 
+  private final DecryptionFacade decryptionFacade;
+
   private final BotFacade botFacade;
 
   /**
    * Constructor of new DecryptionPhaseTwoStrategy.
    * */
   public DecryptionPhaseTwoStrategy(TrusteeService trusteeService,
-      DecryptionService decryptionService, BotFacade botFacade) {
+      DecryptionService decryptionService, DecryptionFacade decryptionFacade,
+      BotFacade botFacade) {
     this.trusteeService = trusteeService;
     this.decryptionService = decryptionService;
+    this.decryptionFacade = decryptionFacade;
     this.botFacade = botFacade;
   }
 
@@ -51,37 +57,52 @@ public class DecryptionPhaseTwoStrategy implements StateStrategy {
               + " is not allowed.");
     }
 
-    List<Trustee> trusteeList = trusteeService.getAllTrustees(election.getElectionId());
+    List<TrusteeSummary> trusteeList = trusteeService.getTrusteeSummaries(
+        election.getElectionId());
 
     if (trusteeList.isEmpty()) {
       throw new IllegalStateSwitchOperation("There must be at least one trustee in the election.");
     }
 
-    for (Trustee trustee : trusteeList) {
-      if (trustee.isAvailable()) {
-        if (decryptionService.getAllPartialPartialDecryptionOfTrustee(trustee.getTrusteeId())
-            .isEmpty()) {
-          return ElectionState.PP_DECRYPTION;
-        }
+    Long botTrusteeId = election.hasBot()
+        ? trusteeService.getBotTrustee(election.getElectionId()).getTrusteeId() : null;
+    for (TrusteeSummary trustee : trusteeList) {
+      if (trustee.isAvailable() && !hasDecrypted(trustee, botTrusteeId)) {
+        return ElectionState.PP_DECRYPTION;
       }
     }
 
     return ElectionState.DONE;
   }
 
+  /**
+   * The bot trustee stores its partial partial decryptions in batches and the tallies last, so it
+   * is done once the tallies are decrypted.
+   */
+  private boolean hasDecrypted(TrusteeSummary trustee, Long botTrusteeId) {
+    if (botTrusteeId != null && botTrusteeId == trustee.trusteeId()) {
+      return decryptionService.hasPartialPartialDecryptionOfTallies(trustee.trusteeId());
+    }
+    return !decryptionService.getAllPartialPartialDecryptionOfTrustee(trustee.trusteeId())
+        .isEmpty();
+  }
+
   /**
    * Initialises this State of the Election. By doing so generating the trustee bot
-   * PartialPartialDecryptions if one exists.
+   * PartialPartialDecryptions in the background if one exists. The available trustees are known at
+   * this point, so their LagrangeCoefficients are computed before any PartialPartialDecryption
+   * arrives.
    *
    * @param election The Election that gets initialised.
    */
   @Override
   public void initialiseState(Election election) {
+    decryptionFacade.computeLagrangeCoefficients(election);
     for (Trustee trustee : trusteeService.getAllTrustees(election.getElectionId())) {
       trustee.setWaiting(decryptionService.getAllPartialDecryptionByTrustee(trustee.getTrusteeId()).isEmpty());
     }
     if (election.hasBot()) {
-      botFacade.partialPartialDecryption(election);
+      botFacade.partialPartialDecryptionInBackground(election);
     }
   }
 
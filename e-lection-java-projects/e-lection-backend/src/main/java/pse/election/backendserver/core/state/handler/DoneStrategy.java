@@ -29,6 +29,6 @@ public class DoneStrategy implements StateStrategy {
   @Override
   public void initialiseState(Election election) {
     decryptionFacade.computeLagrangeCoefficients(election);
-    decryptionFacade.evaluateResult(election);
+    decryptionFacade.evaluateResultInBackground(election);
   }
 }
@@ -5,7 +5,7 @@ import pse.election.backendserver.core.bot.BotFacade;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
-import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.error.exception.IllegalStateSwitchOperation;
 
 /**
@@ -43,13 +43,14 @@ public class KeyCeremonyPhaseTwoStrategy implements StateStrategy {
               + " is not allowed.");
     }
 
-    List<Trustee> trusteeList = trusteeService.getAllTrustees(election.getElectionId());
+    List<TrusteeSummary> trusteeList = trusteeService.getTrusteeSummaries(
+        election.getElectionId());
 
     if (trusteeList.isEmpty()) {
       throw new IllegalStateSwitchOperation(NO_TRUSTEES_ERROR_MESSAGE);
     }
 
-    for (Trustee trustee : trusteeList) {
+    for (TrusteeSummary trustee : trusteeList) {
       if (!trustee.isWaiting()) {
         return ElectionState.EPKB;
       }
@@ -67,7 +67,8 @@ public class StrategyFactory {
   }
 
   public DecryptionPhaseTwoStrategy getDecryptionPhaseTwoStrategy() {
-    return new DecryptionPhaseTwoStrategy(trusteeService, decryptionService, botFacade);
+    return new DecryptionPhaseTwoStrategy(trusteeService, decryptionService, decryptionFacade,
+        botFacade);
   }
 
   public DoneStrategy getDoneStrategy() {
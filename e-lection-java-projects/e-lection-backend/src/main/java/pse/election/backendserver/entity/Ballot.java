@@ -39,6 +39,12 @@ public class Ballot {
    * Is set to false if it is a spoiled ballot, otherwise true.
    */
   private boolean isSubmitted;
+
+  /**
+   * Is set to true as soon as the selections of a spoiled ballot have been decrypted. Ballots
+   * stored before this was tracked are null until they are marked on startup.
+   */
+  private Boolean isDecrypted = false;
   private String latestTrackingCode;
   private String previousTrackingCode;
   private String deviceInfo;
@@ -99,6 +105,24 @@ public class Ballot {
     this.isSubmitted = isSubmitted;
   }
 
+  /**
+   * Getter for the value if the selections of a spoiled ballot have been decrypted.
+   *
+   * @return {@link boolean} state of decryption
+   */
+  public boolean isDecrypted() {
+    return Boolean.TRUE.equals(this.isDecrypted);
+  }
+
+  /**
+   * Setter if the selections of a spoiled Ballot have been decrypted.
+   *
+   * @param isDecrypted true, if decrypted
+   */
+  public void setDecrypted(boolean isDecrypted) {
+    this.isDecrypted = isDecrypted;
+  }
+
   /**
    * Getter for the tracking code of a ballot.
    *
@@ -32,6 +32,13 @@ public class BotTrustee {
   @Column(columnDefinition = "TEXT")
   private String privateAuxKey;
 
+  /*
+   * The reason the partial partial decryption of the bot failed for good, null as long as it has
+   * not failed.
+   */
+  @Column(columnDefinition = "TEXT")
+  private String compensationError;
+
   public BotTrustee() {
   }
 
@@ -86,5 +93,14 @@ public class BotTrustee {
   public String getPrivateAuxKey() {
     return privateAuxKey;
   }
+
+  /**
+   * Getter for the reason the partial partial decryption of the bot trustee failed for good.
+   *
+   * @return the reason or null if it has not failed
+   */
+  public String getCompensationError() {
+    return compensationError;
+  }
 }
 
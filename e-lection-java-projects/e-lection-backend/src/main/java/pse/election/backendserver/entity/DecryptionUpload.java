@@ -0,0 +1,101 @@
+package pse.election.backendserver.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import java.util.Date;
+import pse.election.backendserver.core.state.ElectionState;
+
+/**
+ * A decryption upload is the session of a trustee uploading its decryptions in chunks. Every chunk
+ * is verified and staged as it arrives, the staged decryptions only count as uploaded once the
+ * trustee commits the upload. An upload belongs to the decryption phase it has been opened in.
+ *
+ * @version 1.0
+ */
+@Entity
+public class DecryptionUpload {
+
+  /**
+   * This is the primary key.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long decryptionUploadId;
+
+  /**
+   * This is the foreign key to the election.
+   */
+  private long electionId;
+
+  /**
+   * This is the foreign key to the trustee.
+   */
+  private long trusteeId;
+
+  /**
+   * Decryption phase the upload has been opened in.
+   */
+  private ElectionState state;
+
+  private Date createdAt;
+
+  public DecryptionUpload() {
+  }
+
+  /**
+   * Constructor of new DecryptionUpload.
+   * */
+  public DecryptionUpload(long electionId, long trusteeId, ElectionState state, Date createdAt) {
+    this.electionId = electionId;
+    this.trusteeId = trusteeId;
+    this.state = state;
+    this.createdAt = createdAt;
+  }
+
+  /**
+   * Getter for the primary key.
+   *
+   * @return {@link long} identifier
+   */
+  public long getDecryptionUploadId() {
+    return decryptionUploadId;
+  }
+
+  /**
+   * Getter for the identifier of the election.
+   *
+   * @return {@link long} election identifier
+   */
+  public long getElectionId() {
+    return electionId;
+  }
+
+  /**
+   * Getter for the identifier of the uploading trustee.
+   *
+   * @return {@link long} trustee identifier
+   */
+  public long getTrusteeId() {
+    return trusteeId;
+  }
+
+  /**
+   * Getter for the decryption phase the upload has been opened in.
+   *
+   * @return {@link ElectionState} decryption phase
+   */
+  public ElectionState getState() {
+    return state;
+  }
+
+  /**
+   * Getter for the creation time of the upload.
+   *
+   * @return {@link Date} creation time
+   */
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+}
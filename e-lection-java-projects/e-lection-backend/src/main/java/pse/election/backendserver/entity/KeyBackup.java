@@ -0,0 +1,104 @@
+package pse.election.backendserver.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+/**
+ * An election partial key backup one {@link Trustee} generated for another one during the key
+ * ceremony. The backups are required if a trustee decides to not perform its partial decryption.
+ * In that case each of the remaining trustees performs a partial partial decryption of the missing
+ * partial decryption with the backup the missing trustee generated for it.
+ * The backups are referenced by the indices of both trustees, so that all backups of a trustee can
+ * be retrieved at once.
+ *
+ * @version 1.0
+ */
+@Entity
+public class KeyBackup {
+
+  /**
+   * This is the primary key.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long keyBackupId;
+
+  /**
+   * This is the foreign key to the election.
+   */
+  private long electionId;
+
+  /**
+   * This is the index of the trustee who generated the backup.
+   */
+  private int fromIndex;
+
+  /**
+   * This is the index of the trustee the backup was generated for.
+   */
+  private int toIndex;
+
+  @Column(columnDefinition = "TEXT")
+  private String payload;
+
+  public KeyBackup() {
+  }
+
+  /**
+   * Constructor of new KeyBackup.
+   * */
+  public KeyBackup(long electionId, int fromIndex, int toIndex, String payload) {
+    this.electionId = electionId;
+    this.fromIndex = fromIndex;
+    this.toIndex = toIndex;
+    this.payload = payload;
+  }
+
+  /**
+   * Getter for the primary key of a backup.
+   *
+   * @return identifier
+   */
+  public long getKeyBackupId() {
+    return this.keyBackupId;
+  }
+
+  /**
+   * Getter for the foreign key of the election.
+   *
+   * @return identifier
+   */
+  public long getElectionId() {
+    return this.electionId;
+  }
+
+  /**
+   * Getter for the index of the trustee who generated the backup.
+   *
+   * @return trustee index
+   */
+  public int getFromIndex() {
+    return this.fromIndex;
+  }
+
+  /**
+   * Getter for the index of the trustee the backup was generated for.
+   *
+   * @return trustee index
+   */
+  public int getToIndex() {
+    return this.toIndex;
+  }
+
+  /**
+   * Getter for the backup.
+   *
+   * @return {@link String} backup
+   */
+  public String getPayload() {
+    return this.payload;
+  }
+}
@@ -67,6 +67,13 @@ public class OptionEncrypted implements Comparable<OptionEncrypted> {
   @Column(columnDefinition = "TEXT")
   private String accumulatedProof;
 
+  /**
+   * The product of all partial decryptions of the option uploaded so far. Only the options of
+   * spoiled ballots hold a product, starting at one when the decryption of the election begins.
+   */
+  @Column(columnDefinition = "TEXT")
+  private String shareProduct;
+
   public OptionEncrypted() {
   }
 
@@ -171,6 +178,24 @@ public class OptionEncrypted implements Comparable<OptionEncrypted> {
     this.selectionMade = selectionMade;
   }
 
+  /**
+   * Getter for the product of the partial decryptions uploaded so far.
+   *
+   * @return product in hex or null if the shares of the option are not accumulated
+   */
+  public String getShareProduct() {
+    return shareProduct;
+  }
+
+  /**
+   * Setter for the product of the partial decryptions uploaded so far.
+   *
+   * @param shareProduct product in hex
+   */
+  public void setShareProduct(String shareProduct) {
+    this.shareProduct = shareProduct;
+  }
+
 
   @Override
   public int compareTo(OptionEncrypted o) {
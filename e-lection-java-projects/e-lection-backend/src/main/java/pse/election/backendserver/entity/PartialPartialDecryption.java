@@ -9,7 +9,7 @@ import jakarta.persistence.Id;
 /**
  * In case a trustee did not perform its supposed partial decryption, all remaining trustees have to
  * perfom a partial partial decryption on that missing partial decryption. This can be done with the
- * assistance of the {@link Trustee} election partial key backups.
+ * assistance of the {@link KeyBackup} election partial key backups.
  *
  * @version 1.0
  */
@@ -0,0 +1,179 @@
+package pse.election.backendserver.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import java.util.Date;
+
+/**
+ * A result evaluation is the background job that decrypts the tally and the spoiled ballots of an
+ * election after its last decryption has been uploaded. The election is already done at that
+ * point, but its result is only available once the evaluation is finished. The number of
+ * selections is stored when the evaluation starts and the number of processed selections when it
+ * ends, the progress in between is only tracked in memory by the instance running the evaluation.
+ * The running instance renews its claim on the evaluation periodically. An evaluation whose claim
+ * has expired, e.g. because its instance has been stopped, or that has failed can be claimed by
+ * any instance and started again.
+ *
+ * @version 1.0
+ */
+@Entity
+public class ResultEvaluation {
+
+  /**
+   * Progress of a result evaluation.
+   */
+  public enum Status {
+    RUNNING, FINISHED, FAILED
+  }
+
+  /**
+   * This is the primary key.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long resultEvaluationId;
+
+  /**
+   * This is the foreign key to the election.
+   */
+  private long electionId;
+
+  private Status status;
+
+  /**
+   * Number of selections of the tally and of all spoiled ballots to be decrypted.
+   */
+  private long totalSelections;
+  private long processedSelections;
+
+  private Date startTime;
+  private Date endTime;
+
+  /**
+   * Identifier of the backend instance running the evaluation.
+   */
+  private String owner;
+  private Date claimedAt;
+
+  /**
+   * Number of times the evaluation has been started.
+   */
+  private int attempts;
+
+  public ResultEvaluation() {
+  }
+
+  /**
+   * Constructor of new ResultEvaluation.
+   * */
+  public ResultEvaluation(long electionId, Date startTime) {
+    this.electionId = electionId;
+    this.startTime = startTime;
+    this.status = Status.RUNNING;
+  }
+
+  /**
+   * Getter for the primary key.
+   *
+   * @return {@link long} identifier
+   */
+  public long getResultEvaluationId() {
+    return resultEvaluationId;
+  }
+
+  /**
+   * Getter for the identifier of the election.
+   *
+   * @return {@link long} election identifier
+   */
+  public long getElectionId() {
+    return electionId;
+  }
+
+  /**
+   * Getter for the status of the evaluation.
+   *
+   * @return {@link Status} status
+   */
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+
+  /**
+   * Getter for the number of selections to be decrypted.
+   *
+   * @return {@link long} number of selections
+   */
+  public long getTotalSelections() {
+    return totalSelections;
+  }
+
+  public void setTotalSelections(long totalSelections) {
+    this.totalSelections = totalSelections;
+  }
+
+  /**
+   * Getter for the number of selections decrypted when the evaluation ended.
+   *
+   * @return {@link long} number of processed selections
+   */
+  public long getProcessedSelections() {
+    return processedSelections;
+  }
+
+  public void setProcessedSelections(long processedSelections) {
+    this.processedSelections = processedSelections;
+  }
+
+  /**
+   * Getter for the start of the evaluation.
+   *
+   * @return {@link Date} start time
+   */
+  public Date getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Getter for the end of the evaluation.
+   *
+   * @return {@link Date} end time or null if the evaluation is still running
+   */
+  public Date getEndTime() {
+    return endTime;
+  }
+
+  public void setEndTime(Date endTime) {
+    this.endTime = endTime;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public Date getClaimedAt() {
+    return claimedAt;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * Marks the evaluation as started by a backend instance.
+   *
+   * @param owner     identifier of the instance
+   * @param claimedAt time of the start
+   */
+  public void claim(String owner, Date claimedAt) {
+    this.owner = owner;
+    this.claimedAt = claimedAt;
+    this.attempts++;
+  }
+}
@@ -0,0 +1,171 @@
+package pse.election.backendserver.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A staged decryption is a verified partial or partial partial decryption of a
+ * {@link DecryptionUpload} that has not been committed yet. It keeps the ballot and the trustee
+ * index it was uploaded for, so that an interrupted upload can tell which chunks are still missing.
+ * An upload stages every decryption at most once, as they are committed and multiplied into the
+ * tallies without further checks.
+ *
+ * @version 1.0
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"decryption_upload_id",
+    "trustee_index", "tally_id", "option_encrypted_id"}))
+public class StagedDecryption {
+
+  /**
+   * This is the primary key.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long stagedDecryptionId;
+
+  /**
+   * This is the foreign key to the upload.
+   */
+  private long decryptionUploadId;
+
+  /**
+   * Index of the trustee the decryption is computed for, 0 in the first decryption phase.
+   */
+  private int trusteeIndex;
+
+  /**
+   * Identifier of the spoiled ballot or -1 for the tally.
+   */
+  private long ballotId;
+
+  /**
+   * This is the foreign key to the trustee the decryption is computed for, 0 in the first
+   * decryption phase.
+   */
+  private long forWhichTrusteeId;
+
+  /**
+   * This is the foreign key to the tally.
+   */
+  private long tallyId;
+
+  /**
+   * This is the foreign key to the encrypted option.
+   */
+  private long optionEncryptedId;
+
+  @Column(columnDefinition = "TEXT")
+  private String decryption;
+
+  /**
+   * Format: pad;data;challenge;response.
+   */
+  @Column(columnDefinition = "TEXT")
+  private String proof;
+
+  public StagedDecryption() {
+  }
+
+  /**
+   * Constructor of new StagedDecryption.
+   * */
+  public StagedDecryption(long decryptionUploadId, int trusteeIndex, long ballotId,
+      long forWhichTrusteeId, long tallyId, long optionEncryptedId, String decryption,
+      String proof) {
+    this.decryptionUploadId = decryptionUploadId;
+    this.trusteeIndex = trusteeIndex;
+    this.ballotId = ballotId;
+    this.forWhichTrusteeId = forWhichTrusteeId;
+    this.tallyId = tallyId;
+    this.optionEncryptedId = optionEncryptedId;
+    this.decryption = decryption;
+    this.proof = proof;
+  }
+
+  /**
+   * Getter for the primary key.
+   *
+   * @return {@link long} identifier
+   */
+  public long getStagedDecryptionId() {
+    return stagedDecryptionId;
+  }
+
+  /**
+   * Getter for the foreign key of the upload.
+   *
+   * @return {@link long} identifier
+   */
+  public long getDecryptionUploadId() {
+    return decryptionUploadId;
+  }
+
+  /**
+   * Getter for the index of the trustee the decryption is computed for.
+   *
+   * @return {@link int} trustee index
+   */
+  public int getTrusteeIndex() {
+    return trusteeIndex;
+  }
+
+  /**
+   * Getter for the identifier of the spoiled ballot.
+   *
+   * @return {@link long} ballot identifier or -1 for the tally
+   */
+  public long getBallotId() {
+    return ballotId;
+  }
+
+  /**
+   * Getter for the foreign key of the trustee the decryption is computed for.
+   *
+   * @return {@link long} identifier
+   */
+  public long getForWhichTrusteeId() {
+    return forWhichTrusteeId;
+  }
+
+  /**
+   * Getter for the foreign key of a tally.
+   *
+   * @return {@link long} identifier
+   */
+  public long getTallyId() {
+    return tallyId;
+  }
+
+  /**
+   * Getter for the foreign key of an encrypted option.
+   *
+   * @return {@link long} identifier
+   */
+  public long getOptionEncryptedId() {
+    return optionEncryptedId;
+  }
+
+  /**
+   * Getter for the partial decryption.
+   *
+   * @return {@link String} decryption
+   */
+  public String getDecryption() {
+    return decryption;
+  }
+
+  /**
+   * Getter for the proof of the partial decryption.
+   *
+   * @return {@link String} proof
+   */
+  public String getProof() {
+    return proof;
+  }
+}
@@ -41,6 +41,14 @@ public class Tally implements Comparable<Tally> {
   @Column(columnDefinition = "TEXT")
   private String ciphertextDATA;
 
+  /**
+   * The product of all partial decryptions of the tally uploaded so far, which starts at one when
+   * the decryption of the election begins. Tallies created before the shares were accumulated hold
+   * no product.
+   */
+  @Column(columnDefinition = "TEXT")
+  private String shareProduct;
+
   public Tally() {
     super();
   }
@@ -121,6 +129,36 @@ public class Tally implements Comparable<Tally> {
     this.ciphertextDATA = enrcryption;
   }
 
+  /**
+   * Getter for the product of the partial decryptions uploaded so far.
+   *
+   * @return product in hex or null if the shares of the tally are not accumulated
+   */
+  public String getShareProduct() {
+    return shareProduct;
+  }
+
+  /**
+   * Setter for the product of the partial decryptions uploaded so far.
+   *
+   * @param shareProduct product in hex
+   */
+  public void setShareProduct(String shareProduct) {
+    this.shareProduct = shareProduct;
+  }
+
+  /**
+   * Combines the index of a contest and an option into a single key, under which the tallies and
+   * encrypted options of a selection can be looked up.
+   *
+   * @param contestIndex index of the contest
+   * @param optionIndex  index of the option within the contest
+   * @return key of the selection
+   */
+  public static long selectionKey(int contestIndex, int optionIndex) {
+    return ((long) contestIndex << Integer.SIZE) | (optionIndex & 0xFFFFFFFFL);
+  }
+
   @Override
   public int compareTo(Tally o) {
     if (this.contestIndex > o.getContestIndex()) {
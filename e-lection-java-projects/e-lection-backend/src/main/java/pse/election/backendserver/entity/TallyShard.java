@@ -0,0 +1,137 @@
+package pse.election.backendserver.entity;
+
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Version;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A tally shard is a contiguous range of submitted ballots of an election, whose encrypted options
+ * get accumulated independently of all other shards. Any backend instance sharing the database can
+ * claim an open shard, compute the homomorphic product of every selection inside its ballot range
+ * and store it as partial product. As soon as all shards of an election are done, the partial
+ * products get multiplied into the {@link Tally} entities of the election.
+ * Claims are protected by optimistic locking, so that a shard is only ever processed by the instance
+ * which won the claim. A claim that is not finished within the lease time can be taken over by
+ * another instance.
+ *
+ * @version 1.0
+ */
+@Entity
+public class TallyShard {
+
+  /**
+   * This is the primary key.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private long tallyShardId;
+
+  /**
+   * This is the foreign key to the election.
+   */
+  private long electionId;
+
+  /**
+   * The inclusive range of ballot identifiers belonging to the shard.
+   */
+  private long firstBallotId;
+  private long lastBallotId;
+
+  /**
+   * Identifier of the backend instance which currently works on the shard.
+   */
+  private String owner;
+  private Date claimedAt;
+  private boolean isDone;
+
+  /**
+   * The products of all encrypted options inside the ballot range, one per selection. They are
+   * stored together with the shard, so they are only kept if the claim on it is still valid.
+   */
+  @ElementCollection(fetch = FetchType.EAGER)
+  private List<TallyShardProduct> partialProducts = new ArrayList<>();
+
+  @Version
+  private long version;
+
+  public TallyShard() {
+  }
+
+  /**
+   * Constructor of new TallyShard.
+   * */
+  public TallyShard(long electionId, long firstBallotId, long lastBallotId) {
+    this.electionId = electionId;
+    this.firstBallotId = firstBallotId;
+    this.lastBallotId = lastBallotId;
+  }
+
+  /**
+   * Getter for the primary key.
+   *
+   * @return {@link long} identifier
+   */
+  public long getTallyShardId() {
+    return tallyShardId;
+  }
+
+  public long getElectionId() {
+    return electionId;
+  }
+
+  public long getFirstBallotId() {
+    return firstBallotId;
+  }
+
+  public long getLastBallotId() {
+    return lastBallotId;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  public Date getClaimedAt() {
+    return claimedAt;
+  }
+
+  /**
+   * Marks the shard as claimed by a backend instance.
+   *
+   * @param owner identifier of the claiming instance
+   * @param claimedAt time of the claim
+   */
+  public void claim(String owner, Date claimedAt) {
+    this.owner = owner;
+    this.claimedAt = claimedAt;
+  }
+
+  public boolean isDone() {
+    return isDone;
+  }
+
+  public List<TallyShardProduct> getPartialProducts() {
+    return partialProducts;
+  }
+
+  /**
+   * Stores the partial products of the shard and marks it as done.
+   *
+   * @param partialProducts the products of every selection
+   */
+  public void finish(List<TallyShardProduct> partialProducts) {
+    this.partialProducts = new ArrayList<>(partialProducts);
+    this.isDone = true;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+}
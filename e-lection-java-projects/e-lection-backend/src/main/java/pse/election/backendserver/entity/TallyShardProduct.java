@@ -0,0 +1,55 @@
+package pse.election.backendserver.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.math.BigInteger;
+
+/**
+ * The product of the encrypted options of one selection inside the ballot range of a
+ * {@link TallyShard}.
+ *
+ * @version 1.0
+ */
+@Embeddable
+public class TallyShardProduct {
+
+  private static final int BASE_OF_HEX = 16;
+
+  private int contestIndex;
+  private int optionIndex;
+
+  @Column(columnDefinition = "TEXT")
+  private String ciphertextPAD;
+  @Column(columnDefinition = "TEXT")
+  private String ciphertextDATA;
+
+  public TallyShardProduct() {
+  }
+
+  /**
+   * Constructor of new TallyShardProduct.
+   * */
+  public TallyShardProduct(int contestIndex, int optionIndex, BigInteger ciphertextPAD,
+      BigInteger ciphertextDATA) {
+    this.contestIndex = contestIndex;
+    this.optionIndex = optionIndex;
+    this.ciphertextPAD = ciphertextPAD.toString(BASE_OF_HEX);
+    this.ciphertextDATA = ciphertextDATA.toString(BASE_OF_HEX);
+  }
+
+  public int getContestIndex() {
+    return contestIndex;
+  }
+
+  public int getOptionIndex() {
+    return optionIndex;
+  }
+
+  public BigInteger getCiphertextPAD() {
+    return new BigInteger(ciphertextPAD, BASE_OF_HEX);
+  }
+
+  public BigInteger getCiphertextDATA() {
+    return new BigInteger(ciphertextDATA, BASE_OF_HEX);
+  }
+}
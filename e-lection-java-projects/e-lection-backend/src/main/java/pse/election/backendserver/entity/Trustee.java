@@ -44,19 +44,6 @@ public class Trustee implements Comparable<Trustee> {
   @ElementCollection
   private List<String> publicElgamalKeyAndProof;
 
-  /**
-   * This is a collection of election partial key backups, which are required if a trustee decides
-   * to not perform a partial decryption.
-   * In that case, each of the remaining trustees of the election have to perform a partial
-   * decrpytion of the missing partial decryption of the trustee who did not perform his part of the
-   * decryption.
-   * Therefore each trustee generates for each other trustee a backup, so that the remaining
-   * trustees can perform the missing partial decryption.
-   * Format: trusteeIndex;backup      trusteeIndex of whom the backup was generated
-   */
-  @Column(columnDefinition = "LONGTEXT")
-  @ElementCollection
-  private List<String> backups;
   private String email;
 
   /**
@@ -207,20 +194,6 @@ public class Trustee implements Comparable<Trustee> {
     publicElgamalKeyAndProof.addAll(keysAndProofs);
   }
 
-  public List<String> getBackups() {
-    return Objects.requireNonNullElseGet(backups, ArrayList::new);
-  }
-
-  /**
-   * Setter for the backups.
-   * */
-  public void addBackup(String backup) {
-    if (backups == null) {
-      backups = new ArrayList<>();
-    }
-    backups.add(backup);
-  }
-
   public BigInteger getLagrangeCoefficient() {
     return new BigInteger(this.lagrangeCoefficient, 16);
   }
@@ -229,6 +202,10 @@ public class Trustee implements Comparable<Trustee> {
     this.lagrangeCoefficient = coefficient;
   }
 
+  public boolean hasLagrangeCoefficient() {
+    return lagrangeCoefficient != null;
+  }
+
   /**
    * Getting the public elgamal key to the trustee.
    *
@@ -0,0 +1,17 @@
+package pse.election.backendserver.entity;
+
+/**
+ * Read model of a {@link Trustee} containing only the columns most callers need. Unlike the
+ * entity it does not load the auxiliary key, the public ElGamal keys and the lagrange coefficient,
+ * so the trustees of an election can be listed cheaply, e.g. to check their progress.
+ *
+ * @param trusteeId   identifier of the trustee
+ * @param index       index of the trustee in its election
+ * @param email       email of the trustee
+ * @param isWaiting   whether the trustee has done its work in the current state
+ * @param isAvailable whether the trustee uploaded its partial decryption
+ */
+public record TrusteeSummary(long trusteeId, int index, String email, boolean isWaiting,
+                             boolean isAvailable) {
+
+}
@@ -1,8 +1,21 @@
 package pse.election.backendserver.payload.response;
 
 /**
- * This class is a response to the authority decryption state request.
+ * This class is a response to the authority decryption state request. The progress of the result
+ * evaluation is null until the evaluation has been started.
  * */
-public record AuthorityDecryptionStateResponse(int decCount, String decState) {
+public record AuthorityDecryptionStateResponse(
+    int decCount,
+    String decState,
+    Integer percentDone,
+    Long selectionsProcessed,
+    Long selectionsTotal,
+    Long etaSeconds
+) {
+
+
+  public AuthorityDecryptionStateResponse(int decCount, String decState) {
+    this(decCount, decState, null, null, null, null);
+  }
 
 }
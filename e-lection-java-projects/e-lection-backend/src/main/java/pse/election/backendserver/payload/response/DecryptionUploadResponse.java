@@ -0,0 +1,18 @@
+package pse.election.backendserver.payload.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is the response to a chunked decryption upload. For every trustee the decryptions are
+ * computed for it lists the spoiled ballots that have been staged so far, the tally is listed as
+ * ballot -1. The upload is complete once the tally and all spoiled ballots are staged.
+ * */
+public record DecryptionUploadResponse(
+    long uploadId,
+    String state,
+    long spoiledBallotCount,
+    Map<Integer, List<Long>> stagedBallots
+) {
+
+}
@@ -0,0 +1,9 @@
+package pse.election.backendserver.payload.response;
+
+/**
+ * This class is the last line of a page of the streamed encrypted result. The cursor is the id of
+ * the last spoiled ballot of the page and null if there are no further spoiled ballots.
+ * */
+public record EncryptedResultPageResponse(Long nextCursor) {
+
+}
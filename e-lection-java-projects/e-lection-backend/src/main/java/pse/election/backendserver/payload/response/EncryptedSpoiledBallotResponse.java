@@ -0,0 +1,15 @@
+package pse.election.backendserver.payload.response;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is a line of the streamed encrypted result, holding the encrypted options of one
+ * spoiled ballot by contest.
+ * */
+public record EncryptedSpoiledBallotResponse(
+    long ballotId,
+    Map<Integer, List<EncryptedOptionResponse>> encryptedOptions
+) {
+
+}
@@ -1,19 +1,26 @@
 package pse.election.backendserver.payload.response;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sunya.electionguard.ElectionCryptoContext;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pse.election.backendserver.core.electionguard.DecryptionFacade;
 import pse.election.backendserver.core.electionguard.HashFacade;
 import pse.election.backendserver.core.service.AuthorityService;
 import pse.election.backendserver.core.service.BallotService;
+import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.service.ResultEvaluationService;
 import pse.election.backendserver.core.service.TallyService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.service.VoterService;
@@ -21,10 +28,12 @@ import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.core.state.handler.ElectionStateHandler;
 import pse.election.backendserver.entity.Ballot;
 import pse.election.backendserver.entity.Contest;
+import pse.election.backendserver.entity.DecryptionUpload;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.OptionEncrypted;
 import pse.election.backendserver.entity.Tally;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.dto.ElectionDescriptionHashesDTO;
 import pse.election.backendserver.payload.response.record.ElectionGuardInitializedWrapper;
 import pse.election.backendserver.payload.response.record.ElectionGuardRecord;
@@ -42,6 +51,9 @@ import pse.election.backendserver.security.user.UserRole;
 public class ResponseBuilder {
 
   private static final int BIGINTEGER_RADIX = 16;
+  private static final String EVALUATING_STATE = "EVALUATING";
+  private static final int STREAM_BATCH_SIZE = 100;
+  private static final String INVALID_PAGE_LIMIT = "The page limit has to be positive.";
 
   private StateFormatter stateFormatter;
   @Autowired
@@ -69,6 +81,14 @@ public class ResponseBuilder {
   private ElectionGuardRecord electionGuardRecord;
   @Autowired
   private ElectionStateHandler electionStateHandler;
+  @Autowired
+  private ResultEvaluationService resultEvaluationService;
+  @Autowired
+  private DecryptionFacade decryptionFacade;
+  @Autowired
+  private DecryptionService decryptionService;
+  @Autowired
+  private ObjectMapper objectMapper;
 
   /**
    * Building the authority decryption state response.
@@ -82,12 +102,34 @@ public class ResponseBuilder {
           ElectionState.P_DECRYPTION);
     }
 
+    int waitingCount = this.trusteeService.getTrusteesWaitingCount(electionId);
+    String state = formatElectionState(electionId, this.electionService.getState(electionId));
+    ResultEvaluationService.Progress progress = resultEvaluationService.getProgress(electionId);
+    if (progress == null) {
+      return new AuthorityDecryptionStateResponse(waitingCount, state);
+    }
     return new AuthorityDecryptionStateResponse(
-        this.trusteeService.getTrusteesWaitingCount(electionId),
-        stateFormatter.formatElectionState(this.electionService.getState(electionId))
+        waitingCount,
+        state,
+        progress.percentDone(),
+        progress.selectionsProcessed(),
+        progress.selectionsTotal(),
+        progress.etaSeconds()
     );
   }
 
+  /**
+   * Formats the state of an election with the current state formatter. A done election is shown
+   * as evaluating until its result has been committed.
+   * */
+  private String formatElectionState(long electionId, ElectionState electionState) {
+    if (electionState == ElectionState.DONE
+        && !resultEvaluationService.isResultAvailable(electionId)) {
+      return EVALUATING_STATE;
+    }
+    return stateFormatter.formatElectionState(electionState);
+  }
+
   /**
    * Building the authority key ceremony state response.
    * */
@@ -167,9 +209,11 @@ public class ResponseBuilder {
   }
 
   /**
-   * Building the election guard record.
+   * Building the election guard record. Spoiled ballots that have not been decrypted yet are
+   * decrypted first.
    * */
   public ElectionRecord buildElectionGuardRecord(long electionId) throws IOException {
+    decryptionFacade.decryptPendingSpoiledBallots(electionId);
     return electionGuardRecord.buildElectionRecord(this.electionService.getElection(electionId));
   }
 
@@ -206,14 +250,28 @@ public class ResponseBuilder {
    * */
   public ElectionEncryptedResultResponse buildElectionEncryptedResultResponse(long electionId,
       String trusteeEmail) {
+    return buildElectionEncryptedResultResponse(electionId, trusteeEmail,
+        createEncryptedSpoiledBallotResponse(electionId));
+  }
+
+  /**
+   * Building the encrypted result response without spoiled ballots, which starts the streamed
+   * encrypted result.
+   * */
+  private ElectionEncryptedResultResponse buildElectionEncryptedResultHeader(long electionId,
+      String trusteeEmail) {
+    return buildElectionEncryptedResultResponse(electionId, trusteeEmail, new LinkedHashMap<>());
+  }
+
+  private ElectionEncryptedResultResponse buildElectionEncryptedResultResponse(long electionId,
+      String trusteeEmail,
+      Map<Long, Map<Integer, List<EncryptedOptionResponse>>> encryptedSpoiledBallotQuestions) {
 
     if (electionService.getState(electionId) == ElectionState.OPEN) {
       //checking if the election has finished
       electionService.tryUpdateState(electionId, ElectionState.P_DECRYPTION);
     }
 
-    Map<Long, Map<Integer, List<EncryptedOptionResponse>>> encryptedSpoiledBallotQuestions =
-            createEncryptedSpoiledBallotResponse(electionId);
     Map<Integer, List<EncryptedOptionResponse>> encryptedTally = createEncryptedTallyResponse(
         electionId);
     String extendedBaseHash = this.electionGuardInitializedWrapper.generateCryptoContext(
@@ -252,14 +310,32 @@ public class ResponseBuilder {
 
   private Map<Long, Map<Integer, List<EncryptedOptionResponse>>> createEncryptedSpoiledBallotResponse(
       long electionId) {
-    Map<Long, Map<Integer, List<EncryptedOptionResponse>>> encryptedSpoiledBallotQuestions = new LinkedHashMap<>();
+    return createEncryptedSpoiledBallotResponse(
+        this.ballotService.getAllSpoiledBallotsOfElection(electionId));
+  }
 
-    //iterating threw all spoiled ballots
-    for (Ballot ballot : this.ballotService.getAllSpoiledBallotsOfElection(electionId)) {
-      Map<Integer, List<EncryptedOptionResponse>> encryptedOptions = new LinkedHashMap<>();
+  /**
+   * Maps spoiled ballots to their encrypted options by contest, in the order of the ballots. The
+   * options of all ballots are loaded with a single query.
+   */
+  private Map<Long, Map<Integer, List<EncryptedOptionResponse>>>
+      createEncryptedSpoiledBallotResponse(List<Ballot> ballots) {
+    Map<Long, List<OptionEncrypted>> optionsOfBallots = new HashMap<>();
+    if (!ballots.isEmpty()) {
+      for (OptionEncrypted optionEncrypted : ballotService.getAllOptionsEncryptedOfBallots(
+          ballots.stream().map(Ballot::getBallotId).toList())) {
+        optionsOfBallots.computeIfAbsent(optionEncrypted.getBallotId(), id -> new ArrayList<>())
+            .add(optionEncrypted);
+      }
+    }
 
-      List<OptionEncrypted> allOptionsEncryptedOfBallot = ballotService.getAllOptionsEncryptedOfBallot(
-          ballot.getBallotId());
+    Map<Long, Map<Integer, List<EncryptedOptionResponse>>> encryptedSpoiledBallotQuestions =
+        new LinkedHashMap<>();
+    for (Ballot ballot : ballots) {
+      Map<Integer, List<EncryptedOptionResponse>> encryptedOptions = new LinkedHashMap<>();
+      List<OptionEncrypted> allOptionsEncryptedOfBallot = optionsOfBallots.getOrDefault(
+          ballot.getBallotId(), new ArrayList<>());
+      Collections.sort(allOptionsEncryptedOfBallot);
 
       //per ballot, store to every question his encrypted options
       for (OptionEncrypted optionEncrypted : allOptionsEncryptedOfBallot) {
@@ -277,6 +353,61 @@ public class ResponseBuilder {
     return encryptedSpoiledBallotQuestions;
   }
 
+  /**
+   * Building the streamed encrypted result as newline delimited JSON. The first page, requested
+   * without a cursor, starts with the encrypted result response without spoiled ballots. Every
+   * following line holds one spoiled ballot, in the order of the ballot ids, and the last line
+   * holds the cursor of the next page. The spoiled ballots are loaded and written in batches, so
+   * that the response is never held in memory as a whole.
+   *
+   * @param electionId    id of the election
+   * @param trusteeEmail  email of the requesting trustee
+   * @param afterBallotId cursor of the page or null for the first page
+   * @param limit         maximum number of spoiled ballots of the page or null for all
+   */
+  public StreamingResponseBody buildElectionEncryptedResultStream(long electionId,
+      String trusteeEmail, Long afterBallotId, Integer limit) {
+    if (limit != null && limit <= 0) {
+      throw new IllegalArgumentException(INVALID_PAGE_LIMIT);
+    }
+    ElectionEncryptedResultResponse header = afterBallotId == null
+        ? buildElectionEncryptedResultHeader(electionId, trusteeEmail) : null;
+    long startCursor = afterBallotId == null ? 0 : afterBallotId;
+    int pageSize = limit == null ? Integer.MAX_VALUE : limit;
+
+    return outputStream -> {
+      if (header != null) {
+        writeStreamLine(outputStream, header);
+      }
+      long cursor = startCursor;
+      int remaining = pageSize;
+      while (remaining > 0) {
+        int batchSize = Math.min(STREAM_BATCH_SIZE, remaining);
+        List<Ballot> ballots = ballotService.getSpoiledBallotsOfElectionAfter(electionId, cursor,
+            batchSize);
+        for (Map.Entry<Long, Map<Integer, List<EncryptedOptionResponse>>> ballot
+            : createEncryptedSpoiledBallotResponse(ballots).entrySet()) {
+          writeStreamLine(outputStream,
+              new EncryptedSpoiledBallotResponse(ballot.getKey(), ballot.getValue()));
+          cursor = ballot.getKey();
+        }
+        outputStream.flush();
+        remaining -= ballots.size();
+        if (ballots.size() < batchSize) {
+          break;
+        }
+      }
+      Long nextCursor = ballotService.hasSpoiledBallotsOfElectionAfter(electionId, cursor)
+          ? cursor : null;
+      writeStreamLine(outputStream, new EncryptedResultPageResponse(nextCursor));
+    };
+  }
+
+  private void writeStreamLine(OutputStream outputStream, Object line) throws IOException {
+    outputStream.write(objectMapper.writeValueAsBytes(line));
+    outputStream.write('\n');
+  }
+
   /**
    * Building the election meta response.
    * */
@@ -292,7 +423,7 @@ public class ResponseBuilder {
     return new ElectionMetaResponse(
         election.getElectionId(),
         electionMeta,
-        this.stateFormatter.formatElectionState(election.getState()),
+        formatElectionState(election.getElectionId(), election.getState()),
         election.getFingerprint()
     );
   }
@@ -350,7 +481,7 @@ public class ResponseBuilder {
       electionMetaResponseList.add(new ElectionMetaResponse(
           election.getElectionId(),
           electionMeta,
-          this.stateFormatter.formatElectionState(election.getState()),
+          formatElectionState(election.getElectionId(), election.getState()),
           election.getFingerprint())
       );
     }
@@ -371,9 +502,9 @@ public class ResponseBuilder {
    * Building the election trustee response.
    * */
   public ElectionTrusteeResponse buildElectionTrusteeResponse(long electionId) {
-    List<Trustee> trusteeList = trusteeService.getAllTrustees(electionId);
+    List<TrusteeSummary> trusteeList = trusteeService.getTrusteeSummaries(electionId);
     return new ElectionTrusteeResponse(
-        trusteeList.stream().map(Trustee::getEmail).toList(),
+        trusteeList.stream().map(TrusteeSummary::email).toList(),
         this.electionService.hasBot(electionId)
     );
   }
@@ -396,6 +527,21 @@ public class ResponseBuilder {
     return new EmptyResponse();
   }
 
+  /**
+   * Building the response to a chunked decryption upload.
+   *
+   * @param upload the open upload
+   */
+  public DecryptionUploadResponse buildDecryptionUploadResponse(DecryptionUpload upload) {
+    this.stateFormatter = new DecryptionStateFormatter();
+    return new DecryptionUploadResponse(
+        upload.getDecryptionUploadId(),
+        stateFormatter.formatElectionState(upload.getState()),
+        ballotService.getSpoiledBallotCount(upload.getElectionId()),
+        decryptionService.getStagedBallotIds(upload)
+    );
+  }
+
   /**
    * Building the Trustee Decryption State response.
    * */
@@ -404,7 +550,7 @@ public class ResponseBuilder {
     this.stateFormatter = new DecryptionStateFormatter();
 
     return new TrusteeDecryptionStateResponse(
-        this.stateFormatter.formatElectionState(this.electionService.getState(electionId)),
+        formatElectionState(electionId, this.electionService.getState(electionId)),
         this.trusteeService.getTrustee(trusteeEmail, electionId).isWaiting()
     );
   }
@@ -59,7 +59,7 @@ public class ElectionGuardInitializedWrapper {
     //TODO possible difference to python version
     Group.ElementModQ commitmentHash = Hash.hash_elems(commitments);
     return ElectionCryptoContext.create(
-        trusteeService.getAllTrustees(electionId).size(),
+        trustees.size(),
         election.getTrusteeThreshold(),
         Group.int_to_p(election.getPublicKey()).orElseThrow(),
         manifest,
@@ -1,6 +1,14 @@
 package pse.election.backendserver.repository;
 
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pse.election.backendserver.entity.Ballot;
 
@@ -14,6 +22,11 @@ import pse.election.backendserver.entity.Ballot;
 @Repository
 public interface BallotRepository extends CrudRepository<Ballot, Long> {
 
+  /**
+   * Literal of the done state in queries.
+   */
+  String DONE = "pse.election.backendserver.core.state.ElectionState.DONE";
+
   /**
    * Getter for the last sent ballot.
    *
@@ -58,4 +71,127 @@ public interface BallotRepository extends CrudRepository<Ballot, Long> {
    */
   public Iterable<Ballot> findByElectionIdAndIsSubmitted(long electionId, boolean isSubmitted);
 
+  /**
+   * Retrieves the ballots of an election whose identifier lies in the given inclusive range.
+   *
+   * @param electionId    the identifier of the election
+   * @param isSubmitted   whether the ballots are submitted or spoiled
+   * @param firstBallotId the first ballot identifier of the range
+   * @param lastBallotId  the last ballot identifier of the range
+   * @return collection of found Ballot entities
+   */
+  public Iterable<Ballot> findByElectionIdAndIsSubmittedAndBallotIdBetween(long electionId,
+      boolean isSubmitted, long firstBallotId, long lastBallotId);
+
+  /**
+   * Retrieves a page of the ballots of an election following a ballot, ordered by their
+   * identifier, so that the ballots can be paged through with the last identifier as a cursor.
+   *
+   * @param electionId    the identifier of the election
+   * @param isSubmitted   whether the ballots are submitted or spoiled
+   * @param afterBallotId the ballot identifier the page starts after
+   * @param pageable      the size of the page
+   * @return collection of found Ballot entities
+   */
+  public List<Ballot> findByElectionIdAndIsSubmittedAndBallotIdGreaterThanOrderByBallotIdAsc(
+      long electionId, boolean isSubmitted, long afterBallotId, Pageable pageable);
+
+  /**
+   * Checks whether an election has ballots following a ballot.
+   *
+   * @param electionId    the identifier of the election
+   * @param isSubmitted   whether the ballots are submitted or spoiled
+   * @param afterBallotId the ballot identifier
+   * @return true if there are ballots with a greater identifier
+   */
+  public boolean existsByElectionIdAndIsSubmittedAndBallotIdGreaterThan(long electionId,
+      boolean isSubmitted, long afterBallotId);
+
+  /**
+   * Retrieves the ballots of an election out of the given ballots.
+   *
+   * @param electionId  the identifier of the election
+   * @param isSubmitted whether the ballots are submitted or spoiled
+   * @param ballotIds   the identifiers of the ballots
+   * @return collection of found Ballot entities
+   */
+  public Iterable<Ballot> findByElectionIdAndIsSubmittedAndBallotIdIn(long electionId,
+      boolean isSubmitted, Collection<Long> ballotIds);
+
+  /**
+   * Counts the ballots of an election without loading them.
+   *
+   * @param electionId  the identifier of the election
+   * @param isSubmitted whether the submitted or spoiled ballots are counted
+   * @return number of matching ballots
+   */
+  public long countByElectionIdAndIsSubmitted(long electionId, boolean isSubmitted);
+
+  /**
+   * Retrieves the identifiers of the submitted ballots of an election in ascending order.
+   *
+   * @param electionId the identifier of the election
+   * @return list of ballot identifiers
+   */
+  @Query("SELECT b.ballotId FROM Ballot b WHERE b.electionId = :electionId"
+      + " AND b.isSubmitted = true ORDER BY b.ballotId")
+  public List<Long> findSubmittedBallotIds(@Param("electionId") long electionId);
+
+  /**
+   * Retrieves the spoiled ballots of an election that have not been decrypted and locks them until
+   * the end of the transaction, so that they are decrypted by one instance at a time. Once the
+   * lock is granted, ballots decrypted by the previous holder are no longer found.
+   *
+   * @param electionId the identifier of the election
+   * @return list of locked spoiled ballots
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM Ballot b WHERE b.electionId = :electionId AND b.isSubmitted = false"
+      + " AND b.isDecrypted = false ORDER BY b.ballotId")
+  public List<Ballot> findUndecryptedSpoiledBallotsForUpdate(
+      @Param("electionId") long electionId);
+
+  /**
+   * Retrieves the identifiers of all done elections with spoiled ballots that have not been
+   * decrypted.
+   *
+   * @return collection of election identifiers
+   */
+  @Query("SELECT DISTINCT b.electionId FROM Ballot b, Election e"
+      + " WHERE e.electionId = b.electionId AND e.state = " + DONE
+      + " AND b.isSubmitted = false AND b.isDecrypted = false")
+  public List<Long> findElectionIdsWithUndecryptedSpoiledBallots();
+
+  /**
+   * Marks the spoiled ballots of done elections that have been stored before their decryption was
+   * tracked as decrypted, since they have been decrypted with the result back then.
+   *
+   * @return number of updated ballots
+   */
+  @Modifying
+  @Query("UPDATE Ballot b SET b.isDecrypted = true WHERE b.isDecrypted IS NULL"
+      + " AND b.isSubmitted = false"
+      + " AND b.electionId IN (SELECT e.electionId FROM Election e WHERE e.state = " + DONE + ")")
+  public int markUntrackedDecryptedBallots();
+
+  /**
+   * Marks all other ballots that have been stored before their decryption was tracked as not
+   * decrypted.
+   *
+   * @return number of updated ballots
+   */
+  @Modifying
+  @Query("UPDATE Ballot b SET b.isDecrypted = false WHERE b.isDecrypted IS NULL")
+  public int markUntrackedUndecryptedBallots();
+
+  /**
+   * Marks the given ballots as decrypted in a single statement.
+   *
+   * @param ballotIds the identifiers of the ballots
+   * @return number of updated ballots
+   */
+  @Modifying
+  @Query("UPDATE Ballot b SET b.isDecrypted = true WHERE b.ballotId IN :ballotIds")
+  public int markDecrypted(@Param("ballotIds") Collection<Long> ballotIds);
+
 }
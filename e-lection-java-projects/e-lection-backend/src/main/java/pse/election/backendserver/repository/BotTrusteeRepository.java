@@ -1,6 +1,12 @@
 package pse.election.backendserver.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import pse.election.backendserver.entity.BotTrustee;
 
 /**
@@ -13,5 +19,28 @@ public interface BotTrusteeRepository extends CrudRepository<BotTrustee, Long> {
    * */
   boolean existsByTrusteeIdAndElectionId(long trusteeId, long electionId);
 
+  /**
+   * Retrieves the bot trustee of an election and locks it until the end of the transaction, so
+   * that the decryptions of the bot are stored by one transaction at a time.
+   *
+   * @param electionId the identifier of the election
+   * @return the bot trustee
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM BotTrustee b WHERE b.electionId = :electionId")
+  BotTrustee findForUpdate(@Param("electionId") long electionId);
+
+  /**
+   * Records that the partial partial decryption of the bot trustee of an election cannot succeed,
+   * so that it is not resumed again.
+   *
+   * @param electionId the identifier of the election
+   * @param error      the reason of the failure
+   * @return number of updated bot trustees
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE BotTrustee b SET b.compensationError = :error WHERE b.electionId = :electionId")
+  int markCompensationFailed(@Param("electionId") long electionId, @Param("error") String error);
 
 }
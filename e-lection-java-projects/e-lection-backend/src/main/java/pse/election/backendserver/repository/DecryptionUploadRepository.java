@@ -0,0 +1,39 @@
+package pse.election.backendserver.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pse.election.backendserver.entity.DecryptionUpload;
+
+/**
+ * Provides the functionality to directly communicate with the database on behalf of the
+ * decryption upload entity. It can be used to perform all basic CRUD-Operations.
+ *
+ * @version 1.0
+ */
+@Repository
+public interface DecryptionUploadRepository extends CrudRepository<DecryptionUpload, Long> {
+
+  /**
+   * Retrieves the open upload of a trustee. A trustee has at most one open upload.
+   *
+   * @param trusteeId the identifier of the trustee
+   * @return the upload or null if the trustee has no open upload
+   */
+  public DecryptionUpload findByTrusteeId(long trusteeId);
+
+  /**
+   * Retrieves an upload and locks it until the end of the transaction, so that chunks and the
+   * commit of the same upload are handled by one transaction at a time.
+   *
+   * @param decryptionUploadId the identifier of the upload
+   * @return the upload or null if it does not exist (anymore)
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT d FROM DecryptionUpload d WHERE d.decryptionUploadId = :decryptionUploadId")
+  public DecryptionUpload findForUpdate(@Param("decryptionUploadId") long decryptionUploadId);
+
+}
@@ -1,7 +1,11 @@
 package pse.election.backendserver.repository;
 
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
 
 /**
@@ -70,4 +74,25 @@ public interface ElectionRepository extends CrudRepository<Election, Long> {
    */
   public boolean existsByFingerprint(String fingerprint);
 
+  /**
+   * Retrieves the identifiers of all elections with a bot trustee that are in a given state.
+   *
+   * @param state the state of the elections
+   * @return collection of election identifiers
+   */
+  @Query("SELECT e.electionId FROM Election e WHERE e.hasBot = true AND e.state = :state")
+  public List<Long> findElectionIdsWithBotByState(@Param("state") ElectionState state);
+
+  /**
+   * Retrieves the identifiers of all elections in a given state with a bot trustee whose partial
+   * partial decryption has not failed for good.
+   *
+   * @param state the state of the elections
+   * @return collection of election identifiers
+   */
+  @Query("SELECT e.electionId FROM Election e, BotTrustee b WHERE b.electionId = e.electionId"
+      + " AND e.hasBot = true AND e.state = :state AND b.compensationError IS NULL")
+  public List<Long> findElectionIdsWithCompensatingBotByState(
+      @Param("state") ElectionState state);
+
 }
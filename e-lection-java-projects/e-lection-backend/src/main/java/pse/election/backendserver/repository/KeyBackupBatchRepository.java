@@ -0,0 +1,29 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import pse.election.backendserver.entity.KeyBackup;
+
+/**
+ * Writes many KeyBackup entities with batched statements instead of a round trip per entity. The
+ * generated identifiers are not read back.
+ *
+ * @version 1.0
+ */
+public interface KeyBackupBatchRepository {
+
+  /**
+   * Inserts all backups in batches.
+   *
+   * @param keyBackups backups to be inserted
+   */
+  public void insertAll(List<KeyBackup> keyBackups);
+
+  /**
+   * Moves the backups of elections whose key ceremony took place before backups had their own
+   * table. Those were stored as "fromIndex;backup" strings in the trustee_backups collection of
+   * the receiving trustee. The moved rows are deleted, so calling this again does nothing.
+   *
+   * @return the number of moved backups
+   */
+  public int migrateLegacyBackups();
+}
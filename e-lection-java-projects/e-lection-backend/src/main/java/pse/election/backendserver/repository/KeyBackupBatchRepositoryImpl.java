@@ -0,0 +1,80 @@
+package pse.election.backendserver.repository;
+
+import java.sql.ResultSet;
+import java.util.List;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pse.election.backendserver.entity.KeyBackup;
+
+/**
+ * Implementation of {@link KeyBackupBatchRepository} on top of JDBC batches, since the identity
+ * generated keys prevent the persistence provider from batching inserts.
+ *
+ * @version 1.0
+ */
+public class KeyBackupBatchRepositoryImpl implements KeyBackupBatchRepository {
+
+  private static final int BATCH_SIZE = 500;
+  private static final String INSERT_STATEMENT = "INSERT INTO key_backup"
+      + " (election_id, from_index, to_index, payload) VALUES (?, ?, ?, ?)";
+  private static final String LEGACY_TABLE = "trustee_backups";
+  private static final String SELECT_LEGACY_STATEMENT = "SELECT t.election_id, t.trustee_index,"
+      + " b.backups FROM trustee_backups b JOIN trustee t ON t.trustee_id = b.trustee_trustee_id"
+      + " FOR UPDATE";
+  private static final String DELETE_LEGACY_STATEMENT = "DELETE FROM trustee_backups";
+  private static final String LEGACY_SEPARATOR = ";";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor of new KeyBackupBatchRepositoryImpl.
+   */
+  public KeyBackupBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertAll(List<KeyBackup> keyBackups) {
+    jdbcTemplate.batchUpdate(INSERT_STATEMENT, keyBackups, BATCH_SIZE,
+        (statement, keyBackup) -> {
+          statement.setLong(1, keyBackup.getElectionId());
+          statement.setInt(2, keyBackup.getFromIndex());
+          statement.setInt(3, keyBackup.getToIndex());
+          statement.setString(4, keyBackup.getPayload());
+        });
+  }
+
+  @Override
+  public int migrateLegacyBackups() {
+    if (!existsLegacyTable()) {
+      return 0;
+    }
+    // Locking the rows keeps other nodes starting at the same time from moving them twice.
+    List<KeyBackup> keyBackups = jdbcTemplate.query(SELECT_LEGACY_STATEMENT,
+        (resultSet, rowNumber) -> {
+          String[] backup = resultSet.getString(3).split(LEGACY_SEPARATOR, 2);
+          return new KeyBackup(resultSet.getLong(1), Integer.parseInt(backup[0]),
+              resultSet.getInt(2), backup[1]);
+        });
+    if (keyBackups.isEmpty()) {
+      return 0;
+    }
+    insertAll(keyBackups);
+    jdbcTemplate.update(DELETE_LEGACY_STATEMENT);
+    return keyBackups.size();
+  }
+
+  private boolean existsLegacyTable() {
+    return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+      for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+        try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null,
+            name, null)) {
+          if (tables.next()) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }));
+  }
+}
@@ -0,0 +1,26 @@
+package pse.election.backendserver.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import pse.election.backendserver.entity.KeyBackup;
+
+/**
+ * Provides the functionality to directly communicate with the database on behalf of the KeyBackup
+ * entity. It can be used to perform all basic CRUD-Operations and also to retrieve all backups of
+ * a trustee at once.
+ *
+ * @version 1.0
+ */
+@Repository
+public interface KeyBackupRepository extends CrudRepository<KeyBackup, Long>,
+    KeyBackupBatchRepository {
+
+  /**
+   * Retrieves all backups generated for a trustee of an election.
+   *
+   * @param electionId the identifier of the election
+   * @param toIndex    the index of the trustee the backups were generated for
+   * @return collection of found backups
+   */
+  public Iterable<KeyBackup> findByElectionIdAndToIndex(long electionId, int toIndex);
+}
@@ -1,6 +1,13 @@
 package pse.election.backendserver.repository;
 
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pse.election.backendserver.entity.OptionEncrypted;
 
@@ -39,6 +46,76 @@ public interface OptionEncryptedRepository extends CrudRepository<OptionEncrypte
   public Iterable<OptionEncrypted> findByElectionIdAndContestIndexAndOptionIndex(long electionId,
       int contestIndex, int optionIndex);
 
+  /**
+   * Getter for the encrypted options of all ballots of an election whose identifier lies in the
+   * given inclusive range.
+   *
+   * @param electionId    the identifier of the election
+   * @param firstBallotId the first ballot identifier of the range
+   * @param lastBallotId  the last ballot identifier of the range
+   * @return collection of encrypted options
+   */
+  public Iterable<OptionEncrypted> findByElectionIdAndBallotIdBetween(long electionId,
+      long firstBallotId, long lastBallotId);
+
+  /**
+   * Getter for the encrypted options of all spoiled ballots of an election in a single query.
+   *
+   * @param electionId the identifier of the election
+   * @return collection of encrypted options
+   */
+  @Query("SELECT o FROM OptionEncrypted o, Ballot b WHERE o.ballotId = b.ballotId"
+      + " AND b.electionId = :electionId AND b.isSubmitted = false")
+  public Iterable<OptionEncrypted> findAllOfSpoiledBallotsByElectionId(
+      @Param("electionId") long electionId);
+
+  /**
+   * Getter for the encrypted options of several ballots in a single query.
+   *
+   * @param ballotIds the identifiers of the ballots
+   * @return collection of encrypted options
+   */
+  public Iterable<OptionEncrypted> findByBallotIdIn(Collection<Long> ballotIds);
+
+  /**
+   * Sets whether the given encrypted options were selected in a single statement.
+   *
+   * @param optionEncryptedIds the identifiers of the encrypted options
+   * @param selectionMade      whether the options were selected
+   * @return number of updated encrypted options
+   */
+  @Modifying
+  @Query("UPDATE OptionEncrypted o SET o.selectionMade = :selectionMade"
+      + " WHERE o.optionEncryptedId IN :optionEncryptedIds")
+  public int updateSelectionMade(@Param("optionEncryptedIds") Collection<Long> optionEncryptedIds,
+      @Param("selectionMade") boolean selectionMade);
+
+  /**
+   * Starts the accumulation of the partial decryptions of all spoiled ballots of an election by
+   * setting their share products to one.
+   *
+   * @param electionId the identifier of the election
+   * @return number of updated encrypted options
+   */
+  @Modifying
+  @Query("UPDATE OptionEncrypted o SET o.shareProduct = '1' WHERE o.electionId = :electionId"
+      + " AND o.ballotId IN (SELECT b.ballotId FROM Ballot b"
+      + " WHERE b.electionId = :electionId AND b.isSubmitted = false)")
+  public int initialiseShareProductsOfSpoiledBallots(@Param("electionId") long electionId);
+
+  /**
+   * Retrieves encrypted options in the order of their identifiers and locks them until the end of
+   * the transaction, so that concurrent uploads multiply their shares one after another.
+   *
+   * @param optionEncryptedIds the identifiers of the encrypted options
+   * @return list of locked encrypted options
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT o FROM OptionEncrypted o WHERE o.optionEncryptedId IN :optionEncryptedIds"
+      + " ORDER BY o.optionEncryptedId")
+  public List<OptionEncrypted> findAllForUpdate(
+      @Param("optionEncryptedIds") Collection<Long> optionEncryptedIds);
+
   public OptionEncrypted findByOptionEncryptedId(long optionEncryptedId);
 
   public boolean existsByElectionId(long electionId);
@@ -0,0 +1,20 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import pse.election.backendserver.entity.PartialDecryption;
+
+/**
+ * Writes many PartialDecryption entities with batched statements instead of a round trip per
+ * entity. The generated identifiers are not read back.
+ *
+ * @version 1.0
+ */
+public interface PartialDecryptionBatchRepository {
+
+  /**
+   * Inserts all partial decryptions in batches.
+   *
+   * @param partialDecryptions partial decryptions to be inserted
+   */
+  public void insertAll(List<PartialDecryption> partialDecryptions);
+}
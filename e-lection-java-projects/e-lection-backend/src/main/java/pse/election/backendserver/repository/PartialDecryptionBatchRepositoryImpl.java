@@ -0,0 +1,40 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pse.election.backendserver.entity.PartialDecryption;
+
+/**
+ * Implementation of {@link PartialDecryptionBatchRepository} on top of JDBC batches, since the
+ * identity generated keys prevent the persistence provider from batching inserts.
+ *
+ * @version 1.0
+ */
+public class PartialDecryptionBatchRepositoryImpl implements PartialDecryptionBatchRepository {
+
+  private static final int BATCH_SIZE = 500;
+  private static final int HEXA_RADIX = 16;
+  private static final String INSERT_STATEMENT = "INSERT INTO partial_decryption"
+      + " (tally_id, trustee_id, option_encrypted_id, decryption, proof) VALUES (?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor of new PartialDecryptionBatchRepositoryImpl.
+   */
+  public PartialDecryptionBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertAll(List<PartialDecryption> partialDecryptions) {
+    jdbcTemplate.batchUpdate(INSERT_STATEMENT, partialDecryptions, BATCH_SIZE,
+        (statement, decryption) -> {
+          statement.setLong(1, decryption.getTallyId());
+          statement.setLong(2, decryption.getTrusteeId());
+          statement.setLong(3, decryption.getOptionEncryptedId());
+          statement.setString(4, decryption.getDecryption().toString(HEXA_RADIX));
+          statement.setString(5, decryption.getProof());
+        });
+  }
+}
@@ -1,6 +1,8 @@
 package pse.election.backendserver.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pse.election.backendserver.entity.PartialDecryption;
 
@@ -12,7 +14,8 @@ import pse.election.backendserver.entity.PartialDecryption;
  * @version 1.0
  */
 @Repository
-public interface PartialDecryptionRepository extends CrudRepository<PartialDecryption, Long> {
+public interface PartialDecryptionRepository extends CrudRepository<PartialDecryption, Long>,
+    PartialDecryptionBatchRepository {
 
   /**
    * Retrieves a collection of PartialDecryption entites by their tally identities. If some tally
@@ -34,6 +37,11 @@ public interface PartialDecryptionRepository extends CrudRepository<PartialDecry
    */
   public Iterable<PartialDecryption> findByTrusteeId(long trusteeId);
 
+  /**
+   * Checks whether a trustee has uploaded any partial decryption.
+   */
+  public boolean existsByTrusteeId(long trusteeId);
+
   /**
    * Retrieves a partial decryption entity by its trustee identifier and tally identifier. There can
    * always only be one partial decryption of a trustee to one tallied option.
@@ -54,4 +62,27 @@ public interface PartialDecryptionRepository extends CrudRepository<PartialDecry
    * Checks whether there are partial decryptions of a tallied option.
    */
   public boolean existsByTallyIdAndTrusteeId(long tallyId, long trusteeId);
-}
\ No newline at end of file
+
+  /**
+   * Retrieves the decryptions of all tallied options of an election in a single query.
+   *
+   * @param electionId the identifier of the election
+   * @return collection of found PartialDecryption entities
+   */
+  @Query("SELECT d FROM PartialDecryption d, Tally t WHERE d.tallyId = t.tallyId"
+      + " AND t.electionId = :electionId")
+  public Iterable<PartialDecryption> findAllOfTalliesByElectionId(
+      @Param("electionId") long electionId);
+
+  /**
+   * Retrieves the decryptions of all encrypted options of an election in a single query. Only
+   * options of spoiled ballots are decrypted, so these belong to the spoiled ballots.
+   *
+   * @param electionId the identifier of the election
+   * @return collection of found PartialDecryption entities
+   */
+  @Query("SELECT d FROM PartialDecryption d, OptionEncrypted o"
+      + " WHERE d.optionEncryptedId = o.optionEncryptedId AND o.electionId = :electionId")
+  public Iterable<PartialDecryption> findAllOfOptionsByElectionId(
+      @Param("electionId") long electionId);
+}
@@ -0,0 +1,20 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import pse.election.backendserver.entity.PartialPartialDecryption;
+
+/**
+ * Writes many PartialPartialDecryption entities with batched statements instead of a round trip
+ * per entity. The generated identifiers are not read back.
+ *
+ * @version 1.0
+ */
+public interface PartialPartialDecryptionBatchRepository {
+
+  /**
+   * Inserts all partial partial decryptions in batches.
+   *
+   * @param partialPartialDecryptions partial partial decryptions to be inserted
+   */
+  public void insertAll(List<PartialPartialDecryption> partialPartialDecryptions);
+}
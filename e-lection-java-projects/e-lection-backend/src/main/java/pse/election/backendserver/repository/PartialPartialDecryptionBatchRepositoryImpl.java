@@ -0,0 +1,42 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pse.election.backendserver.entity.PartialPartialDecryption;
+
+/**
+ * Implementation of {@link PartialPartialDecryptionBatchRepository} on top of JDBC batches, since
+ * the identity generated keys prevent the persistence provider from batching inserts.
+ *
+ * @version 1.0
+ */
+public class PartialPartialDecryptionBatchRepositoryImpl implements
+    PartialPartialDecryptionBatchRepository {
+
+  private static final int BATCH_SIZE = 500;
+  private static final String INSERT_STATEMENT = "INSERT INTO partial_partial_decryption"
+      + " (trustee_id, for_which_trustee_id, tally_id, option_encrypted_id, decryption, proof)"
+      + " VALUES (?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor of new PartialPartialDecryptionBatchRepositoryImpl.
+   */
+  public PartialPartialDecryptionBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertAll(List<PartialPartialDecryption> partialPartialDecryptions) {
+    jdbcTemplate.batchUpdate(INSERT_STATEMENT, partialPartialDecryptions, BATCH_SIZE,
+        (statement, decryption) -> {
+          statement.setLong(1, decryption.getTrusteeId());
+          statement.setLong(2, decryption.getForWhichTrusteeId());
+          statement.setLong(3, decryption.getTallyId());
+          statement.setLong(4, decryption.getOptionEncryptedId());
+          statement.setString(5, decryption.getDecryption());
+          statement.setString(6, decryption.getProof());
+        });
+  }
+}
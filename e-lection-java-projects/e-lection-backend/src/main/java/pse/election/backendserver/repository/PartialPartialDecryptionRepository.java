@@ -1,6 +1,10 @@
 package pse.election.backendserver.repository;
 
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pse.election.backendserver.entity.PartialPartialDecryption;
 
@@ -13,7 +17,7 @@ import pse.election.backendserver.entity.PartialPartialDecryption;
  */
 @Repository
 public interface PartialPartialDecryptionRepository extends
-    CrudRepository<PartialPartialDecryption, Long> {
+    CrudRepository<PartialPartialDecryption, Long>, PartialPartialDecryptionBatchRepository {
 
   /**
    * Retrieves a collection of PartialPartialDecryption entites by their tally identities. If some
@@ -53,6 +57,41 @@ public interface PartialPartialDecryptionRepository extends
    */
   public boolean existsByTrusteeId(long trusteeId);
 
+  /**
+   * Checks whether there are partial partial decryptions of a trustee to tallied options.
+   *
+   * @param trusteeId         trustee identifier
+   * @param optionEncryptedId -1, the option identifier of decryptions of tallied options
+   * @return true, if such partial partial decryptions exist
+   */
+  public boolean existsByTrusteeIdAndOptionEncryptedId(long trusteeId, long optionEncryptedId);
+
+  /**
+   * Retrieves the identifiers of the encrypted options a trustee has partial partial decryptions
+   * for.
+   *
+   * @param trusteeId the identifier of the trustee
+   * @return collection of option identifiers
+   */
+  @Query("SELECT DISTINCT d.optionEncryptedId FROM PartialPartialDecryption d"
+      + " WHERE d.trusteeId = :trusteeId AND d.tallyId = -1")
+  public List<Long> findOptionEncryptedIdsByTrusteeId(@Param("trusteeId") long trusteeId);
+
+  /**
+   * Retrieves the identifiers of those of the given encrypted options a trustee has partial partial
+   * decryptions for.
+   *
+   * @param trusteeId          the identifier of the trustee
+   * @param optionEncryptedIds the identifiers of the encrypted options to check
+   * @return collection of option identifiers
+   */
+  @Query("SELECT DISTINCT d.optionEncryptedId FROM PartialPartialDecryption d"
+      + " WHERE d.trusteeId = :trusteeId AND d.tallyId = -1"
+      + " AND d.optionEncryptedId IN :optionEncryptedIds")
+  public List<Long> findOptionEncryptedIdsByTrusteeIdAndOptionEncryptedIdIn(
+      @Param("trusteeId") long trusteeId,
+      @Param("optionEncryptedIds") Collection<Long> optionEncryptedIds);
+
   /**
    * Retrieves a collection of PartialPartialDecryption entites by their ballot identities. If some
    * ballot identities are not to be found, then no PartialPartialDecryption entities are returned
@@ -63,4 +102,26 @@ public interface PartialPartialDecryptionRepository extends
    */
   public Iterable<PartialPartialDecryption> findByOptionEncryptedId(long optionEncryptedId);
 
+  /**
+   * Retrieves the decryptions of all tallied options of an election in a single query.
+   *
+   * @param electionId the identifier of the election
+   * @return collection of found PartialPartialDecryption entities
+   */
+  @Query("SELECT d FROM PartialPartialDecryption d, Tally t WHERE d.tallyId = t.tallyId"
+      + " AND t.electionId = :electionId")
+  public Iterable<PartialPartialDecryption> findAllOfTalliesByElectionId(
+      @Param("electionId") long electionId);
+
+  /**
+   * Retrieves the decryptions of all encrypted options of an election in a single query. Only
+   * options of spoiled ballots are decrypted, so these belong to the spoiled ballots.
+   *
+   * @param electionId the identifier of the election
+   * @return collection of found PartialPartialDecryption entities
+   */
+  @Query("SELECT d FROM PartialPartialDecryption d, OptionEncrypted o"
+      + " WHERE d.optionEncryptedId = o.optionEncryptedId AND o.electionId = :electionId")
+  public Iterable<PartialPartialDecryption> findAllOfOptionsByElectionId(
+      @Param("electionId") long electionId);
 }
@@ -0,0 +1,98 @@
+package pse.election.backendserver.repository;
+
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import pse.election.backendserver.entity.ResultEvaluation;
+
+/**
+ * Provides the functionality to directly communicate with the database on behalf of the result
+ * evaluation entity. It can be used to perform all basic CRUD-Operations and also to claim the
+ * evaluations to be started again.
+ *
+ * @version 1.0
+ */
+@Repository
+public interface ResultEvaluationRepository extends CrudRepository<ResultEvaluation, Long> {
+
+  /**
+   * Prefix of the status literals in queries.
+   */
+  String STATUS = "pse.election.backendserver.entity.ResultEvaluation.Status.";
+
+  /**
+   * Condition of evaluations that can be started again. Evaluations running since before they
+   * were claimed have no claim at all.
+   */
+  String RESUMABLE_CONDITION = "(r.status = " + STATUS + "FAILED AND r.attempts < :maxAttempts)"
+      + " OR (r.status = " + STATUS + "RUNNING"
+      + " AND (r.claimedAt IS NULL OR r.claimedAt < :claimedAt))";
+
+  /**
+   * Retrieves the result evaluation of an election.
+   *
+   * @param electionId the identifier of the election
+   * @return the evaluation or null if the result has not been evaluated in the background
+   */
+  public ResultEvaluation findByElectionId(long electionId);
+
+  /**
+   * Retrieves the identifiers of the elections whose evaluation can be started again, because it
+   * has failed fewer than the given number of times or its claim has expired.
+   *
+   * @param maxAttempts the number of starts after which a failed evaluation is given up
+   * @param claimedAt   the date before which an expired claim has been made
+   * @return list of election identifiers
+   */
+  @Query("SELECT r.electionId FROM ResultEvaluation r WHERE " + RESUMABLE_CONDITION)
+  public List<Long> findResumableElectionIds(@Param("maxAttempts") int maxAttempts,
+      @Param("claimedAt") Date claimedAt);
+
+  /**
+   * Claims the evaluation of an election if it can still be started again. Only one of several
+   * instances trying to claim the same evaluation succeeds.
+   *
+   * @param electionId  the identifier of the election
+   * @param owner       identifier of the claiming instance
+   * @param now         time of the claim
+   * @param maxAttempts the number of starts after which a failed evaluation is given up
+   * @param claimedAt   the date before which an expired claim has been made
+   * @return 1 if the evaluation has been claimed, 0 otherwise
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE ResultEvaluation r SET r.status = " + STATUS + "RUNNING, r.endTime = NULL,"
+      + " r.startTime = :now, r.processedSelections = 0, r.totalSelections = 0,"
+      + " r.owner = :owner, r.claimedAt = :now, r.attempts = r.attempts + 1"
+      + " WHERE r.electionId = :electionId AND (" + RESUMABLE_CONDITION + ")")
+  public int claim(@Param("electionId") long electionId, @Param("owner") String owner,
+      @Param("now") Date now, @Param("maxAttempts") int maxAttempts,
+      @Param("claimedAt") Date claimedAt);
+
+  /**
+   * Renews the claim of an evaluation an instance is running and stores its progress, so that
+   * every instance can report it.
+   *
+   * @param electionId          the identifier of the election
+   * @param owner               identifier of the instance
+   * @param now                 time of the renewal
+   * @param processedSelections number of decrypted selections
+   * @param totalSelections     number of selections to be decrypted
+   * @return 1 if the claim has been renewed, 0 otherwise
+   */
+  @Transactional
+  @Modifying
+  @Query("UPDATE ResultEvaluation r SET r.claimedAt = :now,"
+      + " r.processedSelections = :processedSelections, r.totalSelections = :totalSelections"
+      + " WHERE r.electionId = :electionId AND r.owner = :owner"
+      + " AND r.status = " + STATUS + "RUNNING")
+  public int renewClaim(@Param("electionId") long electionId, @Param("owner") String owner,
+      @Param("now") Date now, @Param("processedSelections") long processedSelections,
+      @Param("totalSelections") long totalSelections);
+
+}
@@ -0,0 +1,39 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import pse.election.backendserver.entity.StagedDecryption;
+
+/**
+ * Writes the staged decryptions of an upload with batched statements and moves them to the
+ * decryptions of the trustee within the database, so that committing an upload does not load the
+ * staged decryptions again.
+ *
+ * @version 1.0
+ */
+public interface StagedDecryptionBatchRepository {
+
+  /**
+   * Inserts all staged decryptions in batches.
+   *
+   * @param stagedDecryptions staged decryptions to be inserted
+   */
+  public void insertAll(List<StagedDecryption> stagedDecryptions);
+
+  /**
+   * Copies the staged decryptions of an upload to the partial decryptions of a trustee.
+   *
+   * @param decryptionUploadId the identifier of the upload
+   * @param trusteeId          the identifier of the uploading trustee
+   * @return number of copied decryptions
+   */
+  public int commitPartialDecryptions(long decryptionUploadId, long trusteeId);
+
+  /**
+   * Copies the staged decryptions of an upload to the partial partial decryptions of a trustee.
+   *
+   * @param decryptionUploadId the identifier of the upload
+   * @param trusteeId          the identifier of the uploading trustee
+   * @return number of copied decryptions
+   */
+  public int commitPartialPartialDecryptions(long decryptionUploadId, long trusteeId);
+}
@@ -0,0 +1,62 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pse.election.backendserver.entity.StagedDecryption;
+
+/**
+ * Implementation of {@link StagedDecryptionBatchRepository} on top of JDBC batches and
+ * INSERT ... SELECT statements.
+ *
+ * @version 1.0
+ */
+public class StagedDecryptionBatchRepositoryImpl implements StagedDecryptionBatchRepository {
+
+  private static final int BATCH_SIZE = 500;
+  private static final String INSERT_STATEMENT = "INSERT INTO staged_decryption"
+      + " (decryption_upload_id, trustee_index, ballot_id, for_which_trustee_id, tally_id,"
+      + " option_encrypted_id, decryption, proof) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+  private static final String COMMIT_PARTIAL_STATEMENT = "INSERT INTO partial_decryption"
+      + " (tally_id, trustee_id, option_encrypted_id, decryption, proof)"
+      + " SELECT tally_id, ?, option_encrypted_id, decryption, proof FROM staged_decryption"
+      + " WHERE decryption_upload_id = ?";
+  private static final String COMMIT_PARTIAL_PARTIAL_STATEMENT =
+      "INSERT INTO partial_partial_decryption"
+      + " (trustee_id, for_which_trustee_id, tally_id, option_encrypted_id, decryption, proof)"
+      + " SELECT ?, for_which_trustee_id, tally_id, option_encrypted_id, decryption, proof"
+      + " FROM staged_decryption WHERE decryption_upload_id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Constructor of new StagedDecryptionBatchRepositoryImpl.
+   */
+  public StagedDecryptionBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertAll(List<StagedDecryption> stagedDecryptions) {
+    jdbcTemplate.batchUpdate(INSERT_STATEMENT, stagedDecryptions, BATCH_SIZE,
+        (statement, decryption) -> {
+          statement.setLong(1, decryption.getDecryptionUploadId());
+          statement.setInt(2, decryption.getTrusteeIndex());
+          statement.setLong(3, decryption.getBallotId());
+          statement.setLong(4, decryption.getForWhichTrusteeId());
+          statement.setLong(5, decryption.getTallyId());
+          statement.setLong(6, decryption.getOptionEncryptedId());
+          statement.setString(7, decryption.getDecryption());
+          statement.setString(8, decryption.getProof());
+        });
+  }
+
+  @Override
+  public int commitPartialDecryptions(long decryptionUploadId, long trusteeId) {
+    return jdbcTemplate.update(COMMIT_PARTIAL_STATEMENT, trusteeId, decryptionUploadId);
+  }
+
+  @Override
+  public int commitPartialPartialDecryptions(long decryptionUploadId, long trusteeId) {
+    return jdbcTemplate.update(COMMIT_PARTIAL_PARTIAL_STATEMENT, trusteeId, decryptionUploadId);
+  }
+}
@@ -0,0 +1,55 @@
+package pse.election.backendserver.repository;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pse.election.backendserver.entity.StagedDecryption;
+
+/**
+ * Provides the functionality to directly communicate with the database on behalf of the staged
+ * decryption entity. It can be used to perform all basic CRUD-Operations and also to perform
+ * specialized find operations.
+ *
+ * @version 1.0
+ */
+@Repository
+public interface StagedDecryptionRepository extends CrudRepository<StagedDecryption, Long>,
+    StagedDecryptionBatchRepository {
+
+  /**
+   * Retrieves the identifiers of the ballots an upload has staged decryptions of for a trustee
+   * index. The tally is identified by -1.
+   *
+   * @param decryptionUploadId the identifier of the upload
+   * @param trusteeIndex       the index of the trustee the decryptions are computed for
+   * @return collection of ballot identifiers
+   */
+  @Query("SELECT DISTINCT s.ballotId FROM StagedDecryption s"
+      + " WHERE s.decryptionUploadId = :decryptionUploadId AND s.trusteeIndex = :trusteeIndex")
+  public List<Long> findStagedBallotIds(@Param("decryptionUploadId") long decryptionUploadId,
+      @Param("trusteeIndex") int trusteeIndex);
+
+  /**
+   * Retrieves a page of the staged decryptions of an upload, sorted by tally and encrypted option.
+   *
+   * @param decryptionUploadId the identifier of the upload
+   * @param pageable           the page to retrieve
+   * @return collection of staged decryptions
+   */
+  public List<StagedDecryption> findByDecryptionUploadIdOrderByTallyIdAscOptionEncryptedIdAsc(
+      long decryptionUploadId, Pageable pageable);
+
+  /**
+   * Deletes all staged decryptions of an upload in a single statement.
+   *
+   * @param decryptionUploadId the identifier of the upload
+   * @return number of deleted decryptions
+   */
+  @Modifying
+  @Query("DELETE FROM StagedDecryption s WHERE s.decryptionUploadId = :decryptionUploadId")
+  public int deleteByDecryptionUploadId(@Param("decryptionUploadId") long decryptionUploadId);
+}
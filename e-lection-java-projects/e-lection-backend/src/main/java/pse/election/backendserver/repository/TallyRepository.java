@@ -1,6 +1,12 @@
 package pse.election.backendserver.repository;
 
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pse.election.backendserver.entity.Tally;
 
@@ -27,4 +33,15 @@ public interface TallyRepository extends CrudRepository<Tally, Long> {
 
   public Iterable<Tally> findByElectionIdAndContestIndex(long electionId, int contestIndex);
 
+  /**
+   * Retrieves tallies in the order of their identifiers and locks them until the end of the
+   * transaction, so that concurrent uploads multiply their shares one after another.
+   *
+   * @param tallyIds the identifiers of the tallies
+   * @return list of locked tallies
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT t FROM Tally t WHERE t.tallyId IN :tallyIds ORDER BY t.tallyId")
+  public List<Tally> findAllForUpdate(@Param("tallyIds") Collection<Long> tallyIds);
+
 }
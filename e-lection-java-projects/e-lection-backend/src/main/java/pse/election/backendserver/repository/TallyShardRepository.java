@@ -0,0 +1,74 @@
+package pse.election.backendserver.repository;
+
+import java.util.Date;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import pse.election.backendserver.entity.TallyShard;
+
+/**
+ * Provides the functionality to directly communicate with the database on behalf of the tally
+ * shard entity. It can be used to perform all basic CRUD-Operations and also to find the shards
+ * that can be claimed by a backend instance. Claims are flushed right away, so that concurrent
+ * claims of the same shard fail on the version of the shard.
+ *
+ * @version 1.0
+ */
+@Repository
+public interface TallyShardRepository extends JpaRepository<TallyShard, Long> {
+
+  /**
+   * Retrieves all shards of an election.
+   *
+   * @param electionId the identifier of the election
+   * @return collection of shards
+   */
+  public Iterable<TallyShard> findByElectionId(long electionId);
+
+  /**
+   * Retrieves the shards of an election that have not been claimed yet.
+   *
+   * @param electionId the identifier of the election
+   * @param isDone     whether the shard is finished
+   * @return collection of unclaimed shards
+   */
+  public Iterable<TallyShard> findByElectionIdAndIsDoneAndOwnerIsNull(long electionId,
+      boolean isDone);
+
+  /**
+   * Retrieves the shards of an election whose claim has been made before the given date.
+   *
+   * @param electionId the identifier of the election
+   * @param isDone     whether the shard is finished
+   * @param claimedAt  the date before which the claim has been made
+   * @return collection of shards with an expired claim
+   */
+  public Iterable<TallyShard> findByElectionIdAndIsDoneAndClaimedAtBefore(long electionId,
+      boolean isDone, Date claimedAt);
+
+  /**
+   * Retrieves the shards of all elections that have not been claimed yet.
+   *
+   * @param isDone whether the shard is finished
+   * @return collection of unclaimed shards
+   */
+  public Iterable<TallyShard> findByIsDoneAndOwnerIsNull(boolean isDone);
+
+  /**
+   * Retrieves the shards of all elections whose claim has been made before the given date.
+   *
+   * @param isDone    whether the shard is finished
+   * @param claimedAt the date before which the claim has been made
+   * @return collection of shards with an expired claim
+   */
+  public Iterable<TallyShard> findByIsDoneAndClaimedAtBefore(boolean isDone, Date claimedAt);
+
+  /**
+   * Counts the shards of an election by their progress.
+   *
+   * @param electionId the identifier of the election
+   * @param isDone     whether the shard is finished
+   * @return number of matching shards
+   */
+  public long countByElectionIdAndIsDone(long electionId, boolean isDone);
+
+}
@@ -1,8 +1,12 @@
 package pse.election.backendserver.repository;
 
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummary;
 
 /**
  * Provides the functionality to directly communicate with the database on behalf of the trustee
@@ -62,4 +66,24 @@ public interface TrusteeRepository extends CrudRepository<Trustee, Long> {
 
   public Iterable<Trustee> findByElectionIdAndIsWaiting(long electionId, boolean isWaiting);
 
+  /**
+   * Counts the trustees of an election by whether they are waiting.
+   *
+   * @param electionId the identifier of the election
+   * @param isWaiting  whether the trustee is waiting
+   * @return number of matching trustees
+   */
+  public long countByElectionIdAndIsWaiting(long electionId, boolean isWaiting);
+
+  /**
+   * Retrieves the summaries of all trustees of an election without loading their keys.
+   *
+   * @param electionId the identifier of the election
+   * @return the summaries ordered by the trustee index
+   */
+  @Query("SELECT new pse.election.backendserver.entity.TrusteeSummary(t.trusteeId,"
+      + " t.trusteeIndex, t.email, t.isWaiting, t.isAvailable) FROM Trustee t"
+      + " WHERE t.electionId = :electionId ORDER BY t.trusteeIndex")
+  public List<TrusteeSummary> findSummariesByElectionId(@Param("electionId") long electionId);
+
 }
@@ -0,0 +1,14 @@
+package pse.election.backendserver.utils;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * This class enables the scheduled background tasks of the application, e.g. the processing of
+ * tally shards claimed from the database.
+ * */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
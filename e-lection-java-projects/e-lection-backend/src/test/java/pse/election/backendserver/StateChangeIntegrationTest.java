@@ -63,6 +63,8 @@ import pse.election.backendserver.security.user.UserPrincipal;
 public class StateChangeIntegrationTest {
 
   private static final String INPUT_PATH = "./TestingSet3/";
+  private static final int EVALUATION_TIMEOUT_SECONDS = 60;
+  private static final int EVALUATION_POLL_MILLIS = 200;
   String authorityEmail = "no@valid.email.com";
   int electionDuration = 5;
   @Autowired
@@ -268,11 +270,7 @@ public class StateChangeIntegrationTest {
     for (ExternalTrustee trustee : trustees) {
       uploadDecryption(count++, trustee, electionId);
     }
-    result = mockMvc.perform(get("/api/elections").param("electionId", String.valueOf(electionId))
-        .with(oidcLogin().oidcUser(authorityPrincipal))).andReturn();
-    assertTrue(result.getResponse().getStatus() < 400);
-    JsonObject election = new Gson().fromJson(result.getResponse().getContentAsString(),
-        JsonObject.class);
+    JsonObject election = awaitEvaluatedElection(electionId);
     assertEquals("FINISHED", election.get("state").getAsString());
   }
 
@@ -323,13 +321,7 @@ public class StateChangeIntegrationTest {
     for (int i = 0; i < threshold - 1; i++) {
       uploadPPDecryption(i + trustees.size() - threshold + 2, trustees.get(i), electionId);
     }
-    result = mockMvc.perform(get("/api/elections").param("electionId", String.valueOf(electionId))
-        .with(oidcLogin().oidcUser(authorityPrincipal))).andReturn();
-    System.out.println(
-        result.getResponse().getContentAsString() + "" + result.getResponse().getStatus());
-    assertTrue(result.getResponse().getStatus() < 400);
-    JsonObject election = new Gson().fromJson(result.getResponse().getContentAsString(),
-        JsonObject.class);
+    JsonObject election = awaitEvaluatedElection(electionId);
     assertEquals("FINISHED", election.get("state").getAsString());
   }
 
@@ -371,13 +363,7 @@ public class StateChangeIntegrationTest {
     for (int i = 0; i < trustees.size() - 1; i++) {
       uploadPPDecryption(i + 2, trustees.get(i), electionId);
     }
-    result = mockMvc.perform(get("/api/elections").param("electionId", String.valueOf(electionId))
-        .with(oidcLogin().oidcUser(authorityPrincipal))).andReturn();
-    System.out.println(
-        result.getResponse().getContentAsString() + "" + result.getResponse().getStatus());
-    assertTrue(result.getResponse().getStatus() < 400);
-    JsonObject election = new Gson().fromJson(result.getResponse().getContentAsString(),
-        JsonObject.class);
+    JsonObject election = awaitEvaluatedElection(electionId);
     assertEquals("FINISHED", election.get("state").getAsString());
     result = mockMvc.perform(get("/api/elections/" + electionId + "/election-record/electionguard")
             .with(oidcLogin().oidcUser(authorityPrincipal))).andReturn();
@@ -413,16 +399,32 @@ public class StateChangeIntegrationTest {
     while (Instant.now().isBefore(end)) {
     }
 
-    result = mockMvc.perform(get("/api/elections").param("electionId", String.valueOf(electionId))
-        .with(oidcLogin().oidcUser(authorityPrincipal))).andReturn();
-    System.out.println(
-        result.getResponse().getContentAsString() + "" + result.getResponse().getStatus());
-    assertTrue(result.getResponse().getStatus() < 400);
-    JsonObject election = new Gson().fromJson(result.getResponse().getContentAsString(),
-        JsonObject.class);
+    JsonObject election = awaitEvaluatedElection(electionId);
     assertEquals("FINISHED", election.get("state").getAsString());
   }
 
+  /**
+   * Fetches the election until its result has been evaluated in the background.
+   */
+  JsonObject awaitEvaluatedElection(long electionId) throws Exception {
+    Instant timeout = Instant.now().plus(Duration.ofSeconds(EVALUATION_TIMEOUT_SECONDS));
+    JsonObject election;
+    do {
+      MvcResult result = mockMvc.perform(get("/api/elections")
+          .param("electionId", String.valueOf(electionId))
+          .with(oidcLogin().oidcUser(authorityPrincipal))).andReturn();
+      System.out.println(
+          result.getResponse().getContentAsString() + "" + result.getResponse().getStatus());
+      assertTrue(result.getResponse().getStatus() < 400);
+      election = new Gson().fromJson(result.getResponse().getContentAsString(), JsonObject.class);
+      if (!"EVALUATING".equals(election.get("state").getAsString())) {
+        return election;
+      }
+      Thread.sleep(EVALUATION_POLL_MILLIS);
+    } while (Instant.now().isBefore(timeout));
+    return election;
+  }
+
   String addAuxKey(ExternalTrustee trustee) {
     AuxKeyHandler handler = new AuxKeyHandler();
     handler.initialize(new JsonObject[0], new String[0]);
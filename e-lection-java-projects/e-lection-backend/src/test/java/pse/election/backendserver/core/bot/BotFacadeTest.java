@@ -2,6 +2,7 @@ package pse.election.backendserver.core.bot;
 
 import static org.mockito.Mockito.when;
 
+import com.sunya.electionguard.ElGamal;
 import com.sunya.electionguard.ElectionCryptoContext;
 import com.sunya.electionguard.Group;
 import java.math.BigInteger;
@@ -10,11 +11,14 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import pse.election.backendserver.core.electionguard.CryptoPool;
 import pse.election.backendserver.core.electionguard.DecryptionFacade;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.DecryptionService;
@@ -41,6 +45,10 @@ class BotFacadeTest {
 
   @Mock
   private ElectionGuardInitializedWrapper electionGuardInitializedWrapper;
+  @Spy
+  private CryptoPool cryptoPool = new CryptoPool();
+  @Spy
+  private NonceCommitmentPool nonceCommitmentPool = new NonceCommitmentPool(null);
   @InjectMocks
   private BotFacade botFacadeUnderTest;
 
@@ -102,20 +110,25 @@ class BotFacadeTest {
         ArrayList<>();
     //when(mockBallotService.getAllSpoiledBallotsOfElection(0L)).thenReturn(ballots);
 
-    // Configure BallotService.getAllOptionsEncryptedOfBallot(...).
+    // Configure BallotService.getAllOptionsEncryptedOfBallots(...).
     final List<OptionEncrypted> optionEncryptedList = List.of(
         new OptionEncrypted(0L, 0L, 0, 0, "ciphertextPAD", "ciphertextDATA", "individualProof",
             "accumulatedProof"));
 
     // Run the test
-    Map<Long, DecryptionFacade.Decryption> result = botFacadeUnderTest.decryptTalliesOfElection(
-        election,
-        Group.int_to_q_unchecked(new BigInteger(
+    final Group.ElementModQ key = Group.int_to_q_unchecked(new BigInteger(
             "720535B6393117700EFFE0FA2BC98C45CD970D4375D197FF4D4A18E2396689D9D5C85EFD011197D3CB09812849119AC9752F37CEC795312B3F75A132316C1ED0EE8EDA68B34E9B928615E00B82759C65640DF399990F4E73449EF6452743E0D18203CC88C68A02565F768DD00BE2F10ADDA29B41F0EEA7D579959D0981915C346CB0CD77899CE485A4F4AC087039C7C45D9FBE7218617502DA5234B225A2EBCE78F4C5A5E555DC93E5467F39A992F5C22DB562E18A774410084FBCCCB056C02D459A4EE14CFE53585A1A6C94BEDD1F8505E6F7B69AC4AEA590C9D09A0713FCA4B575930CC152C90E758A2A1DEB11BB48FBEDB6BE6FC1CF3E6CBBB07012F67DA76BACE2D31D964B645BA3C387DB6329ED6041D62A9ADAC3AD70DA54C07455162D74F3F787CFC0B63E90618459EC6A7F89EF92BCE9A596958FAA8112D5325056BEC6B49EAFE02158B02B6B32987F0345A12E605B90A2147793885F7B8D79919C718327012097036A59ACAD0FB8F9D694FB5C9798205F8C690671E6DF03376146AD93A1727736D84CBEBD32F238F2691BD43D95F6CE1CA7073D148CF26935CA9282CE13168EC3C0DA4D0CD077BC7AFE6B20BA40E4AE9A7434FB288A2807128F034AC5673656E4363354547E74C4895AF3E1C4E5A3232881D50CF0C33F24E7ED4CE58D8B315F5EFA424B137A586046E81E6F1E97F50E9F6456E0CB5781D2099DBC49",
-            16)));
+            16));
+    Map<Long, DecryptionFacade.Decryption> result = botFacadeUnderTest.decryptTalliesOfElection(
+        election, key);
 
-    for (Map.Entry<Long, DecryptionFacade.Decryption> elem : result.entrySet()) {
-      System.out.printf(elem.toString());
+    for (Tally tally : tallyList) {
+      DecryptionFacade.Decryption decryption = result.get(tally.getTallyId());
+      Assertions.assertTrue(decryption.chaumPedersenProof().is_valid(
+          new ElGamal.Ciphertext(Group.int_to_p_unchecked(tally.getCiphertextPAD()),
+              Group.int_to_p_unchecked(tally.getCiphertextDATA())),
+          Group.g_pow_p(key), decryption.decryption(),
+          electionCryptoContext.cryptoExtendedBaseHash));
     }
   }
 }
@@ -69,6 +69,7 @@ public class BotIntegrationTest {
   Trustee trustee3 = new Trustee(0L, "trustee2@gmail.com", 2);
   BotTrustee bot;
   JsonObject[] auxPrivate = new JsonObject[2];
+  Map<Integer, List<String>> backupsFor = new HashMap<>();
   @Mock
   Election election;
 
@@ -150,10 +151,8 @@ public class BotIntegrationTest {
                 parseElgamalKeyAndProofToString(proofDTO.proofs(), 0),
                 parseElgamalKeyAndProofToString(proofDTO.proofs(), 1));
             botTrustee.addPublicElgamalKeyAndProof(publicElgamalKeyAndProof);
-            trustee2.addBackup(
-                botTrustee.getIndex() + ";" + proofDTO.backups().get(trustee2.getIndex()));
-            trustee3.addBackup(
-                botTrustee.getIndex() + ";" + proofDTO.backups().get(trustee3.getIndex()));
+            addBackup(trustee2, botTrustee, proofDTO.backups().get(trustee2.getIndex()));
+            addBackup(trustee3, botTrustee, proofDTO.backups().get(trustee3.getIndex()));
             return botTrustee;
           }
         }).when(trusteeService)
@@ -180,10 +179,10 @@ public class BotIntegrationTest {
     assertNotNull(botTrustee.getPublicElgamalKeyAndProof());
     assertNotEquals(botTrustee.getPublicElgamalKeyAndProof().size(), 0);
     assertNotNull(bot.getPrivateElgamalKey());
-    assertNotNull(trustee2.getBackups());
-    assertNotEquals(trustee2.getBackups().size(), 0);
-    assertNotNull(trustee3.getBackups());
-    assertNotEquals(trustee3.getBackups().size(), 0);
+    assertNotNull(getBackups(trustee2));
+    assertNotEquals(getBackups(trustee2).size(), 0);
+    assertNotNull(getBackups(trustee3));
+    assertNotEquals(getBackups(trustee3).size(), 0);
   }
 
   @Test
@@ -193,8 +192,8 @@ public class BotIntegrationTest {
     generateElectionKey(trustee2, List.of(trustee3, botTrustee));
     generateElectionKey(trustee3, List.of(trustee2, botTrustee));
     when(trusteeService.getBackups(botEmail, electionId, false)).thenReturn(Map.of(1,
-        botTrustee.getBackups().get(0).split(";")[1], 2,
-        botTrustee.getBackups().get(1).split(";")[1]));
+        getBackups(botTrustee).get(0).split(";")[1], 2,
+        getBackups(botTrustee).get(1).split(";")[1]));
     assertTrue(verifyBackups(trustee2, List.of(botTrustee, trustee3)));
     assertTrue(verifyBackups(trustee3, List.of(botTrustee, trustee2)));
   }
@@ -247,14 +246,26 @@ public class BotIntegrationTest {
     trustee.addPublicElgamalKeyAndProof(List.of(parseElgamalKeyAndProofToString(proofs, 0),
         parseElgamalKeyAndProofToString(proofs, 1)));
     for (Trustee t : otherTrustees) {
-      t.addBackup(trustee.getIndex() + ";" + backups.get(t.getIndex()));
+      addBackup(t, trustee, backups.get(t.getIndex()));
     }
   }
 
+  /**
+   * Stores a backup the way the trustee service would, in format fromIndex;backup
+   */
+  void addBackup(Trustee to, Trustee from, String backup) {
+    backupsFor.computeIfAbsent(to.getIndex(), index -> new ArrayList<>())
+        .add(from.getIndex() + ";" + backup);
+  }
+
+  List<String> getBackups(Trustee trustee) {
+    return backupsFor.getOrDefault(trustee.getIndex(), new ArrayList<>());
+  }
+
   boolean verifyBackups(Trustee trustee, List<Trustee> otherTrustees) {
     JsonObject backups = new JsonObject();
     JsonObject keys = new JsonObject();
-    for (String backup : trustee.getBackups()) {
+    for (String backup : getBackups(trustee)) {
       backups.addProperty(String.valueOf(backup.split(";")[0]), backup.split(";")[1]);
     }
     for (Trustee t : otherTrustees) {
@@ -30,14 +30,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.springframework.test.util.ReflectionTestUtils;
+import pse.election.backendserver.core.electionguard.CryptoPool;
 import pse.election.backendserver.core.electionguard.DecryptionFacade;
+import pse.election.backendserver.core.electionguard.DiscreteLogService;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.service.ResultEvaluationService;
 import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.core.service.TallyShardService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.entity.Ballot;
 import pse.election.backendserver.entity.BotTrustee;
@@ -107,6 +112,16 @@ public class BotIntegrationTestDecryption {
   Ballot ballot2;
   @Mock
   ElectionService electionService;
+  @Mock
+  TallyShardService tallyShardService;
+  @Spy
+  DiscreteLogService discreteLogService = new DiscreteLogService();
+  @Spy
+  CryptoPool cryptoPool = new CryptoPool();
+  @Spy
+  NonceCommitmentPool nonceCommitmentPool = new NonceCommitmentPool(null);
+  @Mock
+  ResultEvaluationService resultEvaluationService;
   @InjectMocks
   BotFacade botFacadeUnderTest;
   @InjectMocks
@@ -134,17 +149,19 @@ public class BotIntegrationTestDecryption {
     Map<Long, OptionEncrypted> ballot2Map = new HashMap<>();
     talliesOfSpoiledBallots1 = generateOptions(
         result.get("encryptedSpoiledBallotQuestions").getAsJsonObject().get("0")
-            .getAsJsonObject(), ballot1Map);
+            .getAsJsonObject(), 0L, ballot1Map);
     talliesOfSpoiledBallots2 = generateOptions(
         result.get("encryptedSpoiledBallotQuestions").getAsJsonObject().get("1")
-            .getAsJsonObject(), ballot2Map);
+            .getAsJsonObject(), 1L, ballot2Map);
     optionMap.put(0L, ballot1Map);
     optionMap.put(1L, ballot2Map);
     when(tallyService.getAllTalliesOfElection(electionId)).thenReturn(talliesOfElection);
     when(ballotService.getAllSpoiledBallotsOfElection(electionId)).thenReturn(
         List.of(ballot1, ballot2));
-    when(ballotService.getAllOptionsEncryptedOfBallot(0L)).thenReturn(talliesOfSpoiledBallots1);
-    when(ballotService.getAllOptionsEncryptedOfBallot(1L)).thenReturn(talliesOfSpoiledBallots2);
+    List<OptionEncrypted> optionsOfSpoiledBallots = new ArrayList<>(talliesOfSpoiledBallots1);
+    optionsOfSpoiledBallots.addAll(talliesOfSpoiledBallots2);
+    when(ballotService.getAllOptionsEncryptedOfBallots(List.of(0L, 1L))).thenReturn(
+        optionsOfSpoiledBallots);
     when(ballot1.getBallotId()).thenReturn(0L);
     when(ballot2.getBallotId()).thenReturn(1L);
     String qbar = readInput(INPUT_PATH + "manifest.json").get("qBar").getAsString();
@@ -385,33 +402,39 @@ public class BotIntegrationTestDecryption {
           @Override
           public Void answer(InvocationOnMock invocation) throws Throwable {
 
-            Map<Long, DecryptionFacade.Decryption> tallyDecryptions = invocation.getArgument(0);
-            Map<Long, Map<Long, DecryptionFacade.Decryption>> ballotDecryption = invocation.getArgument(
-                1);
-            int forWhichTrustee = invocation.getArgument(2);
-            Long forWhichTrusteeId = trusteeMap.get(String.valueOf(forWhichTrustee));
-            for (long tallyId : tallyDecryptions.keySet()) {
-              Tally tally = tallyMap.get(tallyId);
-              ppDecryptionTally.get(tally.getContestIndex()).get(tally.getOptionIndex()).add(
-                  new PartialPartialDecryption(3L, forWhichTrusteeId, tallyId, -1L,
-                      tallyDecryptions.get(tallyId).decryption().base16(), ""));
-            }
+            Map<Integer, Map<Long, DecryptionFacade.Decryption>> tallyDecryptionsByTrustee =
+                invocation.getArgument(0);
+            Map<Integer, Map<Long, Map<Long, DecryptionFacade.Decryption>>>
+                ballotDecryptionByTrustee = invocation.getArgument(1);
+            for (int forWhichTrustee : tallyDecryptionsByTrustee.keySet()) {
+              Map<Long, DecryptionFacade.Decryption> tallyDecryptions =
+                  tallyDecryptionsByTrustee.get(forWhichTrustee);
+              Map<Long, Map<Long, DecryptionFacade.Decryption>> ballotDecryption =
+                  ballotDecryptionByTrustee.get(forWhichTrustee);
+              Long forWhichTrusteeId = trusteeMap.get(String.valueOf(forWhichTrustee));
+              for (long tallyId : tallyDecryptions.keySet()) {
+                Tally tally = tallyMap.get(tallyId);
+                ppDecryptionTally.get(tally.getContestIndex()).get(tally.getOptionIndex()).add(
+                    new PartialPartialDecryption(3L, forWhichTrusteeId, tallyId, -1L,
+                        tallyDecryptions.get(tallyId).decryption().base16(), ""));
+              }
 
-            for (Map.Entry<Long, Map<Long, DecryptionFacade.Decryption>> ballot : ballotDecryption.entrySet()) {
-              for (Map.Entry<Long, DecryptionFacade.Decryption> decryption : ballot.getValue()
-                  .entrySet()) {
-                OptionEncrypted option = optionMap.get(ballot.getKey()).get(decryption.getKey());
-                ppDecryptionSpoiled.get(ballot.getKey().intValue()).get(option.getContestIndex())
-                    .get(option.getOptionIndex()).add(
-                        new PartialPartialDecryption(3L, forWhichTrusteeId, -1L,
-                            option.getOptionEncryptedId(),
-                            decryption.getValue().decryption().base16(), ""));
+              for (Map.Entry<Long, Map<Long, DecryptionFacade.Decryption>> ballot : ballotDecryption.entrySet()) {
+                for (Map.Entry<Long, DecryptionFacade.Decryption> decryption : ballot.getValue()
+                    .entrySet()) {
+                  OptionEncrypted option = optionMap.get(ballot.getKey()).get(decryption.getKey());
+                  ppDecryptionSpoiled.get(ballot.getKey().intValue()).get(option.getContestIndex())
+                      .get(option.getOptionIndex()).add(
+                          new PartialPartialDecryption(3L, forWhichTrusteeId, -1L,
+                              option.getOptionEncryptedId(),
+                              decryption.getValue().decryption().base16(), ""));
+                }
               }
             }
             return null;
           }
         }).when(decryptionService)
-        .addPartialPartialDecryptionBotTrustee(any(), any(), anyInt(), eq(election));
+        .addPartialPartialDecryptionBotTrustee(any(), any(), eq(election));
     Mockito.doAnswer(new Answer() {
       @Override
       public Void answer(InvocationOnMock invocation) throws Throwable {
@@ -550,7 +573,7 @@ public class BotIntegrationTestDecryption {
     return tallies;
   }
 
-  private List<OptionEncrypted> generateOptions(JsonObject talliesObject,
+  private List<OptionEncrypted> generateOptions(JsonObject talliesObject, long ballotId,
       Map<Long, OptionEncrypted> ballotOptionMap) {
     List<OptionEncrypted> tallies = new ArrayList<>();
     long optionCount = 0;
@@ -565,7 +588,7 @@ public class BotIntegrationTestDecryption {
         when(mockedTally.getOptionEncryptedId()).thenReturn(optionCount);
         when(mockedTally.getContestIndex()).thenReturn(Integer.valueOf(question));
         when(mockedTally.getOptionIndex()).thenReturn(i);
-        when(mockedTally.getBallotId()).thenThrow(new IllegalArgumentException("need ballotId"));
+        when(mockedTally.getBallotId()).thenReturn(ballotId);
         ballotOptionMap.put(optionCount, mockedTally);
         tallies.add(mockedTally);
         optionCount++;
@@ -0,0 +1,87 @@
+package pse.election.backendserver.core.bot;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.sunya.electionguard.Group;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.state.ElectionState;
+
+@ExtendWith(MockitoExtension.class)
+public class NonceCommitmentPoolTest {
+
+  private static final int POOL_SIZE = 4;
+
+  @Mock
+  private ElectionService electionService;
+  @InjectMocks
+  private NonceCommitmentPool nonceCommitmentPool;
+
+  private void awaitRefill() throws InterruptedException {
+    ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(
+        nonceCommitmentPool, "executor");
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  private static void assertValid(NonceCommitmentPool.NonceCommitment commitment) {
+    Assertions.assertEquals(Group.g_pow_p(commitment.nonce()), commitment.commitment());
+  }
+
+  @Test
+  void emptyPoolComputesCommitments() {
+    assertValid(nonceCommitmentPool.take());
+  }
+
+  @Test
+  void refillFillsPoolWhileBotElectionIsOpen() throws InterruptedException {
+    ReflectionTestUtils.setField(nonceCommitmentPool, "poolSize", POOL_SIZE);
+    when(electionService.getElectionIdsWithBot(ElectionState.OPEN)).thenReturn(List.of(1L));
+
+    nonceCommitmentPool.refill();
+    awaitRefill();
+
+    BlockingQueue<?> commitments = (BlockingQueue<?>) ReflectionTestUtils.getField(
+        nonceCommitmentPool, "commitments");
+    Assertions.assertEquals(POOL_SIZE, commitments.size());
+    NonceCommitmentPool.NonceCommitment first = nonceCommitmentPool.take();
+    NonceCommitmentPool.NonceCommitment second = nonceCommitmentPool.take();
+    assertValid(first);
+    assertValid(second);
+    Assertions.assertNotEquals(first.nonce(), second.nonce());
+    Assertions.assertEquals(POOL_SIZE - 2, commitments.size());
+  }
+
+  @Test
+  void refillWaitsForOpenBotElection() {
+    ReflectionTestUtils.setField(nonceCommitmentPool, "poolSize", POOL_SIZE);
+    when(electionService.getElectionIdsWithBot(ElectionState.OPEN)).thenReturn(List.of());
+
+    nonceCommitmentPool.refill();
+
+    BlockingQueue<?> commitments = (BlockingQueue<?>) ReflectionTestUtils.getField(
+        nonceCommitmentPool, "commitments");
+    Assertions.assertTrue(commitments.isEmpty());
+  }
+
+  @Test
+  void disabledPoolIsNeverFilled() {
+    ReflectionTestUtils.setField(nonceCommitmentPool, "poolSize", 0);
+
+    nonceCommitmentPool.refill();
+
+    verifyNoInteractions(electionService);
+    assertValid(nonceCommitmentPool.take());
+  }
+}
@@ -0,0 +1,71 @@
+package pse.election.backendserver.core.electionguard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CryptoPoolTest {
+
+  private final CryptoPool cryptoPool = new CryptoPool();
+
+  @AfterEach
+  void tearDown() {
+    cryptoPool.destroy();
+  }
+
+  @Test
+  void mapKeepsOrderOfInputs() {
+    ReflectionTestUtils.setField(cryptoPool, "poolSize", 4);
+    List<Integer> inputs = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      inputs.add(i);
+    }
+
+    List<Integer> results = cryptoPool.map(inputs, input -> input * input);
+
+    for (int i = 0; i < inputs.size(); i++) {
+      Assertions.assertEquals(i * i, results.get(i));
+    }
+  }
+
+  @Test
+  void mapRethrowsFailures() {
+    ReflectionTestUtils.setField(cryptoPool, "poolSize", 4);
+    List<Integer> inputs = List.of(1, 2, 3, 4);
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> cryptoPool.map(inputs, input -> {
+      if (input == 3) {
+        throw new IllegalArgumentException();
+      }
+      return input;
+    }));
+  }
+
+  @Test
+  void mapSkipsRemainingInputsAfterFailure() {
+    ReflectionTestUtils.setField(cryptoPool, "poolSize", 2);
+    List<Integer> inputs = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      inputs.add(i);
+    }
+    AtomicInteger computed = new AtomicInteger();
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> cryptoPool.map(inputs, input -> {
+      computed.incrementAndGet();
+      if (input == 0) {
+        throw new IllegalArgumentException();
+      }
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return input;
+    }));
+    Assertions.assertTrue(computed.get() < inputs.size() / 2);
+  }
+}
@@ -14,8 +14,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
 import pse.election.backendserver.core.service.*;
 import pse.election.backendserver.entity.*;
 
@@ -59,6 +61,14 @@ public class DecryptionFacadeStressTest {
     @Mock
     DecryptionService decryptionService;
     @Mock
+    TallyShardService tallyShardService;
+    @Spy
+    DiscreteLogService discreteLogService = new DiscreteLogService();
+    @Spy
+    CryptoPool cryptoPool = new CryptoPool();
+    @Mock
+    ResultEvaluationService resultEvaluationService;
+    @Mock
     Election election;
     @InjectMocks
     KeyCeremonyFacade keyCeremonyFacade;
@@ -173,55 +183,42 @@ public class DecryptionFacadeStressTest {
             }
         }
         when(ballotService.getAllSpoiledBallotsOfElection(electionId)).thenReturn(new ArrayList<>());
-        Mockito.doAnswer(new Answer<List<PartialDecryption>>() {
-            @Override
-            public List<PartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
-                List<PartialDecryption> allDec = new ArrayList<>();
-                int contestId = invocation.getArgument(1);
-                int optionId = invocation.getArgument(2);
+        List<Tally> tallies = new ArrayList<>();
+        Map<Long, List<PartialDecryption>> tallyDecryptions = new HashMap<>();
+        Map<Long, List<PartialPartialDecryption>> tallyPartialDecryptions = new HashMap<>();
+        JsonObject encryptedTally = encryption.get("encryptedTally").getAsJsonObject();
+        for (String contest : encryptedTally.keySet()) {
+            JsonArray options = encryptedTally.get(contest).getAsJsonArray();
+            for (int option = 0; option < options.size(); option++) {
+                long tallyId = Integer.parseInt(contest) * 100L + option;
+                Tally tally = new Tally(electionId, Integer.parseInt(contest), option, "",
+                        options.get(option).getAsJsonObject().get("data").getAsString());
+                ReflectionTestUtils.setField(tally, "tallyId", tallyId);
+                tallies.add(tally);
                 for (Trustee trustee : availableTrustees) {
                     String decryption = pdecryption.get(trustee.getIndex())
                             .getAsJsonObject().get("partialDecryptedTally").getAsJsonObject().get("0")
                             .getAsJsonObject().get("partialDecryption").getAsJsonObject()
-                            .get(String.valueOf(contestId))
-                            .getAsJsonArray().get(optionId).getAsString();
-                    allDec.add(new PartialDecryption(0L, trustee.getTrusteeId(), -1L, decryption, ""));
-                }
-                return allDec;
-            }
-        }).when(decryptionService).getAllPartialDecryptionOfTally(eq(electionId), anyInt(), anyInt());
-        Mockito.doAnswer(new Answer<List<PartialPartialDecryption>>() {
-                    @Override
-                    public List<PartialPartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
-                        List<PartialPartialDecryption> allDec = new ArrayList<>();
-                        int contest = invocation.getArgument(1);
-                        int option = invocation.getArgument(2);
-                        for (Trustee trustee : availableTrustees) {
-                            for (Trustee missingTrustee : missingTrustees) {
-                                String decryption = ppdecryption.get(trustee.getIndex()).
-                                        getAsJsonObject().get("partialDecryptedTally").getAsJsonObject()
-                                        .get(String.valueOf(missingTrustee.getIndex()))
-                                        .getAsJsonObject().get("partialDecryption").getAsJsonObject()
-                                        .get(String.valueOf(contest))
-                                        .getAsJsonArray().get(option).getAsString();
-                                allDec.add(new PartialPartialDecryption(trustee.getTrusteeId(),
-                                        missingTrustee.getIndex(), 0L, -1L, decryption, ""));
-                            }
-                        }
-                        return allDec;
+                            .get(contest).getAsJsonArray().get(option).getAsString();
+                    tallyDecryptions.computeIfAbsent(tallyId, id -> new ArrayList<>())
+                            .add(new PartialDecryption(tallyId, trustee.getTrusteeId(), -1L, decryption, ""));
+                    for (Trustee missingTrustee : missingTrustees) {
+                        String partialDecryption = ppdecryption.get(trustee.getIndex())
+                                .getAsJsonObject().get("partialDecryptedTally").getAsJsonObject()
+                                .get(String.valueOf(missingTrustee.getIndex()))
+                                .getAsJsonObject().get("partialDecryption").getAsJsonObject()
+                                .get(contest).getAsJsonArray().get(option).getAsString();
+                        tallyPartialDecryptions.computeIfAbsent(tallyId, id -> new ArrayList<>())
+                                .add(new PartialPartialDecryption(trustee.getTrusteeId(),
+                                        missingTrustee.getIndex(), tallyId, -1L, partialDecryption, ""));
                     }
-                }).when(decryptionService)
-                .getAllPartialPartialDecryptionOfTally(eq(electionId), anyInt(), anyInt());
-        Mockito.doAnswer(new Answer<Tally>() {
-            @Override
-            public Tally answer(InvocationOnMock invocation) throws Throwable {
-                int contest = invocation.getArgument(1);
-                int option = invocation.getArgument(2);
-                String data = encryption.get("encryptedTally").getAsJsonObject().get(String.valueOf(contest))
-                        .getAsJsonArray().get(option).getAsJsonObject().get("data").getAsString();
-                return new Tally(electionId, contest, option, "", data);
+                }
             }
-        }).when(tallyService).getSpecificTally(eq(electionId), anyInt(), anyInt());
+        }
+        when(tallyService.getAllTalliesOfElection(electionId)).thenReturn(tallies);
+        when(decryptionService.getAllPartialDecryptionOfTalliesByTally(electionId)).thenReturn(tallyDecryptions);
+        when(decryptionService.getAllPartialPartialDecryptionOfTalliesByTally(electionId))
+                .thenReturn(tallyPartialDecryptions);
         Mockito.doAnswer(new Answer<List<PartialDecryption>>() {
             @Override
             public List<PartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
@@ -264,6 +261,7 @@ public class DecryptionFacadeStressTest {
 
     void setupResultCheck(int count) {
         Map<Integer, Integer[]> realResult = Map.of(0, new Integer[]{count, 0, 0, 0}, 1, new Integer[]{0, count, 0});
+        when(ballotService.getSubmittedBallotCount(electionId)).thenReturn((long) count);
         Mockito.doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) throws Throwable {
@@ -1,6 +1,9 @@
 package pse.election.backendserver.core.electionguard;
 
+import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyMap;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,12 +19,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import pse.election.backendserver.core.electionguard.math.ProductAccumulator;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.service.ResultEvaluationService;
 import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.core.service.TallyShardService;
 import pse.election.backendserver.core.service.TrusteeService;
+import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Contest;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.OptionEncrypted;
@@ -82,6 +91,14 @@ class DecryptionFacadeTest {
   private TallyService mockTallyService;
   @Mock
   private DecryptionService mockDecryptionService;
+  @Mock
+  private TallyShardService mockTallyShardService;
+  @Spy
+  private DiscreteLogService discreteLogService = new DiscreteLogService();
+  @Spy
+  private CryptoPool cryptoPool = new CryptoPool();
+  @Mock
+  private ResultEvaluationService resultEvaluationService;
   @InjectMocks
   private DecryptionFacade decryptionFacadeUnderTest;
 
@@ -150,23 +167,21 @@ class DecryptionFacadeTest {
     partialDecryptionThree = new PartialDecryption(DECRYPTION_THREE);
     partialDecryptionListTwo.add(partialDecryptionThree);
 
-    when(mockDecryptionService.getAllPartialDecryptionOfTally(0L, 0, 0)).thenReturn(
-        partialDecryptionListZero);
-    when(mockDecryptionService.getAllPartialDecryptionOfTally(0L, 0, 1)).thenReturn(
-        partialDecryptionListTwo);
-
     tallyZero = new Tally(0L, 0, 0, "", DATA_ZERO);
     tallyOne = new Tally(0L, 0, 0, "", DATA_ONE);
     tallyTwo = new Tally(0L, 0, 1, "", DATA_TWO);
     tallyThree = new Tally(0L, 0, 0, "", DATA_THREE);
+    ReflectionTestUtils.setField(tallyTwo, "tallyId", 1L);
 
-    when(mockTallyService.getSpecificTally(0L, 0, 0)).thenReturn(tallyZero);
-    when(mockTallyService.getSpecificTally(0L, 0, 1)).thenReturn(tallyTwo);
+    when(mockDecryptionService.getAllPartialDecryptionOfTalliesByTally(0L)).thenReturn(
+        Map.of(0L, partialDecryptionListZero, 1L, partialDecryptionListTwo));
+    when(mockTallyService.getAllTalliesOfElection(0L)).thenReturn(List.of(tallyZero, tallyTwo));
     Trustee trustee = new Trustee();
     trustee.setAvailable();
     when(trusteeService.getAllTrustees(anyLong())).thenReturn(List.of(trustee));
 
     when(mockElectionService.getAllContestsOfElection(0L)).thenReturn(contestList);
+    when(mockBallotService.getSubmittedBallotCount(0L)).thenReturn(1L);
   }
 
   /**
@@ -187,5 +202,69 @@ class DecryptionFacadeTest {
     }
   }
 
+  /**
+   * Verifies that tallies whose shares have been accumulated during the decryption are only divided
+   * by their share product, without loading the partial decryptions.
+   */
+  @Test
+  void evaluatingResultTest_UsesAccumulatedShareProducts() {
+    election = new Election();
+    contest = new Contest(ELECTION_ID, CONTEST_NAME, MAX_OPTIONS, MAX_OPTIONS,
+        List.of(CONTEST_NAME, CONTEST_NAME));
+    tallyZero = new Tally(0L, 0, 0, "", DATA_ZERO);
+    tallyTwo = new Tally(0L, 0, 1, "", DATA_TWO);
+    ReflectionTestUtils.setField(tallyTwo, "tallyId", 1L);
+    tallyZero.setShareProduct(shareProduct(DECRYPTION_ZERO, DECRYPTION_ONE));
+    tallyTwo.setShareProduct(shareProduct(DECRYPTION_TWO, DECRYPTION_THREE));
+    when(mockTallyService.getAllTalliesOfElection(0L)).thenReturn(List.of(tallyZero, tallyTwo));
+    when(trusteeService.getAllTrustees(anyLong())).thenReturn(List.of());
+    when(mockElectionService.getAllContestsOfElection(0L)).thenReturn(List.of(contest));
+    when(mockBallotService.getSubmittedBallotCount(0L)).thenReturn(1L);
+
+    decryptionFacadeUnderTest.evaluateResult(election);
+
+    verify(mockDecryptionService, never()).getAllPartialDecryptionOfTalliesByTally(anyLong());
+    ArgumentCaptor<Map<Integer, Integer[]>> argumentCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(mockElectionService).setResult(anyLong(), argumentCaptor.capture());
+    for (Map.Entry<Integer, Integer[]> elem : argumentCaptor.getValue().entrySet()) {
+      Assertions.assertEquals(elem.getValue()[0].toString(), "1");
+    }
+  }
+
+  private static String shareProduct(String... decryptions) {
+    ProductAccumulator product = ProductAccumulator.modP();
+    for (String decryption : decryptions) {
+      product.multiply(new BigInteger(decryption, 16));
+    }
+    return product.get().toString(16);
+  }
+
+  /**
+   * Verifies that spoiled ballots are left for later if they are decrypted lazily.
+   */
+  @Test
+  void evaluatingResultTest_LazySpoiledBallotsAreSkipped() {
+    setUpResult();
+    ReflectionTestUtils.setField(decryptionFacadeUnderTest, "lazySpoiledBallots", true);
+
+    decryptionFacadeUnderTest.evaluateResult(election);
+
+    verify(mockElectionService).setResult(anyLong(), anyMap());
+    verify(mockBallotService, never()).getAllSpoiledBallotsOfElection(anyLong());
+  }
+
+  /**
+   * Verifies that pending spoiled ballots are not decrypted before the tally has been evaluated.
+   */
+  @Test
+  void decryptPendingSpoiledBallots_WaitsForEvaluatedResult() {
+    when(mockElectionService.getState(ELECTION_ID)).thenReturn(ElectionState.DONE);
+    when(resultEvaluationService.isResultAvailable(ELECTION_ID)).thenReturn(false);
+
+    decryptionFacadeUnderTest.decryptPendingSpoiledBallots(ELECTION_ID);
+
+    verify(mockBallotService, never()).decryptPendingSpoiledBallots(anyLong(), any());
+  }
+
 
 }
\ No newline at end of file
@@ -5,11 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
-import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.when;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import java.io.File;
@@ -20,6 +20,7 @@ import java.math.BigInteger;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,12 +29,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.service.ResultEvaluationService;
 import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.core.service.TallyShardService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.entity.Ballot;
 import pse.election.backendserver.entity.Contest;
@@ -90,6 +95,14 @@ public class DecryptionFacadeTestExtended {
   @Mock
   DecryptionService decryptionService;
   @Mock
+  TallyShardService tallyShardService;
+  @Spy
+  DiscreteLogService discreteLogService = new DiscreteLogService();
+  @Spy
+  CryptoPool cryptoPool = new CryptoPool();
+  @Mock
+  ResultEvaluationService resultEvaluationService;
+  @Mock
   Election election;
   @InjectMocks
   KeyCeremonyFacade keyCeremonyFacade;
@@ -138,6 +151,7 @@ public class DecryptionFacadeTestExtended {
     List<Contest> contestList = new ArrayList<>();
     contestList.addAll(List.of(contest2, contest1));
     when(electionService.getAllContestsOfElection(electionId)).thenReturn(contestList);
+    when(ballotService.getSubmittedBallotCount(electionId)).thenReturn(2L);
   }
 
   @Test
@@ -185,117 +199,94 @@ public class DecryptionFacadeTestExtended {
     when(ballot2.getBallotId()).thenReturn(1L);
     when(ballotService.getAllSpoiledBallotsOfElection(electionId)).thenReturn(
         List.of(ballot1, ballot2));
-    Mockito.doAnswer(new Answer<List<PartialDecryption>>() {
-      @Override
-      public List<PartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
-        List<PartialDecryption> allDec = new ArrayList<>();
+    List<Tally> tallies = new ArrayList<>();
+    Map<Long, List<PartialDecryption>> tallyDecryptions = new HashMap<>();
+    Map<Long, List<PartialPartialDecryption>> tallyPartialDecryptions = new HashMap<>();
+    JsonObject accumulation = input.get("accumulation").getAsJsonObject();
+    for (String contest : accumulation.keySet()) {
+      JsonArray options = accumulation.get(contest).getAsJsonArray();
+      for (int option = 0; option < options.size(); option++) {
+        Tally tally = new Tally(electionId, Integer.parseInt(contest), option, "",
+            options.get(option).getAsJsonObject().get("data").getAsString());
+        long tallyId = Integer.parseInt(contest) * 100L + option;
+        ReflectionTestUtils.setField(tally, "tallyId", tallyId);
+        tallies.add(tally);
         for (int i = 1; i < 4; i++) {
-          if (i != missingTrustee) {
-            int contest = (int) invocation.getArguments()[1];
-            int option = (int) invocation.getArguments()[2];
-            String decryption = input.get("decryptions").getAsJsonObject().get(String.valueOf(i))
-                .getAsJsonObject().get("partialDecryptedTally").getAsJsonObject().get("0")
-                .getAsJsonObject().get("partialDecryption").getAsJsonObject()
-                .get(String.valueOf(contest))
+          if (i == missingTrustee) {
+            continue;
+          }
+          JsonObject decryptions = input.get("decryptions").getAsJsonObject()
+              .get(String.valueOf(i)).getAsJsonObject().get("partialDecryptedTally")
+              .getAsJsonObject();
+          String decryption = decryptions.get("0").getAsJsonObject().get("partialDecryption")
+              .getAsJsonObject().get(contest).getAsJsonArray().get(option).getAsString();
+          if (faultyDecryptions) {
+            decryption = decryption.substring(1);
+          }
+          tallyDecryptions.computeIfAbsent(tallyId, id -> new ArrayList<>())
+              .add(new PartialDecryption(tallyId, i, -1L, decryption, ""));
+          if (missingTrustee != 0) {
+            String partialDecryption = decryptions.get(String.valueOf(missingTrustee))
+                .getAsJsonObject().get("partialDecryption").getAsJsonObject().get(contest)
                 .getAsJsonArray().get(option).getAsString();
-            if (faultyDecryptions) {
-              decryption = decryption.substring(1);
-            }
-            allDec.add(new PartialDecryption(0L, i, -1L, decryption, ""));
+            tallyPartialDecryptions.computeIfAbsent(tallyId, id -> new ArrayList<>())
+                .add(new PartialPartialDecryption(i, missingTrustee, tallyId, -1L,
+                    partialDecryption, ""));
           }
         }
-        return allDec;
       }
-    }).when(decryptionService).getAllPartialDecryptionOfTally(eq(electionId), anyInt(), anyInt());
-    Mockito.doAnswer(new Answer<List<PartialPartialDecryption>>() {
-          @Override
-          public List<PartialPartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
-            List<PartialPartialDecryption> allDec = new ArrayList<>();
-            for (int i = 1; i < 4; i++) {
-              if (i != missingTrustee) {
-                int contest = (int) invocation.getArguments()[1];
-                int option = (int) invocation.getArguments()[2];
-                String decryption = input.get("decryptions").getAsJsonObject().get(String.valueOf(i))
-                    .getAsJsonObject().get("partialDecryptedTally").getAsJsonObject()
-                    .get(String.valueOf(missingTrustee))
-                    .getAsJsonObject().get("partialDecryption").getAsJsonObject()
-                    .get(String.valueOf(contest))
-                    .getAsJsonArray().get(option).getAsString();
-                allDec.add(new PartialPartialDecryption(i, missingTrustee, 0L, -1L, decryption, ""));
-              }
-            }
-            return allDec;
-          }
-        }).when(decryptionService)
-        .getAllPartialPartialDecryptionOfTally(eq(electionId), anyInt(), anyInt());
-    Mockito.doAnswer(new Answer<Tally>() {
-      @Override
-      public Tally answer(InvocationOnMock invocation) throws Throwable {
-        int contest = invocation.getArgument(1);
-        int option = invocation.getArgument(2);
-        String data = input.get("accumulation").getAsJsonObject().get(String.valueOf(contest))
-            .getAsJsonArray().get(option).getAsJsonObject().get("data").getAsString();
-        return new Tally(electionId, contest, option, "", data);
-      }
-    }).when(tallyService).getSpecificTally(eq(electionId), anyInt(), anyInt());
+    }
+    when(tallyService.getAllTalliesOfElection(electionId)).thenReturn(tallies);
+    when(decryptionService.getAllPartialDecryptionOfTalliesByTally(electionId))
+        .thenReturn(tallyDecryptions);
+    when(decryptionService.getAllPartialPartialDecryptionOfTalliesByTally(electionId))
+        .thenReturn(tallyPartialDecryptions);
 
-    Mockito.doAnswer(new Answer<List<PartialDecryption>>() {
-          @Override
-          public List<PartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
-            List<PartialDecryption> allDec = new ArrayList<>();
-            for (int i = 1; i < 4; i++) {
-              if (i != missingTrustee) {
-                int contest = (int) invocation.getArguments()[1];
-                int option = (int) invocation.getArguments()[2];
-                long ballotId = invocation.getArgument(0);
-                String decryption = input.get("decryptions").getAsJsonObject().get(String.valueOf(i))
-                    .getAsJsonObject().get("partialDecryptedSpoiledBallots").getAsJsonObject().get("0")
-                    .getAsJsonArray().get(((Long) ballotId).intValue())
-                    .getAsJsonObject().get("partialDecryption").getAsJsonObject()
-                    .get(String.valueOf(contest))
-                    .getAsJsonArray().get(option).getAsString();
-                allDec.add(new PartialDecryption(-1L, i, 0L, decryption, ""));
-              }
+    List<OptionEncrypted> spoiledOptions = new ArrayList<>();
+    Map<Long, List<PartialDecryption>> optionDecryptions = new HashMap<>();
+    Map<Long, List<PartialPartialDecryption>> optionPartialDecryptions = new HashMap<>();
+    for (long ballotId = 0; ballotId < 2; ballotId++) {
+      JsonObject encryptions = input.get("encryptions").getAsJsonObject()
+          .get(String.valueOf(ballotId)).getAsJsonObject();
+      for (String contest : encryptions.keySet()) {
+        JsonArray options = encryptions.get(contest).getAsJsonArray();
+        for (int option = 0; option < options.size(); option++) {
+          OptionEncrypted optionEncrypted = new OptionEncrypted(ballotId, electionId, option,
+              Integer.parseInt(contest), "",
+              options.get(option).getAsJsonObject().get("data").getAsString(), "", "");
+          long optionId = 1000L + ballotId * 100L + Integer.parseInt(contest) * 10L + option;
+          ReflectionTestUtils.setField(optionEncrypted, "optionEncryptedId", optionId);
+          spoiledOptions.add(optionEncrypted);
+          for (int i = 1; i < 4; i++) {
+            if (i == missingTrustee) {
+              continue;
             }
-            return allDec;
-          }
-        }).when(decryptionService)
-        .getAllPartialDecryptionOfSpoiledBallotOption(anyLong(), anyInt(), anyInt());
-    Mockito.doAnswer(new Answer<List<PartialPartialDecryption>>() {
-          @Override
-          public List<PartialPartialDecryption> answer(InvocationOnMock invocation) throws Throwable {
-            List<PartialPartialDecryption> allDec = new ArrayList<>();
-            for (int i = 1; i < 4; i++) {
-              if (i != missingTrustee) {
-                int contest = (int) invocation.getArguments()[1];
-                int option = (int) invocation.getArguments()[2];
-                long ballotId = invocation.getArgument(0);
-                String decryption = input.get("decryptions").getAsJsonObject().get(String.valueOf(i))
-                    .getAsJsonObject().get("partialDecryptedSpoiledBallots").getAsJsonObject()
-                    .get(String.valueOf(missingTrustee))
-                    .getAsJsonArray().get(((Long) ballotId).intValue())
-                    .getAsJsonObject().get("partialDecryption").getAsJsonObject()
-                    .get(String.valueOf(contest))
-                    .getAsJsonArray().get(option).getAsString();
-                allDec.add(new PartialPartialDecryption(i, missingTrustee, -1L, 0L, decryption, ""));
-              }
+            JsonObject decryptions = input.get("decryptions").getAsJsonObject()
+                .get(String.valueOf(i)).getAsJsonObject().get("partialDecryptedSpoiledBallots")
+                .getAsJsonObject();
+            String decryption = decryptions.get("0").getAsJsonArray().get((int) ballotId)
+                .getAsJsonObject().get("partialDecryption").getAsJsonObject().get(contest)
+                .getAsJsonArray().get(option).getAsString();
+            optionDecryptions.computeIfAbsent(optionId, id -> new ArrayList<>())
+                .add(new PartialDecryption(-1L, i, optionId, decryption, ""));
+            if (missingTrustee != 0) {
+              String partialDecryption = decryptions.get(String.valueOf(missingTrustee))
+                  .getAsJsonArray().get((int) ballotId).getAsJsonObject().get("partialDecryption")
+                  .getAsJsonObject().get(contest).getAsJsonArray().get(option).getAsString();
+              optionPartialDecryptions.computeIfAbsent(optionId, id -> new ArrayList<>())
+                  .add(new PartialPartialDecryption(i, missingTrustee, -1L, optionId,
+                      partialDecryption, ""));
             }
-            return allDec;
           }
-        }).when(decryptionService)
-        .getAllPartialPartialDecryptionOfSpoiledBallotOption(anyLong(), anyInt(), anyInt());
-    Mockito.doAnswer(new Answer<OptionEncrypted>() {
-      @Override
-      public OptionEncrypted answer(InvocationOnMock invocation) throws Throwable {
-        int contest = invocation.getArgument(1);
-        int option = invocation.getArgument(2);
-        long ballotId = invocation.getArgument(0);
-        String data = input.get("encryptions").getAsJsonObject().get(String.valueOf(ballotId))
-            .getAsJsonObject().get(String.valueOf(contest))
-            .getAsJsonArray().get(option).getAsJsonObject().get("data").getAsString();
-        return new OptionEncrypted(ballotId, electionId, option, contest, "", data, "", "");
+        }
       }
-    }).when(ballotService).getSpecificOptionOfBallot(anyLong(), anyInt(), anyInt());
+    }
+    when(ballotService.getAllOptionsEncryptedOfSpoiledBallots(electionId))
+        .thenReturn(spoiledOptions);
+    when(decryptionService.getAllPartialDecryptionOfSpoiledBallotsByOption(electionId))
+        .thenReturn(optionDecryptions);
+    when(decryptionService.getAllPartialPartialDecryptionOfSpoiledBallotsByOption(electionId))
+        .thenReturn(optionPartialDecryptions);
 
     for (Trustee trustee : trustees) {
       if (trustee.getIndex() != missingTrustee) {
@@ -0,0 +1,39 @@
+package pse.election.backendserver.core.electionguard;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Decodes selections of spoiled ballots against the product of the shares.
+ */
+class DiscreteLogServiceTest {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+  private static final BigInteger G = ElectionConstants.STANDARD_CONSTANTS.generator;
+  private static final Group.ElementModP SHARES_PRODUCT = Group.int_to_p_unchecked(
+      G.modPow(BigInteger.valueOf(123456789L), P));
+
+  private final DiscreteLogService discreteLogService = new DiscreteLogService();
+
+  private static Group.ElementModP encrypt(long vote) {
+    return Group.int_to_p_unchecked(SHARES_PRODUCT.getBigInt()
+        .multiply(G.modPow(BigInteger.valueOf(vote), P)).mod(P));
+  }
+
+  @Test
+  void decryptsBinarySelections() {
+    Assertions.assertEquals(0, discreteLogService.decryptBinarySelection(encrypt(0),
+        SHARES_PRODUCT));
+    Assertions.assertEquals(1, discreteLogService.decryptBinarySelection(encrypt(1),
+        SHARES_PRODUCT));
+  }
+
+  @Test
+  void rejectsSelectionsAboveOne() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> discreteLogService.decryptBinarySelection(encrypt(2), SHARES_PRODUCT));
+  }
+}
@@ -1,5 +1,6 @@
 package pse.election.backendserver.core.electionguard.VerifiactionFacade;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
@@ -19,16 +20,21 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.test.util.ReflectionTestUtils;
+import pse.election.backendserver.core.electionguard.CryptoPool;
+import pse.election.backendserver.core.electionguard.ElectionCiphertextSnapshot;
 import pse.election.backendserver.core.electionguard.VerificationFacade;
 import pse.election.backendserver.core.service.BallotService;
 import pse.election.backendserver.core.service.ElectionService;
 import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.entity.Ballot;
 import pse.election.backendserver.entity.Contest;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.OptionEncrypted;
@@ -67,6 +73,10 @@ public class DecryptionVerificationTest {
   TallyService tallyService;
   @Mock
   BallotService ballotService;
+  @Mock
+  Ballot spoiledBallot;
+  @Spy
+  CryptoPool cryptoPool = new CryptoPool();
   @InjectMocks
   VerificationFacade facade;
 
@@ -140,6 +150,10 @@ public class DecryptionVerificationTest {
     }
     when(tallyService.getAllTalliesOfElection(electionId)).thenReturn(tallies);
     when(ballotService.getAllOptionsEncryptedOfBallot(0L)).thenReturn(options);
+    when(spoiledBallot.getBallotId()).thenReturn(0L);
+    when(ballotService.getAllSpoiledBallotsOfElection(electionId)).thenReturn(
+        List.of(spoiledBallot));
+    when(ballotService.getAllOptionsEncryptedOfSpoiledBallots(electionId)).thenReturn(options);
   }
 
   /**
@@ -164,6 +178,52 @@ public class DecryptionVerificationTest {
     }
   }
 
+  /**
+   * Tests that the tally and the spoiled ballot are verified against one snapshot of the election.
+   */
+  @Test
+  void testValidPartialDecryptionsAgainstSnapshot() {
+    ElectionCiphertextSnapshot snapshot = facade.createCiphertextSnapshot(electionId);
+    assertEquals(Set.of(0L), snapshot.getSpoiledBallotIds());
+    for (JsonElement decryption : input.get("validPartialDecryption").getAsJsonArray()) {
+      BigInteger key = new BigInteger(decryption.getAsJsonObject().get("key").getAsString(), 16);
+      assertTrue(facade.verifyDecryption(
+          generateDecryptionDTO(false, decryption.getAsJsonObject()), snapshot, key));
+      assertTrue(facade.verifyDecryption(
+          generateDecryptionDTO(true, decryption.getAsJsonObject()), snapshot, key));
+    }
+    for (JsonElement decryption : input.get("invalidPartialDecryption").getAsJsonArray()) {
+      BigInteger key = new BigInteger(decryption.getAsJsonObject().get("key").getAsString(), 16);
+      assertFalse(facade.verifyDecryption(
+          generateDecryptionDTO(false, decryption.getAsJsonObject()), snapshot, key));
+    }
+  }
+
+  /**
+   * Tests that an upload is verified in parallel and rejected if any of its proofs is invalid.
+   */
+  @Test
+  void testUploadVerifiedInParallel() {
+    ElectionCiphertextSnapshot snapshot = facade.createCiphertextSnapshot(electionId);
+    JsonObject valid = input.get("validPartialDecryption").getAsJsonArray().get(0)
+        .getAsJsonObject();
+    BigInteger key = new BigInteger(valid.get("key").getAsString(), 16);
+    List<DecryptionDTO.PartialDecryptionDTO> upload = new ArrayList<>();
+    upload.add(generateDecryptionDTO(true, valid));
+    upload.add(generateDecryptionDTO(false, valid));
+    assertTrue(facade.verifyDecryptions(upload, snapshot, key));
+
+    for (JsonElement decryption : input.get("invalidPartialDecryption").getAsJsonArray()) {
+      JsonObject invalid = decryption.getAsJsonObject();
+      if (!invalid.get("key").getAsString().equals(valid.get("key").getAsString())) {
+        continue;
+      }
+      List<DecryptionDTO.PartialDecryptionDTO> invalidUpload = new ArrayList<>(upload);
+      invalidUpload.add(generateDecryptionDTO(false, invalid));
+      assertFalse(facade.verifyDecryptions(invalidUpload, snapshot, key));
+    }
+  }
+
   @Test
   void testInvalidPartialDecryption() {
     JsonArray invalidDecryptions = input.get("invalidPartialDecryption").getAsJsonArray();
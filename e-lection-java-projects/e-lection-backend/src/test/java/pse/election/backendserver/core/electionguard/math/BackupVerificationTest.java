@@ -0,0 +1,51 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the verification of a backup against the polynomial of its sender.
+ */
+class BackupVerificationTest {
+
+  private static final BigInteger Q = ElectionConstants.STANDARD_CONSTANTS.small_prime;
+  private static final int THRESHOLD = 3;
+  private static final int RECEIVER = 6;
+
+  private List<Group.ElementModP> commitments;
+  private Group.ElementModQ backup;
+
+  @BeforeEach
+  void setUp() {
+    commitments = new ArrayList<>();
+    BigInteger value = BigInteger.ZERO;
+    for (int j = 0; j < THRESHOLD; j++) {
+      Group.ElementModQ coefficient = Group.rand_q();
+      commitments.add(Group.g_pow_p(coefficient));
+      value = value.add(coefficient.getBigInt().multiply(BigInteger.valueOf(RECEIVER).pow(j)));
+    }
+    backup = Group.int_to_q_unchecked(value.mod(Q));
+  }
+
+  @Test
+  void validBackupPasses() {
+    Assertions.assertTrue(BackupVerification.verify(commitments, backup, RECEIVER));
+  }
+
+  @Test
+  void wrongBackupFails() {
+    Assertions.assertFalse(BackupVerification.verify(commitments,
+        Group.add_q(backup, Group.ONE_MOD_Q), RECEIVER));
+  }
+
+  @Test
+  void wrongReceiverFails() {
+    Assertions.assertFalse(BackupVerification.verify(commitments, backup, RECEIVER + 1));
+  }
+}
@@ -0,0 +1,48 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the batched division against one inversion per divisor.
+ */
+class BatchDivisionTest {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+
+  @Test
+  void quotientsMatchSingleDivisions() {
+    Random random = new Random(42);
+    BigInteger[] dividends = new BigInteger[50];
+    BigInteger[] divisors = new BigInteger[50];
+    for (int i = 0; i < dividends.length; i++) {
+      dividends[i] = new BigInteger(P.bitLength() - 1, random);
+      divisors[i] = new BigInteger(P.bitLength() - 1, random).add(BigInteger.ONE);
+    }
+
+    BigInteger[] quotients = BatchDivision.divide(dividends, divisors, P);
+
+    for (int i = 0; i < dividends.length; i++) {
+      Assertions.assertEquals(dividends[i].multiply(divisors[i].modInverse(P)).mod(P),
+          quotients[i]);
+    }
+  }
+
+  @Test
+  void singleAndEmptyBatches() {
+    Assertions.assertEquals(BigInteger.valueOf(3), BatchDivision.divide(
+        new BigInteger[]{BigInteger.valueOf(6)}, new BigInteger[]{BigInteger.TWO}, P)[0]);
+    Assertions.assertEquals(0, BatchDivision.divide(new BigInteger[0], new BigInteger[0], P)
+        .length);
+  }
+
+  @Test
+  void rejectsDivisorsWithoutInverse() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> BatchDivision.divide(
+        new BigInteger[]{BigInteger.ONE, BigInteger.ONE},
+        new BigInteger[]{BigInteger.TWO, P}, P));
+  }
+}
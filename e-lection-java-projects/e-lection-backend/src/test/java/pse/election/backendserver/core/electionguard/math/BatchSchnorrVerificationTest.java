@@ -0,0 +1,81 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElGamal;
+import com.sunya.electionguard.ElectionConstants;
+import com.sunya.electionguard.Group;
+import com.sunya.electionguard.Hash;
+import com.sunya.electionguard.SchnorrProof;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the batch accepts valid proofs and rejects invalid ones, also those that a random
+ * linear combination alone would let pass half of the time.
+ */
+class BatchSchnorrVerificationTest {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+
+  private static List<SchnorrProof> validProofs(int count) {
+    List<SchnorrProof> proofs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      ElGamal.KeyPair pair = ElGamal.elgamal_keypair_from_secret(
+          Group.rand_range_q(Group.TWO_MOD_Q)).orElseThrow();
+      proofs.add(SchnorrProof.make_schnorr_proof(pair, Group.rand_range_q(Group.TWO_MOD_Q)));
+    }
+    return proofs;
+  }
+
+  @Test
+  void validProofsPass() {
+    Assertions.assertTrue(BatchSchnorrVerification.verify(validProofs(5)));
+    Assertions.assertTrue(BatchSchnorrVerification.verify(List.of()));
+  }
+
+  @Test
+  void wrongResponseFails() {
+    List<SchnorrProof> proofs = validProofs(5);
+    SchnorrProof proof = proofs.get(2);
+    proofs.set(2, new SchnorrProof(proof.publicKey, proof.commitment, proof.challenge,
+        Group.add_q(proof.response, Group.ONE_MOD_Q)));
+
+    Assertions.assertFalse(BatchSchnorrVerification.verify(proofs));
+  }
+
+  @Test
+  void wrongChallengeFails() {
+    List<SchnorrProof> proofs = validProofs(3);
+    SchnorrProof proof = proofs.get(0);
+    proofs.set(0, new SchnorrProof(proof.publicKey, proof.commitment,
+        Group.add_q(proof.challenge, Group.ONE_MOD_Q), proof.response));
+
+    Assertions.assertFalse(BatchSchnorrVerification.verify(proofs));
+  }
+
+  @Test
+  void largeBatchPasses() {
+    Assertions.assertTrue(BatchSchnorrVerification.verify(validProofs(20)));
+  }
+
+  @Test
+  void commitmentOutsideOfSubgroupFails() {
+    Group.ElementModQ secret = Group.rand_range_q(Group.TWO_MOD_Q);
+    Group.ElementModQ nonce = Group.rand_range_q(Group.TWO_MOD_Q);
+    Group.ElementModP publicKey = Group.g_pow_p(secret);
+    Group.ElementModP negatedCommitment = Group.int_to_p_unchecked(
+        P.subtract(Group.g_pow_p(nonce).getBigInt()));
+    Group.ElementModQ challenge = Hash.hash_elems(publicKey, negatedCommitment);
+    SchnorrProof proof = new SchnorrProof(publicKey, negatedCommitment, challenge,
+        Group.a_plus_bc_q(nonce, secret, challenge));
+
+    List<SchnorrProof> batch = validProofs(20);
+    batch.set(7, proof);
+    for (int i = 0; i < 16; i++) {
+      Assertions.assertFalse(BatchSchnorrVerification.verify(List.of(proof)));
+      Assertions.assertFalse(BatchSchnorrVerification.verify(batch));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Solves discrete logarithms with small tables in memory and from a mapped file.
+ */
+class DiscreteLogTableTest {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+  private static final BigInteger G = ElectionConstants.STANDARD_CONSTANTS.generator;
+  private static final int BABY_STEPS = 64;
+
+  @Test
+  void solvesExponentsAcrossGiantSteps() {
+    DiscreteLogTable table = DiscreteLogTable.build(ProductAccumulator.modPEngine(), G,
+        BABY_STEPS);
+    for (long exponent : new long[]{0, 1, 63, 64, 65, 1000, 4095}) {
+      Assertions.assertEquals(exponent, table.solve(G.modPow(BigInteger.valueOf(exponent), P),
+          4095));
+    }
+  }
+
+  @Test
+  void returnsMinusOneAboveBound() {
+    DiscreteLogTable table = DiscreteLogTable.build(ProductAccumulator.modPEngine(), G,
+        BABY_STEPS);
+    Assertions.assertEquals(-1, table.solve(G.modPow(BigInteger.valueOf(500), P), 499));
+    Assertions.assertEquals(-1, table.solve(BigInteger.TWO, 1000));
+  }
+
+  @Test
+  void persistedTableIsReused(@TempDir Path directory) throws IOException {
+    Path file = directory.resolve("dlog.table");
+    DiscreteLogTable written = DiscreteLogTable.loadOrBuild(file, ProductAccumulator.modPEngine(),
+        G, BABY_STEPS);
+    long modified = Files.getLastModifiedTime(file).toMillis();
+    DiscreteLogTable loaded = DiscreteLogTable.loadOrBuild(file, ProductAccumulator.modPEngine(),
+        G, BABY_STEPS);
+
+    Assertions.assertEquals(modified, Files.getLastModifiedTime(file).toMillis());
+    BigInteger value = G.modPow(BigInteger.valueOf(777), P);
+    Assertions.assertEquals(777, written.solve(value, 1000));
+    Assertions.assertEquals(777, loaded.solve(value, 1000));
+  }
+}
@@ -0,0 +1,71 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the multi-exponentiation against separate BigInteger exponentiations.
+ */
+class MultiExponentiationTest {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+
+  @Test
+  void simultaneousExponentiationMatchesModPow() {
+    Random random = new Random(42);
+    for (int count : new int[] {1, 3, 7, 40}) {
+      List<BigInteger> bases = new ArrayList<>();
+      List<BigInteger> exponents = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        bases.add(new BigInteger(P.bitLength() - 1, random));
+        exponents.add(new BigInteger(256, random));
+      }
+
+      BigInteger expected = productOfPowers(bases, exponents);
+      Assertions.assertEquals(expected,
+          MultiExponentiation.compute(ProductAccumulator.modPEngine(), bases, exponents));
+      Assertions.assertEquals(expected, MultiExponentiation.modP(bases, exponents).getBigInt());
+    }
+  }
+
+  @Test
+  void zeroExponentsAreIgnored() {
+    List<BigInteger> bases = List.of(BigInteger.valueOf(7), BigInteger.valueOf(11));
+    List<BigInteger> exponents = List.of(BigInteger.ZERO, BigInteger.valueOf(5));
+
+    Assertions.assertEquals(BigInteger.valueOf(11).pow(5),
+        MultiExponentiation.compute(ProductAccumulator.modPEngine(), bases, exponents));
+  }
+
+  @Test
+  void emptyProductIsOne() {
+    Assertions.assertEquals(BigInteger.ONE,
+        MultiExponentiation.compute(ProductAccumulator.modPEngine(), List.of(), List.of()));
+    Assertions.assertEquals(BigInteger.ONE,
+        MultiExponentiation.modP(List.of(), List.of()).getBigInt());
+  }
+
+  @Test
+  void exponentsMustMatchBases() {
+    List<BigInteger> bases = List.of(BigInteger.TWO, BigInteger.TEN);
+    List<BigInteger> exponents = List.of(BigInteger.ONE);
+
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> MultiExponentiation.modP(bases, exponents));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> MultiExponentiation.compute(ProductAccumulator.modPEngine(), bases, exponents));
+  }
+
+  private static BigInteger productOfPowers(List<BigInteger> bases, List<BigInteger> exponents) {
+    BigInteger product = BigInteger.ONE;
+    for (int i = 0; i < bases.size(); i++) {
+      product = product.multiply(bases.get(i).modPow(exponents.get(i), P)).mod(P);
+    }
+    return product;
+  }
+}
@@ -0,0 +1,74 @@
+package pse.election.backendserver.core.electionguard.math;
+
+import com.sunya.electionguard.ElectionConstants;
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the Montgomery accumulation against plain BigInteger arithmetic.
+ */
+class ProductAccumulatorTest {
+
+  private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+
+  @Test
+  void productModPMatchesBigInteger() {
+    Random random = new Random(42);
+    ProductAccumulator accumulator = ProductAccumulator.modP();
+    BigInteger expected = BigInteger.ONE;
+    for (int i = 0; i < 100; i++) {
+      BigInteger factor = new BigInteger(P.bitLength() - 1, random);
+      accumulator.multiply(factor);
+      expected = expected.multiply(factor).mod(P);
+    }
+    Assertions.assertEquals(expected, accumulator.get());
+    Assertions.assertEquals(100, accumulator.getFactorCount());
+  }
+
+  @Test
+  void emptyProductIsOne() {
+    Assertions.assertEquals(BigInteger.ONE, ProductAccumulator.modP().get());
+  }
+
+  @Test
+  void factorsOutsideOfRangeAreReduced() {
+    ProductAccumulator accumulator = ProductAccumulator.modP();
+    accumulator.multiply(P.add(BigInteger.TWO)).multiply(P.subtract(BigInteger.ONE));
+    Assertions.assertEquals(P.subtract(BigInteger.TWO), accumulator.get());
+  }
+
+  @Test
+  void mergeCombinesBothProducts() {
+    Random random = new Random(7);
+    BigInteger modulus = new BigInteger(1000, random).setBit(0).setBit(999);
+    MontgomeryEngine engine = new MontgomeryEngine(modulus);
+    ProductAccumulator first = new ProductAccumulator(engine);
+    ProductAccumulator second = new ProductAccumulator(engine);
+    BigInteger expected = BigInteger.ONE;
+    for (int i = 0; i < 20; i++) {
+      BigInteger factor = new BigInteger(1100, random);
+      (i % 2 == 0 ? first : second).multiply(factor);
+      expected = expected.multiply(factor).mod(modulus);
+    }
+    Assertions.assertEquals(expected, first.merge(second).get());
+  }
+
+  @Test
+  void montgomeryRoundTripForSmallModuli() {
+    Random random = new Random(3);
+    for (int bits : new int[]{3, 63, 64, 65, 128}) {
+      BigInteger modulus = BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+      MontgomeryEngine engine = new MontgomeryEngine(modulus);
+      BigInteger value = new BigInteger(bits, random).mod(modulus);
+      Assertions.assertEquals(value, engine.fromMontgomery(engine.toMontgomery(value)));
+    }
+  }
+
+  @Test
+  void evenModulusIsRejected() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new MontgomeryEngine(BigInteger.valueOf(1024)));
+  }
+}
@@ -2,6 +2,8 @@ package pse.election.backendserver.core.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigInteger;
@@ -17,6 +19,8 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 import pse.election.backendserver.core.electionguard.HashFacade;
 import pse.election.backendserver.core.electionguard.VerificationFacade;
 import pse.election.backendserver.core.state.ElectionState;
@@ -309,6 +313,37 @@ class BallotServiceTest {
     assertEquals(12, options.get(2).getCiphertextPAD().intValue());
   }
 
+  @Test
+  void saveDecryptedSpoiledBallotUpdatesSelectionsInBulk() {
+    List<OptionEncrypted> options = new ArrayList<>();
+    for (int optionIndex = 0; optionIndex < 3; optionIndex++) {
+      OptionEncrypted option = new OptionEncrypted(7L, election.getElectionId(), optionIndex, 0,
+          "A", "B", "", "");
+      ReflectionTestUtils.setField(option, "optionEncryptedId", 70L + optionIndex);
+      options.add(option);
+    }
+    when(mockOptionEncryptedRepository.findByBallotIdIn(Set.of(7L))).thenReturn(options);
+    mockElectionService.getElection(election.getElectionId());
+
+    ballotService.saveDecryptedSpoiledBallot(Map.of(7L, Map.of(0, new Integer[]{0, 1, 0})));
+
+    verify(mockOptionEncryptedRepository).updateSelectionMade(List.of(71L), true);
+    verify(mockOptionEncryptedRepository).updateSelectionMade(List.of(70L, 72L), false);
+    verify(mockBallotRepository).markDecrypted(Set.of(7L));
+  }
+
+  @Test
+  void decryptPendingSpoiledBallotsSkipsBallotsDecryptedMeanwhile() {
+    when(mockBallotRepository.findUndecryptedSpoiledBallotsForUpdate(election.getElectionId()))
+        .thenReturn(List.of());
+
+    ballotService.decryptPendingSpoiledBallots(election.getElectionId(), ballots -> {
+      throw new IllegalStateException();
+    });
+
+    verify(mockBallotRepository, never()).markDecrypted(any());
+  }
+
   @Test
   void convertBallotToSpoiled() {
 
@@ -333,4 +368,13 @@ class BallotServiceTest {
     assertThrows(EntityNotFoundException.class, () -> ballotService.convertSpoiledToSubmitted("123", election.getElectionId(), "q@gmail.com"));
   }
 
-}
\ No newline at end of file
+  @Test
+  void getSpoiledBallotsOfElectionAfter_pagesByBallotId() {
+    Ballot ballot = new Ballot();
+    when(mockBallotRepository.findByElectionIdAndIsSubmittedAndBallotIdGreaterThanOrderByBallotIdAsc(
+        1L, false, 7L, PageRequest.of(0, 2))).thenReturn(List.of(ballot));
+
+    assertEquals(List.of(ballot), ballotService.getSpoiledBallotsOfElectionAfter(1L, 7L, 2));
+  }
+
+}
@@ -5,26 +5,39 @@ import java.util.*;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import pse.election.backendserver.core.electionguard.ElectionCiphertextSnapshot;
+import pse.election.backendserver.core.electionguard.VerificationFacade;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.BotTrustee;
+import pse.election.backendserver.entity.Contest;
+import pse.election.backendserver.entity.DecryptionUpload;
 import pse.election.backendserver.entity.Election;
+import pse.election.backendserver.entity.OptionEncrypted;
+import pse.election.backendserver.entity.PartialDecryption;
+import pse.election.backendserver.entity.StagedDecryption;
 import pse.election.backendserver.entity.Tally;
 import pse.election.backendserver.entity.Trustee;
 import pse.election.backendserver.payload.dto.ChaumPedersenProofDTO;
 import pse.election.backendserver.payload.dto.DecryptionDTO;
 import pse.election.backendserver.payload.error.exception.IllegalStateOperationException;
 import pse.election.backendserver.payload.error.exception.UnauthorizedAccessException;
+import pse.election.backendserver.repository.DecryptionUploadRepository;
 import pse.election.backendserver.repository.ElectionRepository;
 import pse.election.backendserver.repository.PartialDecryptionRepository;
+import pse.election.backendserver.repository.StagedDecryptionRepository;
 import pse.election.backendserver.repository.TallyRepository;
 import pse.election.backendserver.repository.TrusteeRepository;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(args = "--oidcClients=./oidcClients.toml")
@@ -60,6 +73,18 @@ public class DecryptionServiceTest {
   @Mock
   private ElectionRepository electionRepository;
 
+  @Mock
+  private BallotService ballotService;
+
+  @Mock
+  private VerificationFacade verificationFacade;
+
+  @Mock
+  private DecryptionUploadRepository decryptionUploadRepository;
+
+  @Mock
+  private StagedDecryptionRepository stagedDecryptionRepository;
+
   @Mock
   private Election mockElection;
 
@@ -109,14 +134,18 @@ public class DecryptionServiceTest {
 
     when(trusteeService.getTrustee(trustee.getEmail(), 1)).thenReturn(trustee);
     when(electionService.getElection(1)).thenReturn(election);
-    when(tallyService.getSpecificTally(1, 0, 0)).thenReturn(tally0);
-    when(tallyService.getSpecificTally(1, 0, 1)).thenReturn(tally1);
-    when(tallyService.getSpecificTally(1, 0, 2)).thenReturn(tally2);
-    when(partialDecryptionRepository.save(any())).thenReturn(null);
+    ReflectionTestUtils.setField(tally0, "tallyId", 10L);
+    ReflectionTestUtils.setField(tally1, "tallyId", 11L);
+    ReflectionTestUtils.setField(tally2, "tallyId", 12L);
+    when(tallyService.getAllTalliesOfElection(1)).thenReturn(List.of(tally0, tally1, tally2));
 
     decryptionService.addDecryption(decryptionDTO, 1, trustee.getEmail());
 
     Assertions.assertTrue(trusteeService.getTrustee(trustee.getEmail(), 1).isWaiting());
+    ArgumentCaptor<List<PartialDecryption>> saved = ArgumentCaptor.forClass(List.class);
+    verify(partialDecryptionRepository).insertAll(saved.capture());
+    Assertions.assertEquals(List.of(10L, 11L, 12L),
+        saved.getValue().stream().map(PartialDecryption::getTallyId).toList());
   }
 
   @Test
@@ -132,5 +161,125 @@ public class DecryptionServiceTest {
     Assertions.assertThrows(IllegalStateOperationException.class, () -> decryptionService.addDecryption(null, 1, "email"));
   }
 
+  @Test
+  void getAllPartialDecryptionOfTalliesByTally_groupsByTally() {
+    when(partialDecryptionRepository.findAllOfTalliesByElectionId(1L)).thenReturn(List.of(
+        new PartialDecryption(1L, 1L, -1L, "a", ""),
+        new PartialDecryption(2L, 1L, -1L, "b", ""),
+        new PartialDecryption(1L, 2L, -1L, "c", "")));
+
+    Map<Long, List<PartialDecryption>> decryptions = decryptionService
+        .getAllPartialDecryptionOfTalliesByTally(1L);
+
+    Assertions.assertEquals(2, decryptions.get(1L).size());
+    Assertions.assertEquals(1, decryptions.get(2L).size());
+  }
+
+  private DecryptionUpload setUpUpload() {
+    setUp();
+    ReflectionTestUtils.setField(trustee, "trusteeId", 3L);
+    ReflectionTestUtils.setField(decryptionService, "maxChunkBallots", 10);
+    DecryptionUpload upload = new DecryptionUpload(1, 3, ElectionState.P_DECRYPTION, new Date());
+    ReflectionTestUtils.setField(upload, "decryptionUploadId", 5L);
+    when(trusteeService.getTrustee(trustee.getEmail(), 1)).thenReturn(trustee);
+    when(decryptionUploadRepository.findForUpdate(5L)).thenReturn(upload);
+    when(electionService.getState(1)).thenReturn(ElectionState.P_DECRYPTION);
+    return upload;
+  }
+
+  private DecryptionDTO setUpChunk() {
+    DecryptionDTO.PartialDecryptionDTO tally = decryptionDTO.partialDecryptedTalliedBallots()
+        .get(0);
+    DecryptionDTO.PartialDecryptionDTO spoiledBallot = new DecryptionDTO.PartialDecryptionDTO(
+        tally.partialDecryptedOptions(), tally.chaumPedersonProofs(), 7);
+    ElectionCiphertextSnapshot snapshot = new ElectionCiphertextSnapshot(
+        List.of(new Contest(1, "contest", 1, 0, List.of("A", "B"))), List.of(), List.of(7L),
+        List.of(), null);
+    when(verificationFacade.createCiphertextSnapshot(eq(1L), anyCollection()))
+        .thenReturn(snapshot);
+    return new DecryptionDTO(Map.of(0, new DecryptionDTO.PartialDecryptionDTO[]{spoiledBallot}),
+        decryptionDTO.partialDecryptedTalliedBallots());
+  }
+
+  @Test
+  void addDecryptionChunk_verifiesAndStagesChunk() {
+    setUpUpload();
+    DecryptionDTO chunk = setUpChunk();
+    ReflectionTestUtils.setField(tally0, "tallyId", 10L);
+    ReflectionTestUtils.setField(tally1, "tallyId", 11L);
+    ReflectionTestUtils.setField(tally2, "tallyId", 12L);
+    when(tallyService.getAllTalliesOfElection(1)).thenReturn(List.of(tally0, tally1, tally2));
+    List<OptionEncrypted> options = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      OptionEncrypted option = new OptionEncrypted(7, 1, i, 0, "1", "1", "", "");
+      ReflectionTestUtils.setField(option, "optionEncryptedId", 20L + i);
+      options.add(option);
+    }
+    when(ballotService.getAllOptionsEncryptedOfBallots(Set.of(7L))).thenReturn(options);
+    when(verificationFacade.verifyDecryptions(anyList(), any(), any())).thenReturn(true);
+
+    decryptionService.addDecryptionChunk(chunk, 1, 5, trustee.getEmail());
+
+    ArgumentCaptor<List<StagedDecryption>> staged = ArgumentCaptor.forClass(List.class);
+    verify(stagedDecryptionRepository).insertAll(staged.capture());
+    Assertions.assertEquals(List.of(10L, 11L, 12L, -1L, -1L, -1L),
+        staged.getValue().stream().map(StagedDecryption::getTallyId).toList());
+    Assertions.assertEquals(List.of(-1L, -1L, -1L, 20L, 21L, 22L),
+        staged.getValue().stream().map(StagedDecryption::getOptionEncryptedId).toList());
+    Assertions.assertEquals(List.of(-1L, -1L, -1L, 7L, 7L, 7L),
+        staged.getValue().stream().map(StagedDecryption::getBallotId).toList());
+  }
+
+  @Test
+  void addDecryptionChunk_skipsStagedBallots() {
+    setUpUpload();
+    DecryptionDTO chunk = setUpChunk();
+    when(ballotService.getAllOptionsEncryptedOfBallots(Set.of(7L))).thenReturn(List.of());
+    when(stagedDecryptionRepository.findStagedBallotIds(5, 0)).thenReturn(List.of(-1L, 7L));
+
+    decryptionService.addDecryptionChunk(chunk, 1, 5, trustee.getEmail());
+
+    verify(verificationFacade, never()).verifyDecryptions(anyList(), any(), any());
+    verify(stagedDecryptionRepository).insertAll(List.of());
+  }
+
+  @Test
+  void addDecryptionChunk_rejectsUnknownBallot() {
+    setUpUpload();
+    DecryptionDTO chunk = setUpChunk();
+    DecryptionDTO.PartialDecryptionDTO tally = chunk.partialDecryptedTalliedBallots().get(0);
+    DecryptionDTO unknownBallotChunk = new DecryptionDTO(Map.of(0,
+        new DecryptionDTO.PartialDecryptionDTO[]{new DecryptionDTO.PartialDecryptionDTO(
+            tally.partialDecryptedOptions(), tally.chaumPedersonProofs(), 8)}), Map.of());
 
+    Assertions.assertThrows(IllegalArgumentException.class, () -> decryptionService
+        .addDecryptionChunk(unknownBallotChunk, 1, 5, trustee.getEmail()));
+    verify(stagedDecryptionRepository, never()).insertAll(anyList());
+  }
+
+  @Test
+  void commitDecryptionUpload_requiresAllBallots() {
+    setUpUpload();
+    when(ballotService.getSpoiledBallotCount(1)).thenReturn(2L);
+    when(stagedDecryptionRepository.findStagedBallotIds(5, 0)).thenReturn(List.of(-1L, 7L));
+
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> decryptionService.commitDecryptionUpload(1, 5, trustee.getEmail()));
+    verify(stagedDecryptionRepository, never()).commitPartialDecryptions(anyLong(), anyLong());
+  }
+
+  @Test
+  void commitDecryptionUpload_movesStagedDecryptions() throws UnauthorizedAccessException {
+    DecryptionUpload upload = setUpUpload();
+    when(ballotService.getSpoiledBallotCount(1)).thenReturn(1L);
+    when(stagedDecryptionRepository.findStagedBallotIds(5, 0)).thenReturn(List.of(-1L, 7L));
+
+    decryptionService.commitDecryptionUpload(1, 5, trustee.getEmail());
+
+    verify(stagedDecryptionRepository).commitPartialDecryptions(5, 3);
+    verify(stagedDecryptionRepository).deleteByDecryptionUploadId(5);
+    verify(decryptionUploadRepository).delete(upload);
+    verify(electionService).tryUpdateState(1, ElectionState.DONE);
+    Assertions.assertTrue(trustee.isWaiting());
+  }
 }
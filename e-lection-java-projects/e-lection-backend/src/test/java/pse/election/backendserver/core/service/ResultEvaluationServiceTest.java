@@ -0,0 +1,200 @@
+package pse.election.backendserver.core.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import pse.election.backendserver.entity.ResultEvaluation;
+import pse.election.backendserver.repository.ResultEvaluationRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ResultEvaluationServiceTest {
+
+  private static final long ELECTION_ID = 1L;
+
+  @Mock
+  private ResultEvaluationRepository resultEvaluationRepository;
+  @InjectMocks
+  private ResultEvaluationService resultEvaluationService;
+
+  private final AtomicReference<ResultEvaluation> storedEvaluation = new AtomicReference<>();
+
+  private void stubRepository() {
+    when(resultEvaluationRepository.findByElectionId(ELECTION_ID))
+        .thenAnswer(invocation -> storedEvaluation.get());
+    when(resultEvaluationRepository.save(any(ResultEvaluation.class))).thenAnswer(invocation -> {
+      storedEvaluation.set(invocation.getArgument(0));
+      return invocation.getArgument(0);
+    });
+  }
+
+  private void awaitEvaluations() throws InterruptedException {
+    ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(
+        resultEvaluationService, "executor");
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void evaluationFinishesInBackground() throws InterruptedException {
+    stubRepository();
+
+    resultEvaluationService.submit(ELECTION_ID, () -> {
+      resultEvaluationService.addTotalSelections(ELECTION_ID, 4);
+      resultEvaluationService.addProcessedSelections(ELECTION_ID, 4);
+    });
+    awaitEvaluations();
+
+    Assertions.assertEquals(ResultEvaluation.Status.FINISHED, storedEvaluation.get().getStatus());
+    Assertions.assertEquals(4, storedEvaluation.get().getProcessedSelections());
+    Assertions.assertNotNull(storedEvaluation.get().getEndTime());
+    Assertions.assertTrue(resultEvaluationService.isResultAvailable(ELECTION_ID));
+    ResultEvaluationService.Progress progress = resultEvaluationService.getProgress(ELECTION_ID);
+    Assertions.assertEquals(100, progress.percentDone());
+    Assertions.assertEquals(4, progress.selectionsTotal());
+    Assertions.assertEquals(0L, progress.etaSeconds());
+  }
+
+  @Test
+  void failedEvaluationKeepsResultUnavailable() throws InterruptedException {
+    stubRepository();
+
+    resultEvaluationService.submit(ELECTION_ID, () -> {
+      throw new IllegalArgumentException();
+    });
+    awaitEvaluations();
+
+    Assertions.assertEquals(ResultEvaluation.Status.FAILED, storedEvaluation.get().getStatus());
+    Assertions.assertFalse(resultEvaluationService.isResultAvailable(ELECTION_ID));
+  }
+
+  @Test
+  void runningEvaluationReportsProgress() throws InterruptedException {
+    stubRepository();
+    CountDownLatch release = new CountDownLatch(1);
+
+    resultEvaluationService.submit(ELECTION_ID, () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    resultEvaluationService.addTotalSelections(ELECTION_ID, 10);
+    resultEvaluationService.addProcessedSelections(ELECTION_ID, 5);
+
+    ResultEvaluationService.Progress progress = resultEvaluationService.getProgress(ELECTION_ID);
+    Assertions.assertEquals(ResultEvaluation.Status.RUNNING, progress.status());
+    Assertions.assertEquals(50, progress.percentDone());
+    Assertions.assertEquals(5, progress.selectionsProcessed());
+    Assertions.assertNotNull(progress.etaSeconds());
+    Assertions.assertFalse(resultEvaluationService.isResultAvailable(ELECTION_ID));
+
+    release.countDown();
+    awaitEvaluations();
+    Assertions.assertTrue(resultEvaluationService.isResultAvailable(ELECTION_ID));
+  }
+
+  @Test
+  void renewedClaimStoresProgress() throws InterruptedException {
+    stubRepository();
+    String nodeId = (String) ReflectionTestUtils.getField(resultEvaluationService, "nodeId");
+    CountDownLatch release = new CountDownLatch(1);
+
+    resultEvaluationService.submit(ELECTION_ID, () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    resultEvaluationService.addTotalSelections(ELECTION_ID, 10);
+    resultEvaluationService.addProcessedSelections(ELECTION_ID, 5);
+    resultEvaluationService.renewClaims();
+
+    verify(resultEvaluationRepository).renewClaim(eq(ELECTION_ID), eq(nodeId), any(), eq(5L),
+        eq(10L));
+    release.countDown();
+    awaitEvaluations();
+  }
+
+  @Test
+  void evaluationRunningElsewhereReportsStoredProgress() {
+    ResultEvaluation evaluation = new ResultEvaluation(ELECTION_ID,
+        new Date(System.currentTimeMillis() - 10000));
+    evaluation.setStatus(ResultEvaluation.Status.RUNNING);
+    evaluation.claim("other instance", new Date());
+    evaluation.setTotalSelections(10);
+    evaluation.setProcessedSelections(5);
+    when(resultEvaluationRepository.findByElectionId(ELECTION_ID)).thenReturn(evaluation);
+
+    ResultEvaluationService.Progress progress = resultEvaluationService.getProgress(ELECTION_ID);
+    Assertions.assertEquals(50, progress.percentDone());
+    Assertions.assertEquals(10, progress.selectionsTotal());
+    Assertions.assertNotNull(progress.etaSeconds());
+  }
+
+  @Test
+  void failedEvaluationIsResumed() throws InterruptedException {
+    stubRepository();
+    String nodeId = (String) ReflectionTestUtils.getField(resultEvaluationService, "nodeId");
+    ResultEvaluation failedEvaluation = new ResultEvaluation(ELECTION_ID, new Date());
+    failedEvaluation.setStatus(ResultEvaluation.Status.FAILED);
+    failedEvaluation.claim(nodeId, new Date());
+    storedEvaluation.set(failedEvaluation);
+    when(resultEvaluationRepository.claim(eq(ELECTION_ID), eq(nodeId), any(), anyInt(), any()))
+        .thenReturn(1);
+
+    Assertions.assertTrue(resultEvaluationService.resume(ELECTION_ID, () -> { }));
+    awaitEvaluations();
+
+    Assertions.assertEquals(ResultEvaluation.Status.FINISHED, storedEvaluation.get().getStatus());
+    Assertions.assertTrue(resultEvaluationService.isResultAvailable(ELECTION_ID));
+  }
+
+  @Test
+  void evaluationClaimedElsewhereIsNotResumed() {
+    when(resultEvaluationRepository.claim(eq(ELECTION_ID), any(), any(), anyInt(), any()))
+        .thenReturn(0);
+    Runnable evaluation = () -> Assertions.fail();
+
+    Assertions.assertFalse(resultEvaluationService.resume(ELECTION_ID, evaluation));
+    verify(resultEvaluationRepository, never()).save(any());
+  }
+
+  @Test
+  void evaluationTakenOverKeepsStatusOfNewOwner() throws InterruptedException {
+    stubRepository();
+
+    resultEvaluationService.submit(ELECTION_ID, () -> storedEvaluation.get()
+        .claim("other instance", new Date()));
+    awaitEvaluations();
+
+    Assertions.assertEquals(ResultEvaluation.Status.RUNNING, storedEvaluation.get().getStatus());
+    Assertions.assertNull(storedEvaluation.get().getEndTime());
+  }
+
+  @Test
+  void electionWithoutEvaluationHasResult() {
+    when(resultEvaluationRepository.findByElectionId(ELECTION_ID)).thenReturn(null);
+
+    Assertions.assertTrue(resultEvaluationService.isResultAvailable(ELECTION_ID));
+    Assertions.assertNull(resultEvaluationService.getProgress(ELECTION_ID));
+  }
+}
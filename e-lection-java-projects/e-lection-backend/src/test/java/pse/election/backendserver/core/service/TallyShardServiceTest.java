@@ -0,0 +1,179 @@
+package pse.election.backendserver.core.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sunya.electionguard.ElGamal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import pse.election.backendserver.core.electionguard.CryptoPool;
+import pse.election.backendserver.entity.Ballot;
+import pse.election.backendserver.entity.Contest;
+import pse.election.backendserver.entity.OptionEncrypted;
+import pse.election.backendserver.entity.TallyShard;
+import pse.election.backendserver.entity.TallyShardProduct;
+import pse.election.backendserver.repository.BallotRepository;
+import pse.election.backendserver.repository.OptionEncryptedRepository;
+import pse.election.backendserver.repository.TallyShardRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class TallyShardServiceTest {
+
+  private static final long ELECTION_ID = 1L;
+
+  @Mock
+  private TallyShardRepository tallyShardRepository;
+  @Mock
+  private BallotRepository ballotRepository;
+  @Mock
+  private OptionEncryptedRepository optionEncryptedRepository;
+  @Mock
+  private ElectionService electionService;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @Spy
+  private CryptoPool cryptoPool = new CryptoPool();
+  @InjectMocks
+  private TallyShardService tallyShardService;
+
+  private List<Contest> contests;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(tallyShardService, "shardSize", 2);
+    ReflectionTestUtils.setField(tallyShardService, "shardLease", 1000L);
+    contests = List.of(new Contest(ELECTION_ID, "contest", 1, 0, List.of("option")));
+  }
+
+  @Test
+  void planShardsSplitsSubmittedBallotsIntoRanges() {
+    when(tallyShardRepository.findByElectionId(ELECTION_ID)).thenReturn(new ArrayList<>());
+    when(ballotRepository.countByElectionIdAndIsSubmitted(ELECTION_ID, true)).thenReturn(3L);
+    when(ballotRepository.findSubmittedBallotIds(ELECTION_ID)).thenReturn(List.of(1L, 2L, 3L));
+    when(tallyShardRepository.saveAll(anyList()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    List<TallyShard> shards = tallyShardService.planShards(ELECTION_ID);
+
+    Assertions.assertEquals(2, shards.size());
+    Assertions.assertEquals(1L, shards.get(0).getFirstBallotId());
+    Assertions.assertEquals(2L, shards.get(0).getLastBallotId());
+    Assertions.assertEquals(3L, shards.get(1).getFirstBallotId());
+    Assertions.assertEquals(3L, shards.get(1).getLastBallotId());
+  }
+
+  @Test
+  void planShardsSkipsSmallElections() {
+    when(tallyShardRepository.findByElectionId(ELECTION_ID)).thenReturn(new ArrayList<>());
+    when(ballotRepository.countByElectionIdAndIsSubmitted(ELECTION_ID, true)).thenReturn(2L);
+
+    Assertions.assertTrue(tallyShardService.planShards(ELECTION_ID).isEmpty());
+    verify(ballotRepository, never()).findSubmittedBallotIds(anyLong());
+  }
+
+  @Test
+  void awaitShardsFailsAfterTimeout() {
+    ReflectionTestUtils.setField(tallyShardService, "shardWaitTimeout", 0L);
+    when(tallyShardRepository.countByElectionIdAndIsDone(ELECTION_ID, false)).thenReturn(1L);
+    when(tallyShardRepository.findByElectionIdAndIsDoneAndOwnerIsNull(ELECTION_ID, false))
+        .thenReturn(new ArrayList<>());
+    when(tallyShardRepository.findByElectionIdAndIsDoneAndClaimedAtBefore(
+        anyLong(), anyBoolean(), any(Date.class))).thenReturn(new ArrayList<>());
+
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> tallyShardService.awaitShards(ELECTION_ID));
+  }
+
+  @Test
+  void processNextShardsMultipliesSubmittedOptionsOfRange() {
+    TallyShard shard = new TallyShard(ELECTION_ID, 1L, 3L);
+    List<Ballot> submittedBallots = List.of(mockBallot(1L), mockBallot(2L));
+    List<OptionEncrypted> options = List.of(
+        new OptionEncrypted(1L, ELECTION_ID, 0, 0, "2", "3", "", ""),
+        new OptionEncrypted(2L, ELECTION_ID, 0, 0, "5", "7", "", ""),
+        new OptionEncrypted(3L, ELECTION_ID, 0, 0, "b", "d", "", ""));
+    when(tallyShardRepository.findByElectionIdAndIsDoneAndOwnerIsNull(ELECTION_ID, false))
+        .thenReturn(List.of(shard));
+    when(tallyShardRepository.findByElectionIdAndIsDoneAndClaimedAtBefore(
+        anyLong(), anyBoolean(), any(Date.class))).thenReturn(new ArrayList<>());
+    when(tallyShardRepository.saveAndFlush(any(TallyShard.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(electionService.getAllContestsOfElection(ELECTION_ID)).thenReturn(contests);
+    when(ballotRepository.findByElectionIdAndIsSubmittedAndBallotIdBetween(ELECTION_ID, true, 1L,
+        3L)).thenReturn(submittedBallots);
+    when(optionEncryptedRepository.findByElectionIdAndBallotIdBetween(ELECTION_ID, 1L, 3L))
+        .thenReturn(options);
+
+    Assertions.assertTrue(tallyShardService.processNextShards(ELECTION_ID));
+
+    ArgumentCaptor<TallyShard> captor = ArgumentCaptor.forClass(TallyShard.class);
+    verify(tallyShardRepository, times(2)).saveAndFlush(captor.capture());
+    TallyShard finished = captor.getValue();
+    Assertions.assertTrue(finished.isDone());
+    Assertions.assertNotNull(finished.getOwner());
+    List<TallyShardProduct> products = finished.getPartialProducts();
+    Assertions.assertEquals(2, products.size());
+    Assertions.assertEquals(BigInteger.valueOf(10), products.get(0).getCiphertextPAD());
+    Assertions.assertEquals(BigInteger.valueOf(21), products.get(0).getCiphertextDATA());
+    Assertions.assertEquals(1, products.get(1).getOptionIndex());
+    Assertions.assertEquals(BigInteger.ONE, products.get(1).getCiphertextPAD());
+  }
+
+  @Test
+  void combineShardsMultipliesPartialProducts() {
+    TallyShard first = new TallyShard(ELECTION_ID, 1L, 2L);
+    first.finish(List.of(product(0, 2, 3), product(1, 1, 1)));
+    TallyShard second = new TallyShard(ELECTION_ID, 3L, 4L);
+    second.finish(List.of(product(0, 5, 7), product(1, 2, 1)));
+    when(tallyShardRepository.findByElectionId(ELECTION_ID)).thenReturn(List.of(first, second));
+
+    Map<Integer, ElGamal.Ciphertext[]> combined = tallyShardService.combineShards(ELECTION_ID,
+        contests);
+
+    Assertions.assertEquals(BigInteger.valueOf(10), combined.get(0)[0].pad().getBigInt());
+    Assertions.assertEquals(BigInteger.valueOf(21), combined.get(0)[0].data().getBigInt());
+    Assertions.assertEquals(BigInteger.valueOf(2), combined.get(0)[1].pad().getBigInt());
+    Assertions.assertEquals(BigInteger.ONE, combined.get(0)[1].data().getBigInt());
+  }
+
+  @Test
+  void combineShardsRejectsUnfinishedShards() {
+    when(tallyShardRepository.findByElectionId(ELECTION_ID))
+        .thenReturn(List.of(new TallyShard(ELECTION_ID, 1L, 2L)));
+
+    Assertions.assertThrows(IllegalStateException.class,
+        () -> tallyShardService.combineShards(ELECTION_ID, contests));
+  }
+
+  private static TallyShardProduct product(int optionIndex, long pad, long data) {
+    return new TallyShardProduct(0, optionIndex, BigInteger.valueOf(pad),
+        BigInteger.valueOf(data));
+  }
+
+  private Ballot mockBallot(long ballotId) {
+    Ballot ballot = mock(Ballot.class);
+    when(ballot.getBallotId()).thenReturn(ballotId);
+    return ballot;
+  }
+}
@@ -3,6 +3,7 @@ package pse.election.backendserver.core.service;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigInteger;
@@ -16,18 +17,22 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import pse.election.backendserver.core.electionguard.VerificationFacade;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
+import pse.election.backendserver.entity.KeyBackup;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummaries;
 import pse.election.backendserver.payload.dto.ElgamalProofDTO;
 import pse.election.backendserver.payload.dto.SchnorrProofDTO;
 import pse.election.backendserver.payload.error.exception.IllegalStateOperationException;
 import pse.election.backendserver.payload.error.exception.InvalidConfigurationException;
 import pse.election.backendserver.repository.BotTrusteeRepository;
+import pse.election.backendserver.repository.KeyBackupRepository;
 import pse.election.backendserver.repository.TrusteeRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +45,8 @@ public class TrusteeServiceTest {
   private VerificationFacade verificationFacade;
   @Mock
   private BotTrusteeRepository botTrusteeRepository;
+  @Mock
+  private KeyBackupRepository keyBackupRepository;
 
   @Mock
   private ElectionService electionService;
@@ -116,14 +123,13 @@ public class TrusteeServiceTest {
     ElgamalProofDTO elgamalProofDTO = new ElgamalProofDTO(schnorrProofs, backups);
 
     when(electionService.getElection(1)).thenReturn(election);
-    when(trusteeRepository.findByElectionId(1)).thenReturn(
-        List.of(trusteeOne, trusteeTwo, trusteeThree));
+    when(trusteeRepository.findSummariesByElectionId(1)).thenReturn(
+        List.of(TrusteeSummaries.of(trusteeOne), TrusteeSummaries.of(trusteeTwo),
+            TrusteeSummaries.of(trusteeThree)));
     when(trusteeRepository.existsByEmailAndElectionId(trusteeOne.getEmail(), 1)).thenReturn(true);
     when(verificationFacade.verifyKeyCeremony(any())).thenReturn(true);
     when(trusteeRepository.findByEmailAndElectionId(trusteeOne.getEmail(), 1)).thenReturn(
         trusteeOne);
-    when(trusteeRepository.findByTrusteeIndexAndElectionId(2, 1)).thenReturn(trusteeTwo);
-    when(trusteeRepository.findByTrusteeIndexAndElectionId(3, 1)).thenReturn(trusteeThree);
     doAnswer(invocation -> {
       ElectionState state = invocation.getArgument(1);
       election.setState(state);
@@ -134,8 +140,14 @@ public class TrusteeServiceTest {
         1);
 
     Assertions.assertEquals(List.of("0;1;2;3;4"), result.getPublicElgamalKeyAndProof());
-    Assertions.assertEquals(List.of("1;backupFor2"), trusteeTwo.getBackups());
-    Assertions.assertEquals(List.of("1;backupFor3"), trusteeThree.getBackups());
+    ArgumentCaptor<List<KeyBackup>> keyBackups = ArgumentCaptor.forClass(List.class);
+    verify(keyBackupRepository).insertAll(keyBackups.capture());
+    Assertions.assertEquals(2, keyBackups.getValue().size());
+    for (KeyBackup keyBackup : keyBackups.getValue()) {
+      Assertions.assertEquals(1, keyBackup.getElectionId());
+      Assertions.assertEquals(1, keyBackup.getFromIndex());
+      Assertions.assertEquals("backupFor" + keyBackup.getToIndex(), keyBackup.getPayload());
+    }
     Assertions.assertSame(ElectionState.KEYCEREMONY_FINISHED, election.getState());
   }
 
@@ -143,12 +155,12 @@ public class TrusteeServiceTest {
   void checkGetBackups_correctState() {
     election.setState(ElectionState.KEYCEREMONY_FINISHED);
     Trustee trusteeOne = new Trustee(election.getElectionId(), "trustee1@example.com", 1);
-    trusteeOne.addBackup("2;backupOf2");
-    trusteeOne.addBackup("3;backupOf3");
 
     when(trusteeRepository.findByEmailAndElectionId(trusteeOne.getEmail(),
         trusteeOne.getElectionId())).thenReturn(trusteeOne);
-    when(trusteeRepository.findByTrusteeIndexAndElectionId(anyInt(), anyLong())).thenReturn(new Trustee());
+    when(keyBackupRepository.findByElectionIdAndToIndex(election.getElectionId(), 1)).thenReturn(
+        List.of(new KeyBackup(election.getElectionId(), 2, 1, "backupOf2"),
+            new KeyBackup(election.getElectionId(), 3, 1, "backupOf3")));
     Map<Integer, String> result = trusteeService.getBackups(trusteeOne.getEmail(),
         election.getElectionId(), false);
 
@@ -156,6 +168,27 @@ public class TrusteeServiceTest {
     Assertions.assertTrue(result.containsKey(3) && result.containsValue("backupOf3"));
   }
 
+  @Test
+  void checkGetBackups_missingOnly() {
+    Trustee trusteeOne = new Trustee(1, "trustee1@example.com", 1);
+    Trustee trusteeTwo = new Trustee(1, "trustee2@example.com", 2);
+    Trustee trusteeThree = new Trustee(1, "trustee3@example.com", 3);
+    trusteeOne.setAvailable();
+    trusteeTwo.setAvailable();
+
+    when(trusteeRepository.findByEmailAndElectionId(trusteeOne.getEmail(), 1)).thenReturn(
+        trusteeOne);
+    when(trusteeRepository.findSummariesByElectionId(1)).thenReturn(
+        List.of(TrusteeSummaries.of(trusteeOne), TrusteeSummaries.of(trusteeTwo),
+            TrusteeSummaries.of(trusteeThree)));
+    when(keyBackupRepository.findByElectionIdAndToIndex(1, 1)).thenReturn(
+        List.of(new KeyBackup(1, 2, 1, "backupOf2"), new KeyBackup(1, 3, 1, "backupOf3")));
+
+    Map<Integer, String> result = trusteeService.getBackups(trusteeOne.getEmail(), 1, true);
+
+    Assertions.assertEquals(Map.of(3, "backupOf3"), result);
+  }
+
   @Test
   @Disabled
     // TODO State muss geprüft werden, also es dürfen keine Backups vor KEYCEREMONY_FINISHED angefragt werden -> FIXME im TrusteeService
@@ -182,9 +215,6 @@ public class TrusteeServiceTest {
     trustees.add(trusteeTwo);
     trustees.add(trusteeThree);
 
-    trusteeOne.addBackup("2;backupOf2");
-    trusteeOne.addBackup("3;backupOf3");
-
     List<String> keys = new ArrayList<>();
     keys.add("0;123123;commitment;challenge;response");
     trusteeTwo.addPublicElgamalKeyAndProof(keys);
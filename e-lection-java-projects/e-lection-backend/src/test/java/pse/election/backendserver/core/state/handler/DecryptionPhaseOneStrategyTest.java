@@ -3,6 +3,7 @@ package pse.election.backendserver.core.state.handler;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -10,8 +11,10 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,7 +28,9 @@ import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.PartialDecryption;
+import pse.election.backendserver.entity.Tally;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummaries;
 import pse.election.backendserver.payload.error.exception.EntityNotFoundException;
 import pse.election.backendserver.payload.error.exception.IllegalStateSwitchOperation;
 import pse.election.backendserver.repository.TrusteeRepository;
@@ -75,7 +80,8 @@ class DecryptionPhaseOneStrategyTest {
 
     when(mockDecryptionService.getAllPartialDecryptionByTrustee(0L)).thenReturn(partialDecryptions);
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(new Trustee(0L, "email", 0)));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(new Trustee(0L, "email", 0))));
 
     final ElectionState result = decryptionPhaseOneStrategyUnderTest.switchState(election,
         ElectionState.PP_DECRYPTION);
@@ -91,7 +97,8 @@ class DecryptionPhaseOneStrategyTest {
     when(mockDecryptionService.getAllPartialDecryptionByTrustee(0L)).thenReturn(partialDecryptions);
     Trustee trustee = new Trustee(0L, "email", 0);
     trustee.setAvailable();
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(trustee));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(trustee)));
 
     final ElectionState result = decryptionPhaseOneStrategyUnderTest.switchState(election,
         ElectionState.DONE);
@@ -114,7 +121,8 @@ class DecryptionPhaseOneStrategyTest {
         mockDecryptionService.getAllPartialDecryptionByTrustee(trustee2.getTrusteeId())).thenReturn(
         Collections.emptyList());
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(trustee1, trustee2));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(trustee1), TrusteeSummaries.of(trustee2)));
 
     final ElectionState result = decryptionPhaseOneStrategyUnderTest.switchState(election,
         ElectionState.DONE);
@@ -124,7 +132,7 @@ class DecryptionPhaseOneStrategyTest {
 
   @Test
   void testSwitchState_TrusteeServiceReturnsNoItems() {
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(Collections.emptyList());
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(Collections.emptyList());
 
     final List<PartialDecryption> partialDecryptions = List.of(
         new PartialDecryption(0L, 0L, 0L, "decryption", "proof"));
@@ -137,7 +145,7 @@ class DecryptionPhaseOneStrategyTest {
   @Test
   void testSwitchState_TrusteeServiceThrowsEntityNotFoundException() {
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenThrow(EntityNotFoundException.class);
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenThrow(EntityNotFoundException.class);
 
     assertThatThrownBy(() -> decryptionPhaseOneStrategyUnderTest.switchState(election,
         ElectionState.PP_DECRYPTION)).isInstanceOf(EntityNotFoundException.class);
@@ -149,7 +157,8 @@ class DecryptionPhaseOneStrategyTest {
     Election election = new Election(Date.from(Instant.parse("2020-01-01T00:00:00Z")),
         "title", "description", "authorityEmail", false, 2);
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(new Trustee(0L, "email", 0)));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(new Trustee(0L, "email", 0))));
     when(mockDecryptionService.getAllPartialDecryptionByTrustee(0L)).thenReturn(
         Collections.emptyList());
 
@@ -168,8 +177,11 @@ class DecryptionPhaseOneStrategyTest {
     decryptionPhaseOneStrategyUnderTest.initialiseState(election);
 
     verify(mockDecryptionFacade).computeLagrangeCoefficients(any(Election.class));
-    verify(mockDecryptionFacade).combineOptionsEncryptedToTallies(any(Election.class));
-    verify(mockBotFacade).partialDecryption(any(Election.class));
+    ArgumentCaptor<Consumer<Consumer<Tally>>> tallying = ArgumentCaptor.forClass(Consumer.class);
+    verify(mockBotFacade).partialDecryption(eq(election), tallying.capture());
+    Consumer<Tally> tallyConsumer = tally -> { };
+    tallying.getValue().accept(tallyConsumer);
+    verify(mockDecryptionFacade).combineOptionsEncryptedToTallies(election, tallyConsumer);
   }
 
   @Test
@@ -14,13 +14,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import pse.election.backendserver.core.bot.BotFacade;
+import pse.election.backendserver.core.electionguard.DecryptionFacade;
 import pse.election.backendserver.core.service.DecryptionService;
 import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.state.ElectionState;
+import pse.election.backendserver.entity.BotTrustee;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.PartialDecryption;
 import pse.election.backendserver.entity.PartialPartialDecryption;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummaries;
+import pse.election.backendserver.entity.TrusteeSummary;
 import pse.election.backendserver.payload.error.exception.IllegalStateSwitchOperation;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +36,9 @@ public class DecryptionPhaseTwoStrategyTest {
   @Mock
   private DecryptionService decryptionService;
 
+  @Mock
+  private DecryptionFacade decryptionFacade;
+
   @Mock
   private BotFacade botFacade;
 
@@ -57,7 +64,7 @@ public class DecryptionPhaseTwoStrategyTest {
     );
 
     decryptionPhaseTwoStrategy = new DecryptionPhaseTwoStrategy(trusteeService, decryptionService,
-        botFacade);
+        decryptionFacade, botFacade);
     trustee1 = new Trustee(election.getElectionId(), "trustee1@example.com", 1);
     trustee2 = new Trustee(election.getElectionId(), "trustee2@example.com", 2);
     trustees = List.of(trustee1, trustee2);
@@ -69,7 +76,8 @@ public class DecryptionPhaseTwoStrategyTest {
   void checkSwitchState_invalidNextStateAndNonExistentTrustees() {
     election.setState(ElectionState.OPEN);
 
-    when(trusteeService.getAllTrustees(election.getElectionId())).thenReturn(new ArrayList<>());
+    when(trusteeService.getTrusteeSummaries(election.getElectionId())).thenReturn(
+        new ArrayList<>());
 
     Assertions.assertThrows(IllegalStateSwitchOperation.class,
         () -> decryptionPhaseTwoStrategy.switchState(election, ElectionState.DONE));
@@ -85,8 +93,9 @@ public class DecryptionPhaseTwoStrategyTest {
     PartialDecryption pDecryption = new PartialDecryption(5, 1, -1, "decryption", "proof");
     List<PartialDecryption> pDecryptionList = List.of(pDecryption);
 
-    when(trusteeService.getAllTrustees(election.getElectionId())).thenReturn(trustees);
     trustee1.setAvailable();
+    when(trusteeService.getTrusteeSummaries(election.getElectionId())).thenReturn(
+        trustees.stream().map(TrusteeSummary::new).toList());
     when(decryptionService.getAllPartialPartialDecryptionOfTrustee(
         trustee1.getTrusteeId())).thenReturn(new ArrayList<>());
 
@@ -103,8 +112,9 @@ public class DecryptionPhaseTwoStrategyTest {
         "proof");
     List<PartialPartialDecryption> ppDecryptionList = List.of(ppDecryption);
 
-    when(trusteeService.getAllTrustees(election.getElectionId())).thenReturn(trustees);
     trustee1.setAvailable();
+    when(trusteeService.getTrusteeSummaries(election.getElectionId())).thenReturn(
+        trustees.stream().map(TrusteeSummary::new).toList());
     when(decryptionService.getAllPartialPartialDecryptionOfTrustee(
         trustee1.getTrusteeId())).thenReturn(ppDecryptionList);
 
@@ -113,4 +123,31 @@ public class DecryptionPhaseTwoStrategyTest {
     Assertions.assertEquals(ElectionState.DONE, newState);
   }
 
+  @Test
+  void checkSwitchState_botHasNotDecryptedTallies() {
+    Election electionWithBot = new Election(
+        Date.from(Instant.parse("2020-01-01T00:00:00Z")),
+        "title",
+        "description",
+        "authorityEmail",
+        true,
+        1
+    );
+    electionWithBot.setState(ElectionState.PP_DECRYPTION);
+    Trustee bot = new Trustee(electionWithBot.getElectionId(), "bot@bot.de", 3);
+    bot.setAvailable();
+
+    when(trusteeService.getTrusteeSummaries(electionWithBot.getElectionId())).thenReturn(
+        List.of(TrusteeSummaries.of(bot)));
+    when(trusteeService.getBotTrustee(electionWithBot.getElectionId())).thenReturn(
+        new BotTrustee(electionWithBot.getElectionId(), null, bot.getTrusteeId(), null));
+    when(decryptionService.hasPartialPartialDecryptionOfTallies(bot.getTrusteeId()))
+        .thenReturn(false);
+
+    ElectionState newState = decryptionPhaseTwoStrategy.switchState(electionWithBot,
+        ElectionState.DONE);
+
+    Assertions.assertEquals(ElectionState.PP_DECRYPTION, newState);
+  }
+
 }
@@ -22,6 +22,7 @@ import pse.election.backendserver.core.service.TrusteeService;
 import pse.election.backendserver.core.state.ElectionState;
 import pse.election.backendserver.entity.Election;
 import pse.election.backendserver.entity.Trustee;
+import pse.election.backendserver.entity.TrusteeSummaries;
 import pse.election.backendserver.payload.error.exception.EntityNotFoundException;
 import pse.election.backendserver.payload.error.exception.IllegalStateSwitchOperation;
 
@@ -56,7 +57,8 @@ class KeyCeremonyPhaseTwoStrategyTest {
   @Test
   void testSwitchState_OnlyTrusteeWithNoKey() {
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(new Trustee(0L, "email", 1)));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(new Trustee(0L, "email", 1))));
 
     final ElectionState result = keyCeremonyPhaseTwoStrategyUnderTest.switchState(election,
         ElectionState.KEYCEREMONY_FINISHED);
@@ -72,7 +74,8 @@ class KeyCeremonyPhaseTwoStrategyTest {
 
     trustee1.addPublicElgamalKeyAndProof(List.of("KEYS_AND_BACKUPS"));
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(trustee1, trustee2));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(trustee1), TrusteeSummaries.of(trustee2)));
 
     ElectionState result = keyCeremonyPhaseTwoStrategyUnderTest.switchState(election,
         ElectionState.KEYCEREMONY_FINISHED);
@@ -90,7 +93,8 @@ class KeyCeremonyPhaseTwoStrategyTest {
     trustee1.setWaiting(true);
     trustee2.setWaiting(true);
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(List.of(trustee1, trustee2));
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(
+        List.of(TrusteeSummaries.of(trustee1), TrusteeSummaries.of(trustee2)));
 
     ElectionState result = keyCeremonyPhaseTwoStrategyUnderTest.switchState(election,
         ElectionState.KEYCEREMONY_FINISHED);
@@ -100,7 +104,7 @@ class KeyCeremonyPhaseTwoStrategyTest {
 
   @Test
   void testSwitchState_TrusteeServiceReturnsNoItems() {
-    when(mockTrusteeService.getAllTrustees(0L)).thenReturn(Collections.emptyList());
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenReturn(Collections.emptyList());
 
     assertThatThrownBy(() -> keyCeremonyPhaseTwoStrategyUnderTest.switchState(election,
         ElectionState.KEYCEREMONY_FINISHED))
@@ -110,7 +114,7 @@ class KeyCeremonyPhaseTwoStrategyTest {
   @Test
   void testSwitchState_TrusteeServiceThrowsEntityNotFoundException() {
 
-    when(mockTrusteeService.getAllTrustees(0L)).thenThrow(EntityNotFoundException.class);
+    when(mockTrusteeService.getTrusteeSummaries(0L)).thenThrow(EntityNotFoundException.class);
 
     assertThatThrownBy(() -> keyCeremonyPhaseTwoStrategyUnderTest.switchState(election,
         ElectionState.KEYCEREMONY_FINISHED))
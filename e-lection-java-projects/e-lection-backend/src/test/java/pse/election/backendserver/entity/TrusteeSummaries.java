@@ -0,0 +1,22 @@
+package pse.election.backendserver.entity;
+
+/**
+ * Builds {@link TrusteeSummary} read models of trustees for tests that mock the repository
+ * queries returning them.
+ */
+public final class TrusteeSummaries {
+
+  private TrusteeSummaries() {
+  }
+
+  /**
+   * Summarizes a trustee like the repository query does.
+   *
+   * @param trustee the trustee
+   * @return summary of the trustee
+   */
+  public static TrusteeSummary of(Trustee trustee) {
+    return new TrusteeSummary(trustee.getTrusteeId(), trustee.getIndex(), trustee.getEmail(),
+        trustee.isWaiting(), trustee.isAvailable());
+  }
+}
@@ -0,0 +1,165 @@
+package pse.election.backendserver.payload.response;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sunya.electionguard.ElectionCryptoContext;
+import com.sunya.electionguard.Group;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pse.election.backendserver.core.service.BallotService;
+import pse.election.backendserver.core.service.ElectionService;
+import pse.election.backendserver.core.service.TallyService;
+import pse.election.backendserver.core.state.ElectionState;
+import pse.election.backendserver.entity.Ballot;
+import pse.election.backendserver.entity.OptionEncrypted;
+import pse.election.backendserver.payload.response.record.ElectionGuardInitializedWrapper;
+
+@ExtendWith(MockitoExtension.class)
+public class ResponseBuilderTest {
+
+  private static final long ELECTION_ID = 1L;
+  private static final String TRUSTEE_EMAIL = "trustee@kit.edu";
+
+  @Mock
+  private ElectionService electionService;
+  @Mock
+  private BallotService ballotService;
+  @Mock
+  private TallyService tallyService;
+  @Mock
+  private ElectionGuardInitializedWrapper electionGuardInitializedWrapper;
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+  @InjectMocks
+  private ResponseBuilder responseBuilder;
+
+  private final ElectionCryptoContext cryptoContext = new ElectionCryptoContext(0, 0,
+      Group.int_to_p_unchecked(BigInteger.TWO), Group.int_to_q_unchecked(BigInteger.ONE),
+      Group.int_to_q_unchecked(BigInteger.ONE), Group.int_to_q_unchecked(BigInteger.TEN),
+      null, Map.of());
+
+  private void stubHeader() {
+    when(electionService.getState(ELECTION_ID)).thenReturn(ElectionState.DONE);
+    when(tallyService.getAllTalliesOfElection(ELECTION_ID)).thenReturn(List.of());
+    when(electionGuardInitializedWrapper.generateCryptoContext(ELECTION_ID))
+        .thenReturn(cryptoContext);
+  }
+
+  private void stubOptions() {
+    when(ballotService.getAllOptionsEncryptedOfBallots(anyCollection())).thenAnswer(invocation -> {
+      List<OptionEncrypted> options = new ArrayList<>();
+      for (long ballotId : invocation.<Collection<Long>>getArgument(0)) {
+        options.add(new OptionEncrypted(ballotId, ELECTION_ID, 0, 0,
+            Long.toHexString(ballotId), "1", "proof", "proof"));
+      }
+      return options;
+    });
+  }
+
+  private static List<Ballot> spoiledBallots(long firstBallotId, long lastBallotId) {
+    List<Ballot> ballots = new ArrayList<>();
+    for (long ballotId = firstBallotId; ballotId <= lastBallotId; ballotId++) {
+      Ballot ballot = new Ballot(ELECTION_ID, "ballot" + ballotId, "device", new Date(), false);
+      ReflectionTestUtils.setField(ballot, "ballotId", ballotId);
+      ballots.add(ballot);
+    }
+    return ballots;
+  }
+
+  private List<JsonNode> readLines(StreamingResponseBody body) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    body.writeTo(outputStream);
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) {
+      lines.add(objectMapper.readTree(line));
+    }
+    return lines;
+  }
+
+  @Test
+  void firstPageContinuesAcrossBatches() throws IOException {
+    stubHeader();
+    stubOptions();
+    when(ballotService.getSpoiledBallotsOfElectionAfter(ELECTION_ID, 0, 100))
+        .thenReturn(spoiledBallots(1, 100));
+    when(ballotService.getSpoiledBallotsOfElectionAfter(ELECTION_ID, 100, 50))
+        .thenReturn(spoiledBallots(101, 150));
+    when(ballotService.hasSpoiledBallotsOfElectionAfter(ELECTION_ID, 150)).thenReturn(true);
+
+    List<JsonNode> lines = readLines(
+        responseBuilder.buildElectionEncryptedResultStream(ELECTION_ID, TRUSTEE_EMAIL, null, 150));
+
+    Assertions.assertEquals(152, lines.size());
+    Assertions.assertEquals(cryptoContext.cryptoExtendedBaseHash.base16(),
+        lines.get(0).get("baseHash").asText());
+    Assertions.assertTrue(lines.get(0).get("encryptedSpoiledBallotQuestions").isEmpty());
+    for (int ballotId = 1; ballotId <= 150; ballotId++) {
+      JsonNode ballot = lines.get(ballotId);
+      Assertions.assertEquals(ballotId, ballot.get("ballotId").asLong());
+      Assertions.assertEquals(Long.toHexString(ballotId),
+          ballot.get("encryptedOptions").get("0").get(0).get("pad").asText());
+    }
+    Assertions.assertEquals(150, lines.get(151).get("nextCursor").asLong());
+  }
+
+  @Test
+  void followingPageStartsAfterCursor() throws IOException {
+    stubOptions();
+    when(ballotService.getSpoiledBallotsOfElectionAfter(ELECTION_ID, 150, 100))
+        .thenReturn(spoiledBallots(151, 160));
+    when(ballotService.hasSpoiledBallotsOfElectionAfter(ELECTION_ID, 160)).thenReturn(false);
+
+    List<JsonNode> lines = readLines(
+        responseBuilder.buildElectionEncryptedResultStream(ELECTION_ID, TRUSTEE_EMAIL, 150L, null));
+
+    Assertions.assertEquals(11, lines.size());
+    Assertions.assertEquals(151, lines.get(0).get("ballotId").asLong());
+    Assertions.assertEquals(160, lines.get(9).get("ballotId").asLong());
+    Assertions.assertTrue(lines.get(10).get("nextCursor").isNull());
+    verify(electionService, never()).getState(ELECTION_ID);
+  }
+
+  @Test
+  void emptyResultHoldsHeaderAndCursor() throws IOException {
+    stubHeader();
+    when(ballotService.getSpoiledBallotsOfElectionAfter(ELECTION_ID, 0, 100))
+        .thenReturn(List.of());
+    when(ballotService.hasSpoiledBallotsOfElectionAfter(ELECTION_ID, 0)).thenReturn(false);
+
+    List<JsonNode> lines = readLines(
+        responseBuilder.buildElectionEncryptedResultStream(ELECTION_ID, TRUSTEE_EMAIL, null, null));
+
+    Assertions.assertEquals(2, lines.size());
+    Assertions.assertTrue(lines.get(0).get("encryptedSpoiledBallotQuestions").isEmpty());
+    Assertions.assertTrue(lines.get(1).get("nextCursor").isNull());
+    verify(ballotService, never()).getAllOptionsEncryptedOfBallots(anyCollection());
+  }
+
+  @Test
+  void nonPositiveLimitIsRejected() {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> responseBuilder.buildElectionEncryptedResultStream(ELECTION_ID, TRUSTEE_EMAIL, 0L,
+            0));
+  }
+}
@@ -61,11 +61,16 @@ public class BackupHandler extends CommandHandler {
     @Override
     public JsonObject[] execute() {
         this.results = new HashMap<>();
+        Map<Integer, Group.ElementModQ> points = new HashMap<>();
         for (int trusteeId : publicKeys.keySet()) {
             String pointString;
             pointString = RSA.decode(key, backups.get(trusteeId), func);
-            Group.ElementModQ point = Group.hex_to_q_unchecked(pointString);
-            results.put(trusteeId, AdditionalVerifiers.verifyEPKB(publicKeys.get(trusteeId), point, id));
+            points.put(trusteeId, Group.hex_to_q_unchecked(pointString));
+        }
+        boolean allValid = AdditionalVerifiers.verifyEPKBs(publicKeys, points, id);
+        for (int trusteeId : publicKeys.keySet()) {
+            results.put(trusteeId, allValid
+                    || AdditionalVerifiers.verifyEPKB(publicKeys.get(trusteeId), points.get(trusteeId), id));
         }
         return new JsonObject[0];
     }
@@ -1,18 +1,26 @@
 package electioncli.utils;
 
+import com.sunya.electionguard.ElectionConstants;
 import com.sunya.electionguard.Group;
 
 import java.math.BigInteger;
-import java.util.ArrayList;
+import java.security.SecureRandom;
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * This class includes additional verifiers for the application.
  * */
 public class AdditionalVerifiers {
+    private static final BigInteger P = ElectionConstants.STANDARD_CONSTANTS.large_prime;
+    private static final BigInteger Q = ElectionConstants.STANDARD_CONSTANTS.small_prime;
+    private static final int RANDOM_EXPONENT_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     /**
     * Checks if a provieded ElectionPartialKeyBackup is valid.
+    * The product of K_j^(id^j) is evaluated after Horner, so only small exponents are used.
      *
     * @param publicKeys public commitments to the coefficients
     * @param backup provieded backup key
@@ -20,17 +28,50 @@ public class AdditionalVerifiers {
     * */
     @SuppressWarnings("checkstyle:Indentation")
     public static boolean verifyEPKB(List<Group.ElementModP> publicKeys, Group.ElementModQ backup, int id) {
-        List<Group.ElementModP> mults = new ArrayList<>();
-        Group.ElementModP idMod = Group.int_to_p_unchecked(BigInteger.valueOf(id));
-        for (int j = 0; j < publicKeys.size(); j++) {
-            Group.ElementModP jmod = Group.int_to_p_unchecked(BigInteger.valueOf(j));
-            Group.ElementModP exponent = Group.pow_p(idMod, jmod);
-            Group.ElementModP publicKey = publicKeys.get(j);
-            mults.add(Group.pow_p(publicKey, exponent));
+        BigInteger rightPart = evaluate(publicKeys, BigInteger.valueOf(id).mod(Q));
+        return Group.g_pow_p(backup).getBigInt().equals(rightPart);
+    }
+
+    /**
+     * Checks all ElectionPartialKeyBackups provided to a trustee at once.
+     * Every equation is raised to a random 128 bit exponent and all of them are multiplied,
+     * so the generator is only exponentiated once. If the check fails, the backups have to be
+     * checked one by one to find the invalid ones.
+     *
+     * @param publicKeys public commitments to the coefficients, mapped to the sending trustee
+     * @param backups provided backup keys, mapped to the sending trustee
+     * @param id id of the current trustee
+     * @return true if all backups are valid
+     */
+    public static boolean verifyEPKBs(Map<Integer, List<Group.ElementModP>> publicKeys,
+                                      Map<Integer, Group.ElementModQ> backups, int id) {
+        BigInteger reducedId = BigInteger.valueOf(id).mod(Q);
+        BigInteger backupSum = BigInteger.ZERO;
+        BigInteger rightPart = BigInteger.ONE;
+        for (int trusteeId : publicKeys.keySet()) {
+            BigInteger random = randomExponent();
+            BigInteger evaluated = evaluate(publicKeys.get(trusteeId), reducedId);
+            rightPart = rightPart.multiply(evaluated.modPow(random, P)).mod(P);
+            backupSum = backupSum.add(random.multiply(backups.get(trusteeId).getBigInt()));
         }
-        Group.ElementModP rightPart = Group.mult_p(mults);
-        Group.ElementModP leftPart = Group.g_pow_p(backup);
-        return rightPart.equals(leftPart);
+        Group.ElementModP leftPart = Group.g_pow_p(Group.int_to_q_unchecked(backupSum.mod(Q)));
+        return leftPart.getBigInt().equals(rightPart);
+    }
+
+    private static BigInteger evaluate(List<Group.ElementModP> publicKeys, BigInteger id) {
+        BigInteger result = BigInteger.ONE;
+        for (int j = publicKeys.size() - 1; j >= 0; j--) {
+            result = result.modPow(id, P).multiply(publicKeys.get(j).getBigInt()).mod(P);
+        }
+        return result;
+    }
+
+    private static BigInteger randomExponent() {
+        BigInteger random;
+        do {
+            random = new BigInteger(RANDOM_EXPONENT_BITS, RANDOM);
+        } while (random.signum() == 0);
+        return random;
     }
 
 }